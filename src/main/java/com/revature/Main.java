@@ -3,13 +3,16 @@ package com.revature;
 import com.revature.controller.AuthenticationController;
 import com.revature.controller.IngredientController;
 import com.revature.controller.RecipeController;
+import com.revature.controller.SuggestionController;
 import com.revature.dao.ChefDAO;
 import com.revature.dao.IngredientDAO;
 import com.revature.dao.RecipeDAO;
+import com.revature.dao.SuggestionDAO;
 import com.revature.service.AuthenticationService;
 import com.revature.service.ChefService;
 import com.revature.service.IngredientService;
 import com.revature.service.RecipeService;
+import com.revature.service.SuggestionService;
 import com.revature.util.AdminMiddleware;
 import com.revature.util.ConnectionUtil;
 import com.revature.util.JavalinAppUtil;
@@ -71,6 +74,10 @@ public class Main {
     @SuppressWarnings("unused")    
     private static IngredientController INGREDIENT_CONTROLLER;
 
+    /** Controller for typeahead suggestions of recipe and ingredient names. */
+    @SuppressWarnings("unused")    
+    private static SuggestionController SUGGESTION_CONTROLLER;
+
     /** Middleware for administering administrative functionalities. */
     @SuppressWarnings("unused")    
     private static AdminMiddleware ADMIN_MIDDLEWARE;
@@ -112,9 +119,18 @@ public class Main {
 		
 		AUTH_CONTROLLER = new AuthenticationController(CHEF_SERVICE, AUTH_SERVICE);
 		
-		JAVALIN_APP_UTIL = new JavalinAppUtil(RECIPE_CONTROLLER, AUTH_CONTROLLER, INGREDIENT_CONTROLLER);
+		SUGGESTION_CONTROLLER = new SuggestionController(new SuggestionService(new SuggestionDAO(CONNECTION_UTIL)));
+		
+		JAVALIN_APP_UTIL = new JavalinAppUtil(RECIPE_CONTROLLER, AUTH_CONTROLLER, INGREDIENT_CONTROLLER,
+				SUGGESTION_CONTROLLER);
+		
+		DBUtil.MIGRATE();
+		
+		RECIPE_DAO.buildIngredientIndex();
+		
+		CHEF_DAO.preloadCache();
 		
-		DBUtil.RUN_SQL();
+		INGREDIENT_DAO.preloadCache();
 		
         Javalin app = JAVALIN_APP_UTIL.getApp();
         app.start(port);
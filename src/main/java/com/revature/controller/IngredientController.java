@@ -3,11 +3,18 @@ package com.revature.controller;
 
 import com.revature.model.Ingredient;
 import com.revature.service.IngredientService;
+import com.revature.util.BulkReader;
+import com.revature.util.ETags;
+import com.revature.util.JsonArrayStream;
 import com.revature.util.Page;
+import com.revature.util.PageOptions;
+import com.revature.util.RecordWriter;
+import com.revature.util.UnitOfWork;
 
 import io.javalin.Javalin;
 import io.javalin.http.Context;
 
+import java.io.IOException;
 import java.util.Optional;
 
 
@@ -39,14 +46,20 @@ public class IngredientController {
      * Retrieves a single ingredient by its ID.
      * If the ingredient exists, responds with a 200 OK status and the ingredient data.
      * If not found, responds with a 404 Not Found status.
+     * Successful responses carry an ETag; a request whose If-None-Match header holds the current one is answered with 304 Not Modified once the ingredient is found to exist.
      *
 	 * (FOR REFERENCE) This method is part of the backend logic.
      * No modifications or implementations are required.
      */
     public void getIngredient(Context ctx) {
         int id = Integer.parseInt(ctx.pathParam("id"));
+        String etag = ETags.of(ingredientService.getIngredientVersion(id));
+        if (ETags.notModified(ctx, etag, () -> ingredientService.findIngredient(id).isPresent())) {
+            return;
+        }
         Optional<Ingredient> ingredient = ingredientService.findIngredient(id);
         if (ingredient.isPresent()) {
+            ETags.tag(ctx, etag);
             ctx.json(ingredient.get());
             ctx.status(200);
         } else {
@@ -100,28 +113,99 @@ public class IngredientController {
         ctx.status(201);
     }
 
+    /**
+     * Imports ingredients in bulk. The body is read as it arrives, as NDJSON (Content-Type application/x-ndjson), one ingredient per line as it is posted to create one, or as CSV (text/csv) with a "name" column. The ingredients are saved a chunk at a time, each chunk committed on its own; names that already exist are rejected.
+     * Only admins may import; the app answers 401 Unauthorized unless the request's Authorization header carries an admin's session token.
+     * Responds with a 200 OK status and the numbers of ingredients received, imported and rejected, along with the errors of every chunk that had any, by line, or 415 Unsupported Media Type for any other content type.
+     */
+    public void importIngredients(Context ctx) throws IOException {
+        BulkReader.Format format = BulkReader.Format.of(ctx.contentType());
+        if (format == null) {
+            ctx.status(415).result("Unsupported content type; expected application/x-ndjson or text/csv");
+            return;
+        }
+        ctx.json(ingredientService.importIngredients(ctx.bodyInputStream(), format));
+        ctx.status(200);
+    }
+
+    /**
+     * Exports the INGREDIENT table: every ingredient's id and name, in id order, read with one query and written to the response as they are read.
+     * The rows are NDJSON, or CSV with "format=csv", gzipped if the client accepts it; an unknown format responds with a 400 Bad Request status. The request's unit of work is ended first, so the download holds no transaction. If reading the rows fails partway, the connection is dropped rather than the export ended.
+     */
+    public void exportIngredients(Context ctx) throws IOException {
+        UnitOfWork.endCurrent();
+        try (RecordWriter writer = RecordWriter.forResponse(ctx, "id", "name")) {
+            if (writer != null) {
+                try {
+                    ingredientService.forEachIngredient(null,
+                            ingredient -> writer.write(ingredient.getId(), ingredient.getName()));
+                } catch (RuntimeException e) {
+                    writer.abort(e);
+                }
+            }
+        }
+    }
+
     /**
      * Retrieves a paginated list of ingredients, or all ingredients if no pagination parameters are provided.
      * 
      * If pagination parameters are included, returns ingredients based on page, page size, sorting, and filter term.
+     * 
+     * A "cursor" parameter selects keyset paging instead of page numbers: an empty cursor asks for the first page, and each page carries the cursor for the next one. An invalid cursor responds with a 400 Bad Request status.
+     * 
+     * Responses carry an ETag; a request whose If-None-Match header holds the current one is answered with 304 Not Modified without querying anything.
+     * 
+     * Without pagination, "stream=true" writes the ingredients to the response as they are read from the database instead of building the whole list first, so memory use stays flat however many there are.
      *
 	 * (FOR REFERENCE) This method is part of the backend logic.
      * No modifications or implementations are required.
      */
-    public void getIngredients(Context ctx) {
+    public void getIngredients(Context ctx) throws IOException {
+       String etag = ETags.of(ingredientService.getIngredientsVersion());
+       if (ETags.notModified(ctx, etag)) {
+           return;
+       }
        String term = getParamAsClassOrElse(ctx, "term", String.class, null);
-        if(ctx.queryParam("page") != null) {
+        if(ctx.queryParam("page") != null || ctx.queryParam("cursor") != null) {
             int page = getParamAsClassOrElse(ctx, "page", Integer.class, 1);
             int pageSize = getParamAsClassOrElse(ctx, "pageSize", Integer.class, 10);
             String sortBy = getParamAsClassOrElse(ctx, "sortBy", String.class, "id");
             String sortDirection = getParamAsClassOrElse(ctx, "sortDirection", String.class, "asc");
-            Page<Ingredient> ingredients = ingredientService.searchIngredients(term, page, pageSize, sortBy, sortDirection);
-            ctx.json(ingredients);
+            PageOptions pageOptions = new PageOptions(page, pageSize, sortBy, sortDirection);
+            pageOptions.setCursor(ctx.queryParam("cursor"));
+            try {
+                Page<Ingredient> ingredients = ingredientService.searchIngredients(term, pageOptions);
+                ETags.tag(ctx, etag);
+                ctx.json(ingredients);
+            } catch (IllegalArgumentException e) {
+                ctx.status(400).result(e.getMessage());
+            }
             return;
         }
+        if ("true".equals(ctx.queryParam("stream"))) {
+            UnitOfWork.endCurrent();
+            ETags.tag(ctx, etag);
+            ctx.contentType("application/json");
+            try (JsonArrayStream stream = new JsonArrayStream(ctx.outputStream())) {
+                try {
+                    ingredientService.forEachIngredient(term, stream::write);
+                } catch (RuntimeException e) {
+                    stream.abort(e);
+                }
+            }
+            return;
+        }
+        ETags.tag(ctx, etag);
         ctx.json(ingredientService.searchIngredients(term));
     }
 
+    /**
+     * Responds with the search cache statistics: its size and its hit, miss and eviction counts.
+     */
+    public void getSearchCacheStats(Context ctx) {
+        ctx.json(ingredientService.getSearchCacheStats());
+    }
+
 /**
      * This utility method is already implemented as part of the backend infrastructure.
 	 
@@ -147,7 +231,10 @@ public class IngredientController {
         app.get("/ingredients", this::getIngredients);
         app.get("/ingredients/{id}", this::getIngredient);
         app.post("/ingredients", this::createIngredient);
+        app.post("/ingredients/bulk", this::importIngredients);
         app.put("/ingredients/{id}", this::updateIngredient);
         app.delete("/ingredients/{id}", this::deleteIngredient);
+        app.get("/export/ingredients", this::exportIngredients);
+        app.get("/metrics/cache/ingredients/searches", this::getSearchCacheStats);
     }
 }
@@ -1,17 +1,29 @@
 package com.revature.controller;
 
 import com.revature.model.Chef;
+import com.revature.model.Pantry;
 import com.revature.model.Recipe;
 import com.revature.service.AuthenticationService;
 import com.revature.service.RecipeService;
+import com.revature.util.BulkReader;
+import com.revature.util.ETags;
+import com.revature.util.JsonArrayStream;
 import com.revature.util.Page;
+import com.revature.util.PageOptions;
+import com.revature.util.Projection;
+import com.revature.util.RecordWriter;
+import com.revature.util.UnitOfWork;
 
 import io.javalin.Javalin;
 import io.javalin.http.Context;
 import io.javalin.http.Handler;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 
@@ -24,6 +36,15 @@ import java.util.Optional;
  */
 public class RecipeController {
 
+    /** The largest number of results a full-text search or pantry match may ask for. */
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    /** The most recipe ids that may be fetched by one request. */
+    private static final int MAX_BATCH_IDS = 1000;
+
+    /** The number of streamed recipes written together, and whose ingredients are loaded with one query. */
+    private static final int STREAM_BATCH_SIZE = 500;
+
     /** A service that handles recipe-related operations. */
     private RecipeService recipeService;
     /** A service that handles authentication-related operations. */
@@ -43,49 +64,184 @@ public class RecipeController {
     /**
      * Handler for fetching all recipes. Supports pagination, sorting, and filtering by recipe name or ingredient.
      * 
-     * Responds with a 200 OK status and the list of recipes, or 404 Not Found with a result of "No recipes found".
+     * Adding "include=ingredients" fills in each recipe's ingredient list, loaded for the whole result in one query.
+     * 
+     * The "ingredients" parameter, a comma separated list of ingredient names, finds the recipes using all of them, or any of them with "mode=any". Names match an ingredient's whole name, ignoring case, and the matches are worked out in memory from an ingredient index; an unknown mode responds with a 400 Bad Request status. The "ingredient" parameter instead matches recipes using any ingredient whose name contains it.
+     * 
+     * The "ids" parameter, a comma separated list of recipe ids, fetches those recipes, in that order, in place of any search; see {@link #fetchRecipesByIds}.
+     * 
+     * The "q" parameter runs a full-text search over recipe names and instructions instead, returning up to "limit" (default 20, at most 100) recipes ranked by relevance. Unlike "name", which matches any part of the name, it matches whole words in any order, ignoring case and accents.
+     * 
+     * The "fields" parameter, a comma separated list of id, name, instructions, author and ingredients, returns only those fields of each recipe; "include=ingredients" adds ingredients to the list. For every recipe, or those matching "name", only the asked for columns are read, and the authors are not joined in unless asked for. An unknown field responds with a 400 Bad Request status.
+     * 
+     * Adding "stream=true" to a request for every recipe, or for those matching "name", writes the recipes to the response as they are read from the database instead of building the whole list first, so memory use stays flat however many there are. A streamed response is always 200 OK, with an empty array if nothing matches.
+     * 
+     * Pages are selected by the "page" parameter, or by the "cursor" parameter for keyset paging, where an empty cursor asks for the first page and each page carries the cursor for the next one. An invalid cursor responds with a 400 Bad Request status.
+     * 
+     * Responds with a 200 OK status and the list of recipes, or 404 Not Found with a result of "No recipes found". Successful responses carry an ETag; a request whose If-None-Match header holds the current one is answered with 304 Not Modified without querying anything.
      *
      * (FOR REFERENCE) This method is part of the backend logic.
      * No modifications or implementations are required.
      */
     public Handler fetchAllRecipes = ctx -> {
+        Projection fields;
+        try {
+            fields = recipeFields(ctx);
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).result(e.getMessage());
+            return;
+        }
+        if (ctx.queryParam("ids") != null) {
+            List<Integer> ids;
+            try {
+                ids = recipeIds(ctx);
+            } catch (NumberFormatException e) {
+                ctx.status(400).result("Invalid recipe ID format.");
+                return;
+            }
+            if (ids.size() <= MAX_BATCH_IDS) {
+                String etag = ETags.of(recipeService.getRecipesVersion(ids, includesIngredients(ctx)));
+                if (ETags.notModified(ctx, etag)) {
+                    return;
+                }
+                ETags.tag(ctx, etag);
+            }
+            respondWithRecipes(ctx, ids, fields);
+            return;
+        }
         String term = getParamAsClassOrElse(ctx, "term", String.class, null);
+        List<String> ingredients = ingredientNames(ctx);
+        String mode = getParamAsClassOrElse(ctx, "mode", String.class, "all");
+        if (!mode.equals("all") && !mode.equals("any")) {
+            ctx.status(400).result("Invalid mode; expected all or any");
+            return;
+        }
+        boolean matchAll = mode.equals("all");
+        String etag = ETags.of(recipeService.getRecipesVersion());
+        if (ETags.notModified(ctx, etag)) {
+            return;
+        }
 
-		if (ctx.queryParam("page") != null) {
+		if (ctx.queryParam("page") != null || ctx.queryParam("cursor") != null) {
 
 			int page = getParamAsClassOrElse(ctx, "page", Integer.class, 1);
 			int pageSize = getParamAsClassOrElse(ctx, "pageSize", Integer.class, 10);
 			String sortBy = getParamAsClassOrElse(ctx, "sortBy", String.class, "id");
 			String sortDirection = getParamAsClassOrElse(ctx, "sortDirection", String.class, "asc");
+			PageOptions options = new PageOptions(page, pageSize, sortBy, sortDirection);
+			options.setCursor(ctx.queryParam("cursor"));
 
-			Page<Recipe> recipePage = recipeService.searchRecipes(term, page, pageSize, sortBy, sortDirection);
+			Page<Recipe> recipePage;
+			try {
+				recipePage = ingredients != null
+						? recipeService.searchRecipesByIngredients(ingredients, matchAll, options)
+						: fields == null ? recipeService.searchRecipes(term, options) : recipeService.searchRecipes(term, options, fields);
+			} catch (IllegalArgumentException e) {
+				ctx.status(400).result(e.getMessage());
+				return;
+			}
+			if (includesIngredients(ctx)) {
+				recipeService.loadIngredients(recipePage.getItems());
+			}
 
-            
-			ctx.json(recipePage);
+			ETags.tag(ctx, etag);
+			ctx.json(project(recipePage, fields));
 
 		} else {
 
 			String ingredient = ctx.queryParam("ingredient");
             String recipeName = ctx.queryParam("name");
+            String query = ctx.queryParam("q");
+            if (isStreaming(ctx) && query == null && ingredients == null && ingredient == null) {
+                ETags.tag(ctx, etag);
+                streamRecipes(ctx, recipeName, fields);
+                return;
+            }
 
             List<Recipe> recipes = new ArrayList<>();
-            if(ingredient == null && recipeName == null) {
-                recipes = recipeService.searchRecipes(null);
+            if (query != null) {
+                int limit = Math.min(Math.max(getParamAsClassOrElse(ctx, "limit", Integer.class, 20), 1), MAX_SEARCH_LIMIT);
+                recipes = recipeService.searchRecipesByText(query, limit);
+            }
+            else if (ingredients != null) {
+                recipes = recipeService.searchRecipesByIngredients(ingredients, matchAll);
+            }
+            else if (ingredient != null) {
+                recipes = recipeService.searchRecipesByIngredient(ingredient);
+            }
+            else if(ingredient == null && recipeName == null) {
+                recipes = fields == null ? recipeService.searchRecipes(null) : recipeService.searchRecipes(null, fields);
             }
             else if(ingredient == null && recipeName != null) {
-                recipes = recipeService.searchRecipes(recipeName);
+                recipes = fields == null ? recipeService.searchRecipes(recipeName) : recipeService.searchRecipes(recipeName, fields);
             }
             if(recipes.isEmpty()) {
                 ctx.status(404);
                 ctx.result("No recipes found");
             }
             else {
+                if (includesIngredients(ctx)) {
+                    recipeService.loadIngredients(recipes);
+                }
+                ETags.tag(ctx, etag);
                 ctx.status(200);
-                ctx.json(recipes);
+                ctx.json(project(recipes, fields));
             }
 		}
     };
 
+    /**
+     * Handler for fetching many recipes by id at once, for lists too long for the "ids" query parameter. The request body is a JSON array of up to 1000 recipe ids.
+     * 
+     * The recipes are returned in the order of their ids, each once, leaving out ids with no recipe. Those already in the recipe cache are taken from there, and the rest are read with one query that joins in their authors. Adding "include=ingredients" fills in their ingredient lists with one more query. The "fields" parameter limits the fields returned, as for {@link #fetchAllRecipes}.
+     * 
+     * Responds with a 200 OK status and the list of recipes, which is empty if none was found, or 400 Bad Request if the body is not an array of ids or holds too many, or a field is unknown.
+     */
+    public Handler fetchRecipesByIds = ctx -> {
+        Projection fields;
+        try {
+            fields = recipeFields(ctx);
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).result(e.getMessage());
+            return;
+        }
+        Integer[] ids;
+        try {
+            ids = ctx.bodyAsClass(Integer[].class);
+        } catch (Exception e) {
+            ids = null;
+        }
+        if (ids == null || Arrays.asList(ids).contains(null)) {
+            ctx.status(400).result("Expected a JSON array of recipe ids");
+            return;
+        }
+        respondWithRecipes(ctx, Arrays.asList(ids), fields);
+    };
+
+    /**
+     * Handler for finding what can be cooked from a pantry. The request body lists the ingredients at hand, by "ingredientIds", by "ingredients" (names), or both.
+     * 
+     * Recipes are ranked by the fraction of their ingredients at hand, then by fewest missing; "rank=missing" ranks by fewest missing first. The optional "maxMissing" parameter leaves out recipes lacking more ingredients than that, and "limit" sets how many recipes are returned (default 20, at most 100). Recipes sharing no ingredient with the pantry are never returned.
+     * 
+     * Responds with a 200 OK status and the list of matches, each with its recipe, coverage and missing ingredient ids, or 400 Bad Request for an unknown rank or a negative maxMissing.
+     */
+    public Handler matchPantry = ctx -> {
+        Pantry pantry = ctx.bodyAsClass(Pantry.class);
+        String rank = getParamAsClassOrElse(ctx, "rank", String.class, "coverage");
+        Integer maxMissing = getParamAsClassOrElse(ctx, "maxMissing", Integer.class, null);
+        if (!rank.equals("coverage") && !rank.equals("missing")) {
+            ctx.status(400).result("Invalid rank; expected coverage or missing");
+            return;
+        }
+        if (maxMissing != null && maxMissing < 0) {
+            ctx.status(400).result("maxMissing must not be negative");
+            return;
+        }
+        int limit = Math.min(Math.max(getParamAsClassOrElse(ctx, "limit", Integer.class, 20), 1), MAX_SEARCH_LIMIT);
+        ctx.json(recipeService.matchPantry(pantry, limit, maxMissing, rank.equals("missing")));
+        ctx.status(200);
+    };
+
     /**
      * Handler for fetching a recipe by its ID.
      * 
@@ -93,14 +249,33 @@ public class RecipeController {
      * 
      * If unsuccessful, responds with a 404 status code and a result of "Recipe not found".
      * 
+     * Adding "include=ingredients" fills in the recipe's ingredient list. The "fields" parameter limits the fields returned, as for {@link #fetchAllRecipes}; an unknown field responds with a 400 Bad Request status.
+     * 
+     * Successful responses carry an ETag; a request whose If-None-Match header holds the current one is answered with 304 Not Modified once the recipe is found to exist, which the recipe cache usually answers without querying anything.
+     * 
      * (FOR REFERENCE) This method is part of the backend logic.
      * No modifications or implementations are required.
      */
     public Handler fetchRecipeById = ctx -> {
         int id = Integer.parseInt(ctx.pathParam("id"));
+        Projection fields;
+        try {
+            fields = recipeFields(ctx);
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).result(e.getMessage());
+            return;
+        }
+        String etag = ETags.of(recipeService.getRecipeVersion(id, includesIngredients(ctx)));
+        if (ETags.notModified(ctx, etag, () -> recipeService.findRecipe(id).isPresent())) {
+            return;
+        }
         Optional<Recipe> recipe = recipeService.findRecipe(id);
         if (recipe.isPresent()) {
-            ctx.json(recipe.get());
+            if (includesIngredients(ctx)) {
+                recipeService.loadIngredients(List.of(recipe.get()));
+            }
+            ETags.tag(ctx, etag);
+            ctx.json(fields == null ? recipe.get() : project(recipe.get(), fields));
             ctx.status(200);
         } else {
             ctx.status(404).result("Recipe not found");
@@ -112,6 +287,7 @@ public class RecipeController {
      * 
      * If successful, responds with a 201 Created status.
      * If unauthorized, responds with a 401 Unauthorized status.	 
+     * If the recipe cannot be saved, for instance because an ingredient does not exist, responds with a 400 Bad Request status and nothing is saved.
      * 
      * (FOR REFERENCE) This method is part of the backend logic.
      * No modifications or implementations are required.
@@ -127,13 +303,77 @@ public class RecipeController {
 			recipe.setId(0);
 			
 			recipe.setAuthor(chef);
-			recipeService.saveRecipe(recipe);
+			try {
+				recipeService.saveRecipe(recipe);
+			} catch (RuntimeException e) {
+				ctx.status(400).result("Unable to create recipe.");
+				return;
+			}
 
 			ctx.status(201);
 
 		}
     };
 
+    /**
+     * Handler for importing recipes in bulk. Requires authentication via an authorization token; every recipe is credited to the logged in chef.
+     * 
+     * The body is read as it arrives, as NDJSON (Content-Type application/x-ndjson), one recipe per line as it is posted to create one, or as CSV (text/csv) with "name", "instructions" and "ingredients" columns, the ingredients given as "name:volume:unit" separated by semicolons. Ingredients may be given by name. The recipes are saved a chunk at a time, each chunk committed on its own.
+     * 
+     * Responds with a 200 OK status and the numbers of recipes received, imported and rejected, along with the errors of every chunk that had any, by line. Responds with 401 Unauthorized without a valid token, and 415 Unsupported Media Type for any other content type.
+     */
+    public Handler importRecipes = ctx -> {
+        Chef chef = caller(ctx);
+        if (chef == null) {
+            ctx.status(401);
+            return;
+        }
+        BulkReader.Format format = BulkReader.Format.of(ctx.contentType());
+        if (format == null) {
+            ctx.status(415).result("Unsupported content type; expected application/x-ndjson or text/csv");
+            return;
+        }
+        ctx.json(recipeService.importRecipes(ctx.bodyInputStream(), format, chef));
+        ctx.status(200);
+    };
+
+    /**
+     * Handler for exporting the RECIPE table: every recipe's id, name, instructions and chef_id, in id order.
+     * 
+     * The rows are read with one query and written to the response as they are read, as NDJSON or, with "format=csv", as CSV, gzipped if the client accepts it. Memory use stays flat however many recipes there are, and a slow client slows the export down rather than making it pile up. The request's unit of work is ended first, so the download holds no transaction, only the streaming connection the rows are read on; see {@link com.revature.util.ConnectionUtil#getStreamingConnection()}. Responds with 400 Bad Request for an unknown format. If reading the rows fails partway, the connection is dropped, so the client cannot take what it got for a complete export.
+     */
+    public Handler exportRecipes = ctx -> {
+        UnitOfWork.endCurrent();
+        try (RecordWriter writer = RecordWriter.forResponse(ctx, "id", "name", "instructions", "chef_id")) {
+            if (writer != null) {
+                try {
+                    recipeService.forEachRecipe(null, recipe -> writer.write(recipe.getId(), recipe.getName(),
+                            recipe.getInstructions(), recipe.getAuthor() == null ? null : recipe.getAuthor().getId()));
+                } catch (RuntimeException e) {
+                    writer.abort(e);
+                }
+            }
+        }
+    };
+
+    /**
+     * Handler for exporting the RECIPE_INGREDIENT table, with each ingredient's name, in recipe order, in the same way as the recipes.
+     */
+    public Handler exportRecipeIngredients = ctx -> {
+        UnitOfWork.endCurrent();
+        try (RecordWriter writer = RecordWriter.forResponse(ctx, "recipe_id", "ingredient_id", "name", "vol",
+                "unit")) {
+            if (writer != null) {
+                try {
+                    recipeService.forEachRecipeIngredient((recipeId, ingredient) -> writer.write(recipeId,
+                            ingredient.getId(), ingredient.getName(), ingredient.getVolume(), ingredient.getUnit()));
+                } catch (RuntimeException e) {
+                    writer.abort(e);
+                }
+            }
+        }
+    };
+
     /**
      * Handler for deleting a recipe by its ID.
      * 
@@ -167,6 +407,58 @@ public class RecipeController {
         }
     };
     
+    /**
+     * Handler for deleting many recipes at once: those listed in the "ids" parameter, a comma separated list, or else every recipe by the chef given by "chefId". The recipes and their ingredients are deleted with a few set-based statements in one transaction, each naming at most 1000 recipes.
+     * 
+     * Responds with a 200 OK status and the number of recipes deleted, 400 Bad Request if neither parameter is given or an id is not a number, or 401 Unauthorized unless the request's token is an admin's.
+     */
+    public Handler deleteRecipes = ctx -> {
+        if (!isAdmin(caller(ctx))) {
+            ctx.status(401);
+            return;
+        }
+        try {
+            List<Integer> ids = recipeIds(ctx);
+            Integer chefId = getParamAsClassOrElse(ctx, "chefId", Integer.class, null);
+            if (ids == null && chefId == null) {
+                ctx.status(400).result("Expected ids or chefId");
+                return;
+            }
+            int deleted = ids != null ? recipeService.deleteRecipes(ids) : recipeService.deleteRecipesByChef(chefId);
+            ctx.json(Map.of("deleted", deleted));
+            ctx.status(200);
+        } catch (NumberFormatException e) {
+            ctx.status(400).result("Invalid recipe ID format.");
+        }
+    };
+
+    /**
+     * Handler for setting the instructions of many recipes at once, chosen by "ids" or "chefId" as for deleting them. The body is a recipe holding the new instructions; its other fields are ignored. The recipes are updated with set-based statements in one transaction.
+     * 
+     * Responds with a 200 OK status and the number of recipes updated, 400 Bad Request if neither parameter is given, an id is not a number, or the instructions are missing or too long, or 401 Unauthorized unless the request's token is an admin's.
+     */
+    public Handler updateInstructions = ctx -> {
+        if (!isAdmin(caller(ctx))) {
+            ctx.status(401);
+            return;
+        }
+        try {
+            List<Integer> ids = recipeIds(ctx);
+            Integer chefId = getParamAsClassOrElse(ctx, "chefId", Integer.class, null);
+            if (ids == null && chefId == null) {
+                ctx.status(400).result("Expected ids or chefId");
+                return;
+            }
+            String instructions = ctx.bodyAsClass(Recipe.class).getInstructions();
+            ctx.json(Map.of("updated", recipeService.updateInstructions(ids, chefId == null ? 0 : chefId, instructions)));
+            ctx.status(200);
+        } catch (NumberFormatException e) {
+            ctx.status(400).result("Invalid recipe ID format.");
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).result(e.getMessage());
+        }
+    };
+
     /**
      * Handler for updating a recipe by its ID.
      * 
@@ -192,6 +484,16 @@ public class RecipeController {
         ctx.status(200).json(recipe);
     };
     
+    /**
+     * Handler for the recipe cache statistics: its size and its hit, miss and eviction counts.
+     */
+    public Handler fetchCacheStats = ctx -> ctx.json(recipeService.getCacheStats());
+
+    /**
+     * Handler for the search cache statistics: its size and its hit, miss and eviction counts.
+     */
+    public Handler fetchSearchCacheStats = ctx -> ctx.json(recipeService.getSearchCacheStats());
+
     /**
      * A helper method to retrieve a query parameter from the context as a specific class type, or return a default value if the query parameter is not present.
     /**
@@ -213,6 +515,197 @@ public class RecipeController {
         return defaultValue;
     }
 
+    /**
+     * Returns the ingredient names in the "ingredients" query parameter, a comma separated list, or null if it is absent.
+     */
+    private List<String> ingredientNames(Context ctx) {
+        String ingredients = ctx.queryParam("ingredients");
+        if (ingredients == null) {
+            return null;
+        }
+        List<String> names = new ArrayList<>();
+        for (String name : ingredients.split(",")) {
+            if (!name.isBlank()) {
+                names.add(name.trim());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Responds with the recipes with the given ids, in order, with their ingredients if asked for and only the projected fields; or with 400 Bad Request if there are too many ids.
+     */
+    private void respondWithRecipes(Context ctx, List<Integer> ids, Projection fields) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            ctx.status(400).result("At most " + MAX_BATCH_IDS + " recipe ids may be asked for at once");
+            return;
+        }
+        List<Recipe> recipes = recipeService.findRecipes(ids);
+        if (includesIngredients(ctx)) {
+            recipeService.loadIngredients(recipes);
+        }
+        ctx.json(project(recipes, fields));
+        ctx.status(200);
+    }
+
+    /**
+     * Returns the chef whose session token the request carries in its Authorization header, given as "Bearer token", or null if there is none or it is not valid.
+     */
+    private Chef caller(Context ctx) {
+        String authorization = ctx.header("Authorization");
+        return authorization == null ? null
+                : authService.getChefFromSessionToken(authorization.substring(authorization.indexOf(' ') + 1));
+    }
+
+    /**
+     * Returns whether the chef is known and an admin.
+     */
+    private boolean isAdmin(Chef chef) {
+        return chef != null && chef.isAdmin();
+    }
+
+    /**
+     * Returns the recipe ids in the "ids" query parameter, a comma separated list, or null if it is absent.
+     *
+     * @throws NumberFormatException if an id is not a number
+     */
+    private List<Integer> recipeIds(Context ctx) {
+        String ids = ctx.queryParam("ids");
+        if (ids == null) {
+            return null;
+        }
+        List<Integer> recipeIds = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            if (!id.isBlank()) {
+                recipeIds.add(Integer.valueOf(id.trim()));
+            }
+        }
+        return recipeIds;
+    }
+
+    /**
+     * Returns whether the "stream" query parameter asks for the results to be streamed.
+     */
+    private boolean isStreaming(Context ctx) {
+        return "true".equals(ctx.queryParam("stream"));
+    }
+
+    /**
+     * Writes the recipes whose name contains the term, or every recipe, to the response as a JSON array while they are read, a batch at a time. The request's unit of work is ended first, as for an export.
+     */
+    private void streamRecipes(Context ctx, String term, Projection fields) throws IOException {
+        UnitOfWork.endCurrent();
+        boolean withIngredients = includesIngredients(ctx);
+        List<Recipe> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+        ctx.status(200).contentType("application/json");
+        try (JsonArrayStream stream = new JsonArrayStream(ctx.outputStream())) {
+            try {
+                recipeService.forEachRecipe(term, fields, recipe -> {
+                    batch.add(recipe);
+                    if (batch.size() == STREAM_BATCH_SIZE) {
+                        writeBatch(stream, batch, withIngredients, fields);
+                    }
+                });
+                writeBatch(stream, batch, withIngredients, fields);
+            } catch (RuntimeException e) {
+                stream.abort(e);
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of streamed recipes, loading their ingredients first if asked to, and empties the batch.
+     */
+    private void writeBatch(JsonArrayStream stream, List<Recipe> batch, boolean withIngredients, Projection fields) {
+        if (withIngredients) {
+            recipeService.loadIngredients(batch);
+        }
+        for (Recipe recipe : batch) {
+            stream.write(fields == null ? recipe : project(recipe, fields));
+        }
+        batch.clear();
+    }
+
+    /**
+     * Returns whether the "include" query parameter, a comma separated list, asks for the recipes' ingredients, or the "fields" parameter lists them.
+     */
+    private boolean includesIngredients(Context ctx) {
+        String include = ctx.queryParam("include");
+        String fields = ctx.queryParam("fields");
+        return include != null && Arrays.asList(include.split(",")).contains("ingredients")
+                || fields != null && Arrays.stream(fields.split(",")).map(String::trim).anyMatch("ingredients"::equals);
+    }
+
+    /**
+     * Returns the recipe fields asked for by the "fields" query parameter, with the ingredients added if "include=ingredients" asks for them, or null if the parameter is absent, meaning every field.
+     *
+     * @throws IllegalArgumentException if a field is unknown or none is given
+     */
+    private Projection recipeFields(Context ctx) {
+        Projection fields = Projection.parse(ctx.queryParam("fields"), Projection.RECIPE_FIELDS);
+        return fields != null && includesIngredients(ctx) ? fields.with("ingredients") : fields;
+    }
+
+    /**
+     * Returns the recipes to respond with: the recipes themselves, or, if fields were asked for, maps holding only those fields.
+     */
+    private Object project(List<Recipe> recipes, Projection fields) {
+        if (fields == null) {
+            return recipes;
+        }
+        List<Map<String, Object>> projected = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            projected.add(project(recipe, fields));
+        }
+        return projected;
+    }
+
+    /**
+     * Returns the page to respond with, its recipes projected as by {@link #project(List, Projection)}.
+     */
+    private Page<?> project(Page<Recipe> page, Projection fields) {
+        if (fields == null || page == null) {
+            return page;
+        }
+        List<Map<String, Object>> items = new ArrayList<>(page.getItems().size());
+        for (Recipe recipe : page.getItems()) {
+            items.add(project(recipe, fields));
+        }
+        Page<Map<String, Object>> projected = new Page<>(page.getPageNumber(), page.getPageSize(),
+                page.getTotalPages(), page.getTotalElements(), items);
+        projected.setNextCursor(page.getNextCursor());
+        return projected;
+    }
+
+    /**
+     * Returns a map holding only the recipe's projected fields, in the order they are known in.
+     */
+    private Map<String, Object> project(Recipe recipe, Projection fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields.getFields()) {
+            switch (field) {
+                case "id":
+                    values.put(field, recipe.getId());
+                    break;
+                case "name":
+                    values.put(field, recipe.getName());
+                    break;
+                case "instructions":
+                    values.put(field, recipe.getInstructions());
+                    break;
+                case "author":
+                    values.put(field, recipe.getAuthor());
+                    break;
+                case "ingredients":
+                    values.put(field, recipe.getIngredients());
+                    break;
+                default:
+                    break;
+            }
+        }
+        return values;
+    }
+
     /**
      * Configure the routes for recipe operations.
      *
@@ -223,7 +716,16 @@ public class RecipeController {
         app.get("/recipes", fetchAllRecipes);
         app.get("/recipes/{id}", fetchRecipeById);
         app.post("/recipes", createRecipe);
+        app.post("/recipes/pantry", matchPantry);
+        app.post("/recipes/bulk", importRecipes);
+        app.post("/recipes/batch-get", fetchRecipesByIds);
         app.put("/recipes/{id}", updateRecipe);
+        app.patch("/recipes", updateInstructions);
         app.delete("/recipes/{id}", deleteRecipe);
+        app.delete("/recipes", deleteRecipes);
+        app.get("/export/recipes", exportRecipes);
+        app.get("/export/recipe-ingredients", exportRecipeIngredients);
+        app.get("/metrics/cache/recipes", fetchCacheStats);
+        app.get("/metrics/cache/recipes/searches", fetchSearchCacheStats);
     }
 }
@@ -0,0 +1,55 @@
+package com.revature.controller;
+
+import com.revature.service.SuggestionService;
+
+import io.javalin.Javalin;
+import io.javalin.http.Handler;
+
+
+/**
+ * The SuggestionController class provides the typeahead endpoint used by the recipe and ingredient pages to suggest names as the user types.
+ */
+public class SuggestionController {
+
+    /** A service that answers suggestion lookups. */
+    private SuggestionService suggestionService;
+
+    /**
+     * Constructs a SuggestionController with the specified SuggestionService.
+     */
+    public SuggestionController(SuggestionService suggestionService) {
+        this.suggestionService = suggestionService;
+    }
+
+    /**
+     * Handler for suggesting names. The "prefix" parameter is the text typed so far; names starting with it, or with a word starting with it, are suggested, most popular first. The optional "type" parameter, "recipe" or "ingredient", restricts the suggestions to one kind of name, and "limit" sets how many are returned (default and at most 10).
+     *
+     * Responds with a 200 OK status and the list of suggestions, which is empty if the prefix is missing or nothing matches, or 400 Bad Request for an unknown type or an invalid limit.
+     */
+    public Handler suggest = ctx -> {
+        String prefix = ctx.queryParam("prefix");
+        String type = ctx.queryParam("type");
+        int limit;
+        try {
+            String limitParam = ctx.queryParam("limit");
+            limit = limitParam == null ? SuggestionService.MAX_SUGGESTIONS : Integer.parseInt(limitParam);
+        } catch (NumberFormatException e) {
+            ctx.status(400).result("Invalid limit");
+            return;
+        }
+        limit = Math.max(1, Math.min(limit, SuggestionService.MAX_SUGGESTIONS));
+        try {
+            ctx.json(suggestionService.suggest(prefix, type, limit));
+            ctx.status(200);
+        } catch (IllegalArgumentException e) {
+            ctx.status(400).result(e.getMessage());
+        }
+    };
+
+    /**
+     * Configure the routes for suggestions.
+     */
+    public void configureRoutes(Javalin app) {
+        app.get("/suggest", suggest);
+    }
+}
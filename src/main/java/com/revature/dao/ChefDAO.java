@@ -6,12 +6,19 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import com.revature.model.Chef;
 import com.revature.util.ConnectionUtil;
+import com.revature.util.DataVersions;
+import com.revature.util.EntityCache;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.PageQuery;
+import com.revature.util.TrigramIndex;
+import com.revature.util.UnitOfWork;
 
 
 // NOTE: This file is part of the backend implementation. No changes are required.
@@ -22,10 +29,21 @@ import com.revature.util.PageOptions;
  */
 public class ChefDAO {
 
+   /** The columns a page of chefs may be sorted by, keyed by the sort option accepted from callers. */
+   private static final Map<String, String> SORT_COLUMNS = Map.of("id", "id", "username", "username", "email", "email",
+           "is_admin", "is_admin");
+
    /** A utility class for establishing connections to the database. */
    @SuppressWarnings("unused")
    private ConnectionUtil connectionUtil;
 
+   /** Trigram index over usernames, used to narrow down substring searches; built on first use and kept up to date by this DAO's write methods. */
+   private final TrigramIndex usernameIndex = new TrigramIndex("CHEF", "username");
+
+   /** Every chef, kept in memory once {@link #preloadCache()} has been called and read again after each committed write to the table. */
+   private final EntityCache<Chef> chefCache = new EntityCache<>("CHEF", this::getAllChefs, Chef::getId, null,
+           chef -> new Chef(chef.getId(), chef.getUsername(), chef.getEmail(), chef.getPassword(), chef.isAdmin()));
+
    /** Constructs a ChefDAO with the specified ConnectionUtil for database connectivity.
     * 
 	 * (FOR REFERENCE) This method is part of the backend logic.
@@ -42,11 +60,10 @@ public class ChefDAO {
      * No modifications or implementations are required.
     */
     public List<Chef> getAllChefs() {
-        try  {
-            Connection connection = connectionUtil.getConnection();
+        String sql = "SELECT * FROM CHEF ORDER BY id";
+        try (Connection connection = connectionUtil.getConnection();
                 Statement statement = connection.createStatement();
-            String sql = "SELECT * FROM CHEF ORDER BY id";
-            ResultSet resultSet = statement.executeQuery(sql);
+                ResultSet resultSet = statement.executeQuery(sql)) {
             return mapRows(resultSet);
 
         } catch (SQLException e) {
@@ -62,13 +79,8 @@ public class ChefDAO {
      * No modifications or implementations are required.
          */
     public Page<Chef> getAllChefs(PageOptions pageOptions) {
-        String sql = String.format("SELECT * FROM CHEF ORDER BY %s %s", pageOptions.getSortBy(),
-                pageOptions.getSortDirection());
-        try {
-            Connection connection = connectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(sql);
-            ResultSet chefSet = statement.executeQuery();
-            return pageResults(chefSet, pageOptions);
+        try (Connection connection = connectionUtil.getConnection()) {
+            return new PageQuery<>("*", "CHEF", SORT_COLUMNS, this::mapSingleRow).fetch(connection, pageOptions);
         } catch (SQLException e) {
             throw new RuntimeException("Unable to retrieve all chefs", e);
         }
@@ -82,14 +94,22 @@ public class ChefDAO {
      * No modifications or implementations are required.
      */
     public Chef getChefById(int id) {
+        Chef loaded = UnitOfWork.lookup(Chef.class, id);
+        if (loaded != null) {
+            return loaded;
+        }
+        EntityCache.Snapshot<Chef> chefs = chefCache.current();
+        if (chefs != null) {
+            Chef chef = chefs.get(id);
+            return chef == null ? null : UnitOfWork.remember(Chef.class, id, chef);
+        }
         String sql = "SELECT * FROM CHEF WHERE id = ?";
-        try {
-            Connection connection = connectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(sql);
+        try (Connection connection = connectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, id);
-            ResultSet resultSet = statement.executeQuery();
-            resultSet.next();
-            return mapSingleRow(resultSet);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? UnitOfWork.remember(Chef.class, id, mapSingleRow(resultSet)) : null;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -105,9 +125,8 @@ public class ChefDAO {
  */
     public int createChef(Chef chef) {
         String sql = "INSERT INTO CHEF (username, email, password, is_admin) VALUES (?, ?, ?, ?)";
-        try {
-            Connection connection = connectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        try (Connection connection = connectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             statement.setString(1, chef.getUsername());
             statement.setString(2, chef.getEmail());
             statement.setString(3, chef.getPassword());
@@ -115,9 +134,14 @@ public class ChefDAO {
             int affectedRows = statement.executeUpdate();
 
             if (affectedRows >= 1) {
-                ResultSet generatedKeys = statement.getGeneratedKeys();
-                if (generatedKeys.next()) {
-                    return generatedKeys.getInt(1);
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        int id = generatedKeys.getInt(1);
+                        String username = chef.getUsername();
+                        UnitOfWork.afterCommit(() -> usernameIndex.put(id, username));
+                        DataVersions.changed("CHEF", id);
+                        return id;
+                    }
                 }
             }
 
@@ -136,15 +160,20 @@ public class ChefDAO {
      */
     public void updateChef(Chef chef) {
         String sql = "UPDATE CHEF SET username = ?, email = ?, password = ?, is_admin = ? WHERE id = ?";
-        try {
-            Connection connection = connectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(sql);
+        UnitOfWork.forget(Chef.class, chef.getId());
+        try (Connection connection = connectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setString(1, chef.getUsername());
             statement.setString(2, chef.getEmail());
             statement.setString(3, chef.getPassword());
             statement.setBoolean(4, chef.isAdmin());
             statement.setInt(5, chef.getId());
-            statement.executeUpdate();
+            if (statement.executeUpdate() > 0) {
+                int id = chef.getId();
+                String username = chef.getUsername();
+                UnitOfWork.afterCommit(() -> usernameIndex.put(id, username));
+                DataVersions.changed("CHEF", id);
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -158,11 +187,14 @@ public class ChefDAO {
      */
     public void deleteChef(Chef chef) {
         String sql = "DELETE FROM CHEF WHERE id = ?";
-        try  {
-            Connection connection = connectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(sql);
+        UnitOfWork.forget(Chef.class, chef.getId());
+        try (Connection connection = connectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, chef.getId());
             statement.executeUpdate();
+            int id = chef.getId();
+            UnitOfWork.afterCommit(() -> usernameIndex.remove(id));
+            DataVersions.changed("CHEF", id);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -175,13 +207,24 @@ public class ChefDAO {
      * No modifications or implementations are required.
      */
     public List<Chef> searchChefsByTerm(String term) {
+        int[] candidates = usernameIndex.candidates(term, connectionUtil);
+        if (candidates != null && candidates.length == 0) {
+            return new ArrayList<>();
+        }
         String sql = "SELECT * FROM CHEF WHERE username LIKE ?";
-        try  {
-            Connection connection = connectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(sql);
+        if (candidates != null) {
+            // Only the candidates can match; LIKE still decides which of them do
+            sql += " AND id IN (" + String.join(", ", Collections.nCopies(candidates.length, "?")) + ") ORDER BY id";
+        }
+        try (Connection connection = connectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setString(1, "%" + term + "%");
-            ResultSet resultSet = statement.executeQuery();
-            return mapRows(resultSet);
+            for (int i = 0; candidates != null && i < candidates.length; i++) {
+                statement.setInt(i + 2, candidates[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return mapRows(resultSet);
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -196,14 +239,14 @@ public class ChefDAO {
      * No modifications or implementations are required.
      */
     public Page<Chef> searchChefsByTerm(String term, PageOptions pageOptions) {
-        String sql = String.format("SELECT * FROM CHEF WHERE name LIKE ? ORDER BY %s %s", pageOptions.getSortBy(),
-                pageOptions.getSortDirection());
-        try{
-            Connection connection = connectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(sql);
-            statement.setString(1, "%" + term + "%");
-            ResultSet resultSet = statement.executeQuery();
-            return pageResults(resultSet, pageOptions);
+        int[] candidates = usernameIndex.candidates(term, connectionUtil);
+        try (Connection connection = connectionUtil.getConnection()) {
+            PageQuery<Chef> query = new PageQuery<>("*", "CHEF", SORT_COLUMNS, this::mapSingleRow)
+                    .where("username LIKE ?", "%" + term + "%");
+            if (candidates != null) {
+                query.whereIdIn(candidates);
+            }
+            return query.fetch(connection, pageOptions);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -211,6 +254,15 @@ public class ChefDAO {
         return null;
     }
 
+    /**
+     * Reads every chef into memory, so that chefs are found by id without SQL from then on.
+     *
+     * @return the number of chefs read, or -1 if they could not be read
+     */
+    public int preloadCache() {
+        return chefCache.preload();
+    }
+
     // below are helper methods that are included for your convenience
 
     /**
@@ -245,36 +297,4 @@ public class ChefDAO {
         }
         return chefs;
     }
-
-    /**
-     * Paginates the results of a ResultSet into a Page of Chef objects.
-     *
-     * No modifications or implementations are required by candidates.
-     * 
-     * (FOR REFERENCE) This method is part of the backend logic.
-     * No modifications or implementations are required.
-     */
-    private Page<Chef> pageResults(ResultSet set, PageOptions pageOptions) throws SQLException {
-        List<Chef> chefs = mapRows(set);
-        int offset = (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize();
-        int limit = offset + pageOptions.getPageSize();
-        List<Chef> slicedList = sliceList(chefs, offset, limit);
-        return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(),
-                chefs.size() / pageOptions.getPageSize(), chefs.size(), slicedList);
-    }
-
-    /**
-     * Slices a list of Chef objects from a starting index to an ending index.
-     *
-     * No modifications or implementations are required by candidates.
-     * (FOR REFERENCE) This method is part of the backend logic.
-     * No modifications or implementations are required.
-     */
-    private List<Chef> sliceList(List<Chef> list, int start, int end) {
-        List<Chef> sliced = new ArrayList<>();
-        for (int i = start; i < end; i++) {
-            sliced.add(list.get(i));
-        }
-        return sliced;
-    }
 }
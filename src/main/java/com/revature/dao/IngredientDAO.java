@@ -6,12 +6,22 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import com.revature.model.Ingredient;
 import com.revature.util.ConnectionUtil;
+import com.revature.util.DataVersions;
+import com.revature.util.EntityCache;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.PageQuery;
+import com.revature.util.TrigramIndex;
+import com.revature.util.UnitOfWork;
 
 
 // NOTE: This file is part of the backend implementation. No changes are required.
@@ -24,10 +34,23 @@ import com.revature.util.PageOptions;
  */
 public class IngredientDAO {
 
+   /** The columns a page of ingredients may be sorted by, keyed by the sort option accepted from callers. */
+   private static final Map<String, String> SORT_COLUMNS = Map.of("id", "ID", "name", "NAME");
+
+   /** The number of rows sent to the database in each JDBC batch. */
+   private static final int BATCH_SIZE = 500;
+
    /** A utility class used for establishing connections to the database. */
    @SuppressWarnings("unused")
    private ConnectionUtil connectionUtil;
 
+   /** Trigram index over ingredient names, used to narrow down substring searches; built on first use and kept up to date by this DAO's write methods. */
+   private final TrigramIndex nameIndex = new TrigramIndex("INGREDIENT", "NAME");
+
+   /** Every ingredient, by id and by name, kept in memory once {@link #preloadCache()} has been called and read again after each committed write to the table. */
+   private final EntityCache<Ingredient> ingredientCache = new EntityCache<>("INGREDIENT", this::getAllIngredients,
+           Ingredient::getId, Ingredient::getName, ingredient -> new Ingredient(ingredient.getId(), ingredient.getName()));
+
    /**
     * Constructs an IngredientDAO with the specified ConnectionUtil for database connectivity.
     * 
@@ -46,12 +69,22 @@ public class IngredientDAO {
      * No modifications or implementations are required.
      */
     public Ingredient getIngredientById(int id) {
+        Ingredient loaded = UnitOfWork.lookup(Ingredient.class, id);
+        if (loaded != null) {
+            return loaded;
+        }
+        EntityCache.Snapshot<Ingredient> ingredients = ingredientCache.current();
+        if (ingredients != null) {
+            Ingredient ingredient = ingredients.get(id);
+            return ingredient == null ? null : UnitOfWork.remember(Ingredient.class, id, ingredient);
+        }
         String sql = "SELECT * FROM INGREDIENT WHERE ID = ?";
         try (Connection connection = connectionUtil.getConnection();
                 PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setInt(1, id);
-            ResultSet resultSet = statement.executeQuery();
-            return resultSet.next() ? mapSingleRow(resultSet) : null;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? UnitOfWork.remember(Ingredient.class, id, mapSingleRow(resultSet)) : null;
+            }
         } catch (SQLException ex) {
             ex.printStackTrace();
         }
@@ -59,6 +92,55 @@ public class IngredientDAO {
         return null;
     }
 
+    /**
+     * Retrieves an Ingredient by its name, ignoring case and surrounding spaces. If several ingredients share the name, the one with the lowest id is returned.
+     *
+     * @param name the ingredient name
+     * @return the ingredient, or null if there is none with that name
+     */
+    public Ingredient getIngredientByName(String name) {
+        EntityCache.Snapshot<Ingredient> ingredients = ingredientCache.current();
+        if (ingredients != null) {
+            Ingredient ingredient = ingredients.getByName(name);
+            return ingredient == null ? null
+                    : UnitOfWork.remember(Ingredient.class, ingredient.getId(), ingredient);
+        }
+        String sql = "SELECT * FROM INGREDIENT WHERE LOWER(TRIM(NAME)) = ? ORDER BY ID LIMIT 1";
+        try (Connection connection = connectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, name.trim().toLowerCase(Locale.ROOT));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    Ingredient ingredient = mapSingleRow(resultSet);
+                    return UnitOfWork.remember(Ingredient.class, ingredient.getId(), ingredient);
+                }
+                return null;
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("Unable to retrieve ingredient by name", ex);
+        }
+    }
+
+    /**
+     * Reads the id of every ingredient, keyed by its name in lower case without surrounding spaces, as {@link #getIngredientByName(String)} matches names. Where two ingredients share such a name, the lower id is kept.
+     *
+     * @return the ingredient ids by folded name, read with one query
+     */
+    public Map<String, Integer> getIngredientIdsByName() {
+        String sql = "SELECT ID, NAME FROM INGREDIENT ORDER BY ID";
+        try (Connection connection = connectionUtil.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(sql)) {
+            Map<String, Integer> ids = new HashMap<>();
+            while (resultSet.next()) {
+                ids.putIfAbsent(resultSet.getString("NAME").trim().toLowerCase(Locale.ROOT), resultSet.getInt("ID"));
+            }
+            return ids;
+        } catch (SQLException ex) {
+            throw new RuntimeException("Unable to read ingredient names", ex);
+        }
+    }
+
     /**
      * Creates a new Ingredient record in the database.
      *
@@ -72,11 +154,16 @@ public class IngredientDAO {
             statement.setString(1, ingredient.getName());
             statement.executeUpdate();
 
-            ResultSet resultSet = statement.getGeneratedKeys();
-            if (resultSet.next()) {
-                return resultSet.getInt(1);
-            } else {
-                throw new RuntimeException("Unable to create ingredient");
+            try (ResultSet resultSet = statement.getGeneratedKeys()) {
+                if (resultSet.next()) {
+                    int id = resultSet.getInt(1);
+                    String name = ingredient.getName();
+                    UnitOfWork.afterCommit(() -> nameIndex.put(id, name));
+                    DataVersions.changed("INGREDIENT", id);
+                    return id;
+                } else {
+                    throw new RuntimeException("Unable to create ingredient");
+                }
             }
 
         } catch (SQLException ex) {
@@ -86,6 +173,41 @@ public class IngredientDAO {
         return 0;
     }
 
+    /**
+     * Creates several ingredients in one transaction, sending the rows in JDBC batches. Either every ingredient is created or, if any of them cannot be, none is.
+     *
+     * @param ingredients the ingredients to create; their ids are not read back
+     * @throws RuntimeException if the ingredients could not be created, such as when a name is already taken
+     */
+    public void createIngredients(List<Ingredient> ingredients) {
+        String sql = "INSERT INTO INGREDIENT (NAME) VALUES (?)";
+        try (Connection connection = connectionUtil.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int batched = 0;
+                for (Ingredient ingredient : ingredients) {
+                    statement.setString(1, ingredient.getName());
+                    statement.addBatch();
+                    if (++batched % BATCH_SIZE == 0) {
+                        statement.executeBatch();
+                    }
+                }
+                if (batched % BATCH_SIZE != 0) {
+                    statement.executeBatch();
+                }
+                connection.commit();
+                DataVersions.changed("INGREDIENT");
+                // The new ids were not read back, so the name index is built again on the next search
+                UnitOfWork.afterCommit(nameIndex::invalidate);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("Unable to create ingredients", ex);
+        }
+    }
+
     /**
      * Deletes an Ingredient record from the database, including references in
      * related tables.
@@ -96,32 +218,35 @@ public class IngredientDAO {
     public void deleteIngredient(Ingredient ingredient) {
         String deleteRecipeIngredientSql = "DELETE FROM RECIPE_INGREDIENT WHERE INGREDIENT_ID = ?";
         String deleteIngredientSql = "DELETE FROM INGREDIENT WHERE ID = ?";
-        Connection connection = connectionUtil.getConnection();
-        try {
+        UnitOfWork.forget(Ingredient.class, ingredient.getId());
+        try (Connection connection = connectionUtil.getConnection()) {
             connection.setAutoCommit(false); // Start transaction
+            try {
+                // Step 1: Delete references in the RECIPE_INGREDIENT table
+                try (PreparedStatement ps = connection.prepareStatement(deleteRecipeIngredientSql)) {
+                    ps.setInt(1, ingredient.getId());
+                    ps.executeUpdate();
+                }
 
-            // Step 1: Delete references in the RECIPE_INGREDIENT table
-            try (PreparedStatement ps = connection.prepareStatement(deleteRecipeIngredientSql)) {
-                ps.setInt(1, ingredient.getId());
-                ps.executeUpdate();
-            }
-
-            // Step 2: Delete the ingredient itself
-            try (PreparedStatement ps = connection.prepareStatement(deleteIngredientSql)) {
-                ps.setInt(1, ingredient.getId());
-                int rowsAffected = ps.executeUpdate();
-                if (rowsAffected == 0) {
-                    throw new RuntimeException("No ingredient found with id: " + ingredient.getId());
+                // Step 2: Delete the ingredient itself
+                try (PreparedStatement ps = connection.prepareStatement(deleteIngredientSql)) {
+                    ps.setInt(1, ingredient.getId());
+                    int rowsAffected = ps.executeUpdate();
+                    if (rowsAffected == 0) {
+                        throw new RuntimeException("No ingredient found with id: " + ingredient.getId());
+                    }
                 }
-            }
 
-            connection.commit();
-        } catch (SQLException ex) {
-            try {
+                connection.commit();
+                int id = ingredient.getId();
+                UnitOfWork.afterCommit(() -> nameIndex.remove(id));
+                DataVersions.changed("INGREDIENT", id);
+                DataVersions.changed("RECIPE_INGREDIENT");
+            } catch (SQLException | RuntimeException ex) {
                 connection.rollback();
-            } catch (SQLException rollbackEx) {
-                rollbackEx.printStackTrace();
+                throw ex;
             }
+        } catch (SQLException ex) {
             ex.printStackTrace();
         }
     }
@@ -134,11 +259,17 @@ public class IngredientDAO {
      */
     public void updateIngredient(Ingredient ingredient) {
         String sql = "UPDATE INGREDIENT SET NAME = ? WHERE ID = ?";
+        UnitOfWork.forget(Ingredient.class, ingredient.getId());
         try (Connection connection = connectionUtil.getConnection();
                 PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setString(1, ingredient.getName());
             statement.setInt(2, ingredient.getId());
-            statement.executeUpdate();
+            if (statement.executeUpdate() > 0) {
+                int id = ingredient.getId();
+                String name = ingredient.getName();
+                UnitOfWork.afterCommit(() -> nameIndex.put(id, name));
+                DataVersions.changed("INGREDIENT", id);
+            }
         } catch (SQLException ex) {
             ex.printStackTrace();
         }
@@ -154,8 +285,9 @@ public class IngredientDAO {
         String sql = "SELECT * FROM INGREDIENT ORDER BY ID";
         try (Connection connection = connectionUtil.getConnection();
                 PreparedStatement statement = connection.prepareStatement(sql)) {
-            ResultSet resultSet = statement.executeQuery();
-            return mapRows(resultSet);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return mapRows(resultSet);
+            }
         } catch (SQLException ex) {
             ex.printStackTrace();
         }
@@ -163,6 +295,35 @@ public class IngredientDAO {
         return null;
     }
 
+    /**
+     * Streams the ingredients whose name contains the term, or every ingredient if the term is null, in id order, handing each one to the action as soon as its row is read. Rows are fetched from the database a batch at a time, so memory use does not grow with the number of ingredients.
+     *
+     * @param term the text the names must contain, or null for every ingredient
+     * @param action called with each ingredient
+     * @throws RuntimeException if the ingredients cannot be read
+     */
+    public void forEachIngredient(String term, Consumer<Ingredient> action) {
+        String sql = "SELECT * FROM INGREDIENT" + (term == null ? "" : " WHERE NAME LIKE ?") + " ORDER BY ID";
+        try (Connection connection = connectionUtil.getStreamingConnection()) {
+            ConnectionUtil.setLazyQueryExecution(connection, true);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setFetchSize(ConnectionUtil.STREAM_FETCH_SIZE);
+                if (term != null) {
+                    statement.setString(1, "%" + term + "%");
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        action.accept(mapSingleRow(resultSet));
+                    }
+                }
+            } finally {
+                ConnectionUtil.setLazyQueryExecution(connection, false);
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException("Unable to stream ingredients", ex);
+        }
+    }
+
     /**
      * Retrieves all Ingredient records from the database with pagination options.
      *
@@ -170,12 +331,8 @@ public class IngredientDAO {
      * No modifications or implementations are required.
      */
     public Page<Ingredient> getAllIngredients(PageOptions pageOptions) {
-        String sql = String.format("SELECT * FROM ingredient ORDER BY %s %s", pageOptions.getSortBy(),
-                pageOptions.getSortDirection());
-        try (Connection connection = connectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(sql)) {
-            ResultSet resultSet = statement.executeQuery();
-            return pageResults(resultSet, pageOptions);
+        try (Connection connection = connectionUtil.getConnection()) {
+            return new PageQuery<>("*", "INGREDIENT", SORT_COLUMNS, this::mapSingleRow).fetch(connection, pageOptions);
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -189,12 +346,25 @@ public class IngredientDAO {
      * No modifications or implementations are required.
      */
     public List<Ingredient> searchIngredients(String term) {
-        String sql = "SELECT * FROM INGREDIENT WHERE NAME LIKE ? ORDER BY ID";
+        int[] candidates = nameIndex.candidates(term, connectionUtil);
+        if (candidates != null && candidates.length == 0) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT * FROM INGREDIENT WHERE NAME LIKE ?";
+        if (candidates != null) {
+            // Only the candidates can match; LIKE still decides which of them do
+            sql += " AND ID IN (" + String.join(", ", Collections.nCopies(candidates.length, "?")) + ")";
+        }
+        sql += " ORDER BY ID";
         try (Connection connection = connectionUtil.getConnection();
                 PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setString(1, "%" + term + "%");
-            ResultSet resultSet = statement.executeQuery();
-            return mapRows(resultSet);
+            for (int i = 0; candidates != null && i < candidates.length; i++) {
+                statement.setInt(i + 2, candidates[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return mapRows(resultSet);
+            }
         } catch (SQLException ex) {
             throw new RuntimeException("Unable to search ingredients", ex);
         }
@@ -207,18 +377,28 @@ public class IngredientDAO {
      * No modifications or implementations are required.
      */
     public Page<Ingredient> searchIngredients(String term, PageOptions pageOptions) {
-        String sql = String.format("SELECT * FROM ingredient WHERE name LIKE ? ORDER BY %s %s", pageOptions.getSortBy(),
-                pageOptions.getSortDirection());
-        try (Connection connection = connectionUtil.getConnection();
-                PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, "%" + term + "%");
-            ResultSet resultSet = statement.executeQuery();
-            return pageResults(resultSet, pageOptions);
+        int[] candidates = nameIndex.candidates(term, connectionUtil);
+        try (Connection connection = connectionUtil.getConnection()) {
+            PageQuery<Ingredient> query = new PageQuery<>("*", "INGREDIENT", SORT_COLUMNS, this::mapSingleRow)
+                    .where("NAME LIKE ?", "%" + term + "%");
+            if (candidates != null) {
+                query.whereIdIn(candidates);
+            }
+            return query.fetch(connection, pageOptions);
         } catch (SQLException e) {
             throw new RuntimeException("Unable to search ingredients by term", e);
         }
     }
 
+    /**
+     * Reads every ingredient into memory, so that ingredients are found by id or name without SQL from then on.
+     *
+     * @return the number of ingredients read, or -1 if they could not be read
+     */
+    public int preloadCache() {
+        return ingredientCache.preload();
+    }
+
     // below are helper methods for your convenience
 
     /**
@@ -244,19 +424,4 @@ public class IngredientDAO {
         }
         return ingredients;
     }
-
-    /**
-     * Paginates the results of a ResultSet into a Page of Ingredient objects.
-     *
-	 * (FOR REFERENCE) This method is part of the backend logic.
-     * No modifications or implementations are required.
-     */
-    private Page<Ingredient> pageResults(ResultSet resultSet, PageOptions pageOptions) throws SQLException {
-        List<Ingredient> ingredients = mapRows(resultSet);
-        int offset = (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize();
-        int limit = offset + pageOptions.getPageSize();
-        List<Ingredient> subList = ingredients.subList(offset, limit);
-        return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(),
-                (int) Math.ceil(ingredients.size() / ((float) pageOptions.getPageSize())), ingredients.size(), subList);
-    }
 }
@@ -6,15 +6,32 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import com.revature.model.Chef;
+import com.revature.model.Pantry;
+import com.revature.model.PantryMatch;
 import com.revature.model.Recipe;
 import com.revature.model.RecipeIngredient;
+import com.revature.util.CompressedBitmap;
 import com.revature.util.ConnectionUtil;
+import com.revature.util.DataVersions;
+import com.revature.util.FullTextIndex;
+import com.revature.util.IngredientIndex;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.PageQuery;
+import com.revature.util.PantryMatrix;
+import com.revature.util.Projection;
+import com.revature.util.TrigramIndex;
+import com.revature.util.UnitOfWork;
 
 
 // NOTE: This file is part of the backend implementation. No changes are required.
@@ -29,21 +46,89 @@ import com.revature.util.PageOptions;
  */
 public class RecipeDAO {
 
+	/**
+	 * The columns a page of recipes may be sorted by, keyed by the sort option
+	 * accepted from callers.
+	 */
+	private static final Map<String, String> SORT_COLUMNS = Map.of("id", "r.id", "name", "r.name", "instructions",
+			"r.instructions", "chef_id", "r.chef_id");
+
+	/**
+	 * The columns of a recipe's author, aliased so that they do not clash with
+	 * the recipe's own. The password is left out, so it is never read along
+	 * with a recipe or sent out with one.
+	 */
+	private static final String AUTHOR_COLUMNS = "r.chef_id, "
+			+ "c.username AS chef_username, c.email AS chef_email, c.is_admin AS chef_is_admin";
+
+	/**
+	 * The recipe columns along with the columns of the recipe's author.
+	 * Reading the author in the same query avoids a separate chef lookup for
+	 * every recipe row.
+	 */
+	private static final String RECIPE_COLUMNS = "r.id, r.name, r.instructions, " + AUTHOR_COLUMNS;
+
+	/**
+	 * The recipe table joined with its author. The join is an outer join so
+	 * recipes without an author are still returned.
+	 */
+	private static final String RECIPE_FROM = "RECIPE r LEFT JOIN CHEF c ON c.id = r.chef_id";
+
+	/**
+	 * The largest number of ids bound into a single IN list. Longer lists are
+	 * split into several queries on the same connection.
+	 */
+	private static final int MAX_IN_LIST = 1000;
+
+	/**
+	 * The number of rows sent to the database in each JDBC batch.
+	 */
+	private static final int BATCH_SIZE = 500;
+
+	/**
+	 * How much a match in a recipe's name counts compared to a match in its
+	 * instructions in full-text search.
+	 */
+	private static final float NAME_WEIGHT = 2.0f;
+
 	/**
 	 * DAO for managing Chef entities, used for retrieving chef details associated
 	 * with recipes.
 	 */
+	@SuppressWarnings("unused")
 	private ChefDAO chefDAO;
 	/**
 	 * DAO for managing Ingredient entities, used for retrieving ingredient details
 	 * for recipes.
 	 */
+	@SuppressWarnings("unused")
 	private IngredientDAO ingredientDAO;
 	/**
 	 * Utility class for managing database connections, providing methods to obtain
 	 * database connections.
 	 */
 	private ConnectionUtil connectionUtil;
+	/**
+	 * Full-text index over recipe names and instructions. It is built from the
+	 * RECIPE table on first use and kept up to date by this DAO's write methods.
+	 */
+	private final FullTextIndex fullTextIndex = new FullTextIndex(NAME_WEIGHT, 1.0f);
+	/**
+	 * Whether the full-text index has been built.
+	 */
+	private boolean fullTextIndexBuilt;
+	/**
+	 * Trigram index over recipe names, used to narrow down substring searches
+	 * to a few candidate ids. It is built from the RECIPE table on first use and
+	 * kept up to date by this DAO's write methods.
+	 */
+	private final TrigramIndex nameIndex = new TrigramIndex("RECIPE", "name");
+	/**
+	 * Inverted index from ingredients to the recipes using them, used to search
+	 * by several ingredients at once. It is built by buildIngredientIndex, or on
+	 * first use, and kept up to date by this DAO's write methods.
+	 */
+	private final IngredientIndex ingredientIndex = new IngredientIndex();
 
 	/**
 	 * Constructs a RecipeDAO instance with specified ChefDAO and IngredientDAO.
@@ -64,13 +149,24 @@ public class RecipeDAO {
      * No modifications or implementations are required.
 	 */
 	public List<Recipe> getAllRecipes() {
+		return getAllRecipes((Projection) null);
+	}
+
+	/**
+	 * Retrieves all recipes, reading only the projected fields. The id is
+	 * always read; the author's table is only joined in if the author is
+	 * asked for.
+	 *
+	 * @param fields the fields to read, or null for every field
+	 * @return the recipes, in id order, or null if they cannot be read
+	 */
+	public List<Recipe> getAllRecipes(Projection fields) {
 
-		try {
-			Connection connection = connectionUtil.getConnection();
-			Statement statement = connection.createStatement();
-			String sql = "SELECT * FROM RECIPE ORDER BY id";
-			ResultSet resultSet = statement.executeQuery(sql);
-			return mapRows(resultSet);
+		String sql = "SELECT " + columns(fields) + " FROM " + from(fields) + " ORDER BY r.id";
+		try (Connection connection = connectionUtil.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery(sql)) {
+			return mapRows(resultSet, fields);
 
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -87,12 +183,22 @@ public class RecipeDAO {
      * No modifications or implementations are required.
 	 */
 	public Page<Recipe> getAllRecipes(PageOptions pageOptions) {
-		String sql = String.format("SELECT * FROM RECIPE ORDER BY %s %s", pageOptions.getSortBy(),
-				pageOptions.getSortDirection());
-		try (Connection connection = connectionUtil.getConnection();
-				PreparedStatement statement = connection.prepareStatement(sql)) {
-			ResultSet resultSet = statement.executeQuery();
-			return pageResults(resultSet, pageOptions);
+		return getAllRecipes(pageOptions, null);
+	}
+
+	/**
+	 * Retrieves a page of recipes, reading only the projected fields. Sorting
+	 * by a field that is not projected still works, as the sort column is read
+	 * separately.
+	 *
+	 * @param pageOptions the page to read
+	 * @param fields      the fields to read, or null for every field
+	 * @return the page, or null if it cannot be read
+	 */
+	public Page<Recipe> getAllRecipes(PageOptions pageOptions, Projection fields) {
+		try (Connection connection = connectionUtil.getConnection()) {
+			return new PageQuery<>(columns(fields), from(fields), SORT_COLUMNS, set -> mapSingleRow(set, fields))
+					.fetch(connection, pageOptions);
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -100,6 +206,52 @@ public class RecipeDAO {
 		return null;
 	}
 
+	/**
+	 * Streams the recipes whose name contains the term, or every recipe if the
+	 * term is null, in id order, handing each one to the action as soon as its
+	 * row is read. Rows are fetched from the database a batch at a time, so
+	 * memory use does not grow with the number of recipes.
+	 *
+	 * @param term   the text the names must contain, or null for every recipe
+	 * @param action called with each recipe, without its ingredients
+	 * @throws RuntimeException if the recipes cannot be read
+	 */
+	public void forEachRecipe(String term, Consumer<Recipe> action) {
+		forEachRecipe(term, null, action);
+	}
+
+	/**
+	 * Streams recipes as {@link #forEachRecipe(String, Consumer)} does, reading
+	 * only the projected fields.
+	 *
+	 * @param term   the text the names must contain, or null for every recipe
+	 * @param fields the fields to read, or null for every field
+	 * @param action called with each recipe, without its ingredients
+	 * @throws RuntimeException if the recipes cannot be read
+	 */
+	public void forEachRecipe(String term, Projection fields, Consumer<Recipe> action) {
+		String sql = "SELECT " + columns(fields) + " FROM " + from(fields)
+				+ (term == null ? "" : " WHERE r.name LIKE ?") + " ORDER BY r.id";
+		try (Connection connection = connectionUtil.getStreamingConnection()) {
+			ConnectionUtil.setLazyQueryExecution(connection, true);
+			try (PreparedStatement statement = connection.prepareStatement(sql)) {
+				statement.setFetchSize(ConnectionUtil.STREAM_FETCH_SIZE);
+				if (term != null) {
+					statement.setString(1, "%" + term + "%");
+				}
+				try (ResultSet resultSet = statement.executeQuery()) {
+					while (resultSet.next()) {
+						action.accept(mapSingleRow(resultSet, fields));
+					}
+				}
+			} finally {
+				ConnectionUtil.setLazyQueryExecution(connection, false);
+			}
+		} catch (SQLException e) {
+			throw new RuntimeException("Unable to stream recipes", e);
+		}
+	}
+
 	/**
 	 * Searches for recipes by a specified search term.
 	 * 
@@ -107,12 +259,36 @@ public class RecipeDAO {
      * No modifications or implementations are required.
 	 */
 	public List<Recipe> searchRecipesByTerm(String term) {
-		String sql = "SELECT * FROM RECIPE WHERE name LIKE ?";
+		return searchRecipesByTerm(term, (Projection) null);
+	}
+
+	/**
+	 * Searches for recipes whose name contains the term, reading only the
+	 * projected fields.
+	 *
+	 * @param term   the text the names must contain
+	 * @param fields the fields to read, or null for every field
+	 * @return the matching recipes, or null if they cannot be read
+	 */
+	public List<Recipe> searchRecipesByTerm(String term, Projection fields) {
+		int[] candidates = nameIndex.candidates(term, connectionUtil);
+		if (candidates != null && candidates.length == 0) {
+			return new ArrayList<>();
+		}
+		String sql = "SELECT " + columns(fields) + " FROM " + from(fields) + " WHERE r.name LIKE ?";
+		if (candidates != null) {
+			// Only the candidates can match; LIKE still decides which of them do
+			sql += " AND r.id IN (" + placeholders(candidates.length) + ") ORDER BY r.id";
+		}
 		try (Connection connection = connectionUtil.getConnection();
 				PreparedStatement statement = connection.prepareStatement(sql)) {
 			statement.setString(1, "%" + term + "%");
-			ResultSet resultSet = statement.executeQuery();
-			return mapRows(resultSet);
+			for (int i = 0; candidates != null && i < candidates.length; i++) {
+				statement.setInt(i + 2, candidates[i]);
+			}
+			try (ResultSet resultSet = statement.executeQuery()) {
+				return mapRows(resultSet, fields);
+			}
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -127,12 +303,15 @@ public class RecipeDAO {
      * No modifications or implementations are required.
 	 */
 	public List<Recipe> searchRecipesByIngredient(String ingredient) {
-		String sql = "SELECT r.id, r.name, r.instructions FROM recipe r JOIN recipe_ingredient ir ON r.id = ir.recipe_id JOIN ingredient i ON ir.ingredient_id = i.id WHERE i.name LIKE ?;";
+		String sql = "SELECT " + RECIPE_COLUMNS + " FROM " + RECIPE_FROM
+				+ " WHERE r.id IN (SELECT ir.recipe_id FROM RECIPE_INGREDIENT ir"
+				+ " JOIN INGREDIENT i ON ir.ingredient_id = i.id WHERE i.name LIKE ?) ORDER BY r.id";
 		try (Connection connection = connectionUtil.getConnection();
 				PreparedStatement statement = connection.prepareStatement(sql)) {
 			statement.setString(1, "%" + ingredient + "%");
-			ResultSet resultSet = statement.executeQuery();
-			return mapRows(resultSet);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				return mapRows(resultSet);
+			}
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -140,6 +319,167 @@ public class RecipeDAO {
 		return null;
 	}
 
+	/**
+	 * Finds the recipes using all, or any, of the named ingredients, in id order.
+	 * The matching ids come from the in-memory ingredient index; only the
+	 * matching recipes are read from the database. Names must match an
+	 * ingredient's whole name, ignoring case.
+	 */
+	public List<Recipe> searchRecipesByIngredients(List<String> ingredients, boolean matchAll) {
+		int[] ids = matchingRecipes(ingredients, matchAll).toArray();
+		try (Connection connection = connectionUtil.getConnection()) {
+			Map<Integer, Recipe> found = getRecipesByIds(connection, ids);
+			List<Recipe> recipes = new ArrayList<>();
+			for (int id : ids) {
+				if (found.containsKey(id)) {
+					recipes.add(found.get(id));
+				}
+			}
+			return recipes;
+		} catch (SQLException e) {
+			throw new RuntimeException("Unable to search recipes by ingredient", e);
+		}
+	}
+
+	/**
+	 * Finds one page of the recipes using all, or any, of the named ingredients.
+	 * Pages sorted by id are cut straight out of the matching ids, so only the
+	 * recipes on the page are read; other sorts, and cursor paging, run the
+	 * usual page query restricted to the matching ids, with the total taken
+	 * from the bitmap instead of counted.
+	 */
+	public Page<Recipe> searchRecipesByIngredients(List<String> ingredients, boolean matchAll,
+			PageOptions pageOptions) {
+		CompressedBitmap matches = matchingRecipes(ingredients, matchAll);
+		try (Connection connection = connectionUtil.getConnection()) {
+			String sortBy = pageOptions.getSortBy() == null ? PageQuery.DEFAULT_SORT
+					: pageOptions.getSortBy().toLowerCase();
+			if (pageOptions.isCursorPaging()
+					|| (SORT_COLUMNS.containsKey(sortBy) && !sortBy.equals(PageQuery.DEFAULT_SORT))) {
+				return new PageQuery<>(RECIPE_COLUMNS, RECIPE_FROM, SORT_COLUMNS, this::mapSingleRow)
+						.whereIdIn(matches.toArray()).withTotal(matches.cardinality())
+						.fetch(connection, pageOptions);
+			}
+
+			int pageSize = Math.max(1, pageOptions.getPageSize());
+			int pageNumber = Math.max(1, pageOptions.getPageNumber());
+			int total = matches.cardinality();
+			long offset = (long) (pageNumber - 1) * pageSize;
+			int[] ids = new int[0];
+			if (offset < total) {
+				boolean descending = "desc".equalsIgnoreCase(pageOptions.getSortDirection());
+				// A descending page is the mirror image of an ascending one counted from the end
+				int from = descending ? (int) Math.max(0, total - offset - pageSize) : (int) offset;
+				ids = matches.toArray(from, (int) Math.min(pageSize, total - offset));
+				if (descending) {
+					for (int i = 0, j = ids.length - 1; i < j; i++, j--) {
+						int id = ids[i];
+						ids[i] = ids[j];
+						ids[j] = id;
+					}
+				}
+			}
+			Map<Integer, Recipe> found = getRecipesByIds(connection, ids);
+			List<Recipe> items = new ArrayList<>();
+			for (int id : ids) {
+				if (found.containsKey(id)) {
+					items.add(found.get(id));
+				}
+			}
+			int totalPages = (int) Math.ceil(total / (double) pageSize);
+			return new Page<>(pageNumber, pageSize, totalPages, total, items);
+		} catch (SQLException e) {
+			throw new RuntimeException("Unable to search recipes by ingredient", e);
+		}
+	}
+
+	/**
+	 * Builds the ingredient index now, so that the first search by ingredients
+	 * does not have to wait for it.
+	 */
+	public void buildIngredientIndex() {
+		ingredientIndex.build(connectionUtil);
+	}
+
+	/**
+	 * Ranks the recipes by how much of their ingredients the pantry covers.
+	 * Every recipe is scored in memory against the ingredient index's recipe by
+	 * ingredient matrix; only the recipes returned are read from the database.
+	 * Recipes sharing no ingredient with the pantry are left out.
+	 *
+	 * @param pantry the ingredients at hand, by id or name
+	 * @param limit the most matches to return
+	 * @param maxMissing the most ingredients a returned recipe may lack, or a
+	 *                   negative number for no limit
+	 * @param byMissing  whether to rank by fewest missing ingredients first,
+	 *                   rather than by the fraction covered
+	 */
+	public List<PantryMatch> matchPantry(Pantry pantry, int limit, int maxMissing, boolean byMissing) {
+		List<Integer> ingredientIds = new ArrayList<>();
+		if (pantry.getIngredientIds() != null) {
+			ingredientIds.addAll(pantry.getIngredientIds());
+		}
+		if (pantry.getIngredients() != null && !pantry.getIngredients().isEmpty()) {
+			for (int id : ingredientIndex.ingredientIds(pantry.getIngredients(), connectionUtil)) {
+				ingredientIds.add(id);
+			}
+		}
+		PantryMatrix.Match[] best = ingredientIndex.pantryMatrix(connectionUtil).bestMatches(
+				ingredientIds.stream().filter(id -> id != null).mapToInt(Integer::intValue).toArray(), limit,
+				maxMissing, byMissing);
+
+		int[] ids = new int[best.length];
+		for (int i = 0; i < best.length; i++) {
+			ids[i] = best[i].getRecipeId();
+		}
+		try (Connection connection = connectionUtil.getConnection()) {
+			Map<Integer, Recipe> found = getRecipesByIds(connection, ids);
+			List<PantryMatch> matches = new ArrayList<>();
+			for (PantryMatrix.Match match : best) {
+				Recipe recipe = found.get(match.getRecipeId());
+				if (recipe != null) {
+					List<Integer> missing = new ArrayList<>();
+					for (int id : match.getMissing()) {
+						missing.add(id);
+					}
+					matches.add(new PantryMatch(recipe, match.getMatched(), missing));
+				}
+			}
+			return matches;
+		} catch (SQLException e) {
+			throw new RuntimeException("Unable to match recipes to the pantry", e);
+		}
+	}
+
+	/**
+	 * Searches recipe names and instructions for any of the words in the query,
+	 * best match first. Matching ignores case and accents, and results are
+	 * ranked with BM25, with words in the name counting for more than words in
+	 * the instructions.
+	 *
+	 * The search itself runs against the in-memory full-text index; only the
+	 * matching recipes are read from the database.
+	 */
+	public List<Recipe> searchRecipesByText(String query, int limit) {
+		List<Integer> ids = fullTextIndex().search(query, limit);
+		if (ids.isEmpty()) {
+			return new ArrayList<>();
+		}
+		try (Connection connection = connectionUtil.getConnection()) {
+			Map<Integer, Recipe> found = getRecipesByIds(connection,
+					ids.stream().mapToInt(Integer::intValue).toArray());
+			List<Recipe> ranked = new ArrayList<>();
+			for (int id : ids) {
+				if (found.containsKey(id)) {
+					ranked.add(found.get(id));
+				}
+			}
+			return ranked;
+		} catch (SQLException e) {
+			throw new RuntimeException("Unable to search recipes", e);
+		}
+	}
+
 	/**
 	 * Searches for recipes by a specified search term and returns a paginated
 	 * result.
@@ -148,13 +488,28 @@ public class RecipeDAO {
      * No modifications or implementations are required.
 	 */
 	public Page<Recipe> searchRecipesByTerm(String term, PageOptions pageOptions) {
-		String sql = String.format("SELECT * FROM RECIPE WHERE name LIKE ? ORDER BY %s %s", pageOptions.getSortBy(),
-				pageOptions.getSortDirection());
-		try (Connection connection = connectionUtil.getConnection();
-				PreparedStatement statement = connection.prepareStatement(sql)) {
-			statement.setString(1, "%" + term + "%");
-			ResultSet resultSet = statement.executeQuery();
-			return pageResults(resultSet, pageOptions);
+		return searchRecipesByTerm(term, pageOptions, null);
+	}
+
+	/**
+	 * Searches for a page of recipes whose name contains the term, reading
+	 * only the projected fields.
+	 *
+	 * @param term        the text the names must contain
+	 * @param pageOptions the page to read
+	 * @param fields      the fields to read, or null for every field
+	 * @return the page, or null if it cannot be read
+	 */
+	public Page<Recipe> searchRecipesByTerm(String term, PageOptions pageOptions, Projection fields) {
+		int[] candidates = nameIndex.candidates(term, connectionUtil);
+		try (Connection connection = connectionUtil.getConnection()) {
+			PageQuery<Recipe> query = new PageQuery<>(columns(fields), from(fields), SORT_COLUMNS,
+					set -> mapSingleRow(set, fields))
+					.where("r.name LIKE ?", "%" + term + "%");
+			if (candidates != null) {
+				query.whereIdIn(candidates);
+			}
+			return query.fetch(connection, pageOptions);
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
@@ -169,14 +524,18 @@ public class RecipeDAO {
      * No modifications or implementations are required.
 	 */
 	public Recipe getRecipeById(int id) {
-		String sql = "SELECT * FROM RECIPE WHERE id = ?";
+		Recipe loaded = UnitOfWork.lookup(Recipe.class, id);
+		if (loaded != null) {
+			return loaded;
+		}
+		String sql = "SELECT " + RECIPE_COLUMNS + " FROM " + RECIPE_FROM + " WHERE r.id = ?";
 		try (Connection connection = connectionUtil.getConnection();
 				PreparedStatement statement = connection.prepareStatement(sql)) {
 			statement.setInt(1, id);
-			ResultSet resultSet = statement.executeQuery();
-
-			if (resultSet.next()) {
-				return mapSingleRow(resultSet);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				if (resultSet.next()) {
+					return UnitOfWork.remember(Recipe.class, id, mapSingleRow(resultSet));
+				}
 			}
 		} catch (SQLException e) {
 			e.printStackTrace();
@@ -184,9 +543,44 @@ public class RecipeDAO {
 		return null;
 	}
 
+	/**
+	 * Retrieves the recipes with the given ids, with their authors, in one
+	 * query joining RECIPE to CHEF; lists longer than the IN list limit take
+	 * one query per limit. Recipes already loaded in the current unit of work
+	 * are not read again.
+	 *
+	 * @param ids the recipe ids
+	 * @return the recipes found, keyed by id; ids with no recipe are left out
+	 */
+	public Map<Integer, Recipe> getRecipesByIds(List<Integer> ids) {
+		Map<Integer, Recipe> found = new HashMap<>();
+		List<Integer> misses = new ArrayList<>();
+		for (int id : ids) {
+			Recipe loaded = UnitOfWork.lookup(Recipe.class, id);
+			if (loaded != null) {
+				found.put(id, loaded);
+			} else {
+				misses.add(id);
+			}
+		}
+		if (misses.isEmpty()) {
+			return found;
+		}
+		try (Connection connection = connectionUtil.getConnection()) {
+			for (Recipe recipe : getRecipesByIds(connection, misses.stream().mapToInt(Integer::intValue).toArray())
+					.values()) {
+				found.put(recipe.getId(), UnitOfWork.remember(Recipe.class, recipe.getId(), recipe));
+			}
+		} catch (SQLException e) {
+			throw new RuntimeException("Unable to retrieve recipes by id", e);
+		}
+		return found;
+	}
+
 	/**
 	 * Creates a new recipe in the database and returns its generated unique
-	 * identifier.
+	 * identifier. The recipe and its ingredients are saved together or not at
+	 * all; a failure is rolled back and thrown.
 	 *
 	 * (FOR REFERENCE) This method is part of the backend logic.
      * No modifications or implementations are required.
@@ -195,28 +589,128 @@ public class RecipeDAO {
 		String sql = "INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, ?, ?)";
 		int generatedId = 0;
 
-		try (Connection conn = connectionUtil.getConnection();
-				PreparedStatement statement = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+		try (Connection conn = connectionUtil.getConnection()) {
+			conn.setAutoCommit(false);
+			try (PreparedStatement statement = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-			statement.setString(1, recipe.getName());
-			statement.setString(2, recipe.getInstructions());
-			statement.setInt(3, recipe.getAuthor().getId());
-			statement.executeUpdate();
+				statement.setString(1, recipe.getName());
+				statement.setString(2, recipe.getInstructions());
+				statement.setInt(3, recipe.getAuthor().getId());
+				statement.executeUpdate();
 
-			try (ResultSet rs = statement.getGeneratedKeys()) {
-				if (rs.next()) {
-					generatedId = rs.getInt(1); // Get generated ID
-					System.out.println("Recipe added with ID: " + generatedId); // Logging
+				try (ResultSet rs = statement.getGeneratedKeys()) {
+					if (rs.next()) {
+						generatedId = rs.getInt(1); // Get generated ID
+					}
 				}
+				saveIngredients(conn, generatedId, recipe.getIngredients());
+				conn.commit();
+				DataVersions.changed("RECIPE", generatedId);
+				DataVersions.changed("RECIPE_INGREDIENT");
+				int id = generatedId;
+				UnitOfWork.afterCommit(() -> {
+					indexRecipe(id, recipe.getName(), recipe.getInstructions());
+					nameIndex.put(id, recipe.getName());
+					ingredientIndex.reindexRecipe(id, connectionUtil);
+				});
+			} catch (SQLException e) {
+				conn.rollback(); // Nothing is saved if any ingredient fails
+				throw e;
 			}
 		} catch (SQLException e) {
-			System.err.println("Error adding recipe: " + e.getMessage()); // Logging
-			e.printStackTrace();
+			throw new RuntimeException("Error adding recipe to database", e);
 		}
 	
 		return generatedId;
 	}
 
+	/**
+	 * Reads the id of every ingredient by its name, folded as ingredient
+	 * names are matched, for resolving the ingredients of imported recipes.
+	 */
+	public Map<String, Integer> getIngredientIdsByName() {
+		return ingredientDAO.getIngredientIdsByName();
+	}
+
+	/**
+	 * Creates several recipes, with their ingredients, in one transaction.
+	 * The recipe rows and then the ingredient rows are sent as JDBC batches,
+	 * and the new ids are read back by name with IN queries, since names are
+	 * unique, rather than one generated key at a time. Either every recipe is
+	 * created or, if any of them cannot be, none is. The ids of the created
+	 * recipes are set on them.
+	 *
+	 * @param recipes the recipes to create, each with an author and with
+	 *                ingredients that refer to existing ingredient ids
+	 * @throws RuntimeException if the recipes could not be created, such as
+	 *                          when a name is already taken
+	 */
+	public void createRecipes(List<Recipe> recipes) {
+		String sql = "INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, ?, ?)";
+		String ingredientSql = "INSERT INTO RECIPE_INGREDIENT (recipe_id, ingredient_id, vol, unit) VALUES (?,?,?,?)";
+		Map<Integer, List<Integer>> ingredientIds = new HashMap<>();
+		try (Connection connection = connectionUtil.getConnection()) {
+			connection.setAutoCommit(false);
+			try {
+				try (PreparedStatement statement = connection.prepareStatement(sql)) {
+					int batched = 0;
+					for (Recipe recipe : recipes) {
+						statement.setString(1, recipe.getName());
+						statement.setString(2, recipe.getInstructions());
+						statement.setInt(3, recipe.getAuthor().getId());
+						statement.addBatch();
+						if (++batched % BATCH_SIZE == 0) {
+							statement.executeBatch();
+						}
+					}
+					if (batched % BATCH_SIZE != 0) {
+						statement.executeBatch();
+					}
+				}
+				Map<String, Integer> ids = getRecipeIdsByName(connection, recipes);
+				try (PreparedStatement statement = connection.prepareStatement(ingredientSql)) {
+					int batched = 0;
+					for (Recipe recipe : recipes) {
+						recipe.setId(ids.get(recipe.getName()));
+						List<Integer> recipeIngredientIds = new ArrayList<>();
+						ingredientIds.put(recipe.getId(), recipeIngredientIds);
+						if (recipe.getIngredients() == null) {
+							continue;
+						}
+						for (RecipeIngredient ingredient : recipe.getIngredients()) {
+							statement.setInt(1, recipe.getId());
+							statement.setInt(2, ingredient.getId());
+							statement.setDouble(3, ingredient.getVolume());
+							statement.setString(4, ingredient.getUnit());
+							statement.addBatch();
+							recipeIngredientIds.add(ingredient.getId());
+							if (++batched % BATCH_SIZE == 0) {
+								statement.executeBatch();
+							}
+						}
+					}
+					if (batched % BATCH_SIZE != 0) {
+						statement.executeBatch();
+					}
+				}
+				connection.commit();
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback(); // Nothing is saved if any recipe fails
+				throw e;
+			}
+		} catch (SQLException e) {
+			throw new RuntimeException("Unable to create recipes", e);
+		}
+		DataVersions.changed("RECIPE", "RECIPE_INGREDIENT");
+		UnitOfWork.afterCommit(() -> {
+			for (Recipe recipe : recipes) {
+				indexRecipe(recipe.getId(), recipe.getName(), recipe.getInstructions());
+				nameIndex.put(recipe.getId(), recipe.getName());
+			}
+			ingredientIndex.putRecipes(ingredientIds);
+		});
+	}
+
 	/**
 	 * Updates an existing recipe's instructions and chef_id in the database.
 	 *
@@ -229,14 +723,36 @@ public class RecipeDAO {
 			throw new IllegalArgumentException("Invalid recipe provided for update.");
 		}
 		String sql = "UPDATE RECIPE SET instructions = ?, chef_id = ? WHERE id = ?";
-		try (Connection connection = connectionUtil.getConnection();
-			 PreparedStatement statement = connection.prepareStatement(sql)) {
-			statement.setString(1, recipe.getInstructions());
-			statement.setInt(2, recipe.getAuthor().getId());
-			statement.setInt(3, recipe.getId());
-			int rowsUpdated = statement.executeUpdate();
-			if (rowsUpdated == 0) {
-				throw new RuntimeException("No rows updated. Recipe ID may be invalid.");
+		String ingredientSql = "DELETE FROM RECIPE_INGREDIENT WHERE recipe_id = ?";
+		UnitOfWork.forget(Recipe.class, recipe.getId());
+		try (Connection connection = connectionUtil.getConnection()) {
+			connection.setAutoCommit(false);
+			try (PreparedStatement statement = connection.prepareStatement(sql)) {
+				statement.setString(1, recipe.getInstructions());
+				statement.setInt(2, recipe.getAuthor().getId());
+				statement.setInt(3, recipe.getId());
+				int rowsUpdated = statement.executeUpdate();
+				if (rowsUpdated == 0) {
+					throw new RuntimeException("No rows updated. Recipe ID may be invalid.");
+				}
+				if (recipe.getIngredients() != null) {
+					try (PreparedStatement ingredientStatement = connection.prepareStatement(ingredientSql)) {
+						ingredientStatement.setInt(1, recipe.getId());
+						ingredientStatement.executeUpdate();
+					}
+					saveIngredients(connection, recipe.getId(), recipe.getIngredients());
+				}
+				connection.commit();
+				DataVersions.changed("RECIPE", recipe.getId());
+				DataVersions.changed("RECIPE_INGREDIENT");
+				int id = recipe.getId();
+				UnitOfWork.afterCommit(() -> {
+					reindexRecipe(id);
+					ingredientIndex.reindexRecipe(id, connectionUtil);
+				});
+			} catch (SQLException | RuntimeException e) {
+				connection.rollback(); // Keep the recipe and its ingredients unchanged
+				throw e;
 			}
 		} catch (SQLException e) {
 			throw new RuntimeException("Error updating recipe in database", e);
@@ -253,6 +769,7 @@ public class RecipeDAO {
 	public void deleteRecipe(Recipe recipe) {
 		String ingredientSql = "DELETE FROM RECIPE_INGREDIENT WHERE recipe_id = ?";
 		String sql = "DELETE FROM RECIPE WHERE id = ?";
+		UnitOfWork.forget(Recipe.class, recipe.getId());
 		try (Connection connection = connectionUtil.getConnection()) {
 			connection.setAutoCommit(false);
 			try (PreparedStatement ingredientStatement = connection.prepareStatement(ingredientSql);
@@ -265,6 +782,14 @@ public class RecipeDAO {
 					throw new RuntimeException("Recipe not found for deletion: " + recipe.getId());
 				}
 				connection.commit();
+				DataVersions.changed("RECIPE", recipe.getId());
+				DataVersions.changed("RECIPE_INGREDIENT");
+				int id = recipe.getId();
+				UnitOfWork.afterCommit(() -> {
+					unindexRecipe(id);
+					nameIndex.remove(id);
+					ingredientIndex.removeRecipe(id);
+				});
 			} catch (SQLException e) {
 				connection.rollback(); // Roll back if there's an error
 				throw new RuntimeException("Unable to delete recipe", e);
@@ -275,67 +800,426 @@ public class RecipeDAO {
 	}
 
 	
-	// below are two extra methods that we don't test for. Not provided in student boilerplate.
 	/**
-	 * Retrieves a list of ingredients associated with a specific recipe.
+	 * Deletes the recipes with the given ids, along with their ingredients,
+	 * in one transaction. Each statement names at most the IN list limit of
+	 * recipes, RECIPE_INGREDIENT first and then RECIPE, so no single
+	 * statement grows with the number of ids.
 	 *
-	 * (FOR REFERENCE) This method is part of the backend logic.
-     * No modifications or implementations are required.
+	 * @param ids the recipe ids; ids with no recipe are skipped
+	 * @return the number of recipes deleted
 	 */
-	@SuppressWarnings("unused")
-	private List<RecipeIngredient> getIngredients(int id) {
+	public int deleteRecipes(List<Integer> ids) {
+		try (Connection connection = connectionUtil.getConnection()) {
+			connection.setAutoCommit(false);
+			try {
+				int deleted = deleteRecipes(connection, ids);
+				connection.commit();
+				deleted(ids);
+				return deleted;
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			}
+		} catch (SQLException e) {
+			throw new RuntimeException("Unable to delete recipes", e);
+		}
+	}
 
-		String sql = "SELECT ingredient_id, vol, unit FROM RECIPE_INGREDIENT WHERE recipe_id = ?";
-		List<RecipeIngredient> ingredients = new LinkedList<RecipeIngredient>();
-		try (Connection connection = connectionUtil.getConnection();
-				PreparedStatement statement = connection.prepareStatement(sql)) {
-			statement.setInt(1, id);
-			ResultSet resultSet = statement.executeQuery();
-			while (resultSet.next()) {
-				ingredients.add(new RecipeIngredient(ingredientDAO.getIngredientById(resultSet.getInt(1)),
-						resultSet.getDouble(2), resultSet.getString(3)));
+	/**
+	 * Deletes every recipe by the given chef, along with their ingredients,
+	 * in one transaction: the chef's recipe ids are read with one query and
+	 * then deleted as {@link #deleteRecipes(List)} deletes them.
+	 *
+	 * @param chefId the id of the chef whose recipes are deleted
+	 * @return the number of recipes deleted
+	 */
+	public int deleteRecipesByChef(int chefId) {
+		try (Connection connection = connectionUtil.getConnection()) {
+			connection.setAutoCommit(false);
+			try {
+				List<Integer> ids = getRecipeIdsByChef(connection, chefId);
+				int deleted = deleteRecipes(connection, ids);
+				connection.commit();
+				deleted(ids);
+				return deleted;
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
 			}
 		} catch (SQLException e) {
-			e.printStackTrace();
+			throw new RuntimeException("Unable to delete recipes", e);
+		}
+	}
+
+	/**
+	 * Sets the instructions of the recipes with the given ids, or of every
+	 * recipe by the given chef, in one transaction, with one UPDATE for each
+	 * IN list limit of recipes.
+	 *
+	 * @param ids the recipe ids, or null to update the chef's recipes
+	 * @param chefId the id of the chef whose recipes are updated, when no
+	 *               ids are given
+	 * @param instructions the new instructions
+	 * @return the number of recipes updated
+	 */
+	public int updateInstructions(List<Integer> ids, int chefId, String instructions) {
+		try (Connection connection = connectionUtil.getConnection()) {
+			connection.setAutoCommit(false);
+			try {
+				List<Integer> recipeIds = ids != null ? ids : getRecipeIdsByChef(connection, chefId);
+				int updated = 0;
+				for (int from = 0; from < recipeIds.size(); from += MAX_IN_LIST) {
+					List<Integer> chunk = recipeIds.subList(from, Math.min(from + MAX_IN_LIST, recipeIds.size()));
+					String sql = "UPDATE RECIPE SET instructions = ? WHERE id IN (" + placeholders(chunk.size()) + ")";
+					try (PreparedStatement statement = connection.prepareStatement(sql)) {
+						statement.setString(1, instructions);
+						for (int i = 0; i < chunk.size(); i++) {
+							statement.setInt(i + 2, chunk.get(i));
+						}
+						updated += statement.executeUpdate();
+					}
+				}
+				connection.commit();
+				for (int id : recipeIds) {
+					UnitOfWork.forget(Recipe.class, id);
+				}
+				DataVersions.changed("RECIPE");
+				UnitOfWork.afterCommit(() -> reindexRecipes(recipeIds));
+				return updated;
+			} catch (SQLException e) {
+				connection.rollback();
+				throw e;
+			}
+		} catch (SQLException e) {
+			throw new RuntimeException("Unable to update recipe instructions", e);
+		}
+	}
+
+	/**
+	 * Streams every row of RECIPE_INGREDIENT with its ingredient's name, in
+	 * recipe order, with one query read through a forward-only result set a
+	 * fetch at a time.
+	 *
+	 * @param action called with each recipe id and ingredient as they are read
+	 */
+	public void forEachRecipeIngredient(BiConsumer<Integer, RecipeIngredient> action) {
+		String sql = "SELECT ri.recipe_id, ri.ingredient_id, i.name, ri.vol, ri.unit FROM RECIPE_INGREDIENT ri"
+				+ " JOIN INGREDIENT i ON i.id = ri.ingredient_id ORDER BY ri.recipe_id, ri.id";
+		try (Connection connection = connectionUtil.getStreamingConnection()) {
+			ConnectionUtil.setLazyQueryExecution(connection, true);
+			try (PreparedStatement statement = connection.prepareStatement(sql)) {
+				statement.setFetchSize(ConnectionUtil.STREAM_FETCH_SIZE);
+				try (ResultSet resultSet = statement.executeQuery()) {
+					while (resultSet.next()) {
+						action.accept(resultSet.getInt("recipe_id"), new RecipeIngredient(
+								resultSet.getInt("ingredient_id"), resultSet.getString("name"),
+								resultSet.getDouble("vol"), resultSet.getString("unit")));
+					}
+				}
+			} finally {
+				ConnectionUtil.setLazyQueryExecution(connection, false);
+			}
+		} catch (SQLException e) {
+			throw new RuntimeException("Unable to stream recipe ingredients", e);
+		}
+	}
+
+	/**
+	 * Fills in the ingredient lists of the given recipes. The ingredients of all
+	 * the recipes are read with one query joining RECIPE_INGREDIENT to
+	 * INGREDIENT, and grouped by recipe id in memory, so hydrating a page of
+	 * recipes costs a fixed number of queries however many recipes it holds.
+	 * Recipes without ingredients are given an empty list.
+	 */
+	public void loadIngredients(List<Recipe> recipes) {
+		if (recipes == null || recipes.isEmpty()) {
+			return;
+		}
+		Map<Integer, List<RecipeIngredient>> ingredientsByRecipe = new HashMap<>();
+		for (Recipe recipe : recipes) {
+			ingredientsByRecipe.put(recipe.getId(), new ArrayList<>());
+		}
+		List<Integer> recipeIds = new ArrayList<>(ingredientsByRecipe.keySet());
+
+		try (Connection connection = connectionUtil.getConnection()) {
+			for (int start = 0; start < recipeIds.size(); start += MAX_IN_LIST) {
+				List<Integer> chunk = recipeIds.subList(start, Math.min(start + MAX_IN_LIST, recipeIds.size()));
+				String sql = "SELECT ri.recipe_id, ri.ingredient_id, i.name, ri.vol, ri.unit FROM RECIPE_INGREDIENT ri"
+						+ " JOIN INGREDIENT i ON i.id = ri.ingredient_id WHERE ri.recipe_id IN ("
+						+ placeholders(chunk.size()) + ") ORDER BY ri.recipe_id, ri.id";
+				try (PreparedStatement statement = connection.prepareStatement(sql)) {
+					for (int i = 0; i < chunk.size(); i++) {
+						statement.setInt(i + 1, chunk.get(i));
+					}
+					try (ResultSet resultSet = statement.executeQuery()) {
+						while (resultSet.next()) {
+							ingredientsByRecipe.get(resultSet.getInt("recipe_id"))
+									.add(new RecipeIngredient(resultSet.getInt("ingredient_id"),
+											resultSet.getString("name"), resultSet.getDouble("vol"),
+											resultSet.getString("unit")));
+						}
+					}
+				}
+			}
+		} catch (SQLException e) {
+			throw new RuntimeException("Unable to load recipe ingredients", e);
 		}
 
-		return ingredients;
+		for (Recipe recipe : recipes) {
+			recipe.setIngredients(ingredientsByRecipe.get(recipe.getId()));
+		}
 	}
 
 	/**
 	 * Saves the ingredients for a given recipe to the database.
 	 * This method inserts each ingredient associated with the recipe into the
 	 * RECIPE_INGREDIENT table, establishing a relationship between the recipe and
-	 * its ingredients.
-	 *
-	 * (FOR REFERENCE) This method is part of the backend logic.
-     * No modifications or implementations are required.
+	 * its ingredients. The rows are sent as JDBC batches on the caller's
+	 * connection, so they commit or roll back together with the recipe itself.
 	 */
-	@SuppressWarnings("unused")
-	private void saveIngredients(Recipe recipe) {
-
+	private void saveIngredients(Connection connection, int recipeId, List<RecipeIngredient> ingredients)
+			throws SQLException {
+		if (ingredients == null || ingredients.isEmpty()) {
+			return;
+		}
 		String sql = "INSERT INTO RECIPE_INGREDIENT (recipe_id, ingredient_id, vol, unit) VALUES (?,?,?,?)";
-		for (RecipeIngredient i : recipe.getIngredients()) {
-			try (Connection connection = connectionUtil.getConnection();
-					PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-				statement.setInt(1, recipe.getId());
-				statement.setInt(2, i.getId());
-				statement.setString(3, i.getName());
-				statement.setString(4, i.getUnit());
-				statement.executeUpdate();
+		try (PreparedStatement statement = connection.prepareStatement(sql)) {
+			int batched = 0;
+			for (RecipeIngredient ingredient : ingredients) {
+				statement.setInt(1, recipeId);
+				statement.setInt(2, ingredient.getId());
+				statement.setDouble(3, ingredient.getVolume());
+				statement.setString(4, ingredient.getUnit());
+				statement.addBatch();
+				if (++batched % BATCH_SIZE == 0) {
+					statement.executeBatch();
+				}
+			}
+			if (batched % BATCH_SIZE != 0) {
+				statement.executeBatch();
+			}
+		}
+	}
+
+	// below are helper methods for your convenience
+	
+	/**
+	 * Reads the recipes with the given ids, keyed by id, splitting long id lists
+	 * into several IN queries on the same connection. Ids with no recipe are
+	 * left out.
+	 */
+	private Map<Integer, Recipe> getRecipesByIds(Connection connection, int[] ids) throws SQLException {
+		Map<Integer, Recipe> found = new HashMap<>();
+		for (int from = 0; from < ids.length; from += MAX_IN_LIST) {
+			int to = Math.min(from + MAX_IN_LIST, ids.length);
+			String sql = "SELECT " + RECIPE_COLUMNS + " FROM " + RECIPE_FROM + " WHERE r.id IN ("
+					+ placeholders(to - from) + ")";
+			try (PreparedStatement statement = connection.prepareStatement(sql)) {
+				for (int i = from; i < to; i++) {
+					statement.setInt(i - from + 1, ids[i]);
+				}
+				try (ResultSet resultSet = statement.executeQuery()) {
+					for (Recipe recipe : mapRows(resultSet)) {
+						found.put(recipe.getId(), recipe);
+					}
+				}
+			}
+		}
+		return found;
+	}
 
+	/**
+	 * Deletes the given recipes and their ingredients on the caller's
+	 * connection, one IN list limit of recipes per statement.
+	 */
+	private int deleteRecipes(Connection connection, List<Integer> ids) throws SQLException {
+		int deleted = 0;
+		for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+			List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IN_LIST, ids.size()));
+			String in = " IN (" + placeholders(chunk.size()) + ")";
+			try (PreparedStatement ingredientStatement = connection
+					.prepareStatement("DELETE FROM RECIPE_INGREDIENT WHERE recipe_id" + in);
+					PreparedStatement statement = connection.prepareStatement("DELETE FROM RECIPE WHERE id" + in)) {
+				for (int i = 0; i < chunk.size(); i++) {
+					ingredientStatement.setInt(i + 1, chunk.get(i));
+					statement.setInt(i + 1, chunk.get(i));
+				}
+				ingredientStatement.executeUpdate();
+				deleted += statement.executeUpdate();
+			}
+		}
+		return deleted;
+	}
+
+	/**
+	 * Records the deletion of the given recipes once it has been committed,
+	 * and arranges for them to leave the in-memory indexes.
+	 */
+	private void deleted(List<Integer> ids) {
+		for (int id : ids) {
+			UnitOfWork.forget(Recipe.class, id);
+		}
+		DataVersions.changed("RECIPE", "RECIPE_INGREDIENT");
+		List<Integer> deletedIds = new ArrayList<>(ids);
+		UnitOfWork.afterCommit(() -> {
+			for (int id : deletedIds) {
+				unindexRecipe(id);
+				nameIndex.remove(id);
+				ingredientIndex.removeRecipe(id);
+			}
+		});
+	}
+
+	/**
+	 * Reads the ids of every recipe by the given chef, in id order.
+	 */
+	private List<Integer> getRecipeIdsByChef(Connection connection, int chefId) throws SQLException {
+		List<Integer> ids = new ArrayList<>();
+		try (PreparedStatement statement = connection.prepareStatement(
+				"SELECT id FROM RECIPE WHERE chef_id = ? ORDER BY id")) {
+			statement.setInt(1, chefId);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					ids.add(resultSet.getInt(1));
+				}
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Reads the ids of the given recipes by their names, splitting long lists
+	 * into several IN queries on the same connection.
+	 */
+	private Map<String, Integer> getRecipeIdsByName(Connection connection, List<Recipe> recipes)
+			throws SQLException {
+		Map<String, Integer> ids = new HashMap<>();
+		for (int from = 0; from < recipes.size(); from += MAX_IN_LIST) {
+			int to = Math.min(from + MAX_IN_LIST, recipes.size());
+			String sql = "SELECT id, name FROM RECIPE WHERE name IN (" + placeholders(to - from) + ")";
+			try (PreparedStatement statement = connection.prepareStatement(sql)) {
+				for (int i = from; i < to; i++) {
+					statement.setString(i - from + 1, recipes.get(i).getName());
+				}
+				try (ResultSet resultSet = statement.executeQuery()) {
+					while (resultSet.next()) {
+						ids.put(resultSet.getString("name"), resultSet.getInt("id"));
+					}
+				}
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Looks up the ids of the recipes using all, or any, of the named
+	 * ingredients in the ingredient index.
+	 */
+	private CompressedBitmap matchingRecipes(List<String> ingredients, boolean matchAll) {
+		return matchAll ? ingredientIndex.recipesWithAll(ingredients, connectionUtil)
+				: ingredientIndex.recipesWithAny(ingredients, connectionUtil);
+	}
+
+	/**
+	 * Returns the full-text index, building it from the RECIPE table the first
+	 * time it is needed.
+	 */
+	private FullTextIndex fullTextIndex() {
+		synchronized (fullTextIndex) {
+			if (!fullTextIndexBuilt) {
+				String sql = "SELECT id, name, instructions FROM RECIPE";
+				try (Connection connection = connectionUtil.getConnection();
+						Statement statement = connection.createStatement();
+						ResultSet resultSet = statement.executeQuery(sql)) {
+					while (resultSet.next()) {
+						fullTextIndex.put(resultSet.getInt("id"), resultSet.getString("name"),
+								resultSet.getString("instructions"));
+					}
+				} catch (SQLException e) {
+					fullTextIndex.clear();
+					throw new RuntimeException("Unable to build the recipe search index", e);
+				}
+				fullTextIndexBuilt = true;
+			}
+			return fullTextIndex;
+		}
+	}
+
+	/**
+	 * Adds a committed recipe to the full-text index, if it has been built.
+	 */
+	private void indexRecipe(int id, String name, String instructions) {
+		synchronized (fullTextIndex) {
+			if (fullTextIndexBuilt) {
+				fullTextIndex.put(id, name, instructions);
+			}
+		}
+	}
+
+	/**
+	 * Reads a committed recipe's text back from the database and updates its
+	 * full-text index entry, if the index has been built.
+	 */
+	private void reindexRecipe(int id) {
+		reindexRecipes(Collections.singletonList(id));
+	}
+
+	/**
+	 * Reads committed recipes' text back from the database and updates their
+	 * full-text index entries, if the index has been built. The recipes are
+	 * read with one query for each IN list limit of ids; ids with no row left
+	 * are removed from the index.
+	 */
+	private void reindexRecipes(List<Integer> ids) {
+		synchronized (fullTextIndex) {
+			if (!fullTextIndexBuilt) {
+				return;
+			}
+			try (Connection connection = connectionUtil.getConnection()) {
+				for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+					List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IN_LIST, ids.size()));
+					String sql = "SELECT id, name, instructions FROM RECIPE WHERE id IN (" + placeholders(chunk.size())
+							+ ")";
+					Set<Integer> missing = new HashSet<>(chunk);
+					try (PreparedStatement statement = connection.prepareStatement(sql)) {
+						for (int i = 0; i < chunk.size(); i++) {
+							statement.setInt(i + 1, chunk.get(i));
+						}
+						try (ResultSet resultSet = statement.executeQuery()) {
+							while (resultSet.next()) {
+								int id = resultSet.getInt("id");
+								fullTextIndex.put(id, resultSet.getString("name"), resultSet.getString("instructions"));
+								missing.remove(id);
+							}
+						}
+					}
+					missing.forEach(fullTextIndex::remove);
+				}
 			} catch (SQLException e) {
+				// Rebuild from scratch on the next search rather than serve a stale entry
+				fullTextIndex.clear();
+				fullTextIndexBuilt = false;
 				e.printStackTrace();
 			}
 		}
 	}
 
-	// below are helper methods for your convenience
-	
+	/**
+	 * Removes a deleted recipe from the full-text index.
+	 */
+	private void unindexRecipe(int id) {
+		synchronized (fullTextIndex) {
+			fullTextIndex.remove(id);
+		}
+	}
+
 	/**
 	 * Maps a single row from the ResultSet to a Recipe object.
 	 * This method extracts the recipe details such as ID, name, instructions,
 	 * and associated chef from the ResultSet and constructs a Recipe instance.
+	 * The chef is read from the joined author columns, so no further query is
+	 * made.
 	 *
 	 * (FOR REFERENCE) This method is part of the backend logic.
      * No modifications or implementations are required.
@@ -344,10 +1228,47 @@ public class RecipeDAO {
 		int id = set.getInt("id");
 		String name = set.getString("name");
 		String instructions = set.getString("instructions");
-		Chef author = chefDAO.getChefById(set.getInt("chef_id"));
+		Chef author = mapAuthor(set);
 		return new Recipe(id, name, instructions, author);
 	}
 
+	/**
+	 * Maps the current row to a Recipe holding only the projected fields; the
+	 * id is always set. With no projection, every field is mapped.
+	 */
+	private Recipe mapSingleRow(ResultSet set, Projection fields) throws SQLException {
+		if (fields == null) {
+			return mapSingleRow(set);
+		}
+		Recipe recipe = new Recipe();
+		recipe.setId(set.getInt("id"));
+		if (fields.includes("name")) {
+			recipe.setName(set.getString("name"));
+		}
+		if (fields.includes("instructions")) {
+			recipe.setInstructions(set.getString("instructions"));
+		}
+		if (fields.includes("author")) {
+			recipe.setAuthor(mapAuthor(set));
+		}
+		return recipe;
+	}
+
+	/**
+	 * Maps the joined author columns of the current row to a Chef object, or
+	 * returns null if the recipe has no author. The author has no password,
+	 * so it is kept out of the unit of work's identity map, where it could
+	 * stand in for the full chef.
+	 */
+	private Chef mapAuthor(ResultSet set) throws SQLException {
+		int chefId = set.getInt("chef_id");
+		if (set.wasNull()) {
+			return null;
+		}
+		return new Chef(chefId, set.getString("chef_username"), set.getString("chef_email"), null,
+				set.getBoolean("chef_is_admin"));
+	}
+
 	/**
 	 * Maps multiple rows from a ResultSet to a list of Recipe objects.
 	 * This method iterates through the ResultSet and calls mapSingleRow
@@ -357,45 +1278,55 @@ public class RecipeDAO {
      * No modifications or implementations are required.
 	 */
 	private List<Recipe> mapRows(ResultSet set) throws SQLException {
+		return mapRows(set, null);
+	}
+
+	/**
+	 * Maps every remaining row to a Recipe holding only the projected fields.
+	 */
+	private List<Recipe> mapRows(ResultSet set, Projection fields) throws SQLException {
 		List<Recipe> recipes = new ArrayList<>();
 		while (set.next()) {
-			recipes.add(mapSingleRow(set));
+			recipes.add(mapSingleRow(set, fields));
 		}
 		return recipes;
 	}
 
 	/**
-	 * Pages the results from a ResultSet into a Page object for the Recipe entity.
-	 * This method processes the ResultSet to retrieve recipes, then slices the list
-	 * based on the provided pagination options, and returns a Page object
-	 * containing
-	 * the paginated results.
-	 *
-	 * (FOR REFERENCE) This method is part of the backend logic.
-     * No modifications or implementations are required.
+	 * Returns the columns to select for the projected fields: the id, and the
+	 * author's columns only if the author is asked for. With no projection,
+	 * every column is selected.
 	 */
-	private Page<Recipe> pageResults(ResultSet set, PageOptions pageOptions) throws SQLException {
-		List<Recipe> recipes = mapRows(set);
-		int offset = (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize();
-		int limit = offset + pageOptions.getPageSize();
-		List<Recipe> slicedList = sliceList(recipes, offset, limit);
-		return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(),
-				recipes.size() / pageOptions.getPageSize(), recipes.size(), slicedList);
+	private static String columns(Projection fields) {
+		if (fields == null) {
+			return RECIPE_COLUMNS;
+		}
+		StringBuilder columns = new StringBuilder("r.id");
+		if (fields.includes("name")) {
+			columns.append(", r.name");
+		}
+		if (fields.includes("instructions")) {
+			columns.append(", r.instructions");
+		}
+		if (fields.includes("author")) {
+			columns.append(", ").append(AUTHOR_COLUMNS);
+		}
+		return columns.toString();
 	}
 
 	/**
-	 * Slices a list of Recipe objects from a specified start index to an end index.
-	 * This method creates a sublist of the provided list, which can be used for
-	 * pagination.
-	 *
-	 * (FOR REFERENCE) This method is part of the backend logic.
-     * No modifications or implementations are required.
+	 * Returns the tables to select the projected fields from, leaving out the
+	 * join with the author unless the author is asked for.
 	 */
-	private List<Recipe> sliceList(List<Recipe> list, int start, int end) {
-		List<Recipe> sliced = new ArrayList<>();
-		for (int i = start; i < end; i++) {
-			sliced.add(list.get(i));
-		}
-		return sliced;
+	private static String from(Projection fields) {
+		return fields == null || fields.includes("author") ? RECIPE_FROM : "RECIPE r";
+	}
+
+	/**
+	 * Builds a comma separated list of the given number of ? placeholders, for
+	 * use in an IN list.
+	 */
+	private static String placeholders(int count) {
+		return String.join(", ", Collections.nCopies(count, "?"));
 	}
 }
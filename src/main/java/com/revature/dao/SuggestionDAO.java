@@ -0,0 +1,62 @@
+package com.revature.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.revature.model.Suggestion;
+import com.revature.util.ConnectionUtil;
+
+
+/**
+ * Data Access Object (DAO) for reading the names offered as typeahead suggestions, along with their popularity weights. It only reads; the suggestions are built from the RECIPE, INGREDIENT and RECIPE_INGREDIENT tables.
+ */
+public class SuggestionDAO {
+
+    /** A utility class used for establishing connections to the database. */
+    private ConnectionUtil connectionUtil;
+
+    /**
+     * Constructs a SuggestionDAO with the specified ConnectionUtil for database connectivity.
+     */
+    public SuggestionDAO(ConnectionUtil connectionUtil) {
+        this.connectionUtil = connectionUtil;
+    }
+
+    /**
+     * Reads every distinct recipe name, weighted by the number of recipes carrying it.
+     */
+    public List<Suggestion> getRecipeSuggestions() {
+        String sql = "SELECT name, COUNT(*) FROM RECIPE WHERE name IS NOT NULL GROUP BY name";
+        return query(sql, Suggestion.RECIPE);
+    }
+
+    /**
+     * Reads every ingredient name, weighted by the number of recipes using it, plus one so unused ingredients are still offered.
+     */
+    public List<Suggestion> getIngredientSuggestions() {
+        String sql = "SELECT i.name, COUNT(ri.id) + 1 FROM INGREDIENT i"
+                + " LEFT JOIN RECIPE_INGREDIENT ri ON ri.ingredient_id = i.id"
+                + " WHERE i.name IS NOT NULL GROUP BY i.id, i.name";
+        return query(sql, Suggestion.INGREDIENT);
+    }
+
+    private List<Suggestion> query(String sql, String type) {
+        try (Connection connection = connectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setFetchSize(1000);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<Suggestion> suggestions = new ArrayList<>();
+                while (resultSet.next()) {
+                    suggestions.add(new Suggestion(resultSet.getString(1), type, resultSet.getInt(2)));
+                }
+                return suggestions;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Unable to read " + type + " suggestions", e);
+        }
+    }
+}
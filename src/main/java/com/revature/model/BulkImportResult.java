@@ -0,0 +1,184 @@
+package com.revature.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+The BulkImportResult class reports the outcome of a bulk import: how many records were received, imported and rejected, and what went wrong in each chunk that had errors. Chunks that went through cleanly are only counted.
+
+ */
+public class BulkImportResult {
+
+    // fields
+
+    /** The number of records read. */
+    private int received;
+    /** The number of records saved. */
+    private int imported;
+    /** The number of chunks the records were saved in. */
+    private int chunks;
+    /** The reports of the chunks that had errors, in order. */
+    private List<ChunkReport> errors = new ArrayList<>();
+
+    // constructors
+    public BulkImportResult() {
+    }
+
+    /**
+     * Adds a chunk's outcome to the totals, and keeps its report if it had errors.
+     *
+     * @param report the report of the chunk just saved, or not
+     */
+    public void add(ChunkReport report) {
+        chunks++;
+        received += report.getReceived();
+        imported += report.getImported();
+        if (!report.getErrors().isEmpty()) {
+            errors.add(report);
+        }
+    }
+
+    // getters
+    public int getReceived() {
+        return received;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getRejected() {
+        return received - imported;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public List<ChunkReport> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns a string representation of the BulkImportResult object.
+     *
+     * @return string representation of the BulkImportResult object, including the `received`, `imported`, `chunks` and `errors`.
+     */
+    @Override
+    public String toString() {
+        return "BulkImportResult{" +
+               "received=" + received +
+               ", imported=" + imported +
+               ", chunks=" + chunks +
+               ", errors=" + errors +
+               '}';
+    }
+
+    /**
+     * The outcome of one chunk of an import: the lines it covered, how many of its records were saved, and its errors. Only the first {@link #MAX_ERRORS} error messages are kept.
+     */
+    public static class ChunkReport {
+
+        /** The most error messages kept for one chunk. */
+        public static final int MAX_ERRORS = 100;
+
+        // fields
+
+        /** The number of the chunk, counting from 1. */
+        private int chunk;
+        /** The line the chunk's first record starts on. */
+        private long firstLine;
+        /** The line the chunk's last record starts on. */
+        private long lastLine;
+        /** The number of records in the chunk, rejected ones included. */
+        private int received;
+        /** The number of the chunk's records saved. */
+        private int imported;
+        /** The chunk's error messages. */
+        private List<String> errors = new ArrayList<>();
+
+        // constructors
+        public ChunkReport(int chunk, long firstLine) {
+            this.chunk = chunk;
+            this.firstLine = firstLine;
+        }
+
+        /**
+         * Counts a record that joined the chunk.
+         */
+        public void accept() {
+            received++;
+        }
+
+        /**
+         * Counts a record that was turned down, and keeps the reason.
+         *
+         * @param error why the record was turned down
+         */
+        public void reject(String error) {
+            received++;
+            addError(error);
+        }
+
+        /**
+         * Records that the chunk could not be saved, so none of its records were imported.
+         *
+         * @param error why the chunk was not saved
+         */
+        public void fail(String error) {
+            imported = 0;
+            errors.add(0, error);
+        }
+
+        // getters and setters
+        public int getChunk() {
+            return chunk;
+        }
+
+        public long getFirstLine() {
+            return firstLine;
+        }
+
+        public long getLastLine() {
+            return lastLine;
+        }
+
+        public void setLastLine(long lastLine) {
+            this.lastLine = lastLine;
+        }
+
+        public int getReceived() {
+            return received;
+        }
+
+        public int getImported() {
+            return imported;
+        }
+
+        public void setImported(int imported) {
+            this.imported = imported;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        @Override
+        public String toString() {
+            return "ChunkReport{" +
+                   "chunk=" + chunk +
+                   ", firstLine=" + firstLine +
+                   ", lastLine=" + lastLine +
+                   ", received=" + received +
+                   ", imported=" + imported +
+                   ", errors=" + errors +
+                   '}';
+        }
+
+        private void addError(String error) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+}
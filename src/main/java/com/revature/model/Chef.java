@@ -2,6 +2,8 @@ package com.revature.model;
 
 import java.util.Objects;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 /**
 The Chef class represents a chef user in the system. It stores the chef's basic information such as id, username, email, password, and whether the chef has admin privileges. This class provides getter and setter methods and overridden Object class methods.
 
@@ -16,7 +18,8 @@ public class Chef {
     private int id;
     /** The username of the chef. */
     private String username;
-    /** The password of the chef. */
+    /** The password of the chef. It is read from requests but never written to responses. */
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     /** The unique identifier of the chef. */
     private String email;
@@ -104,7 +107,7 @@ public class Chef {
         return id == chef.id &&
                 username.equals(chef.username) &&
                 email.equals(chef.email) &&
-                password.equals(chef.password) &&
+                Objects.equals(password, chef.password) &&
                 isAdmin == chef.isAdmin;
 
     }
@@ -0,0 +1,82 @@
+package com.revature.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+The Pantry class represents the ingredients a user has at hand, sent to ask which recipes they can cook. Ingredients may be given by id, by name, or both.
+
+ */
+public class Pantry {
+
+    // fields
+
+    /** The ids of the ingredients at hand. */
+    private List<Integer> ingredientIds = new ArrayList<>();
+    /** The names of the ingredients at hand, matched against whole ingredient names ignoring case. */
+    private List<String> ingredients = new ArrayList<>();
+
+    // constructors
+    public Pantry() {
+    }
+
+    public Pantry(List<Integer> ingredientIds, List<String> ingredients) {
+        this.ingredientIds = ingredientIds;
+        this.ingredients = ingredients;
+    }
+
+    // getters and setters
+    public List<Integer> getIngredientIds() {
+        return ingredientIds;
+    }
+
+    public void setIngredientIds(List<Integer> ingredientIds) {
+        this.ingredientIds = ingredientIds;
+    }
+
+    public List<String> getIngredients() {
+        return ingredients;
+    }
+
+    public void setIngredients(List<String> ingredients) {
+        this.ingredients = ingredients;
+    }
+
+    /**
+     * Compares this Pantry object with another object for equality.
+     *
+     * @param other the object to compare with
+     * @return true if the objects are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (other == null || getClass() != other.getClass()) return false;
+        Pantry pantry = (Pantry) other;
+        return Objects.equals(ingredientIds, pantry.ingredientIds) && Objects.equals(ingredients, pantry.ingredients);
+    }
+
+    /**
+     * Generates the hash code for this Pantry object.
+     *
+     * @return the hash code of the pantry
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(ingredientIds, ingredients);
+    }
+
+    /**
+     * Returns a string representation of the Pantry object.
+     *
+     * @return string representation of the Pantry object, including the `ingredientIds` and `ingredients`.
+     */
+    @Override
+    public String toString() {
+        return "Pantry{" +
+               "ingredientIds=" + ingredientIds +
+               ", ingredients=" + ingredients +
+               '}';
+    }
+}
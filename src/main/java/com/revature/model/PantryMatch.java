@@ -0,0 +1,119 @@
+package com.revature.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+The PantryMatch class represents how well a pantry covers one recipe: how many of the recipe's ingredients are at hand, what fraction of them that is, and which ingredients are still missing.
+
+ */
+public class PantryMatch {
+
+    // fields
+
+    /** The recipe matched. */
+    private Recipe recipe;
+    /** The number of the recipe's ingredients that are at hand. */
+    private int matchedCount;
+    /** The number of the recipe's ingredients that are missing. */
+    private int missingCount;
+    /** The fraction of the recipe's ingredients that are at hand, from 0 to 1. */
+    private double coverage;
+    /** The ids of the recipe's ingredients that are missing. */
+    private List<Integer> missingIngredientIds;
+
+    // constructors
+    public PantryMatch() {
+    }
+
+    public PantryMatch(Recipe recipe, int matchedCount, List<Integer> missingIngredientIds) {
+        this.recipe = recipe;
+        this.matchedCount = matchedCount;
+        this.missingCount = missingIngredientIds.size();
+        this.coverage = matchedCount / (double) (matchedCount + missingCount);
+        this.missingIngredientIds = missingIngredientIds;
+    }
+
+    // getters and setters
+    public Recipe getRecipe() {
+        return recipe;
+    }
+
+    public void setRecipe(Recipe recipe) {
+        this.recipe = recipe;
+    }
+
+    public int getMatchedCount() {
+        return matchedCount;
+    }
+
+    public void setMatchedCount(int matchedCount) {
+        this.matchedCount = matchedCount;
+    }
+
+    public int getMissingCount() {
+        return missingCount;
+    }
+
+    public void setMissingCount(int missingCount) {
+        this.missingCount = missingCount;
+    }
+
+    public double getCoverage() {
+        return coverage;
+    }
+
+    public void setCoverage(double coverage) {
+        this.coverage = coverage;
+    }
+
+    public List<Integer> getMissingIngredientIds() {
+        return missingIngredientIds;
+    }
+
+    public void setMissingIngredientIds(List<Integer> missingIngredientIds) {
+        this.missingIngredientIds = missingIngredientIds;
+    }
+
+    /**
+     * Compares this PantryMatch object with another object for equality.
+     *
+     * @param other the object to compare with
+     * @return true if the objects are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (other == null || getClass() != other.getClass()) return false;
+        PantryMatch match = (PantryMatch) other;
+        return matchedCount == match.matchedCount && missingCount == match.missingCount
+                && Double.compare(coverage, match.coverage) == 0 && Objects.equals(recipe, match.recipe)
+                && Objects.equals(missingIngredientIds, match.missingIngredientIds);
+    }
+
+    /**
+     * Generates the hash code for this PantryMatch object.
+     *
+     * @return the hash code of the match
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(recipe, matchedCount, missingCount, coverage, missingIngredientIds);
+    }
+
+    /**
+     * Returns a string representation of the PantryMatch object.
+     *
+     * @return string representation of the PantryMatch object, including the `recipe`, `matchedCount`, `missingCount`, `coverage` and `missingIngredientIds`.
+     */
+    @Override
+    public String toString() {
+        return "PantryMatch{" +
+               "recipe=" + recipe +
+               ", matchedCount=" + matchedCount +
+               ", missingCount=" + missingCount +
+               ", coverage=" + coverage +
+               ", missingIngredientIds=" + missingIngredientIds +
+               '}';
+    }
+}
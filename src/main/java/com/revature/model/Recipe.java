@@ -1,6 +1,7 @@
 package com.revature.model;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  The Recipe class represents the domain object for a recipe. It stores the chef's basic information such as id, name, instructions, authors, and associated ingredients. This class provides getter and setter methods to access and modify the fields and overrides methods Object class methods.
@@ -101,7 +102,7 @@ public class Recipe {
         if (obj == null || getClass() != obj.getClass()) return false; // Check for null and class match
         Recipe recipe = (Recipe) obj; // Typecast to Recipe
         return id == recipe.id && // Compare IDs
-               name.equals(recipe.name); // Compare names
+               Objects.equals(name, recipe.name); // Compare names, which a projected recipe may lack
     }
 
     /**
@@ -0,0 +1,98 @@
+package com.revature.model;
+
+import java.util.Objects;
+
+/**
+The Suggestion class represents one completion offered while the user types: the name of a recipe or ingredient, what kind of name it is, and how popular it is. Suggestions with a higher weight are offered first.
+
+ */
+public class Suggestion {
+
+    /** The type of a recipe name suggestion. */
+    public static final String RECIPE = "recipe";
+    /** The type of an ingredient name suggestion. */
+    public static final String INGREDIENT = "ingredient";
+
+    // fields
+
+    /** The suggested name, as stored. */
+    private String name;
+    /** What the name belongs to, either {@link #RECIPE} or {@link #INGREDIENT}. */
+    private String type;
+    /** How popular the name is; higher weights are suggested first. */
+    private int weight;
+
+    // constructors
+    public Suggestion() {
+    }
+
+    public Suggestion(String name, String type, int weight) {
+        this.name = name;
+        this.type = type;
+        this.weight = weight;
+    }
+
+    // getters and setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * Compares this Suggestion object with another object for equality.
+     *
+     * @param other the object to compare with
+     * @return true if the objects are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (other == null || getClass() != other.getClass()) return false;
+        Suggestion suggestion = (Suggestion) other;
+        return weight == suggestion.weight && Objects.equals(name, suggestion.name)
+                && Objects.equals(type, suggestion.type);
+    }
+
+    /**
+     * Generates the hash code for this Suggestion object.
+     *
+     * @return the hash code of the suggestion
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, type, weight);
+    }
+
+    /**
+     * Returns a string representation of the Suggestion object.
+     *
+     * @return string representation of the Suggestion object, including the `name`, `type` and `weight`.
+     */
+    @Override
+    public String toString() {
+        return "Suggestion{" +
+               "name='" + name + '\'' +
+               ", type='" + type + '\'' +
+               ", weight=" + weight +
+               '}';
+    }
+}
@@ -95,11 +95,17 @@ public class ChefService {
      * No modifications or implementations are required.
      */
 	public Page<Chef> searchChefs(String term, int page, int pageSize, String sortBy, String sortDirection) {
-		PageOptions options = new PageOptions(page, pageSize, sortBy, sortDirection);
+		return searchChefs(term, new PageOptions(page, pageSize, sortBy, sortDirection));
+	}
+
+	/**
+     * Searches for Chefs with the given page options, which may ask for a page by number or by cursor.
+     */
+	public Page<Chef> searchChefs(String term, PageOptions options) {
 		if (term == null ) { 
 			return chefDAO.getAllChefs(options);
 		} else {
 			return chefDAO.searchChefsByTerm(term, options);
 		}
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
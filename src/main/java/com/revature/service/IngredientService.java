@@ -1,12 +1,26 @@
 package com.revature.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import com.revature.model.BulkImportResult;
 import com.revature.model.Ingredient;
 import com.revature.dao.IngredientDAO;
+import com.revature.util.BulkReader;
+import com.revature.util.DataVersions;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.ResultCache;
+import com.revature.util.UnitOfWork;
 
 
 // NOTE: This file is part of the backend implementation. No changes are required.
@@ -19,9 +33,17 @@ import com.revature.util.PageOptions;
  */
 public class IngredientService {
 
+    /** The number of ingredients saved in each transaction of a bulk import, set by the "import.chunkSize" system property. */
+    private static final int IMPORT_CHUNK_SIZE = Integer.getInteger("import.chunkSize", 1000);
+
     /** Data access object for Ingredient entities. */
     private IngredientDAO ingredientDAO;
 
+    /** The results of recent searches by term, pages and full lists alike, keyed by the term and page options; sized like the recipe search cache. */
+    private ResultCache<List<Object>, Page<Ingredient>> searchCache = new ResultCache<>(
+            Long.getLong("cache.search.maxWeight", 8_000_000), Long.getLong("cache.search.ttlSeconds", 30),
+            TimeUnit.SECONDS, IngredientService::weightOf, IngredientService::copyOf);
+
     /**
      * Constructs an IngredientService with the specified IngredientDAO.
      *
@@ -71,6 +93,39 @@ public class IngredientService {
         }
     }
 
+    /**
+     * Imports ingredients from a request body of NDJSON or CSV records, reading it as it arrives and saving the ingredients a chunk at a time, each chunk in its own transaction with its rows sent in JDBC batches. An NDJSON record is an ingredient as it is posted to create one; a CSV record has a "name" column.
+     *
+     * A record that cannot be read, lacks a name, or names an ingredient that already exists, ignoring case, is rejected on its own; names are checked against a dictionary of every ingredient name, read once for the import. A chunk that cannot be saved is rolled back as a whole. Chunks are committed as they go rather than with the request, so the import ends the request's unit of work first.
+     *
+     * @param body the request body
+     * @param format the format of the body
+     * @return the counts of ingredients imported and rejected, with the errors of each chunk that had any
+     * @throws IOException if the body cannot be read
+     */
+    public BulkImportResult importIngredients(InputStream body, BulkReader.Format format) throws IOException {
+        UnitOfWork.endCurrent();
+        Set<String> names = new HashSet<>(ingredientDAO.getIngredientIdsByName().keySet());
+        try (BulkReader<Ingredient> reader = new BulkReader<>(body, format, Ingredient.class,
+                row -> new Ingredient(0, row.get("name")))) {
+            return reader.importInChunks(IMPORT_CHUNK_SIZE, ingredient -> {
+                String name = ingredient.getName();
+                if (name == null || name.isBlank()) {
+                    throw new IllegalArgumentException("Missing name");
+                }
+                name = name.trim();
+                if (name.length() > 20) {
+                    throw new IllegalArgumentException("The name is longer than 20 characters");
+                }
+                if (!names.add(name.toLowerCase(Locale.ROOT))) {
+                    throw new IllegalArgumentException("Ingredient \"" + name + "\" already exists");
+                }
+                ingredient.setId(0);
+                ingredient.setName(name);
+            }, ingredientDAO::createIngredients);
+        }
+    }
+
     /**
      * Searches for Ingredients based on a search term.
      * If the term is null, retrieves all Ingredients.
@@ -79,11 +134,12 @@ public class IngredientService {
      * No modifications or implementations are required.
      */
     public List<Ingredient> searchIngredients(String term) {
-        if(term == null ) { 
-            return ingredientDAO.getAllIngredients();
-        } else {
-            return ingredientDAO.searchIngredients(term);
-        }
+        Page<Ingredient> results = searchCache.get(Collections.singletonList(term), () -> {
+            List<Ingredient> ingredients = term == null ? ingredientDAO.getAllIngredients()
+                    : ingredientDAO.searchIngredients(term);
+            return ingredients == null ? null : new Page<>(1, ingredients.size(), 1, ingredients.size(), ingredients);
+        });
+        return results == null ? null : results.getItems();
     }
 
     /**
@@ -93,11 +149,82 @@ public class IngredientService {
      * No modifications or implementations are required.
      */
     public Page<Ingredient> searchIngredients(String term, int page, int pageSize, String sortBy, String sortDirection) {
-        PageOptions pageOptions = new PageOptions(page, pageSize, sortBy, sortDirection);
-        if(term == null) { 
-            return ingredientDAO.getAllIngredients(pageOptions);
-        } else {
-            return ingredientDAO.searchIngredients(term, pageOptions);
+        return searchIngredients(term, new PageOptions(page, pageSize, sortBy, sortDirection));
+    }
+
+    /**
+     * Searches for Ingredients with the given page options, which may ask for a page by number or by cursor.
+     * 
+     * Results are cached until the next write to any table, or for the search cache's time to live.
+     */
+    public Page<Ingredient> searchIngredients(String term, PageOptions pageOptions) {
+        return searchCache.get(pageOptions.cacheKey(term), () -> {
+            if(term == null) { 
+                return ingredientDAO.getAllIngredients(pageOptions);
+            } else {
+                return ingredientDAO.searchIngredients(term, pageOptions);
+            }
+        });
+    }
+
+    /**
+     * Streams the ingredients whose name contains the term, or every ingredient if the term is null, in id order, without holding them all in memory. The search cache is not used.
+     *
+     * @param term the text the names must contain, or null for every ingredient
+     * @param action called with each ingredient as it is read
+     */
+    public void forEachIngredient(String term, Consumer<Ingredient> action) {
+        ingredientDAO.forEachIngredient(term, action);
+    }
+
+    /**
+     * Returns a version of one ingredient that changes whenever its row is written. Reading it costs no SQL.
+     *
+     * @param id the ingredient id
+     * @return the ingredient's version
+     */
+    public long getIngredientVersion(int id) {
+        return DataVersions.of("INGREDIENT", id);
+    }
+
+    /**
+     * Returns a version of every list or page of ingredients, which changes whenever any ingredient is written.
+     *
+     * @return the version of the ingredient collection
+     */
+    public long getIngredientsVersion() {
+        return DataVersions.of("INGREDIENT");
+    }
+
+    /**
+     * @return the size and hit, miss and eviction counts of the search cache
+     */
+    public ResultCache.Stats getSearchCacheStats() {
+        return searchCache.getStats();
+    }
+
+    /**
+     * Copies a page of ingredients.
+     */
+    private static Page<Ingredient> copyOf(Page<Ingredient> page) {
+        List<Ingredient> items = new ArrayList<>(page.getItems().size());
+        for (Ingredient ingredient : page.getItems()) {
+            items.add(new Ingredient(ingredient.getId(), ingredient.getName()));
+        }
+        Page<Ingredient> copy = new Page<>(page.getPageNumber(), page.getPageSize(), page.getTotalPages(),
+                page.getTotalElements(), items);
+        copy.setNextCursor(page.getNextCursor());
+        return copy;
+    }
+
+    /**
+     * Estimates the memory a page of ingredients takes up, in bytes.
+     */
+    private static long weightOf(Page<Ingredient> page) {
+        long weight = 64;
+        for (Ingredient ingredient : page.getItems()) {
+            weight += 64 + 2L * (ingredient.getName() == null ? 0 : ingredient.getName().length());
         }
+        return weight;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -1,12 +1,38 @@
 package com.revature.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import com.revature.dao.RecipeDAO;
+import com.revature.model.BulkImportResult;
+import com.revature.model.Chef;
+import com.revature.model.Pantry;
+import com.revature.model.PantryMatch;
 import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.util.BulkReader;
+import com.revature.util.DataVersions;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.Projection;
+import com.revature.util.ResultCache;
+import com.revature.util.TinyLfuCache;
+import com.revature.util.UnitOfWork;
 
 
 // NOTE: This file is part of the backend implementation. No changes are required.
@@ -21,31 +47,116 @@ import com.revature.util.PageOptions;
  */
 public class RecipeService {
 
+    /** The number of recipes saved in each transaction of a bulk import, set by the "import.chunkSize" system property. */
+    private static final int IMPORT_CHUNK_SIZE = Integer.getInteger("import.chunkSize", 1000);
+
     /** The data access object used for performing operations on Recipe entities. */
     private RecipeDAO recipeDAO;
 
+    /** The recipes recently found by id, each with the versions of its row and its author's row when it was read. */
+    private TinyLfuCache<Integer, CachedRecipe> recipeCache;
+
+    /** The results of recent searches by term, pages and full lists alike, keyed by the term and page options. */
+    private ResultCache<List<Object>, Page<Recipe>> searchCache = new ResultCache<>(
+            Long.getLong("cache.search.maxWeight", 8_000_000), Long.getLong("cache.search.ttlSeconds", 30),
+            TimeUnit.SECONDS, RecipeService::weightOf, RecipeService::copyOf);
+
     /**
      * Constructs a RecipeService with the specified RecipeDao.
      *
+     * The recipe cache holds up to the number of recipes set by the "cache.recipes.maxSize" system property, 10000 by default. The search cache holds results weighing up to "cache.search.maxWeight", roughly in bytes and 8000000 by default, for up to "cache.search.ttlSeconds", 30 by default.
+     * 
 	 * (FOR REFERENCE) This method is part of the backend logic.
      * No modifications or implementations are required.
      */
     public RecipeService(RecipeDAO recipeDAO) {
+        this(recipeDAO, Integer.getInteger("cache.recipes.maxSize", 10_000));
+    }
+
+    /**
+     * Constructs a RecipeService whose recipe cache holds at most the given number of recipes; 0 turns the cache off.
+     */
+    public RecipeService(RecipeDAO recipeDAO, int cacheSize) {
         this.recipeDAO = recipeDAO;
+        this.recipeCache = new TinyLfuCache<>(cacheSize, CachedRecipe::isCurrent);
     }
 
     /**
      * Finds a Recipe by its unique identifier.
      *
+     * Recipes are read through a cache. A cached recipe is only returned while neither its row nor its author's row has been written since it was read, and every caller gets its own copy, so changing the returned recipe, or filling in its ingredients, leaves the cache alone. A request that has already written something reads the database directly, since its writes are not committed yet.
+     * 
 	 * (FOR REFERENCE) This method is part of the backend logic.
      * No modifications or implementations are required.
      */
     public Optional<Recipe> findRecipe(int id) {
-        return Optional.ofNullable(recipeDAO.getRecipeById(id));
+        if (UnitOfWork.hasPendingWrites()) {
+            return Optional.ofNullable(recipeDAO.getRecipeById(id));
+        }
+        Recipe loaded = loadedOrCached(id);
+        if (loaded != null) {
+            return Optional.of(loaded);
+        }
+
+        // Take the versions before reading, so a write committed meanwhile makes the entry stale rather than lost
+        long recipeVersion = DataVersions.of("RECIPE", id);
+        long chefsVersion = DataVersions.of("CHEF");
+        Recipe recipe = recipeDAO.getRecipeById(id);
+        if (recipe != null && chefsVersion == DataVersions.of("CHEF")) {
+            recipeCache.put(id, new CachedRecipe(recipe, recipeVersion));
+        }
+        return Optional.ofNullable(recipe);
+    }
+
+    /**
+     * Finds the recipes with the given ids, in the order asked for. Recipes already loaded in this request or held in the recipe cache are taken from there, and the rest are read with one query, authors included, and added to the cache as {@link #findRecipe(int)} would add them.
+     *
+     * @param ids the recipe ids; repeated ids are only returned once
+     * @return the recipes found, in the order of their ids' first appearance; ids with no recipe are left out
+     */
+    public List<Recipe> findRecipes(List<Integer> ids) {
+        Set<Integer> distinct = new LinkedHashSet<>(ids);
+        Map<Integer, Recipe> found = new HashMap<>();
+        if (UnitOfWork.hasPendingWrites()) {
+            found.putAll(recipeDAO.getRecipesByIds(new ArrayList<>(distinct)));
+        } else {
+            List<Integer> misses = new ArrayList<>();
+            Map<Integer, Long> versions = new HashMap<>();
+            for (int id : distinct) {
+                Recipe loaded = loadedOrCached(id);
+                if (loaded != null) {
+                    found.put(id, loaded);
+                } else {
+                    misses.add(id);
+                    versions.put(id, DataVersions.of("RECIPE", id));
+                }
+            }
+            if (!misses.isEmpty()) {
+                long chefsVersion = DataVersions.of("CHEF");
+                Map<Integer, Recipe> read = recipeDAO.getRecipesByIds(misses);
+                boolean chefsUnchanged = chefsVersion == DataVersions.of("CHEF");
+                for (Recipe recipe : read.values()) {
+                    if (chefsUnchanged) {
+                        recipeCache.put(recipe.getId(), new CachedRecipe(recipe, versions.get(recipe.getId())));
+                    }
+                    found.put(recipe.getId(), recipe);
+                }
+            }
+        }
+        List<Recipe> recipes = new ArrayList<>(found.size());
+        for (int id : distinct) {
+            Recipe recipe = found.get(id);
+            if (recipe != null) {
+                recipes.add(recipe);
+            }
+        }
+        return recipes;
     }
 
     /**
      * Saves a Recipe object to the data store. If the id is 0, create a new Recipe.
+     * 
+     * If the recipe carries an ingredient list, it is saved in the same transaction as the recipe, replacing any existing ingredients on update. A null list leaves the ingredients unchanged.
      * 
 	 * (FOR REFERENCE) This method is part of the backend logic.
      * No modifications or implementations are required.
@@ -62,10 +173,38 @@ public class RecipeService {
             if (recipe.getInstructions() != null) {
                 savedRecipe.setInstructions(recipe.getInstructions());
             }
+            savedRecipe.setIngredients(recipe.getIngredients());
             recipeDAO.updateRecipe(savedRecipe);
+            recipeCache.invalidate(recipe.getId());
         }
     }
     
+    /**
+     * Imports recipes from a request body of NDJSON or CSV records, reading it as it arrives and saving the recipes a chunk at a time, each chunk in its own transaction with its rows sent in JDBC batches.
+     *
+     * An NDJSON record is a recipe as it is posted to create one. A CSV record has "name", "instructions" and "ingredients" columns, the ingredients given as "name:volume:unit" separated by semicolons. Ingredients given by name are resolved to ids through a dictionary of every ingredient name, read once for the import. Every recipe is credited to the given author.
+     *
+     * A record that cannot be read, lacks a name or instructions, or uses an unknown ingredient is rejected on its own. A chunk that cannot be saved, such as because one of its names is already taken, is rolled back as a whole. Chunks are committed as they go rather than with the request, so the import ends the request's unit of work first.
+     *
+     * @param body the request body
+     * @param format the format of the body
+     * @param author the chef the recipes are credited to
+     * @return the counts of recipes imported and rejected, with the errors of each chunk that had any
+     * @throws IOException if the body cannot be read
+     */
+    public BulkImportResult importRecipes(InputStream body, BulkReader.Format format, Chef author) throws IOException {
+        UnitOfWork.endCurrent();
+        Map<String, Integer> ingredientIds = recipeDAO.getIngredientIdsByName();
+        Set<Integer> knownIds = new HashSet<>(ingredientIds.values());
+        try (BulkReader<Recipe> reader = new BulkReader<>(body, format, Recipe.class, RecipeService::recipeOf)) {
+            return reader.importInChunks(IMPORT_CHUNK_SIZE, recipe -> {
+                checkImported(recipe, ingredientIds, knownIds);
+                recipe.setId(0);
+                recipe.setAuthor(author);
+            }, recipeDAO::createRecipes);
+        }
+    }
+
     /**
      * Searches for recipes with pagination and sorting options.
      *
@@ -73,12 +212,41 @@ public class RecipeService {
      * No modifications or implementations are required.
      */
     public Page<Recipe> searchRecipes(String term, int page, int pageSize, String sortBy, String sortDirection) {
-        PageOptions options = new PageOptions(page, pageSize, sortBy, sortDirection);
-        if (term == null) {
-            return recipeDAO.getAllRecipes(options);
-        } else {
-            return recipeDAO.searchRecipesByTerm(term, options);
+        return searchRecipes(term, new PageOptions(page, pageSize, sortBy, sortDirection));
+    }
+
+    /**
+     * Searches for recipes with the given page options, which may ask for a page by number or by cursor.
+     * 
+     * Results are cached until the next write to any table, or for the search cache's time to live.
+     */
+    public Page<Recipe> searchRecipes(String term, PageOptions options) {
+        return searchCache.get(options.cacheKey(term), () -> {
+            if (term == null) {
+                return recipeDAO.getAllRecipes(options);
+            } else {
+                return recipeDAO.searchRecipesByTerm(term, options);
+            }
+        });
+    }
+
+    /**
+     * Searches for a page of recipes as {@link #searchRecipes(String, PageOptions)} does, reading only the projected fields from the database. Projected pages are cached apart from full ones.
+     *
+     * @param term the text the names must contain, or null for every recipe
+     * @param options the page to read
+     * @param fields the fields to read, or null for every field
+     * @return the page of recipes, holding only the projected fields
+     */
+    public Page<Recipe> searchRecipes(String term, PageOptions options, Projection fields) {
+        if (fields == null) {
+            return searchRecipes(term, options);
         }
+        List<Object> key = new ArrayList<>(options.cacheKey(term));
+        key.add(fields);
+        return searchCache.get(key, () -> term == null
+                ? recipeDAO.getAllRecipes(options, fields)
+                : recipeDAO.searchRecipesByTerm(term, options, fields));
     }
 
     /**
@@ -88,14 +256,121 @@ public class RecipeService {
      * No modifications or implementations are required.
      */
     public List<Recipe> searchRecipes(String term) {
-        
-        if (term == null) {
-            return recipeDAO.getAllRecipes();
+        Page<Recipe> results = searchCache.get(Collections.singletonList(term), () -> {
+            List<Recipe> recipes = term == null ? recipeDAO.getAllRecipes() : recipeDAO.searchRecipesByTerm(term);
+            return recipes == null ? null : new Page<>(1, recipes.size(), 1, recipes.size(), recipes);
+        });
+        return results == null ? null : results.getItems();
+    }
+
+    /**
+     * Searches for the recipes whose name contains the term, or every recipe if the term is null, reading only the projected fields from the database. Projected results are cached apart from full ones.
+     *
+     * @param term the text the names must contain, or null for every recipe
+     * @param fields the fields to read, or null for every field
+     * @return the recipes, holding only the projected fields
+     */
+    public List<Recipe> searchRecipes(String term, Projection fields) {
+        if (fields == null) {
+            return searchRecipes(term);
+        }
+        Page<Recipe> results = searchCache.get(Arrays.asList(term, fields), () -> {
+            List<Recipe> recipes = term == null ? recipeDAO.getAllRecipes(fields) : recipeDAO.searchRecipesByTerm(term, fields);
+            return recipes == null ? null : new Page<>(1, recipes.size(), 1, recipes.size(), recipes);
+        });
+        return results == null ? null : results.getItems();
+    }
+
+    /**
+     * Streams the recipes whose name contains the term, or every recipe if the term is null, in id order, without holding them all in memory. The search cache is not used.
+     *
+     * @param term the text the names must contain, or null for every recipe
+     * @param action called with each recipe as it is read
+     */
+    public void forEachRecipe(String term, Consumer<Recipe> action) {
+        recipeDAO.forEachRecipe(term, action);
+    }
+
+    /**
+     * Streams recipes as {@link #forEachRecipe(String, Consumer)} does, reading only the projected fields from the database.
+     *
+     * @param term the text the names must contain, or null for every recipe
+     * @param fields the fields to read, or null for every field
+     * @param action called with each recipe as it is read
+     */
+    public void forEachRecipe(String term, Projection fields, Consumer<Recipe> action) {
+        if (fields == null) {
+            forEachRecipe(term, action);
         } else {
-            return recipeDAO.searchRecipesByTerm(term);
+            recipeDAO.forEachRecipe(term, fields, action);
         }
     }
 
+    /**
+     * Streams every recipe's ingredients, in recipe order, without holding them all in memory.
+     *
+     * @param action called with each recipe id and ingredient as they are read
+     */
+    public void forEachRecipeIngredient(BiConsumer<Integer, RecipeIngredient> action) {
+        recipeDAO.forEachRecipeIngredient(action);
+    }
+
+    /**
+     * Searches for recipes using an ingredient whose name contains the given text.
+     */
+    public List<Recipe> searchRecipesByIngredient(String ingredient) {
+        return recipeDAO.searchRecipesByIngredient(ingredient);
+    }
+
+    /**
+     * Finds the recipes using all, or any, of the named ingredients.
+     *
+     * @param ingredients the ingredient names, each matching an ingredient's whole name, ignoring case
+     * @param matchAll true to require every ingredient, false to require at least one
+     * @return the matching recipes, in id order
+     */
+    public List<Recipe> searchRecipesByIngredients(List<String> ingredients, boolean matchAll) {
+        return recipeDAO.searchRecipesByIngredients(ingredients, matchAll);
+    }
+
+    /**
+     * Finds one page of the recipes using all, or any, of the named ingredients.
+     */
+    public Page<Recipe> searchRecipesByIngredients(List<String> ingredients, boolean matchAll, PageOptions options) {
+        return recipeDAO.searchRecipesByIngredients(ingredients, matchAll, options);
+    }
+
+    /**
+     * Finds the recipes the pantry covers best: by the fraction of their ingredients at hand, or by the number missing.
+     *
+     * @param pantry the ingredients at hand, by id or name
+     * @param limit the most matches to return
+     * @param maxMissing the most ingredients a returned recipe may lack, or null for no limit
+     * @param byMissing whether to rank by fewest missing ingredients first, rather than by the fraction covered
+     * @return the matches, best first
+     */
+    public List<PantryMatch> matchPantry(Pantry pantry, int limit, Integer maxMissing, boolean byMissing) {
+        return recipeDAO.matchPantry(pantry, limit, maxMissing == null ? -1 : maxMissing, byMissing);
+    }
+
+    /**
+     * Runs a full-text search over recipe names and instructions.
+     *
+     * @param query the words to search for
+     * @param limit the largest number of recipes to return
+     * @return the matching recipes, best match first
+     */
+    public List<Recipe> searchRecipesByText(String query, int limit) {
+        return recipeDAO.searchRecipesByText(query, limit);
+    }
+
+    /**
+     * Fills in the ingredient lists of the given recipes using a single batched query.
+     */
+    public void loadIngredients(List<Recipe> recipes) {
+        recipeDAO.loadIngredients(recipes);
+    }
+
     /**
      * Deletes a Recipe by its unique identifier.
      *
@@ -106,9 +381,256 @@ public class RecipeService {
         Recipe recipe = recipeDAO.getRecipeById(id);
         if (recipe != null) {
             recipeDAO.deleteRecipe(recipe);
+            recipeCache.invalidate(id);
             return true; // Deletion successful
         }
         return false; // Recipe not found
     }
-    
+
+    /**
+     * Deletes the recipes with the given ids, and their ingredients, with a few set-based statements in one transaction.
+     *
+     * @param ids the recipe ids; ids with no recipe are skipped
+     * @return the number of recipes deleted
+     */
+    public int deleteRecipes(List<Integer> ids) {
+        int deleted = recipeDAO.deleteRecipes(ids);
+        ids.forEach(recipeCache::invalidate);
+        return deleted;
+    }
+
+    /**
+     * Deletes every recipe by the given chef, and their ingredients, in one transaction. Cached copies of the recipes go stale with the RECIPE table's version.
+     *
+     * @param chefId the chef's id
+     * @return the number of recipes deleted
+     */
+    public int deleteRecipesByChef(int chefId) {
+        return recipeDAO.deleteRecipesByChef(chefId);
+    }
+
+    /**
+     * Sets the instructions of the recipes with the given ids, or, if no ids are given, of every recipe by the given chef, with set-based statements in one transaction.
+     *
+     * @param ids the recipe ids, or null to update the chef's recipes
+     * @param chefId the chef's id, used when no ids are given
+     * @param instructions the new instructions
+     * @return the number of recipes updated
+     * @throws IllegalArgumentException if the instructions are blank or longer than the column allows
+     */
+    public int updateInstructions(List<Integer> ids, int chefId, String instructions) {
+        checkText("instructions", instructions, 255);
+        return recipeDAO.updateInstructions(ids, chefId, instructions);
+    }
+
+    /**
+     * Returns a version of one recipe that changes whenever it, or anything it is shown with, is written: the recipe's row, any chef, and, when its ingredients are wanted, any ingredient or recipe ingredient. Reading it costs no SQL, so a client's copy can be checked before anything is looked up.
+     *
+     * @param id the recipe id
+     * @param withIngredients whether the recipe is shown with its ingredients
+     * @return the recipe's version
+     */
+    public long getRecipeVersion(int id, boolean withIngredients) {
+        long version = DataVersions.of("RECIPE", id) + DataVersions.of("CHEF");
+        if (withIngredients) {
+            version += DataVersions.of("RECIPE_INGREDIENT") + DataVersions.of("INGREDIENT");
+        }
+        return version;
+    }
+
+    /**
+     * Returns a version of a set of recipes that changes whenever any of them, or anything they are shown with, is written. Versions only ever go up, so their sum changes whenever any one of them does.
+     *
+     * @param ids the recipe ids
+     * @param withIngredients whether the recipes are shown with their ingredients
+     * @return the version of the recipes
+     */
+    public long getRecipesVersion(Collection<Integer> ids, boolean withIngredients) {
+        long version = DataVersions.of("CHEF");
+        for (int id : new HashSet<>(ids)) {
+            version += DataVersions.of("RECIPE", id);
+        }
+        if (withIngredients) {
+            version += DataVersions.of("RECIPE_INGREDIENT") + DataVersions.of("INGREDIENT");
+        }
+        return version;
+    }
+
+    /**
+     * Returns a version of every list or page of recipes, which changes whenever a recipe, chef, ingredient or recipe ingredient is written.
+     *
+     * @return the version of the recipe collection
+     */
+    public long getRecipesVersion() {
+        return DataVersions.of("RECIPE") + DataVersions.of("CHEF") + DataVersions.of("RECIPE_INGREDIENT")
+                + DataVersions.of("INGREDIENT");
+    }
+
+    /**
+     * @return the size and hit, miss and eviction counts of the recipe cache
+     */
+    public TinyLfuCache.Stats getCacheStats() {
+        return recipeCache.getStats();
+    }
+
+    /**
+     * @return the size and hit, miss and eviction counts of the search cache
+     */
+    public ResultCache.Stats getSearchCacheStats() {
+        return searchCache.getStats();
+    }
+
+    /**
+     * Returns the recipe with the given id if it has already been loaded in this request, or a copy of it from the recipe cache, which is then remembered for the rest of the request; null if it is in neither.
+     */
+    private Recipe loadedOrCached(int id) {
+        Recipe loaded = UnitOfWork.lookup(Recipe.class, id);
+        if (loaded != null) {
+            return loaded;
+        }
+        CachedRecipe cached = recipeCache.get(id);
+        if (cached == null) {
+            return null;
+        }
+        Recipe recipe = cached.copy();
+        if (recipe.getAuthor() != null) {
+            recipe.setAuthor(UnitOfWork.remember(Chef.class, recipe.getAuthor().getId(), recipe.getAuthor()));
+        }
+        return UnitOfWork.remember(Recipe.class, id, recipe);
+    }
+
+    /**
+     * Copies a recipe and its author, leaving out its ingredients.
+     */
+    private static Recipe copyOf(Recipe recipe) {
+        Chef author = recipe.getAuthor();
+        return new Recipe(recipe.getId(), recipe.getName(), recipe.getInstructions(), author == null ? null
+                : new Chef(author.getId(), author.getUsername(), author.getEmail(), author.getPassword(),
+                        author.isAdmin()));
+    }
+
+    /**
+     * Copies a page of recipes.
+     */
+    private static Page<Recipe> copyOf(Page<Recipe> page) {
+        List<Recipe> items = new ArrayList<>(page.getItems().size());
+        for (Recipe recipe : page.getItems()) {
+            items.add(copyOf(recipe));
+        }
+        Page<Recipe> copy = new Page<>(page.getPageNumber(), page.getPageSize(), page.getTotalPages(),
+                page.getTotalElements(), items);
+        copy.setNextCursor(page.getNextCursor());
+        return copy;
+    }
+
+    /**
+     * Estimates the memory a page of recipes takes up, in bytes.
+     */
+    private static long weightOf(Page<Recipe> page) {
+        long weight = 64;
+        for (Recipe recipe : page.getItems()) {
+            weight += 96 + 2L * (length(recipe.getName()) + length(recipe.getInstructions()));
+        }
+        return weight;
+    }
+
+    private static int length(String text) {
+        return text == null ? 0 : text.length();
+    }
+
+    /**
+     * Makes a recipe from a CSV row of an import, with "name", "instructions" and "ingredients" columns. Each ingredient is written name:volume:unit and split from the right, since a name may itself contain a colon.
+     *
+     * @throws IllegalArgumentException if an ingredient is malformed; the import reports it against the row's line
+     */
+    private static Recipe recipeOf(Map<String, String> row) {
+        Recipe recipe = new Recipe(row.get("name"), row.get("instructions"));
+        List<RecipeIngredient> ingredients = new ArrayList<>();
+        for (String ingredient : row.getOrDefault("ingredients", "").split(";")) {
+            if (ingredient.isBlank()) {
+                continue;
+            }
+            int unitAt = ingredient.lastIndexOf(':');
+            int volumeAt = unitAt < 0 ? -1 : ingredient.lastIndexOf(':', unitAt - 1);
+            String name = volumeAt < 0 ? "" : ingredient.substring(0, volumeAt).trim();
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Invalid ingredient \"" + ingredient.trim() + "\"; expected name:volume:unit");
+            }
+            String volume = ingredient.substring(volumeAt + 1, unitAt).trim();
+            double parsed;
+            try {
+                parsed = Double.parseDouble(volume);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid volume \"" + volume + "\"");
+            }
+            if (!Double.isFinite(parsed)) {
+                throw new IllegalArgumentException("Invalid volume \"" + volume + "\"");
+            }
+            ingredients.add(new RecipeIngredient(0, name, parsed, ingredient.substring(unitAt + 1).trim()));
+        }
+        recipe.setIngredients(ingredients);
+        return recipe;
+    }
+
+    /**
+     * Checks an imported recipe against the RECIPE and RECIPE_INGREDIENT columns, and fills in the ids of the ingredients given by name.
+     *
+     * @throws IllegalArgumentException if the recipe cannot be saved as it is
+     */
+    private static void checkImported(Recipe recipe, Map<String, Integer> ingredientIds, Set<Integer> knownIds) {
+        checkText("name", recipe.getName(), 255);
+        checkText("instructions", recipe.getInstructions(), 255);
+        if (recipe.getIngredients() == null) {
+            return;
+        }
+        for (RecipeIngredient ingredient : recipe.getIngredients()) {
+            if (ingredient.getId() == 0) {
+                String name = ingredient.getName() == null ? "" : ingredient.getName();
+                Integer id = ingredientIds.get(name.trim().toLowerCase(Locale.ROOT));
+                if (id == null) {
+                    throw new IllegalArgumentException("Unknown ingredient \"" + name + "\"");
+                }
+                ingredient.setId(id);
+            } else if (!knownIds.contains(ingredient.getId())) {
+                throw new IllegalArgumentException("Unknown ingredient id " + ingredient.getId());
+            }
+            checkText("unit", ingredient.getUnit(), 20);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value of a required column is missing, blank or too long
+     */
+    private static void checkText(String column, String value, int maxLength) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException("The " + column + " is longer than " + maxLength + " characters");
+        }
+    }
+
+    /**
+     * A recipe as it was read, without its ingredients, and the versions of its row and its author's row at the time.
+     */
+    private static class CachedRecipe {
+        private final Recipe recipe;
+        private final long recipeVersion;
+        private final long authorVersion;
+
+        CachedRecipe(Recipe recipe, long recipeVersion) {
+            this.recipe = copyOf(recipe);
+            this.recipeVersion = recipeVersion;
+            this.authorVersion = recipe.getAuthor() == null ? 0 : DataVersions.of("CHEF", recipe.getAuthor().getId());
+        }
+
+        boolean isCurrent() {
+            return recipeVersion == DataVersions.of("RECIPE", recipe.getId()) && (recipe.getAuthor() == null
+                    || authorVersion == DataVersions.of("CHEF", recipe.getAuthor().getId()));
+        }
+
+        Recipe copy() {
+            return copyOf(recipe);
+        }
+    }
 }
@@ -0,0 +1,154 @@
+package com.revature.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.revature.dao.SuggestionDAO;
+import com.revature.model.Suggestion;
+import com.revature.util.DataVersions;
+import com.revature.util.SuggestionTrie;
+
+
+/**
+ * The SuggestionService class answers typeahead lookups from in-memory tries of recipe and ingredient names, so a suggestion costs no SQL at all.
+ *
+ * The tries are built from the database on the first lookup. After that, a write to any of the tables they are built from makes them stale: the next lookup starts a rebuild on a background thread and keeps answering from the old tries until the new ones are ready, so no lookup ever waits for a rebuild. Suggestions may therefore trail a write by the time one rebuild takes.
+ */
+public class SuggestionService {
+
+    /** The most suggestions a lookup can return. */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    /** The tables the suggestions are built from. */
+    private static final String[] SOURCE_TABLES = { "RECIPE", "INGREDIENT", "RECIPE_INGREDIENT" };
+
+    /** Data access object for the suggested names. */
+    private SuggestionDAO suggestionDAO;
+    /** The tries currently answering lookups, or null before the first lookup. */
+    private volatile Tries tries;
+    /** Set while a background rebuild is running. */
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    /** Runs the background rebuilds. */
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggestion-rebuilder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a SuggestionService with the specified SuggestionDAO.
+     */
+    public SuggestionService(SuggestionDAO suggestionDAO) {
+        this.suggestionDAO = suggestionDAO;
+    }
+
+    /**
+     * Finds the most popular recipe and ingredient names starting with the given prefix, or with a word that does.
+     *
+     * @param prefix the text typed so far; case and accents are ignored
+     * @param type {@link Suggestion#RECIPE} or {@link Suggestion#INGREDIENT} to suggest only one kind of name, or null for both
+     * @param limit the most suggestions to return, at most {@link #MAX_SUGGESTIONS}
+     * @return the suggestions, most popular first
+     * @throws IllegalArgumentException if the type is not recognized
+     */
+    public List<Suggestion> suggest(String prefix, String type, int limit) {
+        if (type != null && !type.equals(Suggestion.RECIPE) && !type.equals(Suggestion.INGREDIENT)) {
+            throw new IllegalArgumentException("Unknown suggestion type: " + type);
+        }
+        Tries current = current();
+        if (Suggestion.RECIPE.equals(type)) {
+            return current.recipes.complete(prefix, limit);
+        } else if (Suggestion.INGREDIENT.equals(type)) {
+            return current.ingredients.complete(prefix, limit);
+        }
+        return merge(current.recipes.complete(prefix, limit), current.ingredients.complete(prefix, limit), limit);
+    }
+
+    /**
+     * Rebuilds the tries from the database straight away, on the calling thread.
+     */
+    public void refresh() {
+        tries = build();
+    }
+
+    /**
+     * Returns the tries to answer a lookup with, building them if this is the first lookup and starting a background rebuild if they are stale.
+     */
+    private Tries current() {
+        Tries current = tries;
+        if (current == null) {
+            synchronized (this) {
+                if (tries == null) {
+                    tries = build();
+                }
+                return tries;
+            }
+        }
+        if (current.version != version() && rebuilding.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                try {
+                    tries = build();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+        return current;
+    }
+
+    private Tries build() {
+        // Read the version first, so a write made while building is picked up by the next rebuild
+        long version = version();
+        return new Tries(new SuggestionTrie(suggestionDAO.getRecipeSuggestions(), MAX_SUGGESTIONS),
+                new SuggestionTrie(suggestionDAO.getIngredientSuggestions(), MAX_SUGGESTIONS), version);
+    }
+
+    /**
+     * Sums the versions of the source tables. Versions only grow, so the sum changes whenever any of them does.
+     */
+    private static long version() {
+        long version = 0;
+        for (String table : SOURCE_TABLES) {
+            version += DataVersions.of(table);
+        }
+        return version;
+    }
+
+    /**
+     * Merges two lists of suggestions, each best first, into one of at most limit suggestions.
+     */
+    private static List<Suggestion> merge(List<Suggestion> first, List<Suggestion> second, int limit) {
+        List<Suggestion> merged = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            if (j == second.size()
+                    || (i < first.size() && SuggestionTrie.RANKING.compare(first.get(i), second.get(j)) <= 0)) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * The recipe and ingredient tries, and the version of the data they were built from.
+     */
+    private static class Tries {
+        private final SuggestionTrie recipes;
+        private final SuggestionTrie ingredients;
+        private final long version;
+
+        Tries(SuggestionTrie recipes, SuggestionTrie ingredients, long version) {
+            this.recipes = recipes;
+            this.ingredients = ingredients;
+            this.version = version;
+        }
+    }
+}
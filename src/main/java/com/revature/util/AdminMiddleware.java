@@ -17,6 +17,10 @@ import io.javalin.http.UnauthorizedResponse;
  * methods require admin access and leverages the ChefService to validate 
  * user permissions. The middleware intercepts requests and ensures that 
  * only users with admin privileges can access protected resources.
+ * 
+ * By default the caller is taken to be the logged in user. A middleware made 
+ * with {@link #forRequestToken(String...)} instead checks the chef whose 
+ * session token the request itself carries in its Authorization header.
  */
 
 public class AdminMiddleware implements Handler {
@@ -32,6 +36,11 @@ public class AdminMiddleware implements Handler {
      */
     @SuppressWarnings("unused")
     private AuthenticationService authService;
+
+    /**
+     * Whether the caller is found from the request's Authorization header rather than from the logged in users.
+     */
+    private boolean fromRequestToken;
     
 
     /**
@@ -46,6 +55,18 @@ public class AdminMiddleware implements Handler {
         this.authService = new AuthenticationService(new ChefService(new ChefDAO(new ConnectionUtil())));
     }
 
+    /**
+     * Constructs an AdminMiddleware that only lets through protected requests whose Authorization header carries the session token of an admin.
+     *
+     * @param protectedMethods the HTTP methods that require admin access
+     * @return the middleware
+     */
+    public static AdminMiddleware forRequestToken(String... protectedMethods) {
+        AdminMiddleware middleware = new AdminMiddleware(protectedMethods);
+        middleware.fromRequestToken = true;
+        return middleware;
+    }
+
     /**
      * Handles the HTTP request, checking for admin access based on the HTTP method being used and the current logged in user's authentication token.
      *
@@ -55,8 +76,9 @@ public class AdminMiddleware implements Handler {
     @Override
     public void handle(Context ctx) {
         if (isProtectedMethod(ctx.method().name())) {
-            // Get the token of the current logged in user
-            String token = AuthenticationService.loggedInUsers.keySet().stream().collect(Collectors.joining());
+            // Get the token of the caller, or of the current logged in user
+            String token = fromRequestToken ? requestToken(ctx)
+                    : AuthenticationService.loggedInUsers.keySet().stream().collect(Collectors.joining());
 
             // Check the corresponding chef and check if they are admin
             boolean isAdmin = isAdmin(authService.getChefFromSessionToken(token));
@@ -68,6 +90,14 @@ public class AdminMiddleware implements Handler {
         }
     }
 
+    /**
+     * Returns the session token in the request's Authorization header, given as "Bearer token", or null if there is none.
+     */
+    private static String requestToken(Context ctx) {
+        String authorization = ctx.header("Authorization");
+        return authorization == null ? null : authorization.substring(authorization.indexOf(' ') + 1);
+    }
+
     /**
      * Checks if the specified HTTP method is among the protected methods.
      *
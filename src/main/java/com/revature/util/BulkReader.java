@@ -0,0 +1,267 @@
+package com.revature.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.model.BulkImportResult;
+
+/**
+ * The BulkReader class reads the records of a bulk import from a request body as it arrives, one record at a time, so an import of any size is never held in memory as a whole. Bodies are either newline-delimited JSON, one object per line, or CSV with a header row naming the columns.
+ *
+ * A record that cannot be read, or that the importer turns down, is reported with the line it starts on and skipped; reading carries on with the next one. {@link #importInChunks(int, Consumer, Consumer)} groups the records into chunks so that each chunk can be saved in its own transaction.
+ *
+ * @param <T> the type of the records
+ */
+public class BulkReader<T> implements Closeable {
+
+    /**
+     * The formats a bulk import can be sent in.
+     */
+    public enum Format {
+        NDJSON, CSV;
+
+        /**
+         * Picks the format from a Content-Type header: text/csv for CSV, and application/x-ndjson, application/jsonl or application/json for NDJSON.
+         *
+         * @param contentType the Content-Type header, with or without parameters such as charset
+         * @return the format, or null if the content type is not one of these
+         */
+        public static Format of(String contentType) {
+            if (contentType == null) {
+                return null;
+            }
+            switch (contentType.split(";")[0].trim().toLowerCase(Locale.ROOT)) {
+                case "text/csv":
+                    return CSV;
+                case "application/x-ndjson":
+                case "application/jsonl":
+                case "application/json":
+                    return NDJSON;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    /** Shared by every reader; an ObjectMapper is thread safe once configured. */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // fields
+
+    /** The request body. */
+    private final BufferedReader reader;
+    /** The format of the body. */
+    private final Format format;
+    /** The type NDJSON records are read as. */
+    private final Class<T> type;
+    /** Makes a record from a CSV row, keyed by the lower case column names; throws IllegalArgumentException if the row is not a valid record. */
+    private final Function<Map<String, String>, T> fromCsv;
+    /** The CSV column names, in lower case, once the header row has been read. */
+    private List<String> columns;
+    /** The number of lines read so far. */
+    private long lines;
+    /** The line the last record read starts on. */
+    private long recordLine;
+
+    // constructors
+    public BulkReader(InputStream in, Format format, Class<T> type, Function<Map<String, String>, T> fromCsv) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.format = format;
+        this.type = type;
+        this.fromCsv = fromCsv;
+    }
+
+    /**
+     * Reads the next record. Blank lines are skipped.
+     *
+     * @return the record, or null at the end of the body
+     * @throws IllegalArgumentException if the record is malformed; the reader is left at the start of the next one
+     * @throws IOException if the body cannot be read
+     */
+    public T read() throws IOException {
+        return format == Format.CSV ? readCsv() : readJson();
+    }
+
+    /**
+     * @return the line the last record read starts on, counting from 1
+     */
+    public long getLine() {
+        return recordLine;
+    }
+
+    /**
+     * Reads every record and hands them to the saver in chunks. Each record is checked first; one the check turns down is left out of its chunk and reported. A chunk the saver fails on is reported as a whole, with none of its records counted as imported, so the saver should save each chunk in one transaction.
+     *
+     * @param chunkSize the number of records in each chunk
+     * @param check looks at each record before it joins a chunk, and may fill it in; throws IllegalArgumentException to turn it down
+     * @param saver saves a chunk; throws a RuntimeException if it could not
+     * @return the counts of records read, imported and rejected, and the errors of every chunk that had any
+     * @throws IOException if the body cannot be read
+     */
+    public BulkImportResult importInChunks(int chunkSize, Consumer<T> check, Consumer<List<T>> saver)
+            throws IOException {
+        BulkImportResult result = new BulkImportResult();
+        List<T> chunk = new ArrayList<>(chunkSize);
+        BulkImportResult.ChunkReport report = null;
+        while (true) {
+            T record;
+            String error = null;
+            try {
+                record = read();
+                if (record == null) {
+                    break;
+                }
+                check.accept(record);
+            } catch (IllegalArgumentException e) {
+                record = null;
+                error = e.getMessage();
+            }
+            if (report == null) {
+                report = new BulkImportResult.ChunkReport(result.getChunks() + 1, recordLine);
+            }
+            if (error == null) {
+                chunk.add(record);
+                report.accept();
+            } else {
+                report.reject("Line " + recordLine + ": " + error);
+            }
+            if (report.getReceived() == chunkSize) {
+                save(chunk, report, saver, result);
+                chunk.clear();
+                report = null;
+            }
+        }
+        if (report != null) {
+            save(chunk, report, saver, result);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Saves one chunk and adds its outcome to the result.
+     */
+    private void save(List<T> chunk, BulkImportResult.ChunkReport report, Consumer<List<T>> saver,
+            BulkImportResult result) {
+        report.setLastLine(recordLine);
+        if (!chunk.isEmpty()) {
+            try {
+                saver.accept(chunk);
+                report.setImported(chunk.size());
+            } catch (RuntimeException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                report.fail("Chunk not saved: " + cause.getMessage());
+            }
+        }
+        result.add(report);
+    }
+
+    private T readJson() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            recordLine = ++lines;
+        } while (line.isBlank());
+        try {
+            return MAPPER.readValue(line, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage());
+        }
+    }
+
+    private T readCsv() throws IOException {
+        if (columns == null) {
+            List<String> header = readCsvRow();
+            if (header == null) {
+                return null;
+            }
+            columns = new ArrayList<>();
+            for (String column : header) {
+                columns.add(column.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        List<String> row = readCsvRow();
+        if (row == null) {
+            return null;
+        }
+        if (row.size() > columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " columns but found " + row.size());
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < row.size(); i++) {
+            values.put(columns.get(i), row.get(i));
+        }
+        return fromCsv.apply(values);
+    }
+
+    /**
+     * Reads one CSV row, as RFC 4180 describes it: fields are separated by commas, and a field in double quotes may hold commas, line breaks and doubled quotes. Blank lines are skipped.
+     *
+     * @return the fields of the row, or null at the end of the body
+     */
+    private List<String> readCsvRow() throws IOException {
+        int c = reader.read();
+        while (c == '\r' || c == '\n') {
+            if (c == '\n') {
+                lines++;
+            }
+            c = reader.read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = lines + 1;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    lines++;
+                    throw new IllegalArgumentException("Unterminated quoted field");
+                } else if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    lines++;
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                lines++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+}
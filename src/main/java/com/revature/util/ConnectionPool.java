@@ -0,0 +1,765 @@
+package com.revature.util;
+
+import java.lang.ref.Cleaner;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.h2.jdbcx.JdbcDataSource;
+
+/**
+ * The ConnectionPool class keeps a bounded set of physical database connections open and lends them out, so DAOs do not pay for opening a new H2 session on every call.
+ *
+ * Borrowed connections are wrapped in a proxy whose close() method hands the physical connection back to the pool instead of closing it. Returned connections are rolled back if a transaction was left open and put back into auto-commit mode before they are reused.
+ *
+ * The pool never holds more than its maximum size. A caller that finds every connection in use waits up to the acquire timeout and then gets an SQLException. Connections that have been idle for longer than the idle timeout are closed by a background task, down to the minimum size. A connection that has sat idle for a while is validated before it is handed out.
+ *
+ * The pool also watches for leaked connections. Every borrow records the stack trace of the caller, and a connection held for longer than the leak threshold is reported once along with that trace. Statements a borrower forgets to close are closed when the connection is returned, and a borrowed connection that becomes unreachable without being closed is reclaimed by the pool rather than lost.
+ *
+ * Streaming reads, such as exports, hold their connection for as long as the client takes to download the response, which has no bound. They borrow through {@link #getStreamingConnection()}: such borrows are never reported as leaks, and at most the streaming limit of them are out at once, half the pool by default, so slow downloads cannot starve every other request. A streaming read that finds the limit reached waits for one to finish, up to the acquire timeout.
+ */
+public class ConnectionPool {
+
+    /** How long a connection may sit idle before it is validated again on borrow. */
+    private static final long VALIDATION_INTERVAL_MILLIS = 500;
+    /** How often the background task evicts idle connections. */
+    private static final long EVICTION_INTERVAL_MILLIS = 30_000;
+    /** The upper bounds, in microseconds, of the acquire time histogram buckets. The last bucket is unbounded. */
+    private static final long[] HISTOGRAM_BOUNDS_MICROS = { 100, 1_000, 10_000, 100_000, 1_000_000 };
+    /** The labels of the acquire time histogram buckets. */
+    private static final String[] HISTOGRAM_LABELS = { "<100us", "<1ms", "<10ms", "<100ms", "<1s", ">=1s" };
+    /** The shortest interval at which held connections are checked against the leak threshold. */
+    private static final long MIN_LEAK_CHECK_INTERVAL_MILLIS = 50;
+    /** The number of tracked statements above which closed ones are pruned from a lease. */
+    private static final int STATEMENT_PRUNE_THRESHOLD = 32;
+    /** Releases borrowed connections whose proxies were garbage collected without being closed. */
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    // fields
+
+    /** The data source used to open physical connections. */
+    private JdbcDataSource dataSource;
+    /** The number of connections kept open even when idle. */
+    private int minSize;
+    /** The largest number of connections open at once. */
+    private int maxSize;
+    /** How long a caller waits for a free connection before giving up. */
+    private long acquireTimeoutMillis;
+    /** How long a connection may stay idle before it is closed. */
+    private long idleTimeoutMillis;
+    /** How long a connection may be held before it is reported as a suspected leak; 0 disables detection. */
+    private long leakThresholdMillis;
+    /** The largest number of connections lent out at once for streaming reads. */
+    private int maxStreaming;
+    /** One permit for each streaming read that may start. */
+    private Semaphore streamingPermits;
+
+    /** Guards the idle deque and the counters below. */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Signalled whenever a connection is returned or a slot frees up. */
+    private final Condition available = lock.newCondition();
+    /** The idle connections, most recently returned first. */
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    /** The number of physical connections open or being opened. */
+    private int total;
+    /** The number of callers currently waiting for a connection. */
+    private int waiters;
+
+    /** The number of connections handed out since the pool was created. */
+    private final AtomicLong acquired = new AtomicLong();
+    /** The number of borrow attempts that timed out. */
+    private final AtomicLong timeouts = new AtomicLong();
+    /** The number of acquisitions that fell into each histogram bucket. */
+    private final AtomicLongArray acquireTimes = new AtomicLongArray(HISTOGRAM_LABELS.length);
+
+    /** The connections currently lent out. */
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    /** The number of borrows reported as held past the leak threshold since the pool was created. */
+    private final AtomicLong leaksDetected = new AtomicLong();
+    /** The number of connections returned by the garbage collector rather than by their borrower. */
+    private final AtomicLong leaksReclaimed = new AtomicLong();
+    /** The number of statements left open by borrowers and closed when their connection was returned. */
+    private final AtomicLong unclosedStatements = new AtomicLong();
+
+    /**
+     * Constructs a pool over the given data source, without leak detection, and starts the background eviction task.
+     *
+     * @param dataSource the data source to open physical connections with
+     * @param minSize the number of connections kept open even when idle
+     * @param maxSize the largest number of connections open at once
+     * @param acquireTimeoutMillis how long a caller waits for a free connection
+     * @param idleTimeoutMillis how long a connection may stay idle before it is closed
+     */
+    public ConnectionPool(JdbcDataSource dataSource, int minSize, int maxSize, long acquireTimeoutMillis,
+            long idleTimeoutMillis) {
+        this(dataSource, minSize, maxSize, acquireTimeoutMillis, idleTimeoutMillis, 0);
+    }
+
+    /**
+     * Constructs a pool over the given data source and starts the background eviction and leak detection tasks. Up to half the pool, and at least one connection, may be lent out for streaming reads.
+     *
+     * @param dataSource the data source to open physical connections with
+     * @param minSize the number of connections kept open even when idle
+     * @param maxSize the largest number of connections open at once
+     * @param acquireTimeoutMillis how long a caller waits for a free connection
+     * @param idleTimeoutMillis how long a connection may stay idle before it is closed
+     * @param leakThresholdMillis how long a connection may be held before it is reported as a suspected leak, or 0 to disable leak detection
+     */
+    public ConnectionPool(JdbcDataSource dataSource, int minSize, int maxSize, long acquireTimeoutMillis,
+            long idleTimeoutMillis, long leakThresholdMillis) {
+        this(dataSource, minSize, maxSize, acquireTimeoutMillis, idleTimeoutMillis, leakThresholdMillis,
+                Math.max(1, maxSize / 2));
+    }
+
+    /**
+     * Constructs a pool over the given data source and starts the background eviction and leak detection tasks.
+     *
+     * @param dataSource the data source to open physical connections with
+     * @param minSize the number of connections kept open even when idle
+     * @param maxSize the largest number of connections open at once
+     * @param acquireTimeoutMillis how long a caller waits for a free connection
+     * @param idleTimeoutMillis how long a connection may stay idle before it is closed
+     * @param leakThresholdMillis how long a connection may be held before it is reported as a suspected leak, or 0 to disable leak detection
+     * @param maxStreaming the largest number of connections lent out at once for streaming reads
+     */
+    public ConnectionPool(JdbcDataSource dataSource, int minSize, int maxSize, long acquireTimeoutMillis,
+            long idleTimeoutMillis, long leakThresholdMillis, int maxStreaming) {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min " + minSize + ", max " + maxSize);
+        }
+        if (maxStreaming < 1 || maxStreaming > maxSize) {
+            throw new IllegalArgumentException(
+                    "Invalid streaming limit " + maxStreaming + " for a pool of " + maxSize);
+        }
+        this.dataSource = dataSource;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.maxStreaming = maxStreaming;
+        this.streamingPermits = new Semaphore(maxStreaming, true);
+
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections, EVICTION_INTERVAL_MILLIS,
+                EVICTION_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        if (leakThresholdMillis > 0) {
+            long interval = Math.max(MIN_LEAK_CHECK_INTERVAL_MILLIS, leakThresholdMillis / 4);
+            evictor.scheduleWithFixedDelay(this::detectLeaks, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if none is idle and the pool is below its maximum size. The returned connection goes back to the pool when it is closed.
+     *
+     * @return a connection that is returned to the pool on close()
+     * @throws SQLException if no connection becomes available within the acquire timeout, or one cannot be opened
+     */
+    public Connection getConnection() throws SQLException {
+        return borrow(false);
+    }
+
+    /**
+     * Borrows a connection for a streaming read, which may hold it for as long as a client takes to download the result. The connection is not reported as a leak however long it is held. If the streaming limit has been reached, waits up to the acquire timeout for another streaming read to return its connection.
+     *
+     * @return a connection that is returned to the pool on close()
+     * @throws SQLException if no connection becomes available within the acquire timeout, or one cannot be opened
+     */
+    public Connection getStreamingConnection() throws SQLException {
+        try {
+            if (!streamingPermits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + acquireTimeoutMillis
+                        + "ms waiting for a streaming connection; all " + maxStreaming + " are in use");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a streaming connection", e);
+        }
+        try {
+            return borrow(true);
+        } catch (SQLException | RuntimeException e) {
+            streamingPermits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Borrows a connection, waiting up to the acquire timeout for one to be free.
+     */
+    private Connection borrow(boolean streaming) throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+        while (true) {
+            PooledConnection pooled = null;
+            boolean open = false;
+            lock.lock();
+            try {
+                while (idle.isEmpty() && total >= maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeouts.incrementAndGet();
+                        throw new SQLException("Timed out after " + acquireTimeoutMillis
+                                + "ms waiting for a database connection; all " + maxSize + " are in use");
+                    }
+                    waiters++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waiters--;
+                    }
+                }
+                if (!idle.isEmpty()) {
+                    pooled = idle.pollFirst();
+                } else {
+                    total++;
+                    open = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (open) {
+                try {
+                    pooled = new PooledConnection(dataSource.getConnection());
+                } catch (SQLException | RuntimeException e) {
+                    discard(null);
+                    throw e;
+                }
+            } else if (!isUsable(pooled)) {
+                discard(pooled);
+                continue;
+            }
+            recordAcquireTime(System.nanoTime() - start);
+            return pooled.lend(streaming);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool's current state and counters.
+     *
+     * @return the pool statistics
+     */
+    public Stats getStats() {
+        lock.lock();
+        try {
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < HISTOGRAM_LABELS.length; i++) {
+                histogram.put(HISTOGRAM_LABELS[i], acquireTimes.get(i));
+            }
+            Stats stats = new Stats(total - idle.size(), idle.size(), total, waiters, minSize, maxSize,
+                    acquired.get(), timeouts.get(), histogram);
+            stats.setLeakThresholdMillis(leakThresholdMillis);
+            stats.setSuspectedLeaks(countSuspectedLeaks());
+            stats.setLeaksDetected(leaksDetected.get());
+            stats.setLeaksReclaimed(leaksReclaimed.get());
+            stats.setUnclosedStatements(unclosedStatements.get());
+            stats.setStreaming(maxStreaming - streamingPermits.availablePermits());
+            stats.setMaxStreaming(maxStreaming);
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a description of every connection currently held past the leak threshold, with the stack trace of the code that borrowed it.
+     *
+     * @return the suspected leaks, longest held first; empty if leak detection is disabled
+     */
+    public List<String> getSuspectedLeaks() {
+        List<Lease> held = new ArrayList<>();
+        for (Lease lease : leases) {
+            if (isHeldTooLong(lease)) {
+                held.add(lease);
+            }
+        }
+        held.sort((a, b) -> Long.compare(a.borrowedAt, b.borrowedAt));
+        List<String> reports = new ArrayList<>();
+        for (Lease lease : held) {
+            reports.add(lease.describe());
+        }
+        return reports;
+    }
+
+    /**
+     * Reports, once each, the connections that have been held for longer than the leak threshold.
+     */
+    private void detectLeaks() {
+        for (Lease lease : leases) {
+            if (isHeldTooLong(lease) && lease.reported.compareAndSet(false, true)) {
+                leaksDetected.incrementAndGet();
+                System.err.println("Suspected connection leak: " + lease.describe());
+            }
+        }
+    }
+
+    private int countSuspectedLeaks() {
+        int count = 0;
+        for (Lease lease : leases) {
+            if (isHeldTooLong(lease)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean isHeldTooLong(Lease lease) {
+        return leakThresholdMillis > 0 && !lease.streaming && lease.heldMillis() > leakThresholdMillis;
+    }
+
+    /**
+     * Checks that an idle connection still works before it is handed out. Connections returned very recently are trusted without a round trip.
+     */
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pooled.lastReturned < VALIDATION_INTERVAL_MILLIS) {
+                return true;
+            }
+            return pooled.physical.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Takes a connection back from a borrower. It is reset and made idle again, or closed if it can no longer be used.
+     */
+    private void release(PooledConnection pooled) {
+        try {
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            discard(pooled);
+            return;
+        }
+        pooled.lastReturned = System.currentTimeMillis();
+        lock.lock();
+        try {
+            idle.addFirst(pooled);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes a physical connection, or accounts for one that failed to open, and frees its slot.
+     */
+    private void discard(PooledConnection pooled) {
+        if (pooled != null) {
+            closeQuietly(pooled.physical);
+        }
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes connections that have been idle for longer than the idle timeout, keeping at least the minimum size open, then opens connections until the minimum size is reached again.
+     */
+    private void evictIdleConnections() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        lock.lock();
+        try {
+            Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && total > minSize) {
+                PooledConnection pooled = oldestFirst.next();
+                if (pooled.lastReturned < cutoff) {
+                    oldestFirst.remove();
+                    total--;
+                    closeQuietly(pooled.physical);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        fillToMinimum();
+    }
+
+    /**
+     * Opens connections until the pool holds at least its minimum size.
+     */
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (total >= minSize) {
+                    return;
+                }
+                total++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                release(new PooledConnection(dataSource.getConnection()));
+            } catch (SQLException e) {
+                discard(null);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds an acquisition to the matching histogram bucket.
+     */
+    private void recordAcquireTime(long nanos) {
+        acquired.incrementAndGet();
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int bucket = 0;
+        while (bucket < HISTOGRAM_BOUNDS_MICROS.length && micros >= HISTOGRAM_BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        acquireTimes.incrementAndGet(bucket);
+    }
+
+    private static boolean isClosedQuietly(Statement statement) {
+        try {
+            return statement.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool, along with the time it was last returned.
+     */
+    private class PooledConnection {
+
+        /** The physical database connection. */
+        private final Connection physical;
+        /** When the connection was last returned to the pool, in epoch milliseconds. */
+        private volatile long lastReturned = System.currentTimeMillis();
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Wraps the physical connection in a proxy for one borrower. Closing the proxy returns the connection to the pool; any later call on it fails. If the proxy is garbage collected without being closed, the connection is returned anyway.
+         */
+        Connection lend(boolean streaming) {
+            Lease lease = new Lease(this, streaming);
+            leases.add(lease);
+            InvocationHandler handler = (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "close":
+                        lease.end();
+                        return null;
+                    case "isClosed":
+                        return lease.ended.get() || physical.isClosed();
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Pooled" + physical;
+                    default:
+                        if (lease.ended.get()) {
+                            throw new SQLException("Connection has been returned to the pool");
+                        }
+                        Object result;
+                        try {
+                            result = method.invoke(physical, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        if (result instanceof Statement) {
+                            lease.track((Statement) result);
+                        }
+                        return result;
+                }
+            };
+            Connection proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, handler);
+            lease.cleanable = CLEANER.register(proxy, lease::reclaim);
+            return proxy;
+        }
+    }
+
+    /**
+     * One borrow of a pooled connection: who borrowed it, when, and the statements opened on it. It must not refer to the proxy handed to the borrower, so that the proxy can be garbage collected when the borrower drops it.
+     */
+    private class Lease {
+
+        /** The connection lent out. */
+        private final PooledConnection pooled;
+        /** Whether the connection was borrowed for a streaming read, which is exempt from leak detection. */
+        private final boolean streaming;
+        /** When the connection was borrowed, from System.nanoTime(). */
+        private final long borrowedAt = System.nanoTime();
+        /** The name of the borrowing thread. */
+        private final String thread = Thread.currentThread().getName();
+        /** Captures the stack trace of the borrower; only recorded when leak detection is on, since it costs a stack walk. */
+        private final Throwable borrowTrace = leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+        /** The statements opened on the connection during this borrow. */
+        private final List<Statement> statements = new ArrayList<>();
+        /** Set once the connection has been returned. */
+        private final AtomicBoolean ended = new AtomicBoolean();
+        /** Set once the borrow has been reported as a suspected leak. */
+        private final AtomicBoolean reported = new AtomicBoolean();
+        /** Cancels the garbage collection hook once the connection has been returned normally. */
+        private volatile Cleaner.Cleanable cleanable;
+
+        Lease(PooledConnection pooled, boolean streaming) {
+            this.pooled = pooled;
+            this.streaming = streaming;
+        }
+
+        long heldMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - borrowedAt);
+        }
+
+        synchronized void track(Statement statement) {
+            if (statements.size() >= STATEMENT_PRUNE_THRESHOLD) {
+                statements.removeIf(ConnectionPool::isClosedQuietly);
+            }
+            statements.add(statement);
+        }
+
+        /**
+         * Returns the connection to the pool, closing any statements the borrower left open. Only the first call has any effect.
+         */
+        void end() {
+            if (!ended.compareAndSet(false, true)) {
+                return;
+            }
+            leases.remove(this);
+            if (cleanable != null) {
+                cleanable.clean();
+            }
+            synchronized (this) {
+                for (Statement statement : statements) {
+                    if (!isClosedQuietly(statement)) {
+                        unclosedStatements.incrementAndGet();
+                        try {
+                            statement.close();
+                        } catch (SQLException e) {
+                            e.printStackTrace();
+                        }
+                    }
+                }
+                statements.clear();
+            }
+            release(pooled);
+            if (streaming) {
+                streamingPermits.release();
+            }
+        }
+
+        /**
+         * Runs when the borrower's proxy has been garbage collected. If the connection was never closed, it is returned and the leak reported.
+         */
+        void reclaim() {
+            if (ended.get()) {
+                return;
+            }
+            leaksReclaimed.incrementAndGet();
+            System.err.println("Reclaiming connection that was never closed: " + describe());
+            end();
+        }
+
+        String describe() {
+            StringBuilder description = new StringBuilder("held for " + heldMillis() + "ms by thread " + thread);
+            if (borrowTrace == null) {
+                return description.toString();
+            }
+            for (StackTraceElement element : borrowTrace.getStackTrace()) {
+                description.append(System.lineSeparator()).append("\tat ").append(element);
+            }
+            return description.toString();
+        }
+    }
+
+    /**
+     * The Stats class is a snapshot of the pool's state, suitable for serializing as JSON.
+     */
+    public static class Stats {
+
+        /** The number of connections currently lent out. */
+        private int active;
+        /** The number of connections waiting in the pool. */
+        private int idle;
+        /** The number of physical connections open. */
+        private int total;
+        /** The number of callers waiting for a connection. */
+        private int waiters;
+        /** The configured minimum size. */
+        private int minSize;
+        /** The configured maximum size. */
+        private int maxSize;
+        /** The number of connections handed out since startup. */
+        private long acquired;
+        /** The number of borrow attempts that timed out since startup. */
+        private long timeouts;
+        /** The number of acquisitions in each acquire time bucket. */
+        private Map<String, Long> acquireTimeHistogram;
+        /** How long a connection may be held before it is reported as a suspected leak; 0 if detection is off. */
+        private long leakThresholdMillis;
+        /** The number of connections currently held past the leak threshold. */
+        private int suspectedLeaks;
+        /** The number of borrows reported as suspected leaks since startup. */
+        private long leaksDetected;
+        /** The number of never closed connections reclaimed after garbage collection since startup. */
+        private long leaksReclaimed;
+        /** The number of statements left open by borrowers and closed on return since startup. */
+        private long unclosedStatements;
+        /** The number of connections currently lent out for streaming reads. */
+        private int streaming;
+        /** The largest number of connections lent out at once for streaming reads. */
+        private int maxStreaming;
+
+        public Stats(int active, int idle, int total, int waiters, int minSize, int maxSize, long acquired,
+                long timeouts, Map<String, Long> acquireTimeHistogram) {
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.waiters = waiters;
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            this.acquired = acquired;
+            this.timeouts = timeouts;
+            this.acquireTimeHistogram = acquireTimeHistogram;
+        }
+
+        // getters
+        public int getActive() {
+            return active;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getWaiters() {
+            return waiters;
+        }
+
+        public int getMinSize() {
+            return minSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public long getAcquired() {
+            return acquired;
+        }
+
+        public long getTimeouts() {
+            return timeouts;
+        }
+
+        public Map<String, Long> getAcquireTimeHistogram() {
+            return acquireTimeHistogram;
+        }
+
+        public long getLeakThresholdMillis() {
+            return leakThresholdMillis;
+        }
+
+        public int getSuspectedLeaks() {
+            return suspectedLeaks;
+        }
+
+        public long getLeaksDetected() {
+            return leaksDetected;
+        }
+
+        public long getLeaksReclaimed() {
+            return leaksReclaimed;
+        }
+
+        public long getUnclosedStatements() {
+            return unclosedStatements;
+        }
+
+        public int getStreaming() {
+            return streaming;
+        }
+
+        public int getMaxStreaming() {
+            return maxStreaming;
+        }
+
+        // setters
+        public void setLeakThresholdMillis(long leakThresholdMillis) {
+            this.leakThresholdMillis = leakThresholdMillis;
+        }
+
+        public void setSuspectedLeaks(int suspectedLeaks) {
+            this.suspectedLeaks = suspectedLeaks;
+        }
+
+        public void setLeaksDetected(long leaksDetected) {
+            this.leaksDetected = leaksDetected;
+        }
+
+        public void setLeaksReclaimed(long leaksReclaimed) {
+            this.leaksReclaimed = leaksReclaimed;
+        }
+
+        public void setUnclosedStatements(long unclosedStatements) {
+            this.unclosedStatements = unclosedStatements;
+        }
+
+        public void setStreaming(int streaming) {
+            this.streaming = streaming;
+        }
+
+        public void setMaxStreaming(int maxStreaming) {
+            this.maxStreaming = maxStreaming;
+        }
+    }
+}
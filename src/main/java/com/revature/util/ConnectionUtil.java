@@ -1,11 +1,16 @@
 package com.revature.util;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 import org.h2.jdbcx.JdbcDataSource;
 
 /**
-This class provides autility methods and configuration for managing database connections for an H2 database. It uses a JdbcDataSource connection pool to manage connections efficiently.
+This class provides autility methods and configuration for managing database connections for an H2 database. It uses a bounded ConnectionPool over a JdbcDataSource to manage connections efficiently, so physical H2 sessions are reused rather than opened on every call.
+
+The pool can be sized with the system properties `db.pool.minSize`, `db.pool.maxSize`, `db.pool.acquireTimeoutMs` and `db.pool.idleTimeoutMs`. Connections held for longer than `db.pool.leakThresholdMs` are reported as suspected leaks; set it to 0 to turn leak detection off. Queries that stream their results read `db.stream.fetchSize` rows from the database at a time.
+
+A streaming read holds its connection until the client has downloaded the whole response, so it is exempt from leak detection, and at most `db.pool.maxStreaming` of them run at once, half the pool by default. The rest of the pool stays free for other requests however slow the downloads are; further streaming reads wait their turn, up to the acquire timeout.
 
 You do not need to edit this class.
 
@@ -16,27 +21,84 @@ public class ConnectionUtil {
 	private static String url = "jdbc:h2:./h2/db;";
 	private static String username = "sa";
 	private static String password = "";
-	private static JdbcDataSource pool = new JdbcDataSource();
+	private static JdbcDataSource dataSource = new JdbcDataSource();
+	private static ConnectionPool pool;
+
+	/** The number of rows a streaming query asks the driver to fetch at a time. */
+	public static final int STREAM_FETCH_SIZE = Integer.getInteger("db.stream.fetchSize", 500);
 
 	/**
 	 * static initialization block to establish credentials for DataSoure Pool
 	 */
 	static {
-		pool.setURL(url);
-		pool.setUser(username);
-		pool.setPassword(password);
+		dataSource.setURL(url);
+		dataSource.setUser(username);
+		dataSource.setPassword(password);
+		pool = new ConnectionPool(dataSource,
+				Integer.getInteger("db.pool.minSize", 2),
+				Integer.getInteger("db.pool.maxSize", 10),
+				Long.getLong("db.pool.acquireTimeoutMs", 5_000L),
+				Long.getLong("db.pool.idleTimeoutMs", 600_000L),
+				Long.getLong("db.pool.leakThresholdMs", 30_000L),
+				Integer.getInteger("db.pool.maxStreaming",
+						Math.max(1, Integer.getInteger("db.pool.maxSize", 10) / 2)));
 	}
 
 	/**
+	 * Borrows a connection from the pool. Closing the connection returns it to the pool.
+	 *
+	 * If a {@link UnitOfWork} is active on the current thread, its connection is returned instead, so everything done while handling one request shares one connection and one transaction.
+	 *
 	 * @return an active connection to the database
+	 * @throws RuntimeException if no connection becomes available within the acquire timeout
 	 */
 	public Connection getConnection() {
 		try {
+			UnitOfWork unitOfWork = UnitOfWork.current();
+			if (unitOfWork != null) {
+				return unitOfWork.getConnection();
+			}
 			return pool.getConnection();
 		} catch (SQLException e) {
-			e.printStackTrace();
+			throw new RuntimeException("Unable to obtain a database connection", e);
 		}
+	}
 
-		return null;
+	/**
+	 * Borrows a connection for a streaming read, one that may be held for as long as a client takes to download the result. Callers end the request's unit of work before streaming, so the read does not keep its transaction open; if a unit of work is still active, its connection is shared as usual.
+	 *
+	 * @return an active connection to the database
+	 * @throws RuntimeException if no streaming connection becomes available within the acquire timeout
+	 */
+	public Connection getStreamingConnection() {
+		try {
+			UnitOfWork unitOfWork = UnitOfWork.current();
+			if (unitOfWork != null) {
+				return unitOfWork.getConnection();
+			}
+			return pool.getStreamingConnection();
+		} catch (SQLException e) {
+			throw new RuntimeException("Unable to obtain a database connection", e);
+		}
+	}
+
+	/**
+	 * Turns H2's lazy query execution on or off for the connection's session. An embedded H2 database ignores the fetch size and builds the whole result of a query in memory before returning the first row, unless lazy execution is on, in which case rows are produced as the result set is read. Streaming queries turn it on for the duration of the read and off again afterwards, since the connection is shared.
+	 *
+	 * @param connection the connection to configure
+	 * @param lazy whether queries should be executed lazily
+	 * @throws SQLException if the setting cannot be changed
+	 */
+	public static void setLazyQueryExecution(Connection connection, boolean lazy) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("SET LAZY_QUERY_EXECUTION " + (lazy ? "TRUE" : "FALSE"));
+		}
+	}
+
+	/**
+	 * @return the pool shared by every ConnectionUtil, for reporting its statistics
+	 */
+	public static ConnectionPool getPool() {
+		return pool;
 	}
 }
@@ -1,46 +1,41 @@
 package com.revature.util;
 
-import java.io.InputStream;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.Scanner;
 
 /**
-The DBUtil class is a utility designed to handle database setup and reset operations by reading SQL commands from a file and executing them. This can be useful in scenarios where you need to reinitialize the database with a specific schema and data set.
+The DBUtil class is a utility designed to handle database setup and reset operations. The schema and seed data are defined by the versioned scripts applied by {@link MigrationRunner}; this class can wipe the database and rebuild it from those scripts, which is useful in tests that need a specific schema and data set.
 
 You do not need to edit this class.
 
  */
 public class DBUtil {
-	
-	/** A mutable text object that will contain the contents of a file once initialized. */
-	private static StringBuilder sqlScript = new StringBuilder();
-	private static InputStream inputStream =  DBUtil.class.getResourceAsStream("/sqlScript.sql");
-	
 
-	/**
-	 * static initialization block to initialize the `sqlScript` field with the content within the `sqlScript.sql` file. Any lines starting with comment syntax are ignored.
-	 */
-	static {
-			Scanner sc = new Scanner(inputStream);
-			while (sc.hasNextLine()) {
-				String nextLine = sc.nextLine();
-				if (!nextLine.startsWith("--")) {
-					sqlScript.append(nextLine + " ");
-				}
-			}
-			sc.close();
-	}
+	/** The application tables, whose versions are bumped whenever the database is rebuilt or migrated. */
+	private static final String[] TABLES = { "CHEF", "RECIPE", "INGREDIENT", "RECIPE_INGREDIENT" };
 
 	/**
-	 * This method resets and re-initializes the database by first dropping all existing objects (tables, views, procedures, etc.) and then executing the SQL script with the `sqlScript.sql` file.
+	 * This method resets and re-initializes the database by first dropping all existing objects (tables, views, procedures, etc.) and then applying every migration from scratch. It deletes all data and is meant for tests; the application itself only applies pending migrations on startup.
 	 */
 	public static void RUN_SQL() {
-		try(Connection conn = new ConnectionUtil().getConnection()) {
-			conn.prepareStatement("DROP ALL OBJECTS").executeUpdate();
-			conn.prepareStatement(sqlScript.toString()).executeUpdate();
+		ConnectionUtil connectionUtil = new ConnectionUtil();
+		try(Connection conn = connectionUtil.getConnection();
+				PreparedStatement dropAll = conn.prepareStatement("DROP ALL OBJECTS")) {
+			dropAll.executeUpdate();
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
+		new MigrationRunner(connectionUtil).migrate();
+		DataVersions.bump(TABLES);
+	}
+
+	/**
+	 * This method applies any migrations that have not been applied to the database yet, leaving existing data in place.
+	 */
+	public static void MIGRATE() {
+		if (new MigrationRunner(new ConnectionUtil()).migrate() > 0) {
+			DataVersions.bump(TABLES);
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package com.revature.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The DataVersions class counts committed writes, overall, per table and per row. DAOs report every write through {@link #changed(String, int)} when they know the row, or {@link #changed(String...)} when they do not, and anything derived from the data, such as an in-memory index or a cache, remembers the versions it was built from and compares them with the current ones to tell whether it is out of date. Reading a version is a map lookup and a volatile read.
+ *
+ * A row's version changes whenever that row is written, and also whenever its table is written without saying which rows, so it never claims a row is unchanged when it might not be. Row writes are counted in a fixed number of stripes per table, chosen by a hash of the id, so memory stays bounded however many rows are written; rows sharing a stripe see each other's writes as changes, which costs a needless reload now and then but never hides a write.
+ *
+ * The counters live in memory and start again from zero with every process; they say whether something changed, not when. Versions that leave the process, such as in an ETag, should be paired with {@link #epoch()} so they are not mistaken for the versions of another run.
+ */
+public final class DataVersions {
+
+    /** A random number identifying this run of the process. */
+    private static final long EPOCH = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+    /** The version of all the data, bumped on every write to any table. */
+    private static final AtomicLong GLOBAL = new AtomicLong();
+    /** The version of each table that has been written to, keyed by table name in upper case. */
+    private static final Map<String, AtomicLong> TABLES = new ConcurrentHashMap<>();
+    /** The number of writes to each table that did not say which rows they changed, keyed by table name in upper case. */
+    private static final Map<String, AtomicLong> WHOLE_TABLES = new ConcurrentHashMap<>();
+    /** The number of row counters kept per table. A power of two. */
+    private static final int ROW_STRIPES = 4096;
+    /** The number of writes to the rows of each table, keyed by table name in upper case and striped by a hash of the id. */
+    private static final Map<String, AtomicLongArray> ROWS = new ConcurrentHashMap<>();
+
+    private DataVersions() {
+    }
+
+    /**
+     * @return a number identifying this run of the process, different in every run
+     */
+    public static long epoch() {
+        return EPOCH;
+    }
+
+    /**
+     * @return the number of writes committed to any table so far
+     */
+    public static long global() {
+        return GLOBAL.get();
+    }
+
+    /**
+     * @param table the table name, in any case
+     * @return the number of writes committed to the table so far
+     */
+    public static long of(String table) {
+        return valueOf(TABLES.get(table.toUpperCase()));
+    }
+
+    /**
+     * @param table the table name, in any case
+     * @param id the row id
+     * @return a version of the row that changes whenever a write to it, or to its whole table, is committed
+     */
+    public static long of(String table, int id) {
+        String key = table.toUpperCase();
+        AtomicLongArray rows = ROWS.get(key);
+        return valueOf(WHOLE_TABLES.get(key)) + (rows == null ? 0 : rows.get(stripe(id)));
+    }
+
+    /**
+     * Records a write to the given tables once the current unit of work commits, or straight away if there is none. A write that is rolled back leaves the versions alone. Every row of the tables counts as changed.
+     *
+     * @param tables the names of the tables written to
+     */
+    public static void changed(String... tables) {
+        UnitOfWork.afterCommit(() -> bump(tables));
+    }
+
+    /**
+     * Records a write to one row once the current unit of work commits, or straight away if there is none. A write that is rolled back leaves the versions alone.
+     *
+     * @param table the name of the table written to
+     * @param id the id of the row written, inserted or deleted
+     */
+    public static void changed(String table, int id) {
+        UnitOfWork.afterCommit(() -> bump(table, id));
+    }
+
+    /**
+     * Records a write to the given tables straight away, such as after the schema or seed data has been reloaded. Every row of the tables counts as changed.
+     *
+     * @param tables the names of the tables written to
+     */
+    public static void bump(String... tables) {
+        for (String table : tables) {
+            String key = table.toUpperCase();
+            WHOLE_TABLES.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+            TABLES.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+        }
+        GLOBAL.incrementAndGet();
+    }
+
+    /**
+     * Records a write to one row straight away.
+     *
+     * @param table the name of the table written to
+     * @param id the id of the row written
+     */
+    public static void bump(String table, int id) {
+        String key = table.toUpperCase();
+        ROWS.computeIfAbsent(key, k -> new AtomicLongArray(ROW_STRIPES)).incrementAndGet(stripe(id));
+        TABLES.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+        GLOBAL.incrementAndGet();
+    }
+
+    /**
+     * Picks the row counter for an id, spreading consecutive ids over the stripes.
+     */
+    private static int stripe(int id) {
+        return (id * 0x9E3779B9 >>> 16) & (ROW_STRIPES - 1);
+    }
+
+    private static long valueOf(AtomicLong version) {
+        return version == null ? 0 : version.get();
+    }
+}
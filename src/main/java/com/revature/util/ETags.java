@@ -0,0 +1,86 @@
+package com.revature.util;
+
+import java.util.function.BooleanSupplier;
+
+import io.javalin.http.Context;
+
+/**
+ * The ETags class answers conditional GET requests from data versions rather than from the response body. A resource's entity tag is made from the {@link DataVersions} versions its representation depends on, which are read from memory, so a request whose If-None-Match header still holds the current tag is answered with 304 Not Modified before anything is read from the database, and no body is ever hashed.
+ *
+ * Versions restart from zero with every run of the process, so tags also carry {@link DataVersions#epoch()}; a tag handed out by an earlier run never matches.
+ *
+ * Only successful representations are tagged: a handler checks {@link #notModified(Context, String)} first and calls {@link #tag(Context, String)} once it knows it is answering with the resource, so an error such as a 404 Not Found never carries a tag a client could send back.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Makes the strong entity tag for a version of a resource.
+     *
+     * @param version the version of everything the representation depends on
+     * @return the quoted entity tag
+     */
+    public static String of(long version) {
+        return "\"" + Long.toString(DataVersions.epoch(), 36) + "-" + Long.toString(version, 36) + "\"";
+    }
+
+    /**
+     * Answers 304 Not Modified, tagging the response, if the request's If-None-Match header holds the tag.
+     *
+     * @param ctx the request context
+     * @param etag the current entity tag of the resource
+     * @return true if the response is 304 Not Modified and the handler should stop; false if it should go on to produce the body
+     */
+    public static boolean notModified(Context ctx, String etag) {
+        return notModified(ctx, etag, () -> true);
+    }
+
+    /**
+     * Answers like {@link #notModified(Context, String)}, but only if the resource exists. A version can be worked out for a row that is not there, so single-entity routes check before confirming a tag; the check is made only when the tag matches.
+     *
+     * @param ctx the request context
+     * @param etag the current entity tag of the resource
+     * @param exists tells whether the resource exists
+     * @return true if the response is 304 Not Modified and the handler should stop; false if it should go on to produce the body
+     */
+    public static boolean notModified(Context ctx, String etag, BooleanSupplier exists) {
+        if (matches(ctx.header("If-None-Match"), etag) && exists.getAsBoolean()) {
+            tag(ctx, etag);
+            ctx.status(304);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Tags a successful response and asks clients to check back before reusing it.
+     *
+     * @param ctx the request context
+     * @param etag the current entity tag of the resource
+     */
+    public static void tag(Context ctx, String etag) {
+        ctx.header("ETag", etag);
+        ctx.header("Cache-Control", "no-cache");
+    }
+
+    /**
+     * Returns whether an If-None-Match header lists the given tag. The comparison is weak, as the header calls for, so a tag the client holds as W/"..." still matches.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,159 @@
+package com.revature.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * The EntityCache class keeps a whole small table in memory as an immutable snapshot, keyed by id and optionally by name, so the DAO owning it can answer lookups without SQL. It is meant for tables like CHEF and INGREDIENT that are read constantly and written rarely.
+ *
+ * The cache is off until {@link #preload()} is called, usually at startup. From then on the snapshot remembers the {@link DataVersions} version of its table it was read at; the first lookup after a write to the table has been committed reads the table again, and every lookup in between is a volatile read and a map lookup. A request that has written something and not yet committed it is told to use SQL instead, since the snapshot cannot show its own writes.
+ *
+ * The snapshot's entities are never handed out; lookups return copies, so callers may change what they get.
+ *
+ * @param <E> the type of the entities
+ */
+public class EntityCache<E> {
+
+    // fields
+
+    /** The table the entities are read from. */
+    private final String table;
+    /** Reads every entity of the table, or returns null if it cannot. */
+    private final Supplier<List<E>> loader;
+    /** Gives an entity's id. */
+    private final ToIntFunction<E> idOf;
+    /** Gives an entity's name, or is null if the entities are not looked up by name. */
+    private final Function<E, String> nameOf;
+    /** Copies an entity. */
+    private final UnaryOperator<E> copier;
+    /** The entities as last read, or null while the cache is off. */
+    private volatile Snapshot<E> snapshot;
+    /** Set once the cache has been preloaded. */
+    private volatile boolean enabled;
+
+    // constructors
+    public EntityCache(String table, Supplier<List<E>> loader, ToIntFunction<E> idOf, Function<E, String> nameOf,
+            UnaryOperator<E> copier) {
+        this.table = table;
+        this.loader = loader;
+        this.idOf = idOf;
+        this.nameOf = nameOf;
+        this.copier = copier;
+    }
+
+    /**
+     * Reads the whole table and turns the cache on.
+     *
+     * @return the number of entities read, or -1 if the table could not be read; the cache stays off in that case
+     */
+    public int preload() {
+        Snapshot<E> loaded = reload();
+        enabled = loaded != null;
+        return loaded == null ? -1 : loaded.size();
+    }
+
+    /**
+     * Returns the snapshot to answer a lookup from, reading the table again first if it has been written since.
+     *
+     * @return the current snapshot, or null if the caller should use SQL: the cache is off, the table could not be read, or the current request has uncommitted writes
+     */
+    public Snapshot<E> current() {
+        if (!enabled || UnitOfWork.hasPendingWrites()) {
+            return null;
+        }
+        Snapshot<E> current = snapshot;
+        if (current != null && current.version == DataVersions.of(table)) {
+            return current;
+        }
+        return reload();
+    }
+
+    /**
+     * Turns the cache off and drops the snapshot.
+     */
+    public synchronized void clear() {
+        enabled = false;
+        snapshot = null;
+    }
+
+    /**
+     * Reads the whole table into a new snapshot, unless another thread has just done so.
+     */
+    private synchronized Snapshot<E> reload() {
+        Snapshot<E> current = snapshot;
+        long version = DataVersions.of(table);
+        if (current != null && current.version == version) {
+            return current;
+        }
+        // The version is taken before reading, so a write committed meanwhile makes the snapshot stale rather than wrong
+        List<E> entities = loader.get();
+        if (entities == null) {
+            return null;
+        }
+        Map<Integer, E> byId = new HashMap<>();
+        Map<String, E> byName = new HashMap<>();
+        for (E entity : entities) {
+            byId.put(idOf.applyAsInt(entity), entity);
+            if (nameOf != null) {
+                // Of two entities with the same folded name, the one with the lowest id wins
+                byName.putIfAbsent(fold(nameOf.apply(entity)), entity);
+            }
+        }
+        snapshot = new Snapshot<>(version, Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byName),
+                copier);
+        return snapshot;
+    }
+
+    private static String fold(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * An immutable copy of a table as it was at one version.
+     */
+    public static final class Snapshot<E> {
+        private final long version;
+        private final Map<Integer, E> byId;
+        private final Map<String, E> byName;
+        private final UnaryOperator<E> copier;
+
+        private Snapshot(long version, Map<Integer, E> byId, Map<String, E> byName, UnaryOperator<E> copier) {
+            this.version = version;
+            this.byId = byId;
+            this.byName = byName;
+            this.copier = copier;
+        }
+
+        /**
+         * @param id the entity id
+         * @return a copy of the entity, or null if the table has no such row
+         */
+        public E get(int id) {
+            E entity = byId.get(id);
+            return entity == null ? null : copier.apply(entity);
+        }
+
+        /**
+         * @param name the entity name, matched ignoring case and surrounding spaces
+         * @return a copy of the entity, or null if the table has no row with that name
+         */
+        public E getByName(String name) {
+            E entity = byName.get(fold(name));
+            return entity == null ? null : copier.apply(entity);
+        }
+
+        /**
+         * @return the number of entities in the snapshot
+         */
+        public int size() {
+            return byId.size();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.revature.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * The FullTextIndex class is an in-memory inverted index over documents made of one or more text fields, ranked with BM25. Each document is identified by an int id, normally the primary key of the row it was built from.
+ *
+ * Text is tokenized by splitting on anything that is not a letter or digit, with case and accents folded, so a search for "creme brulee" also finds the accented spelling. Each field carries a weight: a term's frequency in a document is the weighted sum of its frequencies in the fields, which lets a match in a recipe's name count for more than a match in its instructions.
+ *
+ * For every term the index keeps a posting list of the documents containing it, as sorted primitive arrays. A search only reads the posting lists of its own terms, so its cost depends on how many documents match rather than on how many are indexed.
+ *
+ * The index is safe for concurrent use; searches share a read lock and updates take a write lock.
+ */
+public class FullTextIndex {
+
+    /** BM25 term frequency saturation. */
+    private static final double K1 = 1.2;
+    /** BM25 document length normalization. */
+    private static final double B = 0.75;
+    /** Splits text into tokens. */
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    /** Matches the combining marks left behind when accented letters are decomposed. */
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    // fields
+
+    /** The weight of each field, in the order fields are passed to {@link #put(int, String...)}. */
+    private float[] fieldWeights;
+    /** The posting list of each term. */
+    private Map<String, PostingList> postings = new HashMap<>();
+    /** The indexed documents, by id. */
+    private Map<Integer, Document> documents = new HashMap<>();
+    /** The sum of the weighted lengths of all documents. */
+    private double totalLength;
+    /** Guards all of the above. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructs an empty index.
+     *
+     * @param fieldWeights the weight of each field of a document, in order
+     */
+    public FullTextIndex(float... fieldWeights) {
+        this.fieldWeights = fieldWeights.clone();
+    }
+
+    /**
+     * Adds a document to the index, replacing any document already indexed under the same id.
+     *
+     * @param id the document id
+     * @param fields the text of each field, in the order the weights were given; null fields are treated as empty
+     */
+    public void put(int id, String... fields) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        for (int f = 0; f < fields.length && f < fieldWeights.length; f++) {
+            for (String token : tokenize(fields[f])) {
+                frequencies.merge(token, fieldWeights[f], Float::sum);
+                length += fieldWeights[f];
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            String[] terms = frequencies.keySet().toArray(new String[0]);
+            for (String term : terms) {
+                postings.computeIfAbsent(term, key -> new PostingList()).put(id, frequencies.get(term));
+            }
+            documents.put(id, new Document(terms, length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a document from the index. Does nothing if it is not indexed.
+     *
+     * @param id the document id
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every document from the index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of documents indexed
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the documents matching any term of the query, best match first. Documents with equal scores are ordered by id.
+     *
+     * @param query the search text, tokenized like the documents
+     * @param limit the largest number of ids to return
+     * @return the ids of the best matching documents, in rank order
+     */
+    public List<Integer> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit < 1) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 1 : Math.max(totalLength / documentCount, 1e-9);
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int id = list.ids[i];
+                    double frequency = list.frequencies[i];
+                    double lengthRatio = documents.get(id).length / averageLength;
+                    double score = idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * lengthRatio));
+                    scores.merge(id, score, Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Keep the best matches in a min-heap of the limit's size, worst on top
+        PriorityQueue<Map.Entry<Integer, Double>> best = new PriorityQueue<>(Math.min(limit, scores.size()) + 1,
+                (a, b) -> a.getValue().equals(b.getValue()) ? Integer.compare(b.getKey(), a.getKey())
+                        : Double.compare(a.getValue(), b.getValue()));
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            best.offer(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        Integer[] ranked = new Integer[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = best.poll().getKey();
+        }
+        return new ArrayList<>(Arrays.asList(ranked));
+    }
+
+    /**
+     * Splits text into lower case tokens with accents removed.
+     *
+     * @param text the text to split; may be null
+     * @return the tokens, in order, including repeats
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void removeLocked(int id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        totalLength -= document.length;
+        for (String term : document.terms) {
+            PostingList list = postings.get(term);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * An indexed document: its distinct terms, kept so it can be removed again, and its weighted length.
+     */
+    private static class Document {
+        private final String[] terms;
+        private final float length;
+
+        Document(String[] terms, float length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+
+    /**
+     * The documents containing one term, with the term's weighted frequency in each, sorted by document id.
+     */
+    private static class PostingList {
+        private int[] ids = new int[4];
+        private float[] frequencies = new float[4];
+        private int size;
+
+        void put(int id, float frequency) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                frequencies[index] = frequency;
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            System.arraycopy(frequencies, index, frequencies, index + 1, size - index);
+            ids[index] = id;
+            frequencies[index] = frequency;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            System.arraycopy(frequencies, index + 1, frequencies, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package com.revature.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The IngredientIndex class is an in-memory inverted index from ingredients to the recipes using them, read from RECIPE_INGREDIENT. Each ingredient's recipes are kept as a {@link CompressedBitmap}, so finding the recipes that use all, or any, of several ingredients is an intersection or union of bitmaps, with no SQL at all.
+ *
+ * Ingredients are looked up by name, ignoring case and surrounding spaces. The name dictionary is read from the INGREDIENT table and read again whenever {@link DataVersions} shows that table has changed, which also drops the ingredients that have been deleted. The recipe side is kept up to date by the DAO that owns the index through {@link #reindexRecipe(int, ConnectionUtil)} and {@link #removeRecipe(int)}.
+ *
+ * For ranking recipes against a pantry, the same data is also handed out as a {@link PantryMatrix}, which is built on demand and kept until the next change to the index.
+ *
+ * The index is built by {@link #build(ConnectionUtil)}, at startup or else on the first search. It is safe for concurrent use; searches share a read lock and updates take a write lock.
+ */
+public class IngredientIndex {
+
+    // fields
+
+    /** The recipes using each ingredient, by ingredient id. */
+    private Map<Integer, CompressedBitmap> recipesByIngredient = new HashMap<>();
+    /** The distinct ingredient ids of each indexed recipe, sorted, by recipe id. */
+    private Map<Integer, int[]> ingredientsByRecipe = new HashMap<>();
+    /** The ids of the ingredients with each name, keyed by the folded name. */
+    private Map<String, int[]> ingredientsByName = new HashMap<>();
+    /** The matrix of the recipes' ingredients, or null if it must be built again. */
+    private volatile PantryMatrix matrix;
+    /** The version of the INGREDIENT table the name dictionary was read at. */
+    private volatile long ingredientVersion = -1;
+    /** Whether the index has been built from the database. */
+    private volatile boolean built;
+    /** Guards all of the above. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Finds the recipes using every one of the named ingredients.
+     *
+     * @param names the ingredient names; case and surrounding spaces are ignored
+     * @param connectionUtil used to build the index, or refresh its names, if needed
+     * @return the ids of the matching recipes; empty if no names are given or any name is unknown
+     */
+    public CompressedBitmap recipesWithAll(Collection<String> names, ConnectionUtil connectionUtil) {
+        List<CompressedBitmap> sets = recipeSets(names, connectionUtil, true);
+        if (sets == null || sets.isEmpty()) {
+            return new CompressedBitmap();
+        }
+        // Intersecting the smallest sets first keeps every intermediate result small
+        sets.sort((a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+        CompressedBitmap result = sets.get(0);
+        for (int i = 1; i < sets.size() && !result.isEmpty(); i++) {
+            result = result.and(sets.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the recipes using at least one of the named ingredients.
+     *
+     * @param names the ingredient names; case and surrounding spaces are ignored, and unknown names are skipped
+     * @param connectionUtil used to build the index, or refresh its names, if needed
+     * @return the ids of the matching recipes
+     */
+    public CompressedBitmap recipesWithAny(Collection<String> names, ConnectionUtil connectionUtil) {
+        CompressedBitmap result = new CompressedBitmap();
+        for (CompressedBitmap set : recipeSets(names, connectionUtil, false)) {
+            result = result.or(set);
+        }
+        return result;
+    }
+
+    /**
+     * Looks up the ids of the named ingredients.
+     *
+     * @param names the ingredient names; case and surrounding spaces are ignored, and unknown names are skipped
+     * @param connectionUtil used to build the index, or refresh its names, if needed
+     * @return the ids of every ingredient with one of the names, without duplicates
+     */
+    public int[] ingredientIds(Collection<String> names, ConnectionUtil connectionUtil) {
+        refresh(connectionUtil);
+        lock.readLock().lock();
+        try {
+            Set<Integer> ids = new HashSet<>();
+            for (String name : names) {
+                for (int id : ingredientsByName.getOrDefault(fold(name), new int[0])) {
+                    ids.add(id);
+                }
+            }
+            return ids.stream().mapToInt(Integer::intValue).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the recipe by ingredient matrix of the index as it is now, building it if the index has changed since it was last built.
+     *
+     * @param connectionUtil used to build the index, or refresh its names, if needed
+     * @return the matrix of every recipe with at least one ingredient
+     */
+    public PantryMatrix pantryMatrix(ConnectionUtil connectionUtil) {
+        refresh(connectionUtil);
+        PantryMatrix current = matrix;
+        if (current != null) {
+            return current;
+        }
+        lock.readLock().lock();
+        try {
+            // Writers clear the matrix under the write lock, so it cannot go stale while this is built
+            if (matrix == null) {
+                matrix = new PantryMatrix(ingredientsByRecipe);
+            }
+            return matrix;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads every recipe's ingredients and every ingredient name, unless the index has already been built.
+     *
+     * @param connectionUtil used to read the tables
+     */
+    public void build(ConnectionUtil connectionUtil) {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+            String sql = "SELECT recipe_id, ingredient_id FROM RECIPE_INGREDIENT ORDER BY recipe_id";
+            try (Connection connection = connectionUtil.getConnection();
+                    Statement statement = connection.createStatement()) {
+                statement.setFetchSize(1000);
+                try (ResultSet resultSet = statement.executeQuery(sql)) {
+                    int recipeId = -1;
+                    List<Integer> ingredientIds = new ArrayList<>();
+                    while (resultSet.next()) {
+                        if (resultSet.getInt(1) != recipeId) {
+                            putLocked(recipeId, ingredientIds);
+                            recipeId = resultSet.getInt(1);
+                            ingredientIds.clear();
+                        }
+                        ingredientIds.add(resultSet.getInt(2));
+                    }
+                    putLocked(recipeId, ingredientIds);
+                }
+                loadNamesLocked(connection);
+            } catch (SQLException e) {
+                recipesByIngredient.clear();
+                ingredientsByRecipe.clear();
+                ingredientsByName.clear();
+                throw new RuntimeException("Unable to build the ingredient index", e);
+            }
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reads a committed recipe's ingredients back from the database and replaces its entry. Does nothing until the index has been built, since building it reads every recipe anyway.
+     *
+     * @param recipeId the recipe that was created or changed
+     * @param connectionUtil used to read the recipe's ingredients
+     */
+    public void reindexRecipe(int recipeId, ConnectionUtil connectionUtil) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            String sql = "SELECT ingredient_id FROM RECIPE_INGREDIENT WHERE recipe_id = ?";
+            try (Connection connection = connectionUtil.getConnection();
+                    PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setInt(1, recipeId);
+                List<Integer> ingredientIds = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        ingredientIds.add(resultSet.getInt(1));
+                    }
+                }
+                removeLocked(recipeId);
+                putLocked(recipeId, ingredientIds);
+            } catch (SQLException e) {
+                // Rebuild from scratch on the next search rather than serve a stale entry
+                invalidateLocked();
+                e.printStackTrace();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the entries of committed recipes whose ingredients are already known, such as just after they were imported, without reading them back. Does nothing until the index has been built.
+     *
+     * @param ingredientIdsByRecipe the ingredient ids of each recipe, by recipe id
+     */
+    public void putRecipes(Map<Integer, List<Integer>> ingredientIdsByRecipe) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            for (Map.Entry<Integer, List<Integer>> entry : ingredientIdsByRecipe.entrySet()) {
+                removeLocked(entry.getKey());
+                putLocked(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a deleted recipe from the index. Does nothing if it is not indexed.
+     *
+     * @param recipeId the recipe that was deleted
+     */
+    public void removeRecipe(int recipeId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Discards the index, so it is built again from the database on the next search. Used after writes whose effect on the recipes' ingredients is not known.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            invalidateLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of recipes with at least one ingredient indexed
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ingredientsByRecipe.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Looks up the recipe set of every named ingredient, building the index or refreshing its names first if needed. Ingredients sharing a folded name, such as "Rice" and "rice", count as one.
+     *
+     * @param all whether every name must be known; if so, null is returned as soon as one is not
+     */
+    private List<CompressedBitmap> recipeSets(Collection<String> names, ConnectionUtil connectionUtil, boolean all) {
+        refresh(connectionUtil);
+        lock.readLock().lock();
+        try {
+            List<CompressedBitmap> sets = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            for (String name : names) {
+                String folded = fold(name);
+                if (folded.isEmpty() || !seen.add(folded)) {
+                    continue;
+                }
+                int[] ingredientIds = ingredientsByName.get(folded);
+                if (ingredientIds == null) {
+                    if (all) {
+                        return null;
+                    }
+                    continue;
+                }
+                CompressedBitmap set = new CompressedBitmap();
+                for (int ingredientId : ingredientIds) {
+                    CompressedBitmap recipes = recipesByIngredient.get(ingredientId);
+                    if (recipes != null) {
+                        set = ingredientIds.length == 1 ? recipes.copy() : set.or(recipes);
+                    }
+                }
+                sets.add(set);
+            }
+            return sets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the index if it has not been built, and reads the ingredient names again if the INGREDIENT table has changed since.
+     */
+    private void refresh(ConnectionUtil connectionUtil) {
+        build(connectionUtil);
+        if (ingredientVersion != DataVersions.of("INGREDIENT")) {
+            refreshNames(connectionUtil);
+        }
+    }
+
+    /**
+     * Reads the ingredient names again, after the INGREDIENT table has changed, and drops any ingredients that no longer exist.
+     */
+    private void refreshNames(ConnectionUtil connectionUtil) {
+        lock.writeLock().lock();
+        try {
+            if (!built || ingredientVersion == DataVersions.of("INGREDIENT")) {
+                return;
+            }
+            try (Connection connection = connectionUtil.getConnection()) {
+                loadNamesLocked(connection);
+            } catch (SQLException e) {
+                invalidateLocked();
+                throw new RuntimeException("Unable to refresh the ingredient index", e);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void loadNamesLocked(Connection connection) throws SQLException {
+        // Read the version first, so a change made while reading is picked up by the next search
+        long version = DataVersions.of("INGREDIENT");
+        Map<String, int[]> names = new HashMap<>();
+        Set<Integer> ingredientIds = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT id, name FROM INGREDIENT")) {
+            while (resultSet.next()) {
+                int id = resultSet.getInt(1);
+                ingredientIds.add(id);
+                names.merge(fold(resultSet.getString(2)), new int[] { id }, (a, b) -> {
+                    int[] merged = Arrays.copyOf(a, a.length + 1);
+                    merged[a.length] = b[0];
+                    return merged;
+                });
+            }
+        }
+        for (Integer deleted : new ArrayList<>(recipesByIngredient.keySet())) {
+            if (!ingredientIds.contains(deleted)) {
+                matrix = null;
+                for (int recipeId : recipesByIngredient.remove(deleted).toArray()) {
+                    int[] remaining = Arrays.stream(ingredientsByRecipe.get(recipeId)).filter(id -> id != deleted)
+                            .toArray();
+                    if (remaining.length == 0) {
+                        ingredientsByRecipe.remove(recipeId);
+                    } else {
+                        ingredientsByRecipe.put(recipeId, remaining);
+                    }
+                }
+            }
+        }
+        ingredientsByName = names;
+        ingredientVersion = version;
+    }
+
+    private void putLocked(int recipeId, List<Integer> ingredientIds) {
+        if (ingredientIds.isEmpty()) {
+            return;
+        }
+        int[] distinct = ingredientIds.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        matrix = null;
+        ingredientsByRecipe.put(recipeId, distinct);
+        for (int ingredientId : distinct) {
+            recipesByIngredient.computeIfAbsent(ingredientId, key -> new CompressedBitmap()).add(recipeId);
+        }
+    }
+
+    private void removeLocked(int recipeId) {
+        int[] ingredientIds = ingredientsByRecipe.remove(recipeId);
+        if (ingredientIds == null) {
+            return;
+        }
+        matrix = null;
+        for (int ingredientId : ingredientIds) {
+            CompressedBitmap recipes = recipesByIngredient.get(ingredientId);
+            if (recipes != null) {
+                recipes.remove(recipeId);
+                if (recipes.isEmpty()) {
+                    recipesByIngredient.remove(ingredientId);
+                }
+            }
+        }
+    }
+
+    private void invalidateLocked() {
+        matrix = null;
+        recipesByIngredient.clear();
+        ingredientsByRecipe.clear();
+        ingredientsByName.clear();
+        ingredientVersion = -1;
+        built = false;
+    }
+
+    /**
+     * Folds an ingredient name for lookup: surrounding spaces removed and lower case.
+     */
+    private static String fold(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -5,6 +5,7 @@ import io.javalin.Javalin;
 
 import com.revature.controller.AuthenticationController;
 import com.revature.controller.IngredientController;
+import com.revature.controller.SuggestionController;
 
 
 /**
@@ -37,6 +38,12 @@ public class JavalinAppUtil {
 
     private IngredientController ingredientController;
 
+    /**
+     * The SuggestionController for handling typeahead suggestions, or null if the app serves none.
+     */
+
+    private SuggestionController suggestionController;
+
     /**
      * Constructs a JavalinAppUtil with the specified controllers.
      *
@@ -46,9 +53,24 @@ public class JavalinAppUtil {
      */
 
     public JavalinAppUtil(RecipeController recipeController, AuthenticationController authController, IngredientController ingredientController) {
+        this(recipeController, authController, ingredientController, null);
+    }
+
+    /**
+     * Constructs a JavalinAppUtil with the specified controllers, including typeahead suggestions.
+     *
+     * @param recipeController the controller for handling recipe operations
+     * @param authController the controller for handling authentication operations
+     * @param ingredientController the controller for handling ingredient operations
+     * @param suggestionController the controller for handling suggestions; may be null
+     */
+
+    public JavalinAppUtil(RecipeController recipeController, AuthenticationController authController,
+            IngredientController ingredientController, SuggestionController suggestionController) {
         this.recipeController = recipeController;
         this.authenticationController = authController;
         this.ingredientController = ingredientController;
+        this.suggestionController = suggestionController;
     }
 
     /**
@@ -71,13 +93,35 @@ public class JavalinAppUtil {
         });
 
 
+        // Every request runs in its own unit of work: one connection and one transaction, shared by all services
+        // and DAOs, committed if the request succeeds and rolled back otherwise
+        app.before(ctx -> UnitOfWork.begin(ConnectionUtil.getPool()));
+        app.after(ctx -> {
+            UnitOfWork unitOfWork = UnitOfWork.current();
+            if (unitOfWork != null) {
+                unitOfWork.end(ctx.statusCode() < 400);
+            }
+        });
+
         // Configure routes for each controller
         recipeController.configureRoutes(app);
         authenticationController.configureRoutes(app);
         ingredientController.configureRoutes(app);
+        if (suggestionController != null) {
+            suggestionController.configureRoutes(app);
+        }
 
         app.before("/recipes/*", new AdminMiddleware("DELETE"));
+
         app.before("/ingredients/*", new AdminMiddleware("UPDATE", "CREATE", "DELETE"));
+        // A bulk import can write any number of rows, so it is checked against the caller's own token
+        app.before("/ingredients/bulk", AdminMiddleware.forRequestToken("POST"));
+        // Metrics expose internals such as the stack traces of connection borrowers
+        app.before("/metrics/*", AdminMiddleware.forRequestToken("GET"));
+
+        // Live connection pool statistics
+        app.get("/metrics/pool", ctx -> ctx.json(ConnectionUtil.getPool().getStats()));
+        app.get("/metrics/pool/leaks", ctx -> ctx.json(ConnectionUtil.getPool().getSuspectedLeaks()));
 
         return app;
     }
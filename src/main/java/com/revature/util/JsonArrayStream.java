@@ -0,0 +1,84 @@
+package com.revature.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The JsonArrayStream class writes a JSON array to an output stream one element at a time through a Jackson JsonGenerator, so a response of any length can be sent without first building it as a list or a string. Each element is serialized as {@link io.javalin.http.Context#json(Object)} would serialize it.
+ *
+ * The generator keeps only a small buffer, which goes out to the stream whenever it fills, so memory use does not depend on the number of elements. Closing the stream ends the array and flushes it, but leaves the underlying output stream open for its owner.
+ *
+ * The status line has already gone out by the time an element fails to be read, so an error cannot be reported with a status code. {@link #abort(Exception)} logs it instead and ends the response with the array left open, so the client sees invalid JSON rather than a list that merely looks short.
+ */
+public class JsonArrayStream implements AutoCloseable {
+
+    /** Shared by every stream; an ObjectMapper is thread safe once configured. */
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    // fields
+
+    /** The output stream the array is written to. */
+    private final OutputStream out;
+    /** The generator writing to the output stream. */
+    private final JsonGenerator generator;
+    /** Set once the array has been abandoned, so closing does not end it. */
+    private boolean aborted;
+
+    // constructors
+    public JsonArrayStream(OutputStream out) throws IOException {
+        this.out = out;
+        this.generator = MAPPER.getFactory().createGenerator(out);
+        generator.writeStartArray();
+    }
+
+    /**
+     * Writes one element of the array.
+     *
+     * @param element the element to write
+     * @throws UncheckedIOException if writing fails, such as when the client has gone away; thrown unchecked so this can be called from a Consumer
+     */
+    public void write(Object element) {
+        try {
+            generator.writeObject(element);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Abandons the array after a failure partway through. The failure is logged, the elements written so far are flushed, and the output stream is closed without ending the array.
+     *
+     * @param cause the failure that stopped the stream
+     */
+    public void abort(Exception cause) {
+        System.err.println("Streaming a response failed partway through: " + cause);
+        cause.printStackTrace();
+        aborted = true;
+        try {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.close();
+            out.close();
+        } catch (IOException e) {
+            // The client has most likely gone away; there is nobody left to tell
+        }
+    }
+
+    /**
+     * Ends the array and flushes what is left of it to the output stream, unless the array has been abandoned.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (aborted) {
+            return;
+        }
+        generator.writeEndArray();
+        generator.close();
+    }
+}
@@ -0,0 +1,233 @@
+package com.revature.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The MigrationRunner class brings the database schema up to date by applying versioned SQL scripts from the classpath folder db/migration. Each applied script is recorded in the SCHEMA_HISTORY table along with a checksum of its contents, so a script is applied exactly once and only the pending ones run on startup. On a warm restart this costs one query against SCHEMA_HISTORY.
+ *
+ * Scripts are named V{version}__{description}.sql and listed in {@link #MIGRATIONS} in version order. A script must never be edited once it has been applied anywhere; if its checksum no longer matches the recorded one the runner refuses to start. Add a new script instead.
+ *
+ * H2 commits DDL statements implicitly, so a script that fails halfway may leave part of its changes behind. Its history row is only written once it has run completely, so it will be retried on the next start.
+ */
+public class MigrationRunner {
+
+    /** The classpath folder holding the migration scripts. */
+    private static final String LOCATION = "/db/migration/";
+
+    /** The migration scripts, in the order they are applied. */
+    private static final List<String> MIGRATIONS = List.of(
+            "V1__create_schema.sql",
+            "V2__seed_data.sql",
+            "V3__add_sort_indexes.sql",
+            "V4__add_recipe_ingredient_indexes.sql");
+
+    /** Databases created before migrations were introduced already contain everything up to this version. */
+    private static final int BASELINE_VERSION = 2;
+
+    /** Creates the history table on first use. */
+    private static final String CREATE_HISTORY_SQL = "CREATE TABLE IF NOT EXISTS SCHEMA_HISTORY ("
+            + "version INT PRIMARY KEY, "
+            + "description VARCHAR(255) NOT NULL, "
+            + "checksum VARCHAR(64) NOT NULL, "
+            + "installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL, "
+            + "execution_ms INT NOT NULL)";
+
+    /** A utility class used for establishing connections to the database. */
+    private ConnectionUtil connectionUtil;
+
+    // constructors
+    public MigrationRunner(ConnectionUtil connectionUtil) {
+        this.connectionUtil = connectionUtil;
+    }
+
+    /**
+     * Applies every migration that has not been applied yet, in version order, after checking that the ones already applied have not changed.
+     *
+     * @return the number of migrations applied
+     * @throws IllegalStateException if an applied migration has been modified, or a migration fails
+     */
+    public int migrate() {
+        List<Migration> migrations = loadMigrations();
+        try (Connection connection = connectionUtil.getConnection()) {
+            boolean legacy = !tableExists(connection, "SCHEMA_HISTORY") && tableExists(connection, "CHEF");
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_HISTORY_SQL);
+            }
+            if (legacy) {
+                baseline(connection, migrations);
+            }
+
+            Map<Integer, String> applied = appliedChecksums(connection);
+            int count = 0;
+            for (Migration migration : migrations) {
+                String checksum = applied.get(migration.version);
+                if (checksum == null) {
+                    apply(connection, migration);
+                    count++;
+                } else if (!checksum.equals(migration.checksum)) {
+                    throw new IllegalStateException("Migration " + migration.name
+                            + " has been modified since it was applied; add a new migration instead");
+                }
+            }
+            return count;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to migrate the database", e);
+        }
+    }
+
+    /**
+     * Runs one migration script and records it in the history table.
+     */
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(migration.sql);
+            }
+            record(connection, migration, (int) ((System.nanoTime() - start) / 1_000_000));
+            connection.commit();
+            System.out.println("Applied migration " + migration.name); // Logging
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Migration " + migration.name + " failed", e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Marks the migrations up to the baseline version as applied without running them, for a database whose schema and data were created before migrations existed.
+     */
+    private void baseline(Connection connection, List<Migration> migrations) throws SQLException {
+        for (Migration migration : migrations) {
+            if (migration.version <= BASELINE_VERSION) {
+                record(connection, migration, 0);
+            }
+        }
+        System.out.println("Baselined existing database at version " + BASELINE_VERSION); // Logging
+    }
+
+    private void record(Connection connection, Migration migration, int executionMillis) throws SQLException {
+        String sql = "INSERT INTO SCHEMA_HISTORY (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, migration.version);
+            statement.setString(2, migration.description);
+            statement.setString(3, migration.checksum);
+            statement.setInt(4, executionMillis);
+            statement.executeUpdate();
+        }
+    }
+
+    private Map<Integer, String> appliedChecksums(Connection connection) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM SCHEMA_HISTORY")) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt("version"), resultSet.getString("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) > 0;
+            }
+        }
+    }
+
+    /**
+     * Reads every migration script from the classpath.
+     */
+    private static List<Migration> loadMigrations() {
+        List<Migration> migrations = new ArrayList<>();
+        int previous = 0;
+        for (String name : MIGRATIONS) {
+            Migration migration = new Migration(name, readScript(name));
+            if (migration.version <= previous) {
+                throw new IllegalStateException("Migrations must be listed in increasing version order: " + name);
+            }
+            previous = migration.version;
+            migrations.add(migration);
+        }
+        return migrations;
+    }
+
+    private static String readScript(String name) {
+        try (InputStream inputStream = MigrationRunner.class.getResourceAsStream(LOCATION + name)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Migration script not found: " + LOCATION + name);
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read migration script " + name, e);
+        }
+    }
+
+    /**
+     * One migration script, parsed from its file name and contents.
+     */
+    private static class Migration {
+
+        /** The file name of the script. */
+        private final String name;
+        /** The version number from the file name. */
+        private final int version;
+        /** The description from the file name, with underscores as spaces. */
+        private final String description;
+        /** The SQL to run, with comment lines removed. */
+        private final String sql;
+        /** The SHA-256 of the script with line endings normalized, so a checkout with different line endings still matches. */
+        private final String checksum;
+
+        Migration(String name, String script) {
+            if (!name.matches("V\\d+__\\w+\\.sql")) {
+                throw new IllegalStateException("Migration script names must look like V1__description.sql: " + name);
+            }
+            this.name = name;
+            this.version = Integer.parseInt(name.substring(1, name.indexOf("__")));
+            this.description = name.substring(name.indexOf("__") + 2, name.length() - 4).replace('_', ' ');
+
+            String normalized = script.replace("\r\n", "\n");
+            StringBuilder sql = new StringBuilder();
+            for (String line : normalized.split("\n")) {
+                if (!line.trim().startsWith("--")) {
+                    sql.append(line).append(' ');
+                }
+            }
+            this.sql = sql.toString();
+            this.checksum = sha256(normalized);
+        }
+
+        private static String sha256(String text) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+                StringBuilder hex = new StringBuilder();
+                for (byte b : digest) {
+                    hex.append(String.format("%02x", b));
+                }
+                return hex.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+}
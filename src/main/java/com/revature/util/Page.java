@@ -3,6 +3,8 @@ package com.revature.util;
 import java.util.List;
 import java.util.Objects;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * The Page class represents a paginated collection of items, along with 
  * metadata that facilitates a fluid paging experience for users. This 
@@ -32,6 +34,9 @@ public class Page<E> {
     private int totalElements;
     /** The total number of elements across all pages. */
     private List<E> items;
+    /** The opaque cursor for the next page when paging by keyset, or null if there is no next page or paging is by page number. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 
     // constructors
     public Page() {
@@ -87,6 +92,14 @@ public class Page<E> {
         this.items = items;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     /**
      * Returns a hash code value for the Page object.
      *
@@ -94,7 +107,7 @@ public class Page<E> {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(pageNumber, pageSize, totalPages, totalElements, items);
+        return Objects.hash(pageNumber, pageSize, totalPages, totalElements, items, nextCursor);
     }
 
     /**
@@ -116,6 +129,7 @@ public class Page<E> {
                pageSize == page.pageSize &&
                totalPages == page.totalPages &&
                totalElements == page.totalElements &&
-               Objects.equals(items, page.items);
+               Objects.equals(items, page.items) &&
+               Objects.equals(nextCursor, page.nextCursor);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.revature.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The PageCursor class is the decoded form of the opaque cursor handed to clients in keyset (cursor based) paging. It records the sort the cursor was issued for, the number of the page it leads to, and the sort value and id of the last row the client has seen, so the next page can be found with a seek condition instead of an OFFSET. It also carries the total counted for the first page, so later pages do not count the rows again.
+ *
+ * Cursors are encoded as URL safe Base64 so they can be passed back as a query parameter unchanged.
+ */
+public class PageCursor {
+
+    /** Prefix identifying the encoding, so the format can change later without misreading old cursors. */
+    private static final String VERSION = "v2";
+    /** The earlier encoding, which carried no total. Its cursors are still accepted. */
+    private static final String VERSION_WITHOUT_TOTAL = "v1";
+
+    // fields
+
+    /** The sort key the cursor was issued for. */
+    private String sortBy;
+    /** Whether the cursor was issued for a descending sort. */
+    private boolean descending;
+    /** The number of the page the cursor leads to. */
+    private int pageNumber;
+    /** The id of the last row seen. */
+    private long lastId;
+    /** The sort column value of the last row seen; may be null. */
+    private Object lastValue;
+    /** The total number of rows counted for the first page, or -1 if it is not known. */
+    private long total;
+
+    // constructors
+    public PageCursor(String sortBy, boolean descending, int pageNumber, long lastId, Object lastValue) {
+        this(sortBy, descending, pageNumber, lastId, lastValue, -1);
+    }
+
+    public PageCursor(String sortBy, boolean descending, int pageNumber, long lastId, Object lastValue, long total) {
+        this.sortBy = sortBy;
+        this.descending = descending;
+        this.pageNumber = pageNumber;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+        this.total = total;
+    }
+
+    // getters
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int getPageNumber() {
+        return pageNumber;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public Object getLastValue() {
+        return lastValue;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Encodes this cursor into the opaque string handed to clients.
+     *
+     * @return the URL safe Base64 form of the cursor
+     */
+    public String encode() {
+        String text = String.join("|", VERSION, sortBy, descending ? "desc" : "asc", Integer.toString(pageNumber),
+                Long.toString(lastId), Long.toString(total), typeOf(lastValue),
+                lastValue == null ? "" : lastValue.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param cursor the opaque cursor string
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the string is not a valid cursor
+     */
+    public static PageCursor decode(String cursor) {
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (text.startsWith(VERSION_WITHOUT_TOTAL + "|")) {
+                String[] parts = text.split("\\|", 7);
+                if (parts.length != 7) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+                }
+                return new PageCursor(parts[1], "desc".equals(parts[2]), Integer.parseInt(parts[3]),
+                        Long.parseLong(parts[4]), valueOf(parts[5], parts[6]));
+            }
+            String[] parts = text.split("\\|", 8);
+            if (parts.length != 8 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new PageCursor(parts[1], "desc".equals(parts[2]), Integer.parseInt(parts[3]),
+                    Long.parseLong(parts[4]), valueOf(parts[6], parts[7]), Long.parseLong(parts[5]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Returns the one letter type tag stored ahead of the sort value, so it can be bound with the right type again.
+     */
+    private static String typeOf(Object value) {
+        if (value == null) {
+            return "n";
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            return "i";
+        } else if (value instanceof Boolean) {
+            return "b";
+        }
+        return "s";
+    }
+
+    /**
+     * Rebuilds a sort value from its type tag and text.
+     */
+    private static Object valueOf(String type, String text) {
+        switch (type) {
+            case "n":
+                return null;
+            case "i":
+                return Long.parseLong(text);
+            case "b":
+                return Boolean.parseBoolean(text);
+            case "s":
+                return text;
+            default:
+                throw new IllegalArgumentException("Unknown cursor value type: " + type);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.revature.util;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * The PageOptions class is a Plain Old Java Object (POJO) that encapsulates the information necessary for creating paginated results. This class packages various options for pagination, such as the page number, page size, sorting criteria, and sorting direction. By encapsulating these options, the class allows for cleaner and more maintainable code by avoiding the need to pass multiple individual parameters to methods that support paging.
  * 
@@ -18,6 +21,8 @@ public class PageOptions {
     private String sortBy;
     /** The direction of sorting (e.g., ascending or descending). */
     private String sortDirection;
+    /** The cursor returned with the previous page when paging by keyset; empty for the first page and null when paging by page number. */
+    private String cursor;
 
     // constructors
     public PageOptions() {
@@ -35,6 +40,14 @@ public class PageOptions {
         this.sortDirection = sortDirection;
     }
 
+    public PageOptions(int pageSize, String sortBy, String sortDirection, String cursor) {
+        this.pageNumber = 1;
+        this.pageSize = pageSize;
+        this.sortBy = sortBy;
+        this.sortDirection = sortDirection;
+        this.cursor = cursor;
+    }
+
     // getters and setters
     public int getPageNumber() {
         return pageNumber;
@@ -67,4 +80,32 @@ public class PageOptions {
     public void setSortDirection(String sortDirection) {
         this.sortDirection = sortDirection;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * Returns whether these options ask for keyset (cursor based) paging rather than paging by page number.
+     *
+     * @return true if a cursor, possibly empty, has been set
+     */
+    public boolean isCursorPaging() {
+        return cursor != null;
+    }
+
+    /**
+     * Returns a key identifying the page these options select from the results of a search term, for caching. The sort options are normalized the way {@link PageQuery} reads them, so requests for the same page share a key.
+     *
+     * @param term the search term, or null when listing everything
+     * @return a list usable as a map key
+     */
+    public List<Object> cacheKey(String term) {
+        return Arrays.asList(term, pageNumber, pageSize, sortBy == null ? PageQuery.DEFAULT_SORT : sortBy.toLowerCase(),
+                "desc".equalsIgnoreCase(sortDirection), cursor);
+    }
 }
@@ -0,0 +1,373 @@
+package com.revature.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The PageQuery class builds and runs the SQL for one page of results. Instead of selecting every row and slicing the list in memory, the page is cut out by the database with LIMIT/OFFSET, so the work done for a page depends on the page size rather than the table size.
+ *
+ * The total element count comes from a separate COUNT query, which is skipped whenever the count can be worked out from the page itself (a short last page, or an empty first page). Counts are also cached, keyed by the COUNT statement and its parameters, along with the {@link DataVersions} versions of every table the statement reads; paging through a list counts it once, and counts again only after one of those tables has been written to.
+ *
+ * When the page options carry a cursor, the page is found by keyset instead: the rows after the last row of the previous page are selected with a seek condition on the sort column and id, which costs the same however deep the page is. The cursor for the following page is returned in {@link Page#getNextCursor()}; it carries the total counted for the first page, so later pages are not counted again.
+ *
+ * Sorting is restricted to the columns registered by the DAO, since the sort column and direction have to be written into the SQL text and cannot be bound as parameters.
+ *
+ * @param <E> the type of elements in the page
+ */
+public class PageQuery<E> {
+
+    /** The sort key used when the requested one is missing or unknown. */
+    public static final String DEFAULT_SORT = "id";
+
+    /** The most counts kept in {@link #COUNTS}. */
+    private static final int COUNT_CACHE_SIZE = 1024;
+    /** Finds the tables a statement reads, including those in joins and subqueries. */
+    private static final Pattern TABLE_NAME = Pattern.compile("\\b(?:FROM|JOIN)\\s+([A-Za-z_]\\w*)",
+            Pattern.CASE_INSENSITIVE);
+    /** Recent counts, keyed by the COUNT statement and its parameters, dropped once one of their tables is written to. */
+    private static final TinyLfuCache<List<Object>, CachedCount> COUNTS = new TinyLfuCache<>(COUNT_CACHE_SIZE,
+            CachedCount::isCurrent);
+
+    /** The select list, without the SELECT keyword. */
+    private String columns;
+    /** The FROM clause, without the FROM keyword. May contain joins. */
+    private String from;
+    /** The sortable keys, in lower case, mapped to the column expression they sort by. Must contain "id". */
+    private Map<String, String> sortColumns;
+    /** Maps each row of the page to an element. */
+    private RowMapper<E> mapper;
+    /** The conditions that are ANDed together into the WHERE clause. */
+    private List<String> conditions = new ArrayList<>();
+    /** The values bound to the placeholders in the conditions, in order. */
+    private List<Object> parameters = new ArrayList<>();
+    /** The number of rows matching the conditions when the caller already knows it, or null to count them. */
+    private Long knownTotal;
+
+    /**
+     * Constructs a PageQuery over the given select list and FROM clause.
+     *
+     * @param columns the select list, e.g. "*"
+     * @param from the table, or tables and joins, to select from
+     * @param sortColumns the allowed sort keys mapped to their column expressions
+     * @param mapper maps each selected row to an element
+     */
+    public PageQuery(String columns, String from, Map<String, String> sortColumns, RowMapper<E> mapper) {
+        this.columns = columns;
+        this.from = from;
+        this.sortColumns = sortColumns;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Adds a condition to the WHERE clause along with the values for its placeholders.
+     *
+     * @param condition a SQL boolean expression using ? placeholders
+     * @param values the values to bind to the placeholders
+     * @return this query, for chaining
+     */
+    public PageQuery<E> where(String condition, Object... values) {
+        conditions.add(condition);
+        for (Object value : values) {
+            parameters.add(value);
+        }
+        return this;
+    }
+
+    /**
+     * Restricts the query to the rows with one of the given ids, such as the candidates found by an in-memory index.
+     *
+     * The ids are bound as a single array parameter rather than one parameter each, so the statement text stays the same however many ids there are and never runs into the driver's parameter limit. The database still looks each id up in the primary key index.
+     *
+     * @param ids the ids to keep; an empty array matches no rows
+     * @return this query, for chaining
+     */
+    public PageQuery<E> whereIdIn(int[] ids) {
+        if (ids.length == 0) {
+            return where("FALSE");
+        }
+        Integer[] values = new Integer[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            values[i] = ids[i];
+        }
+        return where(sortColumns.get(DEFAULT_SORT) + " = ANY(?)", new Object[] { values });
+    }
+
+    /**
+     * Supplies the number of rows matching the conditions, such as the size of an in-memory match set, so that it is not counted by the database.
+     *
+     * @param total the number of matching rows
+     * @return this query, for chaining
+     */
+    public PageQuery<E> withTotal(long total) {
+        this.knownTotal = total;
+        return this;
+    }
+
+    /**
+     * Runs the query for the page described by the page options and returns it along with the paging metadata.
+     *
+     * @param connection the connection to run the queries on; it is not closed
+     * @param pageOptions the page number, page size and sort to apply
+     * @return the requested page
+     * @throws SQLException if either query fails
+     */
+    public Page<E> fetch(Connection connection, PageOptions pageOptions) throws SQLException {
+        if (pageOptions.isCursorPaging()) {
+            return fetchAfterCursor(connection, pageOptions);
+        }
+        int pageSize = Math.max(1, pageOptions.getPageSize());
+        int pageNumber = Math.max(1, pageOptions.getPageNumber());
+        long offset = (long) (pageNumber - 1) * pageSize;
+
+        String sql = "SELECT " + columns + " FROM " + from + whereClause(conditions) + orderBy(pageOptions)
+                + " LIMIT ? OFFSET ?";
+        List<E> items = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = bindParameters(statement, parameters);
+            statement.setInt(index++, pageSize);
+            statement.setLong(index, offset);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    items.add(mapper.map(resultSet));
+                }
+            }
+        }
+
+        long total;
+        if (items.size() < pageSize && (!items.isEmpty() || offset == 0)) {
+            total = offset + items.size();
+        } else if (items.isEmpty()) {
+            total = count(connection);
+        } else {
+            total = Math.max(count(connection), offset + items.size());
+        }
+        int totalPages = (int) Math.ceil(total / (double) pageSize);
+        return new Page<>(pageNumber, pageSize, totalPages, (int) total, items);
+    }
+
+    /**
+     * Runs the query for the page following the cursor in the page options. One extra row is read to find out whether a next page exists without counting. The total is counted for the first page only and carried in the cursors after it, so a deep page costs the same as the first.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for a different sort
+     */
+    private Page<E> fetchAfterCursor(Connection connection, PageOptions pageOptions) throws SQLException {
+        int pageSize = Math.max(1, pageOptions.getPageSize());
+        String sortKey = sortKey(pageOptions.getSortBy());
+        boolean descending = isDescending(pageOptions);
+        PageCursor after = pageOptions.getCursor().isEmpty() ? null : PageCursor.decode(pageOptions.getCursor());
+        if (after != null && (!after.getSortBy().equals(sortKey) || after.isDescending() != descending)) {
+            throw new IllegalArgumentException("The cursor was issued for a different sort order");
+        }
+
+        String sortColumn = sortColumns.get(sortKey);
+        String idColumn = sortColumns.get(DEFAULT_SORT);
+        List<String> seekConditions = new ArrayList<>(conditions);
+        List<Object> seekParameters = new ArrayList<>(parameters);
+        if (after != null) {
+            addSeekCondition(seekConditions, seekParameters, sortColumn, idColumn, descending, after);
+        }
+
+        String direction = descending ? "DESC" : "ASC";
+        String orderBy = sortColumn.equals(idColumn)
+                ? " ORDER BY " + idColumn + " " + direction
+                : " ORDER BY " + sortColumn + " " + direction + (descending ? " NULLS LAST, " : " NULLS FIRST, ")
+                        + idColumn + " " + direction;
+        String sql = "SELECT " + columns + ", " + sortColumn + " AS CURSOR_SORT, " + idColumn + " AS CURSOR_ID FROM "
+                + from + whereClause(seekConditions) + orderBy + " LIMIT ?";
+
+        List<E> items = new ArrayList<>();
+        int pageNumber = after == null ? 1 : after.getPageNumber();
+        boolean hasNext = false;
+        Object lastValue = null;
+        long lastId = 0;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = bindParameters(statement, seekParameters);
+            statement.setInt(index, pageSize + 1);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    if (items.size() == pageSize) {
+                        hasNext = true;
+                        break;
+                    }
+                    lastValue = resultSet.getObject("CURSOR_SORT");
+                    lastId = resultSet.getLong("CURSOR_ID");
+                    items.add(mapper.map(resultSet));
+                }
+            }
+        }
+
+        // Rows are only counted for the first page; the total then travels in the cursors, as of that first page
+        long total;
+        if (after != null && after.getTotal() >= 0) {
+            total = after.getTotal();
+        } else if (after == null && !hasNext) {
+            total = items.size();
+        } else {
+            total = count(connection);
+        }
+        int totalPages = (int) Math.ceil(total / (double) pageSize);
+        Page<E> page = new Page<>(pageNumber, pageSize, totalPages, (int) total, items);
+        if (hasNext) {
+            page.setNextCursor(new PageCursor(sortKey, descending, pageNumber + 1, lastId, lastValue, total).encode());
+        }
+        return page;
+    }
+
+    /**
+     * Adds the condition selecting the rows that sort after the cursor. It is written as a range on the sort column narrowed by the id tie breaker, so an index on the sort column can be used to seek straight to the first row. Null sort values are ordered before all others.
+     */
+    private void addSeekCondition(List<String> seekConditions, List<Object> seekParameters, String sortColumn,
+            String idColumn, boolean descending, PageCursor after) {
+        String idComparison = idColumn + (descending ? " < ?" : " > ?");
+        if (sortColumn.equals(idColumn)) {
+            seekConditions.add(idComparison);
+            seekParameters.add(after.getLastId());
+        } else if (after.getLastValue() == null) {
+            seekConditions.add(descending
+                    ? "(" + sortColumn + " IS NULL AND " + idComparison + ")"
+                    : "((" + sortColumn + " IS NULL AND " + idComparison + ") OR " + sortColumn + " IS NOT NULL)");
+            seekParameters.add(after.getLastId());
+        } else {
+            String range = descending
+                    ? sortColumn + " <= ? AND (" + sortColumn + " < ? OR " + idComparison + ")"
+                    : sortColumn + " >= ? AND (" + sortColumn + " > ? OR " + idComparison + ")";
+            seekConditions.add(descending ? "((" + range + ") OR " + sortColumn + " IS NULL)" : "(" + range + ")");
+            seekParameters.add(after.getLastValue());
+            seekParameters.add(after.getLastValue());
+            seekParameters.add(after.getLastId());
+        }
+    }
+
+    /**
+     * Counts every row matching the WHERE clause, ignoring paging, unless the total was supplied with {@link #withTotal(long)} or was counted since its tables were last written to.
+     *
+     * Counts are not cached for a request with uncommitted writes, which the versions do not show yet, nor for queries restricted to a set of ids, whose keys would be as long as the set.
+     */
+    private long count(Connection connection) throws SQLException {
+        if (knownTotal != null) {
+            return knownTotal;
+        }
+        String sql = "SELECT COUNT(*) FROM " + from + whereClause(conditions);
+        boolean cacheable = !UnitOfWork.hasPendingWrites()
+                && parameters.stream().noneMatch(parameter -> parameter instanceof Object[]);
+        List<Object> key = new ArrayList<>(parameters);
+        key.add(0, sql);
+        if (cacheable) {
+            CachedCount cached = COUNTS.get(key);
+            if (cached != null) {
+                return cached.total;
+            }
+        }
+        // The versions are taken before counting, so a count read across a write is never served as current
+        List<String> tables = tablesOf(sql);
+        long version = versionOf(tables);
+        long total;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            bindParameters(statement, parameters);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                total = resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+        }
+        if (cacheable) {
+            COUNTS.put(key, new CachedCount(total, tables, version));
+        }
+        return total;
+    }
+
+    /**
+     * Returns the names of the tables the statement reads.
+     */
+    private static List<String> tablesOf(String sql) {
+        List<String> tables = new ArrayList<>();
+        Matcher matcher = TABLE_NAME.matcher(sql);
+        while (matcher.find()) {
+            if (!tables.contains(matcher.group(1))) {
+                tables.add(matcher.group(1));
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Returns a version of the tables together, which changes whenever any of them is written to.
+     */
+    private static long versionOf(List<String> tables) {
+        long version = 0;
+        for (String table : tables) {
+            version += DataVersions.of(table);
+        }
+        return version;
+    }
+
+    /**
+     * Builds the WHERE clause from the given conditions, or an empty string if there are none.
+     */
+    private static String whereClause(List<String> conditions) {
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    /**
+     * Builds the ORDER BY clause from the requested sort. The id column is appended as a tie breaker so rows with equal sort values keep a stable order from page to page.
+     */
+    private String orderBy(PageOptions pageOptions) {
+        String direction = isDescending(pageOptions) ? "DESC" : "ASC";
+        String idColumn = sortColumns.get(DEFAULT_SORT);
+        String sortColumn = sortColumns.get(sortKey(pageOptions.getSortBy()));
+        if (sortColumn.equals(idColumn)) {
+            return " ORDER BY " + idColumn + " " + direction;
+        }
+        return " ORDER BY " + sortColumn + " " + direction + ", " + idColumn + " " + direction;
+    }
+
+    /**
+     * Normalizes a requested sort key, falling back to the id for missing or unknown keys.
+     */
+    private String sortKey(String sortBy) {
+        String key = sortBy == null ? DEFAULT_SORT : sortBy.toLowerCase();
+        return sortColumns.containsKey(key) ? key : DEFAULT_SORT;
+    }
+
+    /**
+     * Returns whether the page options ask for a descending sort.
+     */
+    private static boolean isDescending(PageOptions pageOptions) {
+        return "desc".equalsIgnoreCase(pageOptions.getSortDirection());
+    }
+
+    /**
+     * Binds the given values to the statement and returns the next free parameter index.
+     */
+    private static int bindParameters(PreparedStatement statement, List<Object> parameters) throws SQLException {
+        int index = 1;
+        for (Object parameter : parameters) {
+            statement.setObject(index++, parameter);
+        }
+        return index;
+    }
+
+    /**
+     * A row count and the version of the tables it was counted from.
+     */
+    private static class CachedCount {
+        private final long total;
+        private final List<String> tables;
+        private final long version;
+
+        CachedCount(long total, List<String> tables, long version) {
+            this.total = total;
+            this.tables = tables;
+            this.version = version;
+        }
+
+        boolean isCurrent() {
+            return version == versionOf(tables);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.revature.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The PantryMatrix class is an immutable recipe by ingredient matrix used to rank recipes by how much of them a pantry covers. Each ingredient is given a dense column number, each recipe is a row listing the columns of its ingredients, and a pantry becomes a bitset over the columns. Scoring a recipe is then one bit test for each of its ingredients, with no SQL and no hashing.
+ *
+ * The rows are stored end to end in one array, so a scoring pass reads memory in order. Large matrices are split into blocks of rows that are scored in parallel on the common fork-join pool. Each block keeps only its best results in a bounded heap, and the heaps of the blocks are merged as the tasks join, so a pass allocates almost nothing however many recipes there are.
+ */
+public class PantryMatrix {
+
+    /** The most rows scored by one task before the work is split. */
+    static final int BLOCK_SIZE = 16_384;
+
+    // fields
+
+    /** The id of the recipe in each row, in ascending order. */
+    private int[] recipeIds;
+    /** Where each row starts in {@link #columns}; row i ends where row i + 1 starts. */
+    private int[] rowStart;
+    /** The ingredient columns of every row, end to end. */
+    private int[] columns;
+    /** The ingredient id of each column. */
+    private int[] ingredientIds;
+    /** The column of each ingredient id. */
+    private Map<Integer, Integer> columnOf = new HashMap<>();
+
+    /**
+     * Builds a matrix from the ingredients of each recipe.
+     *
+     * @param ingredientsByRecipe the distinct ingredient ids of each recipe, by recipe id; recipes without ingredients are left out
+     */
+    public PantryMatrix(Map<Integer, int[]> ingredientsByRecipe) {
+        recipeIds = ingredientsByRecipe.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        rowStart = new int[recipeIds.length + 1];
+        for (int row = 0; row < recipeIds.length; row++) {
+            rowStart[row + 1] = rowStart[row] + ingredientsByRecipe.get(recipeIds[row]).length;
+        }
+        columns = new int[rowStart[recipeIds.length]];
+        int[] ids = new int[16];
+        for (int row = 0; row < recipeIds.length; row++) {
+            int position = rowStart[row];
+            for (int ingredientId : ingredientsByRecipe.get(recipeIds[row])) {
+                Integer column = columnOf.get(ingredientId);
+                if (column == null) {
+                    column = columnOf.size();
+                    columnOf.put(ingredientId, column);
+                    if (column == ids.length) {
+                        ids = Arrays.copyOf(ids, column * 2);
+                    }
+                    ids[column] = ingredientId;
+                }
+                columns[position++] = column;
+            }
+        }
+        ingredientIds = Arrays.copyOf(ids, columnOf.size());
+    }
+
+    /**
+     * Finds the recipes that a pantry covers best. Recipes sharing no ingredient with the pantry are never returned.
+     *
+     * @param pantry the ids of the ingredients at hand
+     * @param limit the most matches to return
+     * @param maxMissing the most ingredients a returned recipe may lack, or a negative number for no limit
+     * @param byMissing whether to rank by the number of missing ingredients first, rather than by the fraction covered
+     * @return the best matches, best first
+     */
+    public Match[] bestMatches(int[] pantry, int limit, int maxMissing, boolean byMissing) {
+        long[] stock = new long[(ingredientIds.length + 63) >>> 6];
+        boolean any = false;
+        for (int ingredientId : pantry) {
+            Integer column = columnOf.get(ingredientId);
+            if (column != null) {
+                stock[column >>> 6] |= 1L << column;
+                any = true;
+            }
+        }
+        if (!any || limit < 1) {
+            return new Match[0];
+        }
+        ScoreTask task = new ScoreTask(stock, 0, recipeIds.length, limit,
+                maxMissing < 0 ? Integer.MAX_VALUE : maxMissing, byMissing);
+        TopK top = recipeIds.length <= BLOCK_SIZE ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+
+        long[] best = top.sorted();
+        Match[] matches = new Match[best.length];
+        for (int i = 0; i < best.length; i++) {
+            int row = (int) (best[i] >>> 32);
+            int matched = (int) best[i];
+            int[] missing = new int[rowStart[row + 1] - rowStart[row] - matched];
+            int count = 0;
+            for (int p = rowStart[row]; p < rowStart[row + 1]; p++) {
+                if ((stock[columns[p] >>> 6] & (1L << columns[p])) == 0) {
+                    missing[count++] = ingredientIds[columns[p]];
+                }
+            }
+            Arrays.sort(missing);
+            matches[i] = new Match(recipeIds[row], matched, missing);
+        }
+        return matches;
+    }
+
+    /**
+     * @return the number of recipes in the matrix
+     */
+    public int size() {
+        return recipeIds.length;
+    }
+
+    /**
+     * One recipe's result: how many of its ingredients the pantry has, and which it lacks.
+     */
+    public static class Match {
+        private final int recipeId;
+        private final int matched;
+        private final int[] missing;
+
+        Match(int recipeId, int matched, int[] missing) {
+            this.recipeId = recipeId;
+            this.matched = matched;
+            this.missing = missing;
+        }
+
+        public int getRecipeId() {
+            return recipeId;
+        }
+
+        public int getMatched() {
+            return matched;
+        }
+
+        /**
+         * @return the ids of the ingredients the pantry lacks, sorted
+         */
+        public int[] getMissing() {
+            return missing;
+        }
+    }
+
+    /**
+     * Scores the rows [from, to), splitting the range in two while it is larger than a block.
+     */
+    private class ScoreTask extends RecursiveTask<TopK> {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] stock;
+        private final int from;
+        private final int to;
+        private final int limit;
+        private final int maxMissing;
+        private final boolean byMissing;
+
+        ScoreTask(long[] stock, int from, int to, int limit, int maxMissing, boolean byMissing) {
+            this.stock = stock;
+            this.from = from;
+            this.to = to;
+            this.limit = limit;
+            this.maxMissing = maxMissing;
+            this.byMissing = byMissing;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (to - from > BLOCK_SIZE) {
+                int middle = (from + to) >>> 1;
+                ScoreTask left = new ScoreTask(stock, from, middle, limit, maxMissing, byMissing);
+                left.fork();
+                TopK right = new ScoreTask(stock, middle, to, limit, maxMissing, byMissing).compute();
+                return left.join().addAll(right);
+            }
+            TopK top = new TopK(limit, byMissing);
+            for (int row = from; row < to; row++) {
+                int start = rowStart[row];
+                int end = rowStart[row + 1];
+                int matched = 0;
+                for (int p = start; p < end; p++) {
+                    int column = columns[p];
+                    matched += (int) (stock[column >>> 6] >>> column) & 1;
+                }
+                if (matched > 0 && end - start - matched <= maxMissing) {
+                    top.offer(((long) row << 32) | matched);
+                }
+            }
+            return top;
+        }
+    }
+
+    /**
+     * A bounded heap keeping the best results offered to it. Each result is a row and its matched count packed into a long; the root is the worst result kept, so a better one replaces it.
+     */
+    private class TopK {
+        private final long[] heap;
+        private final boolean byMissing;
+        private int size;
+
+        TopK(int limit, boolean byMissing) {
+            this.heap = new long[limit];
+            this.byMissing = byMissing;
+        }
+
+        void offer(long result) {
+            if (size < heap.length) {
+                heap[size] = result;
+                siftUp(size++);
+            } else if (better(result, heap[0])) {
+                heap[0] = result;
+                siftDown(0);
+            }
+        }
+
+        TopK addAll(TopK other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.heap[i]);
+            }
+            return this;
+        }
+
+        /**
+         * @return the results kept, best first
+         */
+        long[] sorted() {
+            Long[] results = new Long[size];
+            for (int i = 0; i < size; i++) {
+                results[i] = heap[i];
+            }
+            Arrays.sort(results, (a, b) -> better(a, b) ? -1 : better(b, a) ? 1 : 0);
+            return Arrays.stream(results).mapToLong(Long::longValue).toArray();
+        }
+
+        /**
+         * Returns whether result a ranks above result b: by coverage, then fewest missing, or the other way round, then by recipe id.
+         */
+        private boolean better(long a, long b) {
+            int rowA = (int) (a >>> 32);
+            int rowB = (int) (b >>> 32);
+            int matchedA = (int) a;
+            int matchedB = (int) b;
+            int totalA = rowStart[rowA + 1] - rowStart[rowA];
+            int totalB = rowStart[rowB + 1] - rowStart[rowB];
+            // Compare matchedA / totalA with matchedB / totalB without rounding
+            int coverage = Long.compare((long) matchedA * totalB, (long) matchedB * totalA);
+            int missing = Integer.compare(totalB - matchedB, totalA - matchedA);
+            int first = byMissing ? missing : coverage;
+            int second = byMissing ? coverage : missing;
+            if (first != 0) {
+                return first > 0;
+            }
+            if (second != 0) {
+                return second > 0;
+            }
+            return rowA < rowB;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!better(heap[parent], heap[index])) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int worst = index;
+                for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                    if (better(heap[worst], heap[child])) {
+                        worst = child;
+                    }
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(index, worst);
+                index = worst;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long value = heap[i];
+            heap[i] = heap[j];
+            heap[j] = value;
+        }
+    }
+}
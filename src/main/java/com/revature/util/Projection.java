@@ -0,0 +1,124 @@
+package com.revature.util;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The Projection class holds the fields a client asked for with the "fields" query parameter, a comma separated list, so that only those are read from the database and written to the response. The fields are kept in the order they are known in, whatever order they were asked for in, so two requests for the same fields make equal projections, which can be used in cache keys.
+ */
+public class Projection {
+
+    /** The fields a recipe may be projected to. */
+    public static final List<String> RECIPE_FIELDS = List.of("id", "name", "instructions", "author", "ingredients");
+
+    // fields
+
+    /** Every field that may be asked for, in order. */
+    private final List<String> known;
+    /** The fields asked for, in the order they are known in. */
+    private final Set<String> fields;
+
+    // constructors
+    private Projection(List<String> known, Set<String> fields) {
+        this.known = known;
+        this.fields = Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * Parses the value of a "fields" query parameter.
+     *
+     * @param fields the comma separated field names, or null if the parameter is absent
+     * @param known every field that may be asked for, in the order they are written
+     * @return the projection, or null if no fields were given, meaning every field
+     * @throws IllegalArgumentException if a field is unknown or the list is empty
+     */
+    public static Projection parse(String fields, List<String> known) {
+        if (fields == null) {
+            return null;
+        }
+        Set<String> asked = new HashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!known.contains(name)) {
+                throw new IllegalArgumentException(
+                        "Unknown field \"" + name + "\"; expected any of " + String.join(", ", known));
+            }
+            asked.add(name);
+        }
+        if (asked.isEmpty()) {
+            throw new IllegalArgumentException("Expected at least one field");
+        }
+        return new Projection(known, ordered(known, asked));
+    }
+
+    /**
+     * Returns whether the field was asked for.
+     */
+    public boolean includes(String field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * Returns this projection with one more field.
+     *
+     * @param field a known field
+     * @return a projection including the field, which is this one if it already did
+     */
+    public Projection with(String field) {
+        if (includes(field)) {
+            return this;
+        }
+        Set<String> asked = new HashSet<>(fields);
+        asked.add(field);
+        return new Projection(known, ordered(known, asked));
+    }
+
+    /**
+     * @return the fields asked for, in the order they are known in
+     */
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(known, fields);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        Projection projection = (Projection) obj;
+        return known.equals(projection.known) && fields.equals(projection.fields);
+    }
+
+    @Override
+    public String toString() {
+        return "Projection" + fields;
+    }
+
+    /**
+     * Puts the fields asked for in the order they are known in.
+     */
+    private static Set<String> ordered(List<String> known, Set<String> asked) {
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : known) {
+            if (asked.contains(field)) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,209 @@
+package com.revature.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.eclipse.jetty.server.HttpChannel;
+import org.eclipse.jetty.server.Request;
+
+import io.javalin.http.Context;
+
+/**
+ * The RecordWriter class writes flat records to an output stream as newline-delimited JSON, one object per line keyed by the column names, or as CSV with a header row, in the formats {@link BulkReader} reads. Records go out through a fixed size buffer as they are written, so memory use does not depend on the number of records.
+ *
+ * Closing the writer flushes what is left, and closes the output stream, which is how a compressing stream is finished.
+ *
+ * Every NDJSON or CSV prefix of an export is itself a well-formed export, so a response that merely stops would look complete. When reading the records fails partway, {@link #abort(Throwable)} drops the connection instead of finishing the response: the client sees the transfer break off, without a final chunk or gzip trailer.
+ */
+public class RecordWriter implements AutoCloseable {
+
+    /** Shared by every writer; an ObjectMapper is thread safe once configured. */
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+
+    // fields
+
+    /** The buffered output. */
+    private final Writer writer;
+    /** The output stream under any compression, closed as it is when the writer is abandoned. */
+    private final OutputStream raw;
+    /** The HTTP exchange the records are the response body of, or null if they are not written to a response. */
+    private final HttpChannel channel;
+    /** Set once the writer has been abandoned, so closing it does not finish the output. */
+    private boolean aborted;
+    /** The format records are written in. */
+    private final BulkReader.Format format;
+    /** The names of the columns, in the order their values are given. */
+    private final String[] columns;
+    /** Writes NDJSON records to the writer, or null for CSV. */
+    private final JsonGenerator generator;
+
+    // constructors
+    public RecordWriter(OutputStream out, BulkReader.Format format, String... columns) throws IOException {
+        this(out, out, null, format, columns);
+    }
+
+    private RecordWriter(OutputStream out, OutputStream raw, HttpChannel channel, BulkReader.Format format,
+            String... columns) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        this.raw = raw;
+        this.channel = channel;
+        this.format = format;
+        this.columns = columns;
+        if (format == BulkReader.Format.CSV) {
+            this.generator = null;
+            write((Object[]) columns);
+        } else {
+            this.generator = MAPPER.getFactory().createGenerator(writer);
+            generator.setRootValueSeparator(null);
+        }
+    }
+
+    /**
+     * Starts a response that streams records. The "format" query parameter picks NDJSON, the default, or CSV; the response is gzipped if the request's Accept-Encoding header allows it. Records are written straight to the servlet output stream, bypassing Javalin's own buffering and compression, and each write blocks while the client is behind, so a slow client slows down the reading rather than letting the output pile up in memory.
+     *
+     * @param ctx the request context
+     * @param columns the names of the columns
+     * @return the writer for the response body, or null after responding with 400 Bad Request if the format is unknown
+     * @throws IOException if the response cannot be started
+     */
+    public static RecordWriter forResponse(Context ctx, String... columns) throws IOException {
+        String name = ctx.queryParam("format");
+        BulkReader.Format format;
+        if (name == null || name.equalsIgnoreCase("ndjson")) {
+            format = BulkReader.Format.NDJSON;
+        } else if (name.equalsIgnoreCase("csv")) {
+            format = BulkReader.Format.CSV;
+        } else {
+            ctx.status(400).result("Invalid format; expected ndjson or csv");
+            return null;
+        }
+        ctx.status(200).contentType(
+                format == BulkReader.Format.CSV ? "text/csv; charset=utf-8" : "application/x-ndjson");
+        ctx.header("Vary", "Accept-Encoding");
+        OutputStream raw = ctx.res().getOutputStream();
+        OutputStream out = raw;
+        if (acceptsGzip(ctx.header("Accept-Encoding"))) {
+            ctx.header("Content-Encoding", "gzip");
+            out = new GZIPOutputStream(raw, 8192);
+        }
+        Request request = Request.getBaseRequest(ctx.req());
+        return new RecordWriter(out, raw, request == null ? null : request.getHttpChannel(), format, columns);
+    }
+
+    /**
+     * Writes one record.
+     *
+     * @param values the values of the columns, in order; nulls are written as JSON nulls or empty CSV fields
+     * @throws UncheckedIOException if writing fails, such as when the client has gone away; thrown unchecked so this can be called from a Consumer
+     */
+    public void write(Object... values) {
+        try {
+            if (generator == null) {
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(csvField(values[i]));
+                }
+            } else {
+                generator.writeStartObject();
+                for (int i = 0; i < columns.length; i++) {
+                    generator.writeFieldName(columns[i]);
+                    generator.writeObject(values[i]);
+                }
+                generator.writeEndObject();
+                // Hands the object to the buffered writer, ahead of its line break, without flushing that too
+                generator.flush();
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the format records are written in
+     */
+    public BulkReader.Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Abandons the output after a failure partway through. The failure is logged and nothing buffered is written: a response is aborted, dropping its connection, and any other output stream is closed without the rest of the records or a gzip trailer.
+     *
+     * @param cause the failure that stopped the records
+     */
+    public void abort(Throwable cause) {
+        System.err.println("Writing records failed partway through: " + cause);
+        cause.printStackTrace();
+        aborted = true;
+        if (channel != null) {
+            channel.abort(cause);
+            return;
+        }
+        try {
+            raw.close();
+        } catch (IOException e) {
+            // The client has most likely gone away; there is nobody left to tell
+        }
+    }
+
+    /**
+     * Flushes what is left and closes the output stream, unless the writer has been abandoned.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (aborted) {
+            return;
+        }
+        if (generator != null) {
+            generator.close();
+        }
+        writer.close();
+    }
+
+    /**
+     * Returns whether an Accept-Encoding header lists gzip, or any encoding, without ruling it out with q=0.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equals("gzip") || name.equals("*")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Quotes a CSV field if it holds a comma, a quote or a line break, doubling any quotes, as RFC 4180 describes.
+     */
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+}
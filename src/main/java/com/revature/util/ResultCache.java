@@ -0,0 +1,222 @@
+package com.revature.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * The ResultCache class caches the results of queries, such as a page of search results, keyed by everything that shapes the query. It is bounded by the total weight of its results rather than their number, so a few large pages cannot crowd out memory, and the least recently used results go first when it is full.
+ *
+ * Results never outlive a write: the cache remembers the {@link DataVersions#global()} version its results were read at and empties itself the first time it sees that version change, which costs a single comparison until something is written. Results also expire after a fixed time to live, whatever happens. A request with uncommitted writes always runs its query, since the cache cannot show its writes.
+ *
+ * Results are copied on the way in and on the way out, so callers may change what they get.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the results
+ */
+public class ResultCache<K, V> {
+
+    // fields
+
+    /** The most total weight the cache holds. */
+    private final long maxWeight;
+    /** How long a result may be served, in nanoseconds. */
+    private final long timeToLive;
+    /** Gives a result's weight, roughly its size in bytes. */
+    private final ToLongFunction<V> weigher;
+    /** Copies a result. */
+    private final UnaryOperator<V> copier;
+    /** The results, least recently used first. */
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** The global data version the cached results were read at. */
+    private long generation = -1;
+    /** The total weight of the cached results. */
+    private long weight;
+
+    /** The number of lookups answered from the cache. */
+    private long hits;
+    /** The number of lookups that ran the query. */
+    private long misses;
+    /** The number of results dropped to make room. */
+    private long evictions;
+    /** The number of results dropped because they expired or the data changed. */
+    private long invalidations;
+
+    // constructors
+    public ResultCache(long maxWeight, long timeToLive, TimeUnit unit, ToLongFunction<V> weigher,
+            UnaryOperator<V> copier) {
+        this.maxWeight = maxWeight;
+        this.timeToLive = unit.toNanos(timeToLive);
+        this.weigher = weigher;
+        this.copier = copier;
+    }
+
+    /**
+     * Returns the cached result for a key, or runs the query and caches what it returns. Null results and results heavier than the whole cache are not cached.
+     *
+     * @param key everything that shapes the query
+     * @param query runs the query
+     * @return the result
+     */
+    public V get(K key, Supplier<V> query) {
+        if (UnitOfWork.hasPendingWrites()) {
+            return query.get();
+        }
+        // The version is taken before querying, so a result read across a write is never cached
+        long version = DataVersions.global();
+        V cached = lookup(key, version);
+        if (cached != null) {
+            return copier.apply(cached);
+        }
+        V result = query.get();
+        if (result != null) {
+            store(key, copier.apply(result), version);
+        }
+        return result;
+    }
+
+    /**
+     * Drops every cached result.
+     */
+    public synchronized void invalidateAll() {
+        invalidations += entries.size();
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Returns a snapshot of the cache's counters.
+     *
+     * @return the cache statistics
+     */
+    public synchronized Stats getStats() {
+        return new Stats(maxWeight, weight, entries.size(), hits, misses, evictions, invalidations);
+    }
+
+    private synchronized V lookup(K key, long version) {
+        catchUp(version);
+        Entry<V> entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.expiresAt >= 0) {
+            entries.remove(key);
+            weight -= entry.weight;
+            invalidations++;
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.result;
+    }
+
+    private synchronized void store(K key, V result, long version) {
+        if (version != DataVersions.global()) {
+            return;
+        }
+        catchUp(version);
+        long resultWeight = weigher.applyAsLong(result);
+        if (resultWeight > maxWeight) {
+            return;
+        }
+        Entry<V> replaced = entries.put(key, new Entry<>(result, resultWeight, System.nanoTime() + timeToLive));
+        weight += resultWeight - (replaced == null ? 0 : replaced.weight);
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight) {
+            weight -= eldest.next().getValue().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Empties the cache if the data has changed since its results were read. The generation only moves forward: a reader that took its version before another caught up finds results at least as new as its own, so there is nothing to drop.
+     */
+    private void catchUp(long version) {
+        if (version > generation) {
+            invalidations += entries.size();
+            entries.clear();
+            weight = 0;
+            generation = version;
+        }
+    }
+
+    /**
+     * A cached result, its weight and when it expires.
+     */
+    private static final class Entry<V> {
+        private final V result;
+        private final long weight;
+        private final long expiresAt;
+
+        Entry(V result, long weight, long expiresAt) {
+            this.result = result;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * A snapshot of a result cache's size and counters.
+     */
+    public static class Stats {
+
+        /** The most total weight the cache holds. */
+        private long maxWeight;
+        /** The total weight of the cached results. */
+        private long weight;
+        /** The number of results cached. */
+        private int size;
+        /** The number of lookups answered from the cache. */
+        private long hits;
+        /** The number of lookups that ran the query. */
+        private long misses;
+        /** The number of results dropped to make room. */
+        private long evictions;
+        /** The number of results dropped because they expired or the data changed. */
+        private long invalidations;
+
+        public Stats(long maxWeight, long weight, int size, long hits, long misses, long evictions,
+                long invalidations) {
+            this.maxWeight = maxWeight;
+            this.weight = weight;
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+        }
+
+        public long getMaxWeight() {
+            return maxWeight;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getInvalidations() {
+            return invalidations;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.revature.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The RowMapper interface converts the current row of a ResultSet into a model object. DAOs pass their row mapping methods as a RowMapper so shared query helpers can build results without knowing the entity type.
+ *
+ * @param <E> the type of object produced for each row
+ */
+@FunctionalInterface
+public interface RowMapper<E> {
+
+    /**
+     * Maps the row the ResultSet is currently positioned on.
+     *
+     * @param resultSet the result set, already advanced to the row to map
+     * @return the mapped object
+     * @throws SQLException if a column cannot be read
+     */
+    E map(ResultSet resultSet) throws SQLException;
+}
@@ -0,0 +1,357 @@
+package com.revature.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.revature.model.Suggestion;
+
+/**
+ * The SuggestionTrie class completes prefixes to the most popular matching names. It is an immutable compressed trie (a radix tree) over the names, with case and accents folded, so "Cre" completes to "Creme brulee" as well as "cream". Every word of a name is indexed as well as the name as a whole, so "sou" also completes to "carrot soup".
+ *
+ * Each node stores the best completions found below it, worked out once when the trie is built. A lookup walks down the prefix and returns the list stored at the node it ends on, so its cost depends only on the length of the prefix, however many names the trie holds.
+ *
+ * The nodes are flattened into a handful of primitive arrays rather than one object per node, which keeps a trie of a million names compact and quick to walk. Being immutable it can be searched by any number of threads; to change it, build a new one.
+ */
+public class SuggestionTrie {
+
+    /** Matches the combining marks left behind when accented letters are decomposed. */
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    /** Matches runs of whitespace. */
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    /** Orders suggestions best first: by weight, then shortest, then alphabetically. */
+    public static final Comparator<Suggestion> RANKING = (a, b) -> {
+        if (a.getWeight() != b.getWeight()) {
+            return Integer.compare(b.getWeight(), a.getWeight());
+        }
+        if (a.getName().length() != b.getName().length()) {
+            return Integer.compare(a.getName().length(), b.getName().length());
+        }
+        return a.getName().compareTo(b.getName());
+    };
+
+    // fields
+
+    /** The suggestions, best first, so a suggestion's index is also its rank. */
+    private Suggestion[] suggestions;
+    /** The most completions stored for each node. */
+    private int maxCompletions;
+
+    /** The characters of every node's label, end to end. */
+    private char[] labels;
+    /** Where each node's label starts in {@link #labels}. */
+    private int[] labelStart;
+    /** Where each node's label ends in {@link #labels}. */
+    private int[] labelEnd;
+    /** Where each node's children start in {@link #children} and {@link #childChars}. */
+    private int[] childStart;
+    /** How many children each node has. */
+    private int[] childCount;
+    /** The children of every node, each node's sorted by their first character. */
+    private int[] children;
+    /** The first character of the label of each entry in {@link #children}. */
+    private char[] childChars;
+    /** Where each node's completions start in {@link #completions}. */
+    private int[] completionStart;
+    /** How many completions each node has. */
+    private int[] completionCount;
+    /** The completions of every node, as suggestion indexes, best first. */
+    private int[] completions;
+
+    /**
+     * Builds a trie over the given suggestions. Suggestions of the same type whose names fold to the same text are merged, adding up their weights.
+     *
+     * @param suggestions the names to complete to
+     * @param maxCompletions the most completions a lookup can return
+     */
+    public SuggestionTrie(List<Suggestion> suggestions, int maxCompletions) {
+        this.maxCompletions = maxCompletions;
+
+        Map<String, Suggestion> merged = new LinkedHashMap<>();
+        Map<Suggestion, String> texts = new IdentityHashMap<>();
+        for (Suggestion suggestion : suggestions) {
+            String text = normalize(suggestion.getName()).trim();
+            if (!text.isEmpty()) {
+                Suggestion copy = merged.merge(suggestion.getType() + ':' + text, new Suggestion(suggestion.getName(),
+                        suggestion.getType(), suggestion.getWeight()), (a, b) -> {
+                            a.setWeight(a.getWeight() + b.getWeight());
+                            return a;
+                        });
+                texts.put(copy, text);
+            }
+        }
+        this.suggestions = merged.values().toArray(new Suggestion[0]);
+        Arrays.sort(this.suggestions, RANKING);
+
+        // Every name is reachable from its start and from the start of each of its words
+        List<Key> keys = new ArrayList<>();
+        for (int i = 0; i < this.suggestions.length; i++) {
+            String text = texts.get(this.suggestions[i]);
+            for (int start = 0; start < text.length(); start++) {
+                if (start == 0 || text.charAt(start - 1) == ' ') {
+                    keys.add(new Key(text.substring(start), i));
+                }
+            }
+        }
+        Key[] sorted = keys.toArray(new Key[0]);
+        Arrays.sort(sorted, (a, b) -> a.text.compareTo(b.text));
+
+        Builder builder = new Builder(sorted);
+        if (sorted.length == 0) {
+            builder.addNode(0, 0);
+        } else {
+            builder.build(0, sorted.length, 0);
+        }
+        builder.finish();
+    }
+
+    /**
+     * Finds the best names starting with the given prefix, or having a word that does.
+     *
+     * @param prefix the text typed so far; case, accents and repeated spaces are ignored
+     * @param limit the most suggestions to return; capped at the trie's maximum
+     * @return the matching suggestions, best first
+     */
+    public List<Suggestion> complete(String prefix, int limit) {
+        List<Suggestion> result = new ArrayList<>();
+        String text = normalize(prefix).stripLeading();
+        if (text.isEmpty() || limit < 1) {
+            return result;
+        }
+        int node = 0;
+        int position = 0;
+        while (true) {
+            for (int i = labelStart[node]; i < labelEnd[node]; i++, position++) {
+                if (position == text.length()) {
+                    return completionsOf(node, limit, result);
+                }
+                if (labels[i] != text.charAt(position)) {
+                    return result;
+                }
+            }
+            if (position == text.length()) {
+                return completionsOf(node, limit, result);
+            }
+            int child = Arrays.binarySearch(childChars, childStart[node], childStart[node] + childCount[node],
+                    text.charAt(position));
+            if (child < 0) {
+                return result;
+            }
+            node = children[child];
+        }
+    }
+
+    /**
+     * @return the number of distinct names in the trie
+     */
+    public int size() {
+        return suggestions.length;
+    }
+
+    /**
+     * Folds text the way names are indexed: accents removed, lower case, and runs of whitespace collapsed to one space.
+     *
+     * @param text the text to fold; may be null
+     * @return the folded text
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        if (isPlainAscii(text)) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(folded).replaceAll(" ");
+    }
+
+    /**
+     * Returns whether text has nothing to fold but its case: only ASCII, and no whitespace other than single spaces.
+     */
+    private static boolean isPlainAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 128 || (c < ' ' || (c == ' ' && i > 0 && text.charAt(i - 1) == ' '))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Suggestion> completionsOf(int node, int limit, List<Suggestion> result) {
+        int count = Math.min(completionCount[node], limit);
+        for (int i = 0; i < count; i++) {
+            result.add(suggestions[completions[completionStart[node] + i]]);
+        }
+        return result;
+    }
+
+    /**
+     * One way of reaching a suggestion: a name, or the tail of a name from one of its words.
+     */
+    private static class Key {
+        private final String text;
+        private final int suggestion;
+
+        Key(String text, int suggestion) {
+            this.text = text;
+            this.suggestion = suggestion;
+        }
+    }
+
+    /**
+     * Builds the node arrays from the sorted keys, growing them as nodes are added.
+     */
+    private class Builder {
+        private final Key[] keys;
+        private StringBuilder labelText = new StringBuilder();
+        private int nodeCount;
+        private int[] nodeLabelStart = new int[16];
+        private int[] nodeLabelEnd = new int[16];
+        private int[] nodeChildStart = new int[16];
+        private int[] nodeChildCount = new int[16];
+        private int[] nodeCompletionStart = new int[16];
+        private int[] nodeCompletionCount = new int[16];
+        private IntList childList = new IntList();
+        private StringBuilder childCharList = new StringBuilder();
+        private IntList completionList = new IntList();
+
+        Builder(Key[] keys) {
+            this.keys = keys;
+        }
+
+        /**
+         * Builds the node for the keys in [from, to), which all share their first depth characters, and returns its completions.
+         */
+        int[] build(int from, int to, int depth) {
+            if (to - from == 1) {
+                // Most nodes are leaves holding a single key
+                String text = keys[from].text;
+                int node = addNode(depth, text.length());
+                labelText.append(text, depth, text.length());
+                int[] best = { keys[from].suggestion };
+                nodeChildStart[node] = childList.size;
+                nodeCompletionStart[node] = completionList.size;
+                nodeCompletionCount[node] = 1;
+                completionList.add(best[0]);
+                return best;
+            }
+            String first = keys[from].text;
+            String last = keys[to - 1].text;
+            int end = depth;
+            int shortest = Math.min(first.length(), last.length());
+            while (end < shortest && first.charAt(end) == last.charAt(end)) {
+                end++;
+            }
+            int node = addNode(depth, end);
+            labelText.append(first, depth, end);
+
+            // Keys ending here sort first; the rest are grouped by their next character
+            IntList candidates = new IntList();
+            int i = from;
+            while (i < to && keys[i].text.length() == end) {
+                candidates.add(keys[i++].suggestion);
+            }
+            IntList childNodes = new IntList();
+            StringBuilder childFirstChars = new StringBuilder();
+            while (i < to) {
+                char next = keys[i].text.charAt(end);
+                int j = i + 1;
+                while (j < to && keys[j].text.charAt(end) == next) {
+                    j++;
+                }
+                childNodes.add(nodeCount);
+                childFirstChars.append(next);
+                for (int completion : build(i, j, end)) {
+                    candidates.add(completion);
+                }
+                i = j;
+            }
+
+            nodeChildStart[node] = childList.size;
+            nodeChildCount[node] = childNodes.size;
+            for (int c = 0; c < childNodes.size; c++) {
+                childList.add(childNodes.values[c]);
+            }
+            childCharList.append(childFirstChars);
+
+            int[] best = best(candidates);
+            nodeCompletionStart[node] = completionList.size;
+            nodeCompletionCount[node] = best.length;
+            for (int completion : best) {
+                completionList.add(completion);
+            }
+            return best;
+        }
+
+        /**
+         * Adds a node whose label is the characters [from, to) of the keys being built, and returns its number.
+         */
+        int addNode(int from, int to) {
+            if (nodeCount == nodeLabelStart.length) {
+                int capacity = nodeCount * 2;
+                nodeLabelStart = Arrays.copyOf(nodeLabelStart, capacity);
+                nodeLabelEnd = Arrays.copyOf(nodeLabelEnd, capacity);
+                nodeChildStart = Arrays.copyOf(nodeChildStart, capacity);
+                nodeChildCount = Arrays.copyOf(nodeChildCount, capacity);
+                nodeCompletionStart = Arrays.copyOf(nodeCompletionStart, capacity);
+                nodeCompletionCount = Arrays.copyOf(nodeCompletionCount, capacity);
+            }
+            int node = nodeCount++;
+            nodeLabelStart[node] = labelText.length();
+            nodeLabelEnd[node] = labelText.length() + (to - from);
+            return node;
+        }
+
+        /**
+         * Keeps the best distinct suggestions among the candidates. Lower indexes rank higher.
+         */
+        private int[] best(IntList candidates) {
+            int[] sorted = Arrays.copyOf(candidates.values, candidates.size);
+            Arrays.sort(sorted);
+            int count = 0;
+            for (int i = 0; i < sorted.length && count < maxCompletions; i++) {
+                if (count == 0 || sorted[count - 1] != sorted[i]) {
+                    sorted[count++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, count);
+        }
+
+        void finish() {
+            labels = labelText.toString().toCharArray();
+            labelStart = Arrays.copyOf(nodeLabelStart, nodeCount);
+            labelEnd = Arrays.copyOf(nodeLabelEnd, nodeCount);
+            childStart = Arrays.copyOf(nodeChildStart, nodeCount);
+            childCount = Arrays.copyOf(nodeChildCount, nodeCount);
+            children = Arrays.copyOf(childList.values, childList.size);
+            childChars = childCharList.toString().toCharArray();
+            completionStart = Arrays.copyOf(nodeCompletionStart, nodeCount);
+            completionCount = Arrays.copyOf(nodeCompletionCount, nodeCount);
+            completions = Arrays.copyOf(completionList.values, completionList.size);
+        }
+    }
+
+    /**
+     * A growable list of ints.
+     */
+    private static class IntList {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
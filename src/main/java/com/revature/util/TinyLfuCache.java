@@ -0,0 +1,348 @@
+package com.revature.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The TinyLfuCache class is a bounded in-memory cache whose eviction policy follows W-TinyLFU. New entries go into a small LRU window, about 1% of the cache. Entries pushed out of the window must then win a place in the main space, an LRU split into a probation and a protected segment, by having been asked for more often than the entry they would evict. How often a key has been asked for is estimated by a count-min sketch of 4-bit counters that are halved periodically, so old popularity fades.
+ *
+ * The effect is that a burst of one-off lookups, such as a crawler walking every id, passes through the window without displacing the entries that are asked for again and again, which a plain LRU cache would lose.
+ *
+ * Entries can be checked on every lookup by a predicate given to the constructor; an entry failing it is dropped and the lookup counts as a miss. Owners use this to store the versions an entry was read at and reject it once the data has changed.
+ *
+ * All operations are O(1) and synchronized on the cache. Loading values is left to the caller, outside the lock.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class TinyLfuCache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    // fields
+
+    /** The most entries the cache holds. */
+    private final int maxSize;
+    /** The most entries in the window. */
+    private final int windowMax;
+    /** The most entries in the protected segment. */
+    private final int protectedMax;
+    /** Decides whether a cached value may still be returned. */
+    private final Predicate<? super V> isCurrent;
+    /** The estimated popularity of every key looked up recently. */
+    private final FrequencySketch sketch;
+    /** The entries, by key. */
+    private final Map<K, Node<K, V>> nodes = new HashMap<>();
+    /** The heads of the window, probation and protected lists, least recently used first. */
+    private final Node<K, V>[] queues;
+    /** The number of entries in each list. */
+    private final int[] sizes = new int[3];
+
+    /** The number of lookups that found a current entry. */
+    private long hits;
+    /** The number of lookups that did not. */
+    private long misses;
+    /** The number of entries dropped to make room. */
+    private long evictions;
+    /** The number of entries dropped because they were invalidated or found to be out of date. */
+    private long invalidations;
+
+    // constructors
+    public TinyLfuCache(int maxSize) {
+        this(maxSize, value -> true);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public TinyLfuCache(int maxSize, Predicate<? super V> isCurrent) {
+        this.maxSize = Math.max(maxSize, 0);
+        this.windowMax = Math.max(1, this.maxSize / 100);
+        this.protectedMax = Math.max(0, this.maxSize - windowMax) * 80 / 100;
+        this.isCurrent = isCurrent;
+        this.sketch = new FrequencySketch(this.maxSize);
+        this.queues = new Node[3];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new Node<>(null, null, i);
+            queues[i].previous = queues[i];
+            queues[i].next = queues[i];
+        }
+    }
+
+    /**
+     * Looks up a value, recording the lookup for the admission policy.
+     *
+     * @param key the key to look up
+     * @return the cached value, or null if there is none or it is no longer current
+     */
+    public synchronized V get(K key) {
+        sketch.increment(key.hashCode());
+        Node<K, V> node = nodes.get(key);
+        if (node != null && !isCurrent.test(node.value)) {
+            remove(node);
+            invalidations++;
+            node = null;
+        }
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        onAccess(node);
+        return node.value;
+    }
+
+    /**
+     * Caches a value, replacing any value cached for the key. A new entry may push out another, or be turned away itself if it is less popular than the entry it would replace.
+     *
+     * @param key the key
+     * @param value the value; must not be null
+     */
+    public synchronized void put(K key, V value) {
+        if (maxSize == 0) {
+            return;
+        }
+        Node<K, V> node = nodes.get(key);
+        if (node != null) {
+            node.value = value;
+            onAccess(node);
+            return;
+        }
+        node = new Node<>(key, value, WINDOW);
+        nodes.put(key, node);
+        append(node);
+        while (sizes[WINDOW] > windowMax) {
+            admit(queues[WINDOW].next);
+        }
+    }
+
+    /**
+     * Drops the entry for a key, if there is one.
+     *
+     * @param key the key
+     */
+    public synchronized void invalidate(K key) {
+        Node<K, V> node = nodes.get(key);
+        if (node != null) {
+            remove(node);
+            invalidations++;
+        }
+    }
+
+    /**
+     * Drops every entry. The popularity estimates are kept.
+     */
+    public synchronized void invalidateAll() {
+        invalidations += nodes.size();
+        nodes.clear();
+        for (int i = 0; i < queues.length; i++) {
+            queues[i].previous = queues[i];
+            queues[i].next = queues[i];
+            sizes[i] = 0;
+        }
+    }
+
+    /**
+     * @return the number of entries cached
+     */
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns a snapshot of the cache's counters.
+     *
+     * @return the cache statistics
+     */
+    public synchronized Stats getStats() {
+        return new Stats(maxSize, nodes.size(), hits, misses, evictions, invalidations);
+    }
+
+    /**
+     * Moves an entry out of the window into the main space, if it is more popular than the entry it would push out there; otherwise it is evicted.
+     */
+    private void admit(Node<K, V> candidate) {
+        unlink(candidate);
+        candidate.queue = PROBATION;
+        if (nodes.size() <= maxSize) {
+            append(candidate);
+            return;
+        }
+        Node<K, V> victim = sizes[PROBATION] > 0 ? queues[PROBATION].next
+                : sizes[PROTECTED] > 0 ? queues[PROTECTED].next : null;
+        if (victim != null && sketch.frequency(candidate.key.hashCode()) > sketch.frequency(victim.key.hashCode())) {
+            remove(victim);
+            append(candidate);
+        } else {
+            nodes.remove(candidate.key);
+        }
+        evictions++;
+    }
+
+    /**
+     * Moves an entry that was looked up to the most recently used end of its list, promoting it from probation to the protected segment.
+     */
+    private void onAccess(Node<K, V> node) {
+        unlink(node);
+        if (node.queue == PROBATION) {
+            node.queue = PROTECTED;
+            if (sizes[PROTECTED] >= protectedMax && sizes[PROTECTED] > 0) {
+                Node<K, V> demoted = queues[PROTECTED].next;
+                unlink(demoted);
+                demoted.queue = PROBATION;
+                append(demoted);
+            }
+        }
+        append(node);
+    }
+
+    private void remove(Node<K, V> node) {
+        unlink(node);
+        nodes.remove(node.key);
+    }
+
+    private void append(Node<K, V> node) {
+        Node<K, V> head = queues[node.queue];
+        node.previous = head.previous;
+        node.next = head;
+        head.previous.next = node;
+        head.previous = node;
+        sizes[node.queue]++;
+    }
+
+    private void unlink(Node<K, V> node) {
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        sizes[node.queue]--;
+    }
+
+    /**
+     * An entry, linked into the list of its segment.
+     */
+    private static final class Node<K, V> {
+        private final K key;
+        private V value;
+        private int queue;
+        private Node<K, V> previous;
+        private Node<K, V> next;
+
+        Node(K key, V value, int queue) {
+            this.key = key;
+            this.value = value;
+            this.queue = queue;
+        }
+    }
+
+    /**
+     * A count-min sketch of 4-bit counters, four to a key, packed sixteen to a long. Once the number of increments reaches ten times the cache size, every counter is halved, so the estimates follow recent popularity.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+                0xcbf29ce484222325L };
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int counterMask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maxSize) {
+            int counters = Integer.highestOneBit(Math.max(16, Math.min(maxSize, 1 << 24)) - 1) << 2;
+            table = new long[counters >>> 4];
+            counterMask = counters - 1;
+            sampleSize = 10 * Math.max(maxSize, 16);
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int counter = index(hash, i);
+                int shift = (counter & 15) << 2;
+                if (((table[counter >>> 4] >>> shift) & 15) < 15) {
+                    table[counter >>> 4] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions >>>= 1;
+            }
+        }
+
+        int frequency(int hash) {
+            int frequency = 15;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int counter = index(hash, i);
+                frequency = Math.min(frequency, (int) (table[counter >>> 4] >>> ((counter & 15) << 2)) & 15);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int row) {
+            long mixed = (hash + SEEDS[row]) * SEEDS[row];
+            return (int) (mixed ^ (mixed >>> 32)) & counterMask;
+        }
+    }
+
+    /**
+     * A snapshot of a cache's size and counters.
+     */
+    public static class Stats {
+
+        /** The most entries the cache holds. */
+        private int maxSize;
+        /** The number of entries cached. */
+        private int size;
+        /** The number of lookups that found a current entry. */
+        private long hits;
+        /** The number of lookups that did not. */
+        private long misses;
+        /** The number of entries dropped to make room. */
+        private long evictions;
+        /** The number of entries dropped because they were invalidated or found to be out of date. */
+        private long invalidations;
+
+        public Stats(int maxSize, int size, long hits, long misses, long evictions, long invalidations) {
+            this.maxSize = maxSize;
+            this.size = size;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        /**
+         * @return the fraction of lookups that were hits, or 0 if there have been none
+         */
+        public double getHitRate() {
+            return hits + misses == 0 ? 0 : hits / (double) (hits + misses);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.revature.util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The TrigramIndex class is an in-memory index of one text column, used to answer LIKE '%term%' searches without scanning the table. Every value is broken into the overlapping runs of three characters it contains, and for each such trigram the index keeps a posting list of the ids of the rows containing it, as a sorted primitive int array.
+ *
+ * A row can only contain a term if it contains every trigram of the term, so intersecting the posting lists of the term's trigrams, smallest first, leaves a short list of candidates. Each candidate is then checked against the term in memory, ignoring case. The result is a superset of the rows LIKE would match, never a subset; callers still apply the exact LIKE predicate to the candidate ids in SQL, which settles case sensitivity and collation exactly as before.
+ *
+ * The index is built from the database the first time it is searched and kept up to date by the DAO that owns it through {@link #put(int, String)} and {@link #remove(int)}. Terms it cannot narrow down, such as terms shorter than a trigram, terms containing LIKE wildcards, or terms matching more than {@link #MAX_CANDIDATES} rows, are left to the database.
+ *
+ * The index is safe for concurrent use; searches share a read lock and updates take a write lock.
+ */
+public class TrigramIndex {
+
+    /** The most candidates worth looking up by id; past this a scan of the table is just as cheap. */
+    public static final int MAX_CANDIDATES = 1000;
+
+    /** The characters LIKE treats specially: the two wildcards and the default escape character. */
+    private static final String LIKE_SPECIAL_CHARACTERS = "%_\\";
+
+    // fields
+
+    /** The query reading every id and value of the indexed column. */
+    private String loadSql;
+    /** The posting list of each trigram, keyed by its three characters packed into a long. */
+    private Map<Long, PostingList> postings = new HashMap<>();
+    /** The case-folded value of every indexed row, by id. */
+    private Map<Integer, String> values = new HashMap<>();
+    /** Whether the index has been built from the database. */
+    private volatile boolean built;
+    /** Guards all of the above. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // constructors
+    public TrigramIndex(String table, String column) {
+        this.loadSql = "SELECT id, " + column + " FROM " + table;
+    }
+
+    /**
+     * Finds the rows that may match LIKE '%term%'.
+     *
+     * @param term the search term
+     * @param connectionUtil used to build the index if this is its first search
+     * @return the sorted ids of the candidate rows, or null if the index cannot narrow this term down and the table should be searched instead
+     */
+    public int[] candidates(String term, ConnectionUtil connectionUtil) {
+        if (term == null || term.length() < 3) {
+            return null;
+        }
+        for (int i = 0; i < term.length(); i++) {
+            if (LIKE_SPECIAL_CHARACTERS.indexOf(term.charAt(i)) >= 0) {
+                return null;
+            }
+        }
+        String folded = fold(term);
+        long[] trigrams = trigrams(folded);
+
+        build(connectionUtil);
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = new PostingList[trigrams.length];
+            for (int i = 0; i < trigrams.length; i++) {
+                lists[i] = postings.get(trigrams[i]);
+                if (lists[i] == null) {
+                    return new int[0];
+                }
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+            int[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.length && count > 0; i++) {
+                count = lists[i].retainAll(candidates, count);
+            }
+
+            int matched = 0;
+            for (int i = 0; i < count; i++) {
+                if (values.get(candidates[i]).contains(folded)) {
+                    if (matched == MAX_CANDIDATES) {
+                        return null;
+                    }
+                    candidates[matched++] = candidates[i];
+                }
+            }
+            return Arrays.copyOf(candidates, matched);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the value of a row, replacing its previous value. Does nothing until the index has been built, since building it reads every row anyway.
+     *
+     * @param id the row id
+     * @param value the new value of the column; null values are never matched by LIKE and are not indexed
+     */
+    public void put(int id, String value) {
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                removeLocked(id);
+                putLocked(id, value);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a row from the index. Does nothing if it is not indexed.
+     *
+     * @param id the row id
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Discards the index, so it is built again from the database on the next search. Used after writes whose effect on the column is not known.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            values.clear();
+            built = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of rows indexed
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return values.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads every row of the indexed column, unless the index has already been built.
+     */
+    private void build(ConnectionUtil connectionUtil) {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                return;
+            }
+            try (Connection connection = connectionUtil.getConnection();
+                    Statement statement = connection.createStatement();
+                    ResultSet resultSet = statement.executeQuery(loadSql)) {
+                while (resultSet.next()) {
+                    putLocked(resultSet.getInt(1), resultSet.getString(2));
+                }
+            } catch (SQLException e) {
+                postings.clear();
+                values.clear();
+                throw new RuntimeException("Unable to build the search index", e);
+            }
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putLocked(int id, String value) {
+        if (value == null) {
+            return;
+        }
+        String folded = fold(value);
+        values.put(id, folded);
+        for (long trigram : trigrams(folded)) {
+            postings.computeIfAbsent(trigram, key -> new PostingList()).add(id);
+        }
+    }
+
+    private void removeLocked(int id) {
+        String folded = values.remove(id);
+        if (folded == null) {
+            return;
+        }
+        for (long trigram : trigrams(folded)) {
+            PostingList list = postings.get(trigram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Lower cases text one char at a time. Unlike String.toLowerCase, the result for a substring is always the same substring of the result for the whole text, so a value containing a term still contains it once both are folded.
+     */
+    private static String fold(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Returns the distinct trigrams of folded text, each packed into a long.
+     */
+    private static long[] trigrams(String folded) {
+        int count = Math.max(folded.length() - 2, 0);
+        long[] trigrams = new long[count];
+        for (int i = 0; i < count; i++) {
+            trigrams[i] = ((long) folded.charAt(i) << 32) | ((long) folded.charAt(i + 1) << 16) | folded.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || trigrams[distinct - 1] != trigrams[i]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    /**
+     * The ids of the rows containing one trigram, sorted.
+     */
+    private static class PostingList {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            // Rows are mostly indexed in id order, so this is usually an append
+            if (size > 0 && ids[size - 1] >= id) {
+                int index = Arrays.binarySearch(ids, 0, size, id);
+                if (index >= 0) {
+                    return;
+                }
+                insert(-index - 1, id);
+            } else {
+                insert(size, id);
+            }
+        }
+
+        boolean remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Keeps only the given ids that are also in this list, compacting them to the front of the array.
+         *
+         * @return the number of ids kept
+         */
+        int retainAll(int[] candidates, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count && from < size; i++) {
+                int index = Arrays.binarySearch(ids, from, size, candidates[i]);
+                if (index >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+            }
+            return kept;
+        }
+
+        private void insert(int index, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.revature.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The UnitOfWork class binds one database connection, one transaction and an identity map to the handling of a single HTTP request. While a unit of work is active on the current thread, {@link ConnectionUtil#getConnection()} hands out that one connection to every service and DAO instead of borrowing a new one from the pool, and the work is committed or rolled back as a whole when the request ends.
+ *
+ * DAOs keep their usual connection handling. Closing the shared connection does nothing, and a DAO that manages its own transaction with setAutoCommit(false), commit() and rollback() gets a savepoint inside the request's transaction instead, so rolling back its part leaves the rest of the request's work alone.
+ *
+ * The identity map makes sure an entity is only read once per request: DAOs register what they load by id and look there first, so the same recipe or chef fetched twice in one request is the same object.
+ */
+public class UnitOfWork implements AutoCloseable {
+
+    /** The unit of work active on each thread, if any. */
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    // fields
+
+    /** The pool the connection is borrowed from. */
+    private ConnectionPool pool;
+    /** The borrowed connection, or null until the first DAO asks for one. */
+    private Connection connection;
+    /** The proxy handed to DAOs in place of the borrowed connection. */
+    private Connection shared;
+    /** The savepoints of the DAO level transactions currently open, innermost first. */
+    private Deque<Savepoint> savepoints = new ArrayDeque<>();
+    /** The entities loaded during this unit of work, by type and id. */
+    private Map<Class<?>, Map<Integer, Object>> identityMap = new HashMap<>();
+    /** Set when the work must be rolled back whatever the outcome of the request. */
+    private boolean rollbackOnly;
+    /** Actions to run once the work has been committed, such as updating in-memory indexes. */
+    private List<Runnable> afterCommit = new ArrayList<>();
+
+    // constructors
+    private UnitOfWork(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Starts a unit of work on the current thread. A unit of work left behind on the thread by an earlier request is rolled back and closed first.
+     *
+     * @param pool the pool to borrow the connection from
+     * @return the new unit of work
+     */
+    public static UnitOfWork begin(ConnectionPool pool) {
+        UnitOfWork stale = CURRENT.get();
+        if (stale != null) {
+            stale.end(false);
+        }
+        UnitOfWork unitOfWork = new UnitOfWork(pool);
+        CURRENT.set(unitOfWork);
+        return unitOfWork;
+    }
+
+    /**
+     * @return the unit of work active on the current thread, or null if there is none
+     */
+    public static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Ends the unit of work active on the current thread, if any, committing what it has done so far. Whatever the thread does next gets its own connections and transactions, as it would outside a request. Used by work that commits in parts, such as a bulk import, which should not be held in one transaction until the request ends.
+     */
+    public static void endCurrent() {
+        UnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork != null) {
+            unitOfWork.end(true);
+        }
+    }
+
+    /**
+     * Returns the connection shared by everything running in this unit of work, borrowing it from the pool and starting the transaction on first use.
+     *
+     * @return a connection whose close() is a no-op
+     * @throws SQLException if no connection could be borrowed
+     */
+    public Connection getConnection() throws SQLException {
+        if (shared == null) {
+            connection = pool.getConnection();
+            connection.setAutoCommit(false);
+            shared = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        if (connection == null) {
+                            throw new SQLException("The unit of work has already ended");
+                        }
+                        switch (method.getName()) {
+                            case "close":
+                                rollbackToOutermostSavepoint();
+                                return null;
+                            case "setAutoCommit":
+                                if ((Boolean) args[0]) {
+                                    savepoints.clear();
+                                } else {
+                                    savepoints.push(connection.setSavepoint());
+                                }
+                                return null;
+                            case "getAutoCommit":
+                                return savepoints.isEmpty();
+                            case "commit":
+                                if (!savepoints.isEmpty()) {
+                                    savepoints.pop();
+                                }
+                                return null;
+                            case "rollback":
+                                if (args == null && !savepoints.isEmpty()) {
+                                    connection.rollback(savepoints.pop());
+                                    return null;
+                                } else if (args == null) {
+                                    rollbackOnly = true;
+                                    return null;
+                                }
+                                break;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "toString":
+                                return "UnitOfWork" + connection;
+                            default:
+                                break;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+        return shared;
+    }
+
+    /**
+     * Looks up an entity already loaded by the unit of work active on the current thread.
+     *
+     * @param type the entity type
+     * @param id the entity id
+     * @return the loaded entity, or null if it has not been loaded or no unit of work is active
+     */
+    public static <E> E lookup(Class<E> type, int id) {
+        UnitOfWork unitOfWork = CURRENT.get();
+        return unitOfWork == null ? null : unitOfWork.find(type, id);
+    }
+
+    /**
+     * Registers a loaded entity with the unit of work active on the current thread, if there is one.
+     *
+     * @param type the entity type
+     * @param id the entity id
+     * @param entity the entity just loaded
+     * @return the entity held in the identity map for that id, or the given entity if no unit of work is active
+     */
+    public static <E> E remember(Class<E> type, int id, E entity) {
+        UnitOfWork unitOfWork = CURRENT.get();
+        return unitOfWork == null ? entity : unitOfWork.register(type, id, entity);
+    }
+
+    /**
+     * Evicts an entity from the unit of work active on the current thread, if there is one. DAOs call this after writing the entity.
+     *
+     * @param type the entity type
+     * @param id the entity id
+     */
+    public static void forget(Class<?> type, int id) {
+        UnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork != null) {
+            unitOfWork.evict(type, id);
+        }
+    }
+
+    /**
+     * Runs an action once the current unit of work has been committed, or straight away if no unit of work is active. The action is dropped if the work is rolled back. DAOs use this to keep in-memory structures in step with what has actually been committed.
+     *
+     * @param action the action to run after the commit
+     */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork == null) {
+            action.run();
+        } else {
+            unitOfWork.afterCommit.add(action);
+        }
+    }
+
+    /**
+     * Returns whether the unit of work active on the current thread has written anything it has not yet committed. Caches use this to stay out of the way of a request that has already written: what it reads may never be committed.
+     *
+     * @return true if writes are waiting for the commit; false if there are none or no unit of work is active
+     */
+    public static boolean hasPendingWrites() {
+        UnitOfWork unitOfWork = CURRENT.get();
+        return unitOfWork != null && !unitOfWork.afterCommit.isEmpty();
+    }
+
+    /**
+     * Looks up an entity already loaded in this unit of work.
+     *
+     * @param type the entity type
+     * @param id the entity id
+     * @return the loaded entity, or null if it has not been loaded
+     */
+    public <E> E find(Class<E> type, int id) {
+        Map<Integer, Object> entities = identityMap.get(type);
+        return entities == null ? null : type.cast(entities.get(id));
+    }
+
+    /**
+     * Adds a loaded entity to the identity map. If an entity with the same id is already there, that one is kept and returned, so callers always share one object per row.
+     *
+     * @param type the entity type
+     * @param id the entity id
+     * @param entity the entity just loaded
+     * @return the entity held in the identity map for that id
+     */
+    public <E> E register(Class<E> type, int id, E entity) {
+        Object existing = identityMap.computeIfAbsent(type, key -> new HashMap<>()).putIfAbsent(id, entity);
+        return existing == null ? entity : type.cast(existing);
+    }
+
+    /**
+     * Removes an entity from the identity map, so the next lookup reads it from the database again.
+     *
+     * @param type the entity type
+     * @param id the entity id
+     */
+    public void evict(Class<?> type, int id) {
+        Map<Integer, Object> entities = identityMap.get(type);
+        if (entities != null) {
+            entities.remove(id);
+        }
+    }
+
+    /**
+     * Marks the unit of work so it is rolled back when it ends, whatever the outcome of the request.
+     */
+    public void setRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    /**
+     * Ends the unit of work, committing its transaction if asked to and it has not been marked rollback only, then returns the connection to the pool and detaches the unit of work from the thread.
+     *
+     * @param commit whether the work should be committed
+     * @throws RuntimeException if the commit fails; the work is rolled back in that case
+     */
+    public void end(boolean commit) {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+        identityMap.clear();
+        List<Runnable> actions = afterCommit;
+        afterCommit = new ArrayList<>();
+        if (connection == null) {
+            return;
+        }
+        try {
+            if (commit && !rollbackOnly) {
+                connection.commit();
+                // The work is committed whatever happens now, so one failing action must not keep the rest from running
+                for (Runnable action : actions) {
+                    try {
+                        action.run();
+                    } catch (RuntimeException e) {
+                        System.err.println("After commit action failed: " + e);
+                        e.printStackTrace();
+                    }
+                }
+            } else {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Unable to complete the unit of work", e);
+        } finally {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            connection = null;
+            shared = null;
+        }
+    }
+
+    /**
+     * Rolls back the unit of work unless it has already ended.
+     */
+    @Override
+    public void close() {
+        end(false);
+    }
+
+    /**
+     * Rolls back a DAO level transaction that was left open when its connection was closed, as the pool would have done.
+     */
+    private void rollbackToOutermostSavepoint() throws SQLException {
+        if (!savepoints.isEmpty()) {
+            connection.rollback(savepoints.getLast());
+            savepoints.clear();
+        }
+    }
+}
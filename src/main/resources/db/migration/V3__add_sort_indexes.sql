@@ -0,0 +1,10 @@
+-- Secondary indexes for the sorts offered by the paged endpoints.
+--
+-- Pages are ordered by the requested column with the id as a tie breaker, and keyset (cursor) paging seeks on the
+-- same pair, so each sortable column gets a composite (column, id) index. This lets a page be read straight off the
+-- index instead of sorting the whole table. RECIPE.name, CHEF.username, CHEF.email and INGREDIENT.name already have
+-- unique indexes and do not need one.
+
+CREATE INDEX IF NOT EXISTS IDX_RECIPE_CHEF_ID_ID ON RECIPE (chef_id, id);
+CREATE INDEX IF NOT EXISTS IDX_RECIPE_INSTRUCTIONS_ID ON RECIPE (instructions, id);
+CREATE INDEX IF NOT EXISTS IDX_CHEF_IS_ADMIN_ID ON CHEF (is_admin, id);
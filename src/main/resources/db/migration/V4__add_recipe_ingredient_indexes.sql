@@ -0,0 +1,11 @@
+-- Secondary indexes for the recipe/ingredient join table.
+--
+-- H2 gives every foreign key a single column index of its own, but the hot paths need more than that:
+--      1. (recipe_id, id) serves loading the ingredients of a page of recipes, which looks rows up by recipe_id and
+--         returns them in id order, and deleting a recipe's ingredients.
+--      2. (ingredient_id, recipe_id) covers searching recipes by ingredient, which only needs the recipe ids of the
+--         matching ingredients, and deleting an ingredient's references.
+-- RECIPE.chef_id is covered by IDX_RECIPE_CHEF_ID_ID.
+
+CREATE INDEX IF NOT EXISTS IDX_RECIPE_INGREDIENT_RECIPE_ID_ID ON RECIPE_INGREDIENT (recipe_id, id);
+CREATE INDEX IF NOT EXISTS IDX_RECIPE_INGREDIENT_INGREDIENT_ID_RECIPE_ID ON RECIPE_INGREDIENT (ingredient_id, recipe_id);
@@ -23,6 +23,7 @@ window.addEventListener("DOMContentLoaded", () => {
   const addBtn   = document.getElementById("add-ingredient-submit-button");
   const delBtn   = document.getElementById("delete-ingredient-submit-button");
   const listEl   = document.getElementById("ingredient-list");
+  const suggestionList = document.getElementById("ingredient-suggestions");
 
   
     // Admin gate: redirect non-admins back to recipes
@@ -38,6 +39,9 @@ window.addEventListener("DOMContentLoaded", () => {
     */
     addBtn.addEventListener("click", addIngredient);
     delBtn.addEventListener("click", deleteIngredient);
+    for (const input of [addInput, delInput]) {
+      input.addEventListener("input", () => suggestIngredients(input.value));
+    }
 
 
     /* 
@@ -86,6 +90,40 @@ window.addEventListener("DOMContentLoaded", () => {
     }
 
 
+    /**
+     * Suggest Ingredients Function
+     * 
+     * Requirements:
+     * - Runs on every keystroke in the add and delete name inputs
+     * - Send GET request to /suggest with the typed prefix
+     * - Fill the shared datalist with the suggested ingredient names
+     * - Ignore responses to earlier keystrokes that arrive late
+     */
+    let suggestRequest = 0;
+    async function suggestIngredients(prefix) {
+        const request = ++suggestRequest;
+        if (!prefix.trim()) {
+          suggestionList.innerHTML = "";
+          return;
+        }
+        try {
+          const res = await fetch(`${BASE_URL}/suggest?type=ingredient&prefix=${encodeURIComponent(prefix)}`);
+          if (!res.ok) return;
+          const data = await res.json();
+          if (request !== suggestRequest) return;
+          suggestionList.innerHTML = "";
+          for (const s of data) {
+            const option = document.createElement("option");
+            option.value = s.name;
+            suggestionList.appendChild(option);
+          }
+        } catch (err) {
+          // Suggestions are a convenience; adding and deleting still work without them
+          console.error(err);
+        }
+    }
+
+
     /**
      * DONE: Get Ingredients Function
      * 
@@ -183,4 +221,4 @@ window.addEventListener("DOMContentLoaded", () => {
         listEl.appendChild(li);
       }
     }
-});
\ No newline at end of file
+});
\ No newline at end of file
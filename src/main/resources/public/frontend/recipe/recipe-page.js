@@ -29,6 +29,7 @@ window.addEventListener("DOMContentLoaded", () => {
     const searchBtn = document.getElementById("search-button");
     const adminLink = document.getElementById("admin-link");
     const logoutBtn = document.getElementById("logout-button");
+    const suggestionList = document.getElementById("recipe-suggestions");
 
     /*
      * DONE: Show logout button if auth-token exists in sessionStorage
@@ -65,6 +66,9 @@ window.addEventListener("DOMContentLoaded", () => {
     delBtn.addEventListener("click", deleteRecipe);
     searchBtn.addEventListener("click", searchRecipes);
     logoutBtn.addEventListener("click", processLogout);
+    for (const input of [searchInput, updName, delName]) {
+      input.addEventListener("input", () => suggestRecipes(input.value));
+    }
 
     /*
      * DONE: On page load, call getRecipes() to populate the list
@@ -94,6 +98,36 @@ window.addEventListener("DOMContentLoaded", () => {
       }
     }
 
+    /**
+     * Suggest Recipes Function
+     * - Runs on every keystroke in the search, update and delete name inputs
+     * - Send GET request to /suggest with the typed prefix
+     * - Fill the shared datalist with the suggested recipe names
+     * - Responses to earlier keystrokes that arrive late are ignored
+     */
+    let suggestRequest = 0;
+    async function suggestRecipes(prefix) {
+      const request = ++suggestRequest;
+      if (!prefix.trim()) {
+        suggestionList.innerHTML = "";
+        return;
+      }
+      try {
+        const res = await fetch(`${BASE_URL}/suggest?type=recipe&prefix=${encodeURIComponent(prefix)}`);
+        if (!res.ok) return;
+        const data = await res.json();
+        if (request !== suggestRequest) return;
+        suggestionList.innerHTML = "";
+        for (const s of data) {
+          const option = document.createElement("option");
+          option.value = s.name;
+          suggestionList.appendChild(option);
+        }
+      } catch {
+        // Suggestions are a convenience; the search button still works without them
+      }
+    }
+
     /**
      * DONE: Add Recipe Function
      * - Get values from add form inputs
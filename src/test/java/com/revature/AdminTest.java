@@ -30,6 +30,8 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 
 import io.javalin.Javalin;
 
+import com.revature.util.DBUtil;
+
 public class AdminTest {
     
     private static WebDriver driver;
@@ -55,6 +57,7 @@ public class AdminTest {
             
             // Start the backend programmatically
             int port = 8081;
+            DBUtil.RUN_SQL(); // Start from the seed data
             app = Main.main(new String[] { String.valueOf(port) });
             
             // Detect browser and driver
@@ -33,6 +33,8 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 
 import io.javalin.Javalin;
 
+import com.revature.util.DBUtil;
+
 public class AuthenticationTest {
 
     private static WebDriver driver;
@@ -56,6 +58,7 @@ public class AuthenticationTest {
             printEnvironmentInfo();
             
             int port = 8081;
+            DBUtil.RUN_SQL(); // Start from the seed data
             app = Main.main(new String[] { String.valueOf(port) });
             
             BrowserConfig browserConfig = detectBrowserAndDriver();
@@ -0,0 +1,126 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.service.AuthenticationService;
+import com.revature.utils.TestApp;
+
+import io.javalin.Javalin;
+import io.javalin.testtools.HttpClient;
+import io.javalin.testtools.JavalinTest;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+class BulkDeleteTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private TestApp fixture;
+    private Javalin app;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new TestApp();
+        app = fixture.app();
+    }
+
+    @AfterEach
+    void tearDown() {
+        AuthenticationService.loggedInUsers.clear();
+    }
+
+    @Test
+    void recipesAreDeletedByIdWithTheirIngredients() {
+        String token = login("ChefTrevin", "trevature");
+        JavalinTest.test(app, (server, client) -> {
+            Response response = request(client, "/recipes?ids=1,4,99", token, "DELETE", null);
+            assertEquals(200, response.code());
+            assertEquals(2, MAPPER.readTree(response.body().string()).get("deleted").asInt());
+
+            JsonNode recipes = MAPPER.readTree(client.get("/recipes").body().string());
+            assertEquals(3, recipes.size());
+            assertEquals(404, client.get("/recipes/4").code());
+            assertEquals("recipe_id,ingredient_id,name,vol,unit\n"
+                    + "2,2,potato,2.0,cups\n"
+                    + "3,3,tomato,2.0,cups\n",
+                    client.get("/export/recipe-ingredients?format=csv").body().string());
+        });
+    }
+
+    @Test
+    void aChefsRecipesAreDeletedTogether() {
+        String token = login("ChefTrevin", "trevature");
+        JavalinTest.test(app, (server, client) -> {
+            Response response = request(client, "/recipes?chefId=4", token, "DELETE", null);
+            assertEquals(2, MAPPER.readTree(response.body().string()).get("deleted").asInt());
+            assertEquals(404, client.get("/recipes?ingredients=rice").code());
+            assertEquals(404, client.get("/recipes?name=stone").code());
+            assertEquals(3, MAPPER.readTree(client.get("/recipes").body().string()).size());
+        });
+    }
+
+    @Test
+    void instructionsAreUpdatedTogether() {
+        String token = login("ChefTrevin", "trevature");
+        JavalinTest.test(app, (server, client) -> {
+            assertEquals("Put carrot in water.  Boil.  Maybe salt.",
+                    MAPPER.readTree(client.get("/recipes/1").body().string()).get("instructions").asText());
+            assertEquals(404, client.get("/recipes?q=blend").code(), "Searching builds the full-text index");
+
+            Response response = request(client, "/recipes?chefId=2", token, "PATCH",
+                    "{\"instructions\": \"Boil, then blend.\"}");
+            assertEquals(200, response.code());
+            assertEquals(2, MAPPER.readTree(response.body().string()).get("updated").asInt());
+            assertEquals("Boil, then blend.",
+                    MAPPER.readTree(client.get("/recipes/2").body().string()).get("instructions").asText());
+            assertEquals("Boil, then blend.",
+                    MAPPER.readTree(client.get("/recipes/3").body().string()).get("instructions").asText());
+            assertEquals(2, MAPPER.readTree(client.get("/recipes?q=blend").body().string()).size());
+
+            assertEquals(400, request(client, "/recipes?ids=1", token, "PATCH", "{\"instructions\": \" \"}").code());
+            assertEquals(400, request(client, "/recipes", token, "DELETE", null).code());
+        });
+    }
+
+    @Test
+    void onlyAdminsMayDeleteOrUpdateInBulk() {
+        String token = login("JoeCool", "redbarron");
+        JavalinTest.test(app, (server, client) -> {
+            assertEquals(401, request(client, "/recipes?ids=1", token, "DELETE", null).code());
+            assertEquals(401, request(client, "/recipes?ids=1", token, "PATCH", "{\"instructions\": \"x\"}").code());
+            assertEquals(5, MAPPER.readTree(client.get("/recipes").body().string()).size());
+        });
+    }
+
+    @Test
+    void theRequestsOwnTokenIsChecked() {
+        String adminToken = login("ChefTrevin", "trevature");
+        String token = login("JoeCool", "redbarron");
+        JavalinTest.test(app, (server, client) -> {
+            assertEquals(401, request(client, "/recipes?chefId=1", token, "DELETE", null).code());
+            assertEquals(401, request(client, "/recipes?chefId=1", token, "PATCH", "{\"instructions\": \"x\"}").code());
+            assertEquals(5, MAPPER.readTree(client.get("/recipes").body().string()).size());
+
+            assertEquals(200, request(client, "/recipes?ids=1", adminToken, "PATCH", "{\"instructions\": \"x\"}").code());
+            assertEquals(200, request(client, "/recipes?ids=1", adminToken, "DELETE", null).code());
+            assertEquals(4, MAPPER.readTree(client.get("/recipes").body().string()).size());
+        });
+    }
+
+
+    private String login(String username, String password) {
+        return fixture.login(username, password);
+    }
+
+    private Response request(HttpClient client, String path, String token, String method, String body) {
+        return client.request(path, request -> request.header("Authorization", "Bearer " + token)
+                .method(method, body == null ? null : RequestBody.create(body, MediaType.get("application/json"))));
+    }
+}
@@ -0,0 +1,163 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.service.AuthenticationService;
+import com.revature.utils.TestApp;
+
+import io.javalin.Javalin;
+import io.javalin.testtools.HttpClient;
+import io.javalin.testtools.JavalinTest;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+class BulkImportTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Javalin app;
+    private String token;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        TestApp fixture = new TestApp();
+        app = fixture.app();
+        token = fixture.login("JoeCool", "redbarron");
+        adminToken = fixture.login("ChefTrevin", "trevature");
+    }
+
+    @AfterEach
+    void tearDown() {
+        AuthenticationService.loggedInUsers.clear();
+    }
+
+    @Test
+    void recipesAreImportedFromNdjson() {
+        String body = "{\"name\": \"bulk stew\", \"instructions\": \"Simmer.\", \"ingredients\": ["
+                + "{\"name\": \"carrot\", \"volume\": 2, \"unit\": \"cups\"}, {\"name\": \" Rice \", \"volume\": 1, \"unit\": \"cups\"}]}\n"
+                + "\n"
+                + "{\"name\": \"saffron stew\", \"instructions\": \"Simmer.\", \"ingredients\": ["
+                + "{\"name\": \"saffron\", \"volume\": 1, \"unit\": \"pinch\"}]}\n"
+                + "{\"name\": \"broken\n";
+        JavalinTest.test(app, (server, client) -> {
+            Response response = post(client, "/recipes/bulk", body, "application/x-ndjson");
+            assertEquals(200, response.code());
+            JsonNode result = MAPPER.readTree(response.body().string());
+            assertEquals(3, result.get("received").asInt());
+            assertEquals(1, result.get("imported").asInt());
+            assertEquals(2, result.get("rejected").asInt());
+            JsonNode errors = result.get("errors").get(0).get("errors");
+            assertEquals("Line 3: Unknown ingredient \"saffron\"", errors.get(0).asText());
+            assertEquals(2, errors.size());
+
+            JsonNode recipes = MAPPER.readTree(client.get("/recipes?name=bulk&include=ingredients").body().string());
+            assertEquals(1, recipes.size());
+            assertEquals("JoeCool", recipes.get(0).get("author").get("username").asText());
+            assertEquals("carrot", recipes.get(0).get("ingredients").get(0).get("name").asText());
+            assertEquals(5, recipes.get(0).get("ingredients").get(1).get("id").asInt());
+        });
+    }
+
+    @Test
+    void aChunkThatFailsIsRolledBackOnItsOwn() {
+        StringBuilder body = new StringBuilder("name,instructions,ingredients\n");
+        for (int i = 0; i < 2_500; i++) {
+            body.append(i == 1_200 ? "carrot soup" : "csv recipe " + i).append(",\"Stir, then serve.\",potato:1:cups\n");
+        }
+        JavalinTest.test(app, (server, client) -> {
+            assertEquals(1, MAPPER.readTree(client.get("/recipes?ingredients=potato").body().string()).size());
+
+            Response response = post(client, "/recipes/bulk", body.toString(), "text/csv; charset=utf-8");
+            JsonNode result = MAPPER.readTree(response.body().string());
+            assertEquals(2_500, result.get("received").asInt());
+            assertEquals(1_500, result.get("imported").asInt());
+            assertEquals(3, result.get("chunks").asInt());
+            JsonNode failed = result.get("errors").get(0);
+            assertEquals(2, failed.get("chunk").asInt());
+            assertEquals(1_002, failed.get("firstLine").asInt());
+            assertEquals(2_001, failed.get("lastLine").asInt());
+
+            assertEquals(1_500, MAPPER.readTree(client.get("/recipes?name=csv").body().string()).size());
+            assertEquals(1_501, MAPPER.readTree(client.get("/recipes?ingredients=potato").body().string()).size());
+            assertEquals("Stir, then serve.",
+                    MAPPER.readTree(client.get("/recipes?q=csv").body().string()).get(0).get("instructions").asText());
+        });
+    }
+
+    @Test
+    void csvIngredientsAreSplitFromTheRight() {
+        String body = "name,instructions,ingredients\n"
+                + "salted stew,Simmer.,salt: coarse:1:Tbs;potato:2:cups\n"
+                + "odd stew,Simmer.,potato:two:cups\n"
+                + "bare stew,Simmer.,potato\n";
+        JavalinTest.test(app, (server, client) -> {
+            assertEquals(200, post(client, adminToken, "/ingredients/bulk", "name\nsalt: coarse\n", "text/csv").code());
+
+            JsonNode result = MAPPER.readTree(post(client, "/recipes/bulk", body, "text/csv").body().string());
+            assertEquals(3, result.get("received").asInt());
+            assertEquals(1, result.get("imported").asInt());
+            JsonNode errors = result.get("errors").get(0).get("errors");
+            assertEquals("Line 3: Invalid volume \"two\"", errors.get(0).asText());
+            assertEquals("Line 4: Invalid ingredient \"potato\"; expected name:volume:unit", errors.get(1).asText());
+
+            JsonNode stew = MAPPER.readTree(client.get("/recipes?name=salted&include=ingredients").body().string())
+                    .get(0);
+            assertEquals("salt: coarse", stew.get("ingredients").get(0).get("name").asText());
+            assertEquals("Tbs", stew.get("ingredients").get(0).get("unit").asText());
+        });
+    }
+
+    @Test
+    void ingredientsThatExistAreRejected() {
+        JavalinTest.test(app, (server, client) -> {
+            Response response = post(client, adminToken, "/ingredients/bulk", "name\ncelery\nCarrot\n\"\"\nceleriac\n",
+                    "text/csv");
+            JsonNode result = MAPPER.readTree(response.body().string());
+            assertEquals(4, result.get("received").asInt());
+            assertEquals(2, result.get("imported").asInt());
+            assertEquals("Line 3: Ingredient \"Carrot\" already exists",
+                    result.get("errors").get(0).get("errors").get(0).asText());
+            assertEquals(2, MAPPER.readTree(client.get("/ingredients?term=cele").body().string()).size());
+        });
+    }
+
+    @Test
+    void unknownFormatsAndMissingTokensAreRefused() {
+        JavalinTest.test(app, (server, client) -> {
+            assertEquals(415, post(client, adminToken, "/ingredients/bulk", "celery", "text/plain").code());
+            Response response = client.request("/recipes/bulk", request -> request
+                    .post(RequestBody.create("{}", MediaType.get("application/x-ndjson"))));
+            assertEquals(401, response.code());
+        });
+    }
+
+    @Test
+    void onlyAdminsImportIngredients() {
+        JavalinTest.test(app, (server, client) -> {
+            Response anonymous = client.request("/ingredients/bulk", request -> request
+                    .post(RequestBody.create("name\ncelery\n", MediaType.get("text/csv"))));
+            assertEquals(401, anonymous.code());
+            assertEquals(401, post(client, "/ingredients/bulk", "name\ncelery\n", "text/csv").code());
+            assertEquals(0, MAPPER.readTree(client.get("/ingredients?term=celery").body().string()).size());
+
+            assertEquals(200, post(client, adminToken, "/ingredients/bulk", "name\ncelery\n", "text/csv").code());
+        });
+    }
+
+    private Response post(HttpClient client, String path, String body, String contentType) {
+        return post(client, token, path, body, contentType);
+    }
+
+    private Response post(HttpClient client, String token, String path, String body, String contentType) {
+        return client.request(path, request -> request.header("Authorization", "Bearer " + token)
+                .post(RequestBody.create(body, MediaType.get(contentType))));
+    }
+}
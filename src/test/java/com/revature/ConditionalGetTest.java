@@ -0,0 +1,120 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.controller.RecipeController;
+import com.revature.model.Recipe;
+import com.revature.service.AuthenticationService;
+import com.revature.service.RecipeService;
+import com.revature.util.ETags;
+import com.revature.utils.TestApp;
+
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.testtools.JavalinTest;
+import okhttp3.Response;
+
+class ConditionalGetTest {
+
+    private TestApp fixture;
+    private Javalin app;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new TestApp();
+        app = fixture.app();
+    }
+
+    @Test
+    void unchangedIngredientsAreNotSentAgain() {
+        JavalinTest.test(app, (server, client) -> {
+            Response first = client.get("/ingredients/1");
+            String etag = first.header("ETag");
+            assertNotNull(etag);
+            String otherEtag = client.get("/ingredients/2").header("ETag");
+            String listEtag = client.get("/ingredients").header("ETag");
+
+            Response second = client.get("/ingredients/1", request -> request.header("If-None-Match", etag));
+            assertEquals(304, second.code());
+            assertEquals("", second.body().string());
+
+            client.put("/ingredients/1", "{\"id\": 1, \"name\": \"parsnips\"}");
+            Response changed = client.get("/ingredients/1", request -> request.header("If-None-Match", etag));
+            assertEquals(200, changed.code());
+            assertNotEquals(etag, changed.header("ETag"));
+            assertEquals(304, client.get("/ingredients/2", request -> request.header("If-None-Match", otherEtag))
+                    .code(), "Only the row written should change its tag");
+            assertEquals(200, client.get("/ingredients", request -> request.header("If-None-Match", listEtag))
+                    .code());
+        });
+    }
+
+    @Test
+    void recipeTagsFollowWhatTheRecipesShow() {
+        JavalinTest.test(app, (server, client) -> {
+            String recipeEtag = client.get("/recipes/1").header("ETag");
+            String withIngredientsEtag = client.get("/recipes/1?include=ingredients").header("ETag");
+            String listEtag = client.get("/recipes").header("ETag");
+            assertEquals(304,
+                    client.get("/recipes", request -> request.header("If-None-Match", "W/" + listEtag)).code());
+
+            client.put("/ingredients/1", "{\"id\": 1, \"name\": \"parsnips\"}");
+            assertEquals(304, client.get("/recipes/1", request -> request.header("If-None-Match", recipeEtag)).code());
+            assertEquals(200, client.get("/recipes/1?include=ingredients",
+                    request -> request.header("If-None-Match", withIngredientsEtag)).code());
+            assertEquals(200, client.get("/recipes", request -> request.header("If-None-Match", listEtag)).code());
+        });
+    }
+
+    @Test
+    void aMatchingTagIsAnsweredWithoutABody() throws Exception {
+        RecipeService recipeService = mock(RecipeService.class);
+        when(recipeService.getRecipeVersion(anyInt(), anyBoolean())).thenReturn(7L);
+        when(recipeService.findRecipe(1)).thenReturn(Optional.of(new Recipe()));
+        Context ctx = mock(Context.class);
+        when(ctx.pathParam("id")).thenReturn("1");
+        when(ctx.header("If-None-Match")).thenReturn("\"other\", " + ETags.of(7));
+
+        new RecipeController(recipeService, mock(AuthenticationService.class)).fetchRecipeById.handle(ctx);
+
+        verify(ctx).status(304);
+        verify(ctx, never()).json(any());
+        verify(recipeService, never()).loadIngredients(any());
+    }
+
+    @Test
+    void missingResourcesAreNotTagged() {
+        String recipeEtag = ETags.of(fixture.recipeService.getRecipeVersion(99, false));
+        String ingredientEtag = ETags.of(fixture.ingredientService.getIngredientVersion(99));
+        JavalinTest.test(app, (server, client) -> {
+            Response recipe = client.get("/recipes/99");
+            assertEquals(404, recipe.code());
+            assertNull(recipe.header("ETag"));
+            assertNull(recipe.header("Cache-Control"));
+            assertEquals(404, client.get("/recipes/99", request -> request.header("If-None-Match", recipeEtag)).code());
+
+            Response ingredient = client.get("/ingredients/99", request -> request.header("If-None-Match", ingredientEtag));
+            assertEquals(404, ingredient.code());
+            assertNull(ingredient.header("ETag"));
+
+            Response noRecipes = client.get("/recipes?name=nothing-by-that-name");
+            assertEquals(404, noRecipes.code());
+            assertNull(noRecipes.header("ETag"));
+        });
+    }
+}
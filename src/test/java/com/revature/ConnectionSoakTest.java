@@ -0,0 +1,151 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.model.Ingredient;
+import com.revature.model.Recipe;
+import com.revature.util.ConnectionPool;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.PageOptions;
+
+/**
+ * Runs every DAO operation over and over from several threads and checks that the number of open connections and H2
+ * sessions stays flat, and that no connection or statement is left open behind.
+ */
+class ConnectionSoakTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 5;
+    private static final int ITERATIONS_PER_ROUND = 50;
+
+    private ChefDAO chefDao;
+    private IngredientDAO ingredientDao;
+    private RecipeDAO recipeDao;
+
+    @BeforeEach
+    void setUpTestsData() {
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        chefDao = new ChefDAO(connectionUtil);
+        ingredientDao = new IngredientDAO(connectionUtil);
+        recipeDao = new RecipeDAO(chefDao, ingredientDao, connectionUtil);
+    }
+
+    @Test
+    void openConnectionsStayFlatUnderSustainedLoad() throws Exception {
+        ConnectionPool pool = ConnectionUtil.getPool();
+        long unclosedStatementsBefore = pool.getStats().getUnclosedStatements();
+        List<Integer> sessionCounts = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    int worker = round * THREADS + t;
+                    futures.add(executor.submit(() -> exerciseDaos(worker)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+
+                ConnectionPool.Stats stats = pool.getStats();
+                int sessions = countSessions();
+                sessionCounts.add(sessions);
+                System.out.printf("round=%d total=%d active=%d sessions=%d acquired=%d%n", round, stats.getTotal(),
+                        stats.getActive(), sessions, stats.getAcquired());
+                assertEquals(0, stats.getActive(), "Every borrowed connection should have been returned");
+                assertTrue(stats.getTotal() <= stats.getMaxSize(), "The pool should never exceed its maximum size");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ConnectionPool.Stats stats = pool.getStats();
+        int maxSize = stats.getMaxSize();
+        assertTrue(sessionCounts.stream().allMatch(sessions -> sessions <= maxSize + 1),
+                "H2 sessions should stay bounded by the pool size: " + sessionCounts);
+        assertEquals(sessionCounts.get(1), sessionCounts.get(sessionCounts.size() - 1),
+                "H2 sessions should stay flat once the pool has warmed up: " + sessionCounts);
+        assertEquals(0, stats.getSuspectedLeaks());
+        assertEquals(unclosedStatementsBefore, stats.getUnclosedStatements(), "DAOs should close their statements");
+    }
+
+    /**
+     * Calls every DAO method once, including the paths that find nothing or fail.
+     */
+    private void exerciseDaos(int worker) {
+        for (int i = 0; i < ITERATIONS_PER_ROUND; i++) {
+            String suffix = worker + "_" + i;
+
+            chefDao.getAllChefs();
+            chefDao.getAllChefs(new PageOptions(1, 2, "username", "asc"));
+            chefDao.getChefById(1);
+            chefDao.getChefById(-1);
+            chefDao.searchChefsByTerm("a");
+            chefDao.searchChefsByTerm("a", new PageOptions(1, 2, "id", "desc"));
+            Chef chef = new Chef("soak" + suffix, "soak" + suffix + "@example.com", "pass", false);
+            chef.setId(chefDao.createChef(chef));
+            chefDao.updateChef(chef);
+            chefDao.deleteChef(chef);
+
+            ingredientDao.getAllIngredients();
+            ingredientDao.getAllIngredients(new PageOptions(2, 3, "name", "asc"));
+            ingredientDao.getIngredientById(1);
+            ingredientDao.searchIngredients("o");
+            ingredientDao.searchIngredients("o", new PageOptions(1, 5, "id", "asc"));
+            Ingredient ingredient = new Ingredient(0, "soak" + suffix);
+            ingredient.setId(ingredientDao.createIngredient(ingredient));
+            ingredientDao.updateIngredient(ingredient);
+            ingredientDao.deleteIngredient(ingredient);
+            try {
+                ingredientDao.deleteIngredient(ingredient);
+            } catch (RuntimeException expected) {
+                // deleting a missing ingredient fails, and must still release its connection
+            }
+
+            List<Recipe> recipes = recipeDao.getAllRecipes();
+            recipeDao.loadIngredients(recipes);
+            recipeDao.getAllRecipes(new PageOptions(1, 2, "name", "desc"));
+            recipeDao.searchRecipesByTerm("soup");
+            recipeDao.searchRecipesByTerm("soup", new PageOptions(1, 2, "id", "asc"));
+            recipeDao.searchRecipesByIngredient("rice");
+            recipeDao.getRecipeById(1);
+            Recipe recipe = new Recipe(0, "soak" + suffix, "stir", chefDao.getChefById(1));
+            recipe.setId(recipeDao.createRecipe(recipe));
+            recipeDao.updateRecipe(recipe);
+            recipeDao.deleteRecipe(recipe);
+        }
+    }
+
+    /**
+     * Counts the sessions open on the H2 database, including the one used to count them.
+     */
+    private static int countSessions() throws SQLException {
+        try (Connection connection = new ConnectionUtil().getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
@@ -1,16 +1,34 @@
 package com.revature;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
 
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import com.revature.service.AuthenticationService;
+import com.revature.util.ConnectionPool;
 import com.revature.util.ConnectionUtil;
+import com.revature.utils.TestApp;
+
+import io.javalin.testtools.HttpClient;
+import io.javalin.testtools.JavalinTest;
 
 class ConnectionTest {
 
+	@AfterEach
+	void tearDown() {
+		AuthenticationService.loggedInUsers.clear();
+	}
+
 	@Test
 	void getConnectionTest() throws SQLException {
 		Connection connection = new ConnectionUtil().getConnection();
@@ -18,5 +36,146 @@ class ConnectionTest {
 		connection.close();
 	}
 
+	@Test
+	void pooledConnectionsAreReusedTest() throws SQLException {
+		ConnectionPool pool = new ConnectionPool(memoryDataSource("reuse"), 0, 2, 1_000, 60_000);
+		for (int i = 0; i < 20; i++) {
+			try (Connection connection = pool.getConnection()) {
+				assertTrue(connection.isValid(1));
+			}
+		}
+		ConnectionPool.Stats stats = pool.getStats();
+		assertEquals(1, stats.getTotal(), () -> "Sequential borrows should share one physical connection");
+		assertEquals(0, stats.getActive());
+		assertEquals(20, stats.getAcquired());
+	}
+
+	@Test
+	void exhaustedPoolTimesOutTest() throws SQLException {
+		ConnectionPool pool = new ConnectionPool(memoryDataSource("timeout"), 0, 1, 50, 60_000);
+		try (Connection held = pool.getConnection()) {
+			assertThrows(SQLException.class, pool::getConnection);
+			assertEquals(1, pool.getStats().getTimeouts());
+		}
+		try (Connection connection = pool.getConnection()) {
+			assertNotNull(connection, () -> "A returned connection should be lent out again");
+		}
+	}
+
+	@Test
+	void returnedConnectionIsRolledBackTest() throws SQLException {
+		ConnectionPool pool = new ConnectionPool(memoryDataSource("rollback"), 0, 1, 1_000, 60_000);
+		try (Connection connection = pool.getConnection()) {
+			connection.createStatement().execute("CREATE TABLE T (ID INT)");
+			connection.setAutoCommit(false);
+			connection.createStatement().execute("INSERT INTO T VALUES (1)");
+		}
+		try (Connection connection = pool.getConnection()) {
+			assertTrue(connection.getAutoCommit());
+			var resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM T");
+			resultSet.next();
+			assertEquals(0, resultSet.getInt(1), () -> "An open transaction should be rolled back on return");
+		}
+	}
+
+	@Test
+	void connectionHeldPastThresholdIsReportedTest() throws Exception {
+		ConnectionPool pool = new ConnectionPool(memoryDataSource("leak"), 0, 2, 1_000, 60_000, 100);
+		try (Connection held = pool.getConnection()) {
+			Thread.sleep(400);
+			ConnectionPool.Stats stats = pool.getStats();
+			assertEquals(1, stats.getSuspectedLeaks());
+			assertEquals(1, stats.getLeaksDetected(), () -> "A held connection should be reported exactly once");
+			List<String> leaks = pool.getSuspectedLeaks();
+			assertEquals(1, leaks.size());
+			assertTrue(leaks.get(0).contains("connectionHeldPastThresholdIsReportedTest"),
+					() -> "The report should carry the borrower's stack trace");
+		}
+		assertEquals(0, pool.getStats().getSuspectedLeaks());
+		assertTrue(pool.getSuspectedLeaks().isEmpty());
+	}
+
+	@Test
+	void streamingConnectionsAreCappedAndNotReportedTest() throws Exception {
+		ConnectionPool pool = new ConnectionPool(memoryDataSource("streaming"), 0, 3, 100, 60_000, 100, 1);
+		try (Connection streaming = pool.getStreamingConnection()) {
+			assertThrows(SQLException.class, pool::getStreamingConnection,
+					() -> "A second stream should wait for the first rather than take another connection");
+			try (Connection connection = pool.getConnection()) {
+				assertTrue(connection.isValid(1), () -> "Streams should leave the rest of the pool to other borrowers");
+			}
+			Thread.sleep(400);
+			assertEquals(0, pool.getStats().getLeaksDetected(), () -> "A long download is not a leak");
+			assertEquals(1, pool.getStats().getStreaming());
+		}
+		try (Connection streaming = pool.getStreamingConnection()) {
+			assertNotNull(streaming, () -> "A returned stream should free its slot");
+		}
+		assertEquals(0, pool.getStats().getStreaming());
+	}
+
+	@Test
+	void unclosedStatementsAreClosedOnReturnTest() throws SQLException {
+		ConnectionPool pool = new ConnectionPool(memoryDataSource("statements"), 0, 1, 1_000, 60_000);
+		Statement statement;
+		try (Connection connection = pool.getConnection()) {
+			statement = connection.createStatement();
+			statement.executeQuery("SELECT 1");
+		}
+		assertTrue(statement.isClosed());
+		assertEquals(1, pool.getStats().getUnclosedStatements());
+	}
+
+	@Test
+	void abandonedConnectionIsReclaimedTest() throws Exception {
+		ConnectionPool pool = new ConnectionPool(memoryDataSource("abandoned"), 0, 1, 1_000, 60_000, 60_000);
+		borrowAndForget(pool);
+		for (int i = 0; i < 100 && pool.getStats().getLeaksReclaimed() == 0; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		assertEquals(1, pool.getStats().getLeaksReclaimed());
+		try (Connection connection = pool.getConnection()) {
+			assertNotNull(connection, () -> "The reclaimed connection should be lent out again");
+		}
+	}
+
+	@Test
+	void poolMetricsAreOnlyForAdminsTest() {
+		TestApp fixture = new TestApp();
+		JavalinTest.test(fixture.app(), (server, client) -> {
+			String adminToken = fixture.login("ChefTrevin", "trevature");
+			String token = fixture.login("JoeCool", "redbarron");
+			assertEquals(401, get(client, "/metrics/pool", null));
+			assertEquals(401, get(client, "/metrics/pool", token));
+			assertEquals(401, get(client, "/metrics/pool/leaks", token));
+			assertEquals(401, get(client, "/metrics/cache/recipes", token));
+
+			assertEquals(200, get(client, "/metrics/pool", adminToken));
+			assertEquals(200, get(client, "/metrics/pool/leaks", adminToken));
+		});
+	}
+
+	private static int get(HttpClient client, String path, String token) {
+		return client.request(path, request -> {
+			if (token != null) {
+				request.header("Authorization", "Bearer " + token);
+			}
+			request.get();
+		}).code();
+	}
+
+	private static void borrowAndForget(ConnectionPool pool) throws SQLException {
+		pool.getConnection().isValid(1);
+	}
+
+	private static JdbcDataSource memoryDataSource(String name) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:pool_" + name + ";DB_CLOSE_DELAY=-1");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+		return dataSource;
+	}
+
 }
 
@@ -0,0 +1,90 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.model.Chef;
+import com.revature.model.Ingredient;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.UnitOfWork;
+
+class EntityCacheTest {
+
+    private ChefDAO chefDao;
+    private IngredientDAO ingredientDao;
+
+    @BeforeEach
+    void setUpTestsData() {
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        chefDao = new ChefDAO(connectionUtil);
+        ingredientDao = new IngredientDAO(connectionUtil);
+        assertEquals(4, chefDao.preloadCache());
+        assertEquals(6, ingredientDao.preloadCache());
+    }
+
+    @AfterEach
+    void endUnitOfWork() {
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        if (unitOfWork != null) {
+            unitOfWork.close();
+        }
+    }
+
+    @Test
+    void preloadedLookupsUseNoConnection() {
+        long acquiredBefore = ConnectionUtil.getPool().getStats().getAcquired();
+
+        assertEquals("JoeCool", chefDao.getChefById(1).getUsername());
+        assertNull(chefDao.getChefById(99));
+        assertEquals("lemon", ingredientDao.getIngredientById(4).getName());
+        assertEquals(5, ingredientDao.getIngredientByName("  RICE ").getId());
+        assertNull(ingredientDao.getIngredientByName("saffron"));
+
+        assertEquals(acquiredBefore, ConnectionUtil.getPool().getStats().getAcquired());
+    }
+
+    @Test
+    void callersGetTheirOwnCopies() {
+        Chef chef = chefDao.getChefById(2);
+        chef.setUsername("scribbled over");
+
+        assertNotSame(chef, chefDao.getChefById(2));
+        assertEquals("CharlieBrown", chefDao.getChefById(2).getUsername());
+    }
+
+    @Test
+    void committedWritesAreSeenByTheNextLookup() {
+        Chef chef = chefDao.getChefById(3);
+        chef.setEmail("buddy@example.com");
+        chefDao.updateChef(chef);
+        assertEquals("buddy@example.com", chefDao.getChefById(3).getEmail());
+
+        int id = ingredientDao.createIngredient(new Ingredient("saffron"));
+        assertEquals(id, ingredientDao.getIngredientByName("Saffron").getId());
+
+        ingredientDao.deleteIngredient(ingredientDao.getIngredientById(6));
+        assertNull(ingredientDao.getIngredientById(6));
+        assertNull(ingredientDao.getIngredientByName("stone"));
+    }
+
+    @Test
+    void uncommittedWritesAreSeenOnlyByTheirOwnRequest() {
+        UnitOfWork unitOfWork = UnitOfWork.begin(ConnectionUtil.getPool());
+        ingredientDao.updateIngredient(new Ingredient(1, "parsnip"));
+        assertEquals("parsnip", ingredientDao.getIngredientById(1).getName());
+        assertEquals(1, ingredientDao.getIngredientByName("parsnip").getId());
+        unitOfWork.end(false);
+
+        assertEquals("carrot", ingredientDao.getIngredientById(1).getName());
+        assertNull(ingredientDao.getIngredientByName("parsnip"));
+    }
+}
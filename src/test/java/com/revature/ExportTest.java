@@ -0,0 +1,110 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.model.Recipe;
+import com.revature.service.RecipeService;
+import com.revature.utils.TestApp;
+
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+import okhttp3.Response;
+
+class ExportTest {
+
+    private Javalin app;
+
+    @BeforeEach
+    void setUp() {
+        app = new TestApp().app();
+    }
+
+    @Test
+    void recipesAreExportedAsNdjson() {
+        JavalinTest.test(app, (server, client) -> {
+            Response response = client.get("/export/recipes");
+            assertEquals(200, response.code());
+            assertEquals("application/x-ndjson", response.header("Content-Type").split(";")[0]);
+            String[] lines = response.body().string().split("\n");
+            assertEquals(5, lines.length);
+            JsonNode stoneSoup = new ObjectMapper().readTree(lines[4]);
+            assertEquals(5, stoneSoup.get("id").asInt());
+            assertEquals("stone soup", stoneSoup.get("name").asText());
+            assertEquals("Put stone in water.  Boil.  Maybe salt.", stoneSoup.get("instructions").asText());
+            assertEquals(4, stoneSoup.get("chef_id").asInt());
+        });
+    }
+
+    @Test
+    void recipeIngredientsAreExportedAsGzippedCsv() {
+        JavalinTest.test(app, (server, client) -> {
+            Response response = client.get("/export/recipe-ingredients?format=csv",
+                    request -> request.header("Accept-Encoding", "gzip"));
+            assertEquals("gzip", response.header("Content-Encoding"));
+            String csv;
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body().bytes()))) {
+                csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            assertEquals("recipe_id,ingredient_id,name,vol,unit\n"
+                    + "1,1,carrot,1.0,cups\n"
+                    + "2,2,potato,2.0,cups\n"
+                    + "3,3,tomato,2.0,cups\n"
+                    + "4,4,lemon,1.0,Tbs\n"
+                    + "4,5,rice,2.0,cups\n", csv);
+        });
+    }
+
+    @Test
+    void ingredientsAreOnlyGzippedWhenAccepted() {
+        JavalinTest.test(app, (server, client) -> {
+            Response response = client.get("/export/ingredients?format=csv",
+                    request -> request.header("Accept-Encoding", "gzip;q=0, identity"));
+            assertNull(response.header("Content-Encoding"));
+            assertEquals("id,name\n1,carrot\n2,potato\n3,tomato\n4,lemon\n5,rice\n6,stone\n",
+                    response.body().string());
+            assertEquals(400, client.get("/export/ingredients?format=xml").code());
+        });
+    }
+
+    @Test
+    void anExportThatFailsPartwayIsCutOff() {
+        TestApp failing = new TestApp();
+        failing.recipeService = new RecipeService(failing.recipeDao) {
+            @Override
+            public void forEachRecipe(String term, Consumer<Recipe> action) {
+                // Enough rows, and random enough to resist compression, that the response is under way
+                for (int i = 1; i <= 5_000; i++) {
+                    action.accept(new Recipe(i, "recipe " + i, UUID.randomUUID().toString(), null));
+                }
+                throw new RuntimeException("The database went away");
+            }
+        };
+
+        JavalinTest.test(failing.app(), (server, client) -> {
+            Response response = client.get("/export/recipes",
+                    request -> request.header("Accept-Encoding", "identity"));
+            assertEquals(200, response.code());
+            assertThrows(IOException.class, () -> response.body().string(),
+                    "A truncated export must not end like a complete one");
+
+            Response gzipped = client.get("/export/recipes?format=csv",
+                    request -> request.header("Accept-Encoding", "gzip"));
+            assertEquals(200, gzipped.code());
+            assertThrows(IOException.class, () -> gzipped.body().bytes());
+        });
+    }
+}
@@ -1,5 +1,8 @@
 package com.revature;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -17,6 +20,9 @@ import com.revature.util.PageOptions;
 import static com.revature.utils.TestingUtils.assertCountDifference;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class IngredientDaoTest {
         private List<Ingredient> ingredientList = new ArrayList<>();
@@ -109,6 +115,45 @@ public class IngredientDaoTest {
                                 "The returned ingredients don't match the expected ingredients.");
         }
 
+        @Test
+        void pageShortAndPastLastPageTest() {
+                PageOptions lastPage = new PageOptions(2, 4, "ID", "ASC");
+                Page<Ingredient> expectedLastPage = new Page<>(2, 4, 2, 6, ingredientList.subList(4, 6));
+                assertEquals(expectedLastPage, ingredientDao.getAllIngredients(lastPage),
+                                "The short last page should hold the remaining ingredients.");
+
+                PageOptions pastLastPage = new PageOptions(5, 2, "ID", "ASC");
+                Page<Ingredient> expectedEmptyPage = new Page<>(5, 2, 3, 6, new ArrayList<>());
+                assertEquals(expectedEmptyPage, ingredientDao.getAllIngredients(pastLastPage),
+                                "A page past the end should be empty but still report the totals.");
+        }
+
+        @Test
+        void pageIngredientsByCursorTest() {
+                Page<Ingredient> firstPage = ingredientDao.getAllIngredients(new PageOptions(4, "name", "asc", ""));
+                assertIterableEquals(Arrays.asList(ingredientList.get(0), ingredientList.get(3), ingredientList.get(1),
+                                ingredientList.get(4)), firstPage.getItems(),
+                                "The first page should hold the first four ingredients by name.");
+                assertEquals(1, firstPage.getPageNumber());
+                assertNotNull(firstPage.getNextCursor(), "A cursor should be returned while more pages remain.");
+
+                Page<Ingredient> secondPage = ingredientDao
+                                .getAllIngredients(new PageOptions(4, "name", "asc", firstPage.getNextCursor()));
+                assertIterableEquals(Arrays.asList(ingredientList.get(5), ingredientList.get(2)),
+                                secondPage.getItems(), "The second page should continue after the cursor.");
+                assertEquals(2, secondPage.getPageNumber());
+                assertEquals(6, secondPage.getTotalElements());
+                assertNull(secondPage.getNextCursor(), "No cursor should be returned for the last page.");
+
+                Page<Ingredient> filteredPage = ingredientDao.searchIngredients("to",
+                                new PageOptions(2, "id", "desc", ""));
+                assertIterableEquals(Arrays.asList(ingredientList.get(5), ingredientList.get(2)),
+                                filteredPage.getItems(), "Cursor paging should apply the search term.");
+                assertThrows(IllegalArgumentException.class, () -> ingredientDao.searchIngredients("to",
+                                new PageOptions(2, "name", "desc", filteredPage.getNextCursor())),
+                                "A cursor should be rejected when the sort changes.");
+        }
+
         @Test
         void searchIngredientsTest() {
                 List<Ingredient> ingredients = ingredientDao.searchIngredients("to");
@@ -137,4 +182,35 @@ public class IngredientDaoTest {
                                 "The returned ingredients don't match the expected ingredients.");
         }
 
+        @Test
+        void pageTotalsAreCountedOnceUntilAWriteTest() {
+                List<String> counts = new ArrayList<>();
+                IngredientDAO countingDao = new IngredientDAO(new ConnectionUtil() {
+                        @Override
+                        public Connection getConnection() {
+                                Connection connection = super.getConnection();
+                                return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                                                        if (method.getName().equals("prepareStatement")
+                                                                        && ((String) args[0]).startsWith("SELECT COUNT(*)")) {
+                                                                counts.add((String) args[0]);
+                                                        }
+                                                        try {
+                                                                return method.invoke(connection, args);
+                                                        } catch (InvocationTargetException e) {
+                                                                throw e.getCause();
+                                                        }
+                                                });
+                        }
+                });
+
+                assertEquals(6, countingDao.getAllIngredients(new PageOptions(1, 2, "ID", "ASC")).getTotalElements());
+                assertEquals(6, countingDao.getAllIngredients(new PageOptions(2, 2, "name", "DESC")).getTotalElements());
+                assertEquals(1, counts.size(), "The total should be counted once for every page of the list.");
+
+                countingDao.createIngredient(new Ingredient("testIngredient"));
+                assertEquals(7, countingDao.getAllIngredients(new PageOptions(2, 2, "ID", "ASC")).getTotalElements());
+                assertEquals(2, counts.size(), "The total should be counted again after a write.");
+        }
+
 }
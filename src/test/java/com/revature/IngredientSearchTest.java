@@ -0,0 +1,141 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Ingredient;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.util.CompressedBitmap;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
+
+class IngredientSearchTest {
+
+    private ChefDAO chefDao;
+    private IngredientDAO ingredientDao;
+    private RecipeDAO recipeDao;
+
+    @BeforeEach
+    void setUpTestsData() {
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        chefDao = new ChefDAO(connectionUtil);
+        ingredientDao = new IngredientDAO(connectionUtil);
+        recipeDao = new RecipeDAO(chefDao, ingredientDao, connectionUtil);
+    }
+
+    @Test
+    void bitmapsCombineSparseAndDenseChunks() {
+        CompressedBitmap evens = new CompressedBitmap();
+        CompressedBitmap threes = new CompressedBitmap();
+        for (int i = 0; i < 200_000; i += 2) {
+            evens.add(i);
+        }
+        for (int i = 0; i < 200_000; i += 3) {
+            threes.add(i);
+        }
+        threes.add(1_000_000);
+
+        CompressedBitmap sixes = evens.and(threes);
+        assertEquals(33_334, sixes.cardinality());
+        assertTrue(sixes.contains(199_998));
+        assertFalse(sixes.contains(4));
+        assertEquals(100_000 + 66_667 + 1 - 33_334, evens.or(threes).cardinality());
+        assertArrayEquals(new int[] { 65_532, 65_538, 65_544 }, sixes.toArray(10_922, 3));
+
+        for (int i = 0; i < 65_536; i += 2) {
+            evens.remove(i);
+        }
+        assertEquals(100_000 - 32_768, evens.cardinality());
+        assertArrayEquals(new int[] { 65_536, 65_538 }, evens.toArray(0, 2));
+        assertEquals(CompressedBitmap.of(3, 1, 2), CompressedBitmap.of(1, 2, 3, 3));
+    }
+
+    @Test
+    void searchesMatchAllOrAnyIngredient() {
+        assertEquals(List.of(4), ids(recipeDao.searchRecipesByIngredients(List.of("rice", "LEMON "), true)));
+        assertEquals(List.of(1, 4), ids(recipeDao.searchRecipesByIngredients(List.of("rice", "carrot"), false)));
+        assertTrue(recipeDao.searchRecipesByIngredients(List.of("rice", "carrot"), true).isEmpty());
+        assertTrue(recipeDao.searchRecipesByIngredients(List.of("rice", "saffron"), true).isEmpty(),
+                "An unknown ingredient matches nothing when all are required");
+        assertEquals(List.of(4), ids(recipeDao.searchRecipesByIngredients(List.of("rice", "saffron"), false)));
+        assertTrue(recipeDao.searchRecipesByIngredients(List.of("stone"), false).isEmpty(),
+                "The seeded stone soup has no ingredient rows");
+        assertEquals("ChefTrevin",
+                recipeDao.searchRecipesByIngredients(List.of("rice"), true).get(0).getAuthor().getUsername());
+    }
+
+    @Test
+    void pagesAreCutFromTheMatches() {
+        Ingredient water = new Ingredient("water");
+        water.setId(ingredientDao.createIngredient(water));
+        for (int i = 0; i < 25; i++) {
+            Recipe recipe = new Recipe(0, "broth " + i, "Simmer.", chefDao.getChefById(1));
+            recipe.setIngredients(List.of(new RecipeIngredient(water, 1, "cups")));
+            recipeDao.createRecipe(recipe);
+        }
+
+        Page<Recipe> second = recipeDao.searchRecipesByIngredients(List.of("Water"), true, new PageOptions(2, 10));
+        assertEquals(25, second.getTotalElements());
+        assertEquals(3, second.getTotalPages());
+        assertEquals(List.of(16, 17, 18, 19, 20, 21, 22, 23, 24, 25), ids(second.getItems()));
+
+        Page<Recipe> last = recipeDao.searchRecipesByIngredients(List.of("water"), true,
+                new PageOptions(3, 10, "id", "desc"));
+        assertEquals(List.of(10, 9, 8, 7, 6), ids(last.getItems()));
+
+        Page<Recipe> byName = recipeDao.searchRecipesByIngredients(List.of("water", "rice"), false,
+                new PageOptions(1, 3, "name", "asc"));
+        assertEquals(26, byName.getTotalElements());
+        assertEquals(List.of("broth 0", "broth 1", "broth 10"),
+                byName.getItems().stream().map(Recipe::getName).collect(Collectors.toList()));
+
+        Page<Recipe> firstByCursor = recipeDao.searchRecipesByIngredients(List.of("water"), true,
+                new PageOptions(10, "name", "asc", ""));
+        assertEquals(25, firstByCursor.getTotalElements());
+        Page<Recipe> secondByCursor = recipeDao.searchRecipesByIngredients(List.of("water"), true,
+                new PageOptions(10, "name", "asc", firstByCursor.getNextCursor()));
+        assertEquals("broth 18", secondByCursor.getItems().get(0).getName());
+        assertEquals(10, secondByCursor.getItems().size());
+    }
+
+    @Test
+    void indexFollowsWrites() {
+        recipeDao.buildIngredientIndex();
+        Recipe carrotSoup = recipeDao.getRecipeById(1);
+        Ingredient rice = ingredientDao.getIngredientById(5);
+        carrotSoup.setIngredients(List.of(new RecipeIngredient(rice, 1, "cups")));
+        recipeDao.updateRecipe(carrotSoup);
+        assertEquals(List.of(1, 4), ids(recipeDao.searchRecipesByIngredients(List.of("rice"), true)));
+        assertTrue(recipeDao.searchRecipesByIngredients(List.of("carrot"), true).isEmpty());
+
+        rice.setName("basmati");
+        ingredientDao.updateIngredient(rice);
+        assertTrue(recipeDao.searchRecipesByIngredients(List.of("rice"), true).isEmpty());
+        assertEquals(List.of(1, 4), ids(recipeDao.searchRecipesByIngredients(List.of("basmati"), true)));
+
+        recipeDao.deleteRecipe(carrotSoup);
+        assertEquals(List.of(4), ids(recipeDao.searchRecipesByIngredients(List.of("basmati"), true)));
+        ingredientDao.deleteIngredient(rice);
+        assertEquals(List.of(4), ids(recipeDao.searchRecipesByIngredients(List.of("lemon", "basmati"), false)));
+        assertTrue(recipeDao.searchRecipesByIngredients(List.of("lemon", "basmati"), true).isEmpty());
+    }
+
+    private static List<Integer> ids(List<Recipe> recipes) {
+        return recipes.stream().map(Recipe::getId).collect(Collectors.toList());
+    }
+}
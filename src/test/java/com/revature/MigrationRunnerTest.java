@@ -0,0 +1,80 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.IngredientDAO;
+import com.revature.model.Ingredient;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.MigrationRunner;
+
+class MigrationRunnerTest {
+
+    private ConnectionUtil connectionUtil;
+    private MigrationRunner migrationRunner;
+
+    @BeforeEach
+    void setUpTestsData() {
+        DBUtil.RUN_SQL();
+        connectionUtil = new ConnectionUtil();
+        migrationRunner = new MigrationRunner(connectionUtil);
+    }
+
+    @Test
+    void freshDatabaseRecordsEveryMigration() throws SQLException {
+        assertEquals(4, queryInt("SELECT COUNT(*) FROM SCHEMA_HISTORY"));
+        assertEquals(4, queryInt("SELECT MAX(version) FROM SCHEMA_HISTORY"));
+        assertEquals(5, queryInt("SELECT COUNT(*) FROM RECIPE"), "The seed data should be loaded");
+    }
+
+    @Test
+    void warmRestartAppliesNothingAndKeepsData() {
+        IngredientDAO ingredientDao = new IngredientDAO(connectionUtil);
+        int id = ingredientDao.createIngredient(new Ingredient("saffron"));
+
+        assertEquals(0, migrationRunner.migrate(), "Nothing should be pending after a full migration");
+        assertNotNull(ingredientDao.getIngredientById(id), "Existing data should survive a restart");
+    }
+
+    @Test
+    void modifiedMigrationIsRejected() throws SQLException {
+        execute("UPDATE SCHEMA_HISTORY SET checksum = 'tampered' WHERE version = 1");
+
+        assertThrows(IllegalStateException.class, migrationRunner::migrate);
+    }
+
+    @Test
+    void databaseFromBeforeMigrationsIsBaselined() throws SQLException {
+        execute("DROP TABLE SCHEMA_HISTORY");
+
+        assertEquals(2, migrationRunner.migrate(), "Only the migrations after the baseline should run");
+        assertEquals(4, queryInt("SELECT COUNT(*) FROM SCHEMA_HISTORY"));
+        assertEquals(4, queryInt("SELECT COUNT(*) FROM CHEF"), "The existing data should be left alone");
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = connectionUtil.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private int queryInt(String sql) throws SQLException {
+        try (Connection connection = connectionUtil.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
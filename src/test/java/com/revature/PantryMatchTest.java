@@ -0,0 +1,129 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Pantry;
+import com.revature.model.PantryMatch;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.PantryMatrix;
+
+class PantryMatchTest {
+
+    private ChefDAO chefDao;
+    private IngredientDAO ingredientDao;
+    private RecipeDAO recipeDao;
+
+    @BeforeEach
+    void setUpTestsData() {
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        chefDao = new ChefDAO(connectionUtil);
+        ingredientDao = new IngredientDAO(connectionUtil);
+        recipeDao = new RecipeDAO(chefDao, ingredientDao, connectionUtil);
+    }
+
+    @Test
+    void matrixRanksByCoverageOrByMissing() {
+        Map<Integer, int[]> recipes = new HashMap<>();
+        recipes.put(1, new int[] { 10, 11, 12, 13, 14, 15 });
+        recipes.put(2, new int[] { 10, 20, 21 });
+        recipes.put(3, new int[] { 10 });
+        recipes.put(4, new int[] { 30, 31 });
+        PantryMatrix matrix = new PantryMatrix(recipes);
+        int[] pantry = { 10, 11, 12, 99 };
+
+        assertEquals(List.of(3, 1, 2), recipeIds(matrix.bestMatches(pantry, 10, -1, false)));
+        assertEquals(List.of(3, 2, 1), recipeIds(matrix.bestMatches(pantry, 10, -1, true)));
+        assertEquals(List.of(3, 2), recipeIds(matrix.bestMatches(pantry, 10, 2, false)));
+        assertEquals(List.of(3), recipeIds(matrix.bestMatches(pantry, 1, -1, false)));
+        assertArrayEquals(new int[] { 13, 14, 15 }, matrix.bestMatches(pantry, 10, -1, false)[1].getMissing());
+        assertEquals(0, matrix.bestMatches(new int[] { 99 }, 10, -1, false).length);
+    }
+
+    @Test
+    void parallelScoringKeepsTheBestOfEveryBlock() {
+        Random random = new Random(7);
+        Map<Integer, int[]> recipes = new HashMap<>();
+        for (int id = 1; id <= 100_000; id++) {
+            recipes.put(id, random.ints(2 + random.nextInt(8), 1, 500).distinct().sorted().toArray());
+        }
+        PantryMatrix matrix = new PantryMatrix(recipes);
+        int[] pantry = random.ints(50, 1, 500).toArray();
+        List<Integer> stock = Arrays.stream(pantry).boxed().collect(Collectors.toList());
+
+        // Rank every recipe by brute force: coverage, then fewest missing, then id
+        List<Integer> expected = recipes.entrySet().stream()
+                .filter(entry -> Arrays.stream(entry.getValue()).anyMatch(stock::contains))
+                .sorted((a, b) -> {
+                    long matchedA = Arrays.stream(a.getValue()).filter(stock::contains).count();
+                    long matchedB = Arrays.stream(b.getValue()).filter(stock::contains).count();
+                    int coverage = Long.compare(matchedB * a.getValue().length, matchedA * b.getValue().length);
+                    int missing = Long.compare(a.getValue().length - matchedA, b.getValue().length - matchedB);
+                    return coverage != 0 ? coverage : missing != 0 ? missing : a.getKey().compareTo(b.getKey());
+                })
+                .limit(25).map(Map.Entry::getKey).collect(Collectors.toList());
+
+        assertTrue(recipes.size() > 4 * 16_384, "The recipes span several blocks");
+        assertEquals(expected, recipeIds(matrix.bestMatches(pantry, 25, -1, false)));
+    }
+
+    @Test
+    void pantryMatchesSeededRecipes() {
+        List<PantryMatch> matches = recipeDao.matchPantry(new Pantry(List.of(), List.of("rice", "Potato")), 10, -1,
+                false);
+        assertEquals(List.of("potato soup", "lemon rice soup"),
+                matches.stream().map(match -> match.getRecipe().getName()).collect(Collectors.toList()));
+        assertEquals(1.0, matches.get(0).getCoverage());
+        assertEquals(0.5, matches.get(1).getCoverage());
+        assertEquals(List.of(4), matches.get(1).getMissingIngredientIds());
+
+        matches = recipeDao.matchPantry(new Pantry(List.of(4), List.of("CARROT")), 10, 0, false);
+        assertEquals(List.of(1), matches.stream().map(match -> match.getRecipe().getId()).collect(Collectors.toList()));
+        assertEquals("JoeCool", matches.get(0).getRecipe().getAuthor().getUsername());
+        assertTrue(recipeDao.matchPantry(new Pantry(List.of(), List.of("saffron")), 10, -1, false).isEmpty());
+    }
+
+    @Test
+    void matchesFollowWrites() {
+        Pantry pantry = new Pantry(List.of(2, 3), List.of());
+        assertEquals(List.of(2, 3), recipeIds(recipeDao.matchPantry(pantry, 10, -1, false)));
+
+        Recipe gratin = new Recipe(0, "potato gratin", "Bake.", chefDao.getChefById(2));
+        gratin.setIngredients(List.of(new RecipeIngredient(ingredientDao.getIngredientById(2), 4, "cups"),
+                new RecipeIngredient(ingredientDao.getIngredientById(3), 1, "cups")));
+        int id = recipeDao.createRecipe(gratin);
+        assertEquals(List.of(2, 3, id), recipeIds(recipeDao.matchPantry(pantry, 10, -1, false)));
+
+        recipeDao.deleteRecipe(recipeDao.getRecipeById(2));
+        ingredientDao.deleteIngredient(ingredientDao.getIngredientById(3));
+        List<PantryMatch> matches = recipeDao.matchPantry(pantry, 10, -1, false);
+        assertEquals(List.of(id), recipeIds(matches));
+        assertEquals(1.0, matches.get(0).getCoverage(), "The deleted ingredient no longer counts as missing");
+    }
+
+    private static List<Integer> recipeIds(PantryMatrix.Match[] matches) {
+        return Arrays.stream(matches).map(PantryMatrix.Match::getRecipeId).collect(Collectors.toList());
+    }
+
+    private static List<Integer> recipeIds(List<PantryMatch> matches) {
+        return matches.stream().map(match -> match.getRecipe().getId()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,357 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.dao.SuggestionDAO;
+import com.revature.model.Chef;
+import com.revature.model.Ingredient;
+import com.revature.model.Pantry;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.PageOptions;
+import com.revature.util.Projection;
+
+/**
+ * Runs every DAO operation against a large generated dataset, records the SQL each one issues, and checks the H2
+ * EXPLAIN plan of every statement. A statement fails the test if it scans a table other than the ones its operation
+ * has to read in full (listings, and LIKE searches on the searched table).
+ */
+class QueryPlanTest {
+
+    private static final int RECIPES = 10_000;
+    private static final int INGREDIENTS = 1_000;
+    private static final int RECIPE_INGREDIENTS = 50_000;
+
+    /** Matches the table scans in an H2 plan, e.g. PUBLIC.RECIPE.tableScan. */
+    private static final Pattern TABLE_SCAN = Pattern.compile("PUBLIC\\.(\\w+)\\.tableScan");
+
+    /** Matches the statements that have a plan; session settings such as SET LAZY_QUERY_EXECUTION do not. */
+    private static final Pattern EXPLAINABLE = Pattern.compile("\\s*(SELECT|INSERT|UPDATE|DELETE|MERGE|WITH)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private static RecordingConnectionUtil connectionUtil;
+    private static ChefDAO chefDao;
+    private static IngredientDAO ingredientDao;
+    private static RecipeDAO recipeDao;
+    private static SuggestionDAO suggestionDao;
+
+    @BeforeAll
+    static void generateLargeDataset() throws SQLException {
+        DBUtil.RUN_SQL();
+        try (Connection connection = new ConnectionUtil().getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO CHEF (username, email, password, is_admin) SELECT 'chef' || X, "
+                    + "'chef' || X || '@example.com', 'pass', FALSE FROM SYSTEM_RANGE(1, 200)");
+            statement.execute("INSERT INTO RECIPE (name, instructions, chef_id) SELECT 'bulk recipe ' || X, "
+                    + "'Boil ' || X, MOD(X, 204) + 1 FROM SYSTEM_RANGE(1, " + RECIPES + ")");
+            statement.execute("INSERT INTO INGREDIENT (name) SELECT 'bulk' || X FROM SYSTEM_RANGE(1, "
+                    + INGREDIENTS + ")");
+            statement.execute("INSERT INTO RECIPE_INGREDIENT (recipe_id, ingredient_id, vol, unit) SELECT "
+                    + "MOD(X, " + (RECIPES + 5) + ") + 1, MOD(X * 7, " + (INGREDIENTS + 6) + ") + 1, 1, 'cups' "
+                    + "FROM SYSTEM_RANGE(1, " + RECIPE_INGREDIENTS + ")");
+            statement.execute("ANALYZE");
+        }
+        connectionUtil = new RecordingConnectionUtil();
+        chefDao = new ChefDAO(connectionUtil);
+        ingredientDao = new IngredientDAO(connectionUtil);
+        recipeDao = new RecipeDAO(chefDao, ingredientDao, connectionUtil);
+        suggestionDao = new SuggestionDAO(connectionUtil);
+    }
+
+    @AfterAll
+    static void restoreSeedData() {
+        DBUtil.RUN_SQL();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> hotQueriesUseIndexes() {
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("getAllRecipes", new Scenario(() -> recipeDao.getAllRecipes(), "RECIPE"));
+        scenarios.put("getAllRecipes paged", new Scenario(() -> recipeDao.getAllRecipes(new PageOptions(3, 20)),
+                "RECIPE"));
+        scenarios.put("getAllRecipes by cursor", new Scenario(() -> {
+            PageOptions first = new PageOptions(20, "id", "asc", "");
+            String cursor = recipeDao.getAllRecipes(first).getNextCursor();
+            recipeDao.getAllRecipes(new PageOptions(20, "id", "asc", cursor));
+        }, "RECIPE"));
+        scenarios.put("searchRecipesByTerm", new Scenario(() -> recipeDao.searchRecipesByTerm("soup"), "RECIPE"));
+        scenarios.put("searchRecipesByIngredient",
+                new Scenario(() -> recipeDao.searchRecipesByIngredient("rice"), "INGREDIENT"));
+        scenarios.put("getRecipeById", new Scenario(() -> recipeDao.getRecipeById(4)));
+        scenarios.put("loadIngredients", new Scenario(() -> {
+            List<Recipe> recipes = new ArrayList<>();
+            for (int id = 1; id <= 50; id++) {
+                recipes.add(new Recipe(id, "r" + id, "i", null));
+            }
+            recipeDao.loadIngredients(recipes);
+        }));
+        scenarios.put("create, update and delete recipe", new Scenario(() -> {
+            Recipe recipe = new Recipe(0, "plan recipe", "stir", new Chef(1, "JoeCool", "", "", false));
+            List<RecipeIngredient> ingredients = List.of(new RecipeIngredient(new Ingredient(1, "carrot"), 1, "cups"));
+            recipe.setIngredients(ingredients);
+            recipe.setId(recipeDao.createRecipe(recipe));
+            recipeDao.updateRecipe(recipe);
+            recipeDao.deleteRecipe(recipe);
+        }));
+        scenarios.put("getAllRecipes by name cursor", new Scenario(() -> {
+            String cursor = recipeDao.getAllRecipes(new PageOptions(20, "name", "desc", "")).getNextCursor();
+            recipeDao.getAllRecipes(new PageOptions(20, "name", "desc", cursor));
+        }, "RECIPE"));
+        scenarios.put("getAllRecipes projected", new Scenario(() -> {
+            Projection fields = Projection.parse("id,name", Projection.RECIPE_FIELDS);
+            recipeDao.getAllRecipes(fields);
+            recipeDao.getAllRecipes(new PageOptions(2, 20), fields);
+        }, "RECIPE"));
+        scenarios.put("searchRecipesByTerm paged and projected", new Scenario(() -> {
+            recipeDao.searchRecipesByTerm("recipe 12", new PageOptions(1, 10, "name", "asc"));
+            recipeDao.searchRecipesByTerm("recipe 12", new PageOptions(2, 10),
+                    Projection.parse("id,name,author", Projection.RECIPE_FIELDS));
+        }, "RECIPE"));
+        scenarios.put("getRecipesByIds", new Scenario(() -> {
+            List<Integer> ids = new ArrayList<>();
+            for (int id = 1; id <= 1_500; id += 3) {
+                ids.add(id);
+            }
+            recipeDao.getRecipesByIds(ids);
+        }));
+        scenarios.put("buildIngredientIndex", new Scenario(() -> recipeDao.buildIngredientIndex(),
+                "RECIPE_INGREDIENT", "INGREDIENT"));
+        scenarios.put("searchRecipesByIngredients", new Scenario(() -> {
+            recipeDao.searchRecipesByIngredients(List.of("bulk7", "bulk14"), false);
+            recipeDao.searchRecipesByIngredients(List.of("bulk7", "bulk14"), false, new PageOptions(2, 20, "name", "asc"));
+            String cursor = recipeDao.searchRecipesByIngredients(List.of("bulk7"), true,
+                    new PageOptions(20, "name", "asc", "")).getNextCursor();
+            recipeDao.searchRecipesByIngredients(List.of("bulk7"), true, new PageOptions(20, "name", "asc", cursor));
+        }));
+        scenarios.put("matchPantry", new Scenario(
+                () -> recipeDao.matchPantry(new Pantry(List.of(7, 14, 21, 28), null), 10, -1, false)));
+        scenarios.put("searchRecipesByText", new Scenario(() -> recipeDao.searchRecipesByText("boil 12", 10),
+                "RECIPE"));
+        scenarios.put("create, update and delete recipes in bulk", new Scenario(() -> {
+            Chef chef = new Chef("bulkplanchef", "bulkplan@example.com", "pass", false);
+            chef.setId(chefDao.createChef(chef));
+            List<Recipe> recipes = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                Recipe recipe = new Recipe(0, "bulk plan recipe " + i, "stir", chef);
+                recipe.setIngredients(List.of(new RecipeIngredient(new Ingredient(1, "carrot"), 1, "cups")));
+                recipes.add(recipe);
+            }
+            recipeDao.createRecipes(recipes);
+            recipeDao.updateInstructions(List.of(recipes.get(0).getId(), recipes.get(1).getId()), 0, "simmer");
+            recipeDao.updateInstructions(null, chef.getId(), "serve");
+            recipeDao.deleteRecipes(List.of(recipes.get(0).getId(), recipes.get(1).getId()));
+            recipeDao.deleteRecipesByChef(chef.getId());
+            chefDao.deleteChef(chef);
+        }));
+        scenarios.put("export recipes", new Scenario(() -> {
+            recipeDao.forEachRecipe(null, recipe -> { });
+            recipeDao.forEachRecipe("recipe 12", Projection.parse("id,name", Projection.RECIPE_FIELDS), recipe -> { });
+        }, "RECIPE"));
+        scenarios.put("export recipe ingredients", new Scenario(
+                () -> recipeDao.forEachRecipeIngredient((recipeId, ingredient) -> { }),
+                "RECIPE_INGREDIENT", "INGREDIENT"));
+        scenarios.put("recipe suggestions", new Scenario(() -> suggestionDao.getRecipeSuggestions(), "RECIPE"));
+
+        scenarios.put("getAllChefs", new Scenario(() -> chefDao.getAllChefs(), "CHEF"));
+        scenarios.put("getChefById", new Scenario(() -> chefDao.getChefById(3)));
+        scenarios.put("searchChefsByTerm", new Scenario(() -> chefDao.searchChefsByTerm("Joe"), "CHEF"));
+        scenarios.put("chef pages", new Scenario(() -> {
+            chefDao.getAllChefs(new PageOptions(3, 20, "username", "asc"));
+            String cursor = chefDao.searchChefsByTerm("chef", new PageOptions(20, "username", "asc", ""))
+                    .getNextCursor();
+            chefDao.searchChefsByTerm("chef", new PageOptions(20, "username", "asc", cursor));
+        }, "CHEF"));
+        scenarios.put("create, update and delete chef", new Scenario(() -> {
+            Chef chef = new Chef("planchef", "plan@example.com", "pass", false);
+            chef.setId(chefDao.createChef(chef));
+            chefDao.updateChef(chef);
+            chefDao.deleteChef(chef);
+        }));
+
+        scenarios.put("getAllIngredients", new Scenario(() -> ingredientDao.getAllIngredients(), "INGREDIENT"));
+        scenarios.put("getIngredientById", new Scenario(() -> ingredientDao.getIngredientById(5)));
+        scenarios.put("searchIngredients", new Scenario(() -> ingredientDao.searchIngredients("ric"), "INGREDIENT"));
+        scenarios.put("create, update and delete ingredient", new Scenario(() -> {
+            Ingredient ingredient = new Ingredient("plan");
+            ingredient.setId(ingredientDao.createIngredient(ingredient));
+            ingredientDao.updateIngredient(ingredient);
+            ingredientDao.deleteIngredient(ingredient);
+        }));
+        scenarios.put("ingredient pages", new Scenario(() -> {
+            ingredientDao.getAllIngredients(new PageOptions(3, 20, "name", "asc"));
+            String cursor = ingredientDao.searchIngredients("bulk", new PageOptions(20, "name", "asc", ""))
+                    .getNextCursor();
+            ingredientDao.searchIngredients("bulk", new PageOptions(20, "name", "asc", cursor));
+        }, "INGREDIENT"));
+        scenarios.put("create ingredients in bulk", new Scenario(() -> {
+            ingredientDao.createIngredients(List.of(new Ingredient("plan1"), new Ingredient("plan2")));
+            Map<String, Integer> ids = ingredientDao.getIngredientIdsByName();
+            ingredientDao.deleteIngredient(new Ingredient(ids.get("plan1"), "plan1"));
+            ingredientDao.deleteIngredient(new Ingredient(ids.get("plan2"), "plan2"));
+        }, "INGREDIENT"));
+        scenarios.put("export ingredients", new Scenario(() -> ingredientDao.forEachIngredient(null, ingredient -> { }),
+                "INGREDIENT"));
+        scenarios.put("ingredient suggestions", new Scenario(() -> suggestionDao.getIngredientSuggestions(),
+                "INGREDIENT", "RECIPE_INGREDIENT"));
+
+        return scenarios.entrySet().stream().map(entry -> DynamicTest.dynamicTest(entry.getKey(), () -> {
+            Scenario scenario = entry.getValue();
+            connectionUtil.recorded.clear();
+            scenario.operation.run();
+            assertFalse(connectionUtil.recorded.isEmpty(), "The operation should run at least one statement");
+
+            for (RecordedStatement statement : connectionUtil.recorded) {
+                if (!EXPLAINABLE.matcher(statement.sql).lookingAt()) {
+                    continue;
+                }
+                String plan = explain(statement);
+                Set<String> scanned = new TreeSet<>();
+                Matcher matcher = TABLE_SCAN.matcher(plan);
+                while (matcher.find()) {
+                    scanned.add(matcher.group(1));
+                }
+                scanned.removeAll(scenario.allowedScans);
+                assertTrue(scanned.isEmpty(), () -> "Unexpected table scan of " + scanned + " in:\n" + plan);
+            }
+        }));
+    }
+
+    /**
+     * Returns the H2 plan of a recorded statement, with its parameters bound.
+     */
+    private static String explain(RecordedStatement recorded) throws SQLException {
+        try (Connection connection = new ConnectionUtil().getConnection();
+                PreparedStatement statement = connection.prepareStatement("EXPLAIN " + recorded.sql)) {
+            for (Map.Entry<Integer, Object> parameter : recorded.parameters.entrySet()) {
+                statement.setObject(parameter.getKey(), parameter.getValue());
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+                return plan.toString();
+            }
+        }
+    }
+
+    /**
+     * A DAO operation and the tables it is expected to read in full.
+     */
+    private static class Scenario {
+        private final Runnable operation;
+        private final Set<String> allowedScans;
+
+        Scenario(Runnable operation, String... allowedScans) {
+            this.operation = operation;
+            this.allowedScans = Set.of(allowedScans);
+        }
+    }
+
+    /**
+     * A statement issued by a DAO, with the parameters bound when it was executed.
+     */
+    private static class RecordedStatement {
+        private final String sql;
+        private final Map<Integer, Object> parameters;
+
+        RecordedStatement(String sql, Map<Integer, Object> parameters) {
+            this.sql = sql;
+            this.parameters = new TreeMap<>(parameters);
+        }
+    }
+
+    /**
+     * Hands out connections that record every statement executed on them, along with its parameters.
+     */
+    private static class RecordingConnectionUtil extends ConnectionUtil {
+        private final List<RecordedStatement> recorded = new ArrayList<>();
+
+        @Override
+        public Connection getConnection() {
+            return recording(super.getConnection());
+        }
+
+        @Override
+        public Connection getStreamingConnection() {
+            return recording(super.getStreamingConnection());
+        }
+
+        private Connection recording(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        Object result = invoke(method, connection, args);
+                        if (method.getName().equals("prepareStatement")) {
+                            return recording((PreparedStatement) result, (String) args[0]);
+                        } else if (method.getName().equals("createStatement")) {
+                            return recording((Statement) result);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement recording(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                            parameters.put((Integer) args[0], args[1]);
+                        } else if (name.startsWith("execute") || name.equals("addBatch")) {
+                            if (args == null || args.length == 0) {
+                                recorded.add(new RecordedStatement(sql, parameters));
+                            }
+                        }
+                        return invoke(method, statement, args);
+                    });
+        }
+
+        private Statement recording(Statement statement) {
+            return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                    new Class<?>[] { Statement.class }, (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute") && args != null && args[0] instanceof String) {
+                            recorded.add(new RecordedStatement((String) args[0], Map.of()));
+                        }
+                        return invoke(method, statement, args);
+                    });
+        }
+
+        private static Object invoke(java.lang.reflect.Method method, Object target, Object[] args)
+                throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
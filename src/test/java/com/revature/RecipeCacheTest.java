@@ -0,0 +1,129 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.service.RecipeService;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.TinyLfuCache;
+
+class RecipeCacheTest {
+
+    private ChefDAO chefDao;
+    private RecipeDAO recipeDao;
+    private RecipeService recipeService;
+
+    @BeforeEach
+    void setUpTestsData() {
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        chefDao = new ChefDAO(connectionUtil);
+        recipeDao = new RecipeDAO(chefDao, new IngredientDAO(connectionUtil), connectionUtil);
+        recipeService = new RecipeService(recipeDao, 100);
+    }
+
+    @Test
+    void repeatedLookupsAreHits() {
+        assertEquals("carrot soup", recipeService.findRecipe(1).get().getName());
+        assertEquals("carrot soup", recipeService.findRecipe(1).get().getName());
+        assertTrue(recipeService.findRecipe(99).isEmpty());
+
+        TinyLfuCache.Stats stats = recipeService.getCacheStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void callersCannotChangeTheCachedRecipe() {
+        Recipe first = recipeService.findRecipe(1).get();
+        first.setInstructions("scribbled over");
+        first.getAuthor().setUsername("scribbled over");
+        recipeService.loadIngredients(List.of(first));
+
+        Recipe second = recipeService.findRecipe(1).get();
+        assertNotSame(first, second);
+        assertEquals("JoeCool", second.getAuthor().getUsername());
+        assertNull(second.getIngredients(), "Ingredients loaded into a copy should not be cached");
+        assertEquals(recipeDao.getRecipeById(1).getInstructions(), second.getInstructions());
+    }
+
+    @Test
+    void writesInvalidateTheCachedRecipe() {
+        recipeService.findRecipe(2);
+        recipeService.saveRecipe(new Recipe(2, "potato soup", "Mash first.", null));
+        assertEquals("Mash first.", recipeService.findRecipe(2).get().getInstructions());
+
+        // Writes made straight through the DAO are caught by the row version
+        Recipe saved = recipeDao.getRecipeById(2);
+        saved.setInstructions("Peel first.");
+        recipeDao.updateRecipe(saved);
+        assertEquals("Peel first.", recipeService.findRecipe(2).get().getInstructions());
+
+        assertTrue(recipeService.deleteRecipe(2));
+        assertTrue(recipeService.findRecipe(2).isEmpty());
+    }
+
+    @Test
+    void renamingTheAuthorInvalidatesTheCachedRecipe() {
+        assertEquals("CharlieBrown", recipeService.findRecipe(3).get().getAuthor().getUsername());
+
+        Chef author = chefDao.getChefById(2);
+        author.setUsername("CharlesBrown");
+        chefDao.updateChef(author);
+
+        assertEquals("CharlesBrown", recipeService.findRecipe(3).get().getAuthor().getUsername());
+        assertEquals(1, recipeService.getCacheStats().getInvalidations());
+    }
+
+    @Test
+    void aScanDoesNotFlushPopularEntries() {
+        TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(100);
+        for (int round = 0; round < 5; round++) {
+            for (int key = 0; key < 50; key++) {
+                if (cache.get(key) == null) {
+                    cache.put(key, "popular");
+                }
+            }
+        }
+        for (int key = 1_000; key < 20_000; key++) {
+            if (cache.get(key) == null) {
+                cache.put(key, "scanned");
+            }
+        }
+
+        int kept = 0;
+        for (int key = 0; key < 50; key++) {
+            kept += cache.get(key) == null ? 0 : 1;
+        }
+        assertTrue(kept >= 45, "Only " + kept + " popular entries survived the scan");
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    void evictionsKeepTheCacheBounded() {
+        TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(10);
+        for (int key = 0; key < 30; key++) {
+            cache.put(key, "value");
+        }
+        assertEquals(10, cache.size());
+        assertEquals(20, cache.getStats().getEvictions());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(29));
+    }
+}
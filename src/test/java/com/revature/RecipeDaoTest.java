@@ -3,6 +3,7 @@ package com.revature;
 
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -10,6 +11,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Arrays;
 import java.util.List;
 
@@ -94,7 +96,8 @@ class RecipeDaoTest {
     @Test
     void getAllRecipes_Success() throws SQLException {
         // Arrange
-        String expectedSQL = "SELECT * FROM RECIPE ORDER BY id";
+        String expectedSQL = "SELECT r.id, r.name, r.instructions, r.chef_id, "
+                + "c.username AS chef_username, c.email AS chef_email, c.is_admin AS chef_is_admin FROM RECIPE r LEFT JOIN CHEF c ON c.id = r.chef_id ORDER BY r.id";
         when(connectionUtil.getConnection()).thenReturn(connection); // Mock the connection
         when(connection.createStatement()).thenReturn(preparedStatement); // Mock the statement
         when(preparedStatement.executeQuery(expectedSQL)).thenReturn(resultSet); // Mock the query execution
@@ -110,15 +113,20 @@ class RecipeDaoTest {
                 .thenReturn("Put carrot in water. Boil. Maybe salt.",
                         "Put potato in water. Boil. Maybe salt.");
         when(resultSet.getInt("chef_id")).thenReturn(1, 2);
+        when(resultSet.getString("chef_username")).thenReturn("JoeCool", "CharlieBrown");
+        when(resultSet.getString("chef_email")).thenReturn("snoopy@null.com", "goodgrief@peanuts.com");
 
-        when(chefDao.getChefById(1)).thenReturn(chefList.get(0));
-        when(chefDao.getChefById(2)).thenReturn(chefList.get(1));
+        when(resultSet.getBoolean("chef_is_admin")).thenReturn(false, false);
 
         // Act
         List<Recipe> actualRecipes = recipeDao.getAllRecipes();
 
         // Assert
         assertEquals(recipeList, actualRecipes);
+        assertEquals(chefList.get(0).getUsername(), actualRecipes.get(0).getAuthor().getUsername()); // Authors come from the joined columns
+        assertEquals(chefList.get(1).getEmail(), actualRecipes.get(1).getAuthor().getEmail());
+        assertNull(actualRecipes.get(0).getAuthor().getPassword(), "Passwords are not read with recipes");
+        verify(chefDao, never()).getChefById(anyInt()); // No extra query per recipe
         verify(connection).createStatement(); // Verify the statement creation
         verify(preparedStatement).executeQuery(expectedSQL); // Verify the query execution
         verify(resultSet, times(3)).next(); // Verify result set navigation
@@ -177,6 +185,14 @@ class RecipeDaoTest {
     void searchRecipesByTerm_Success() throws SQLException {
         // Arrange
         String searchTerm = "soup";
+        // The name index is built from its own query on the first search
+        Statement indexStatement = mock(Statement.class);
+        ResultSet indexResultSet = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(indexStatement);
+        when(indexStatement.executeQuery(anyString())).thenReturn(indexResultSet);
+        when(indexResultSet.next()).thenReturn(true, true, true, false);
+        when(indexResultSet.getInt(1)).thenReturn(1, 2, 3);
+        when(indexResultSet.getString(2)).thenReturn("carrot soup", "potato soup", "bread");
         when(preparedStatement.executeQuery()).thenReturn(resultSet);
         when(resultSet.next())
                 .thenReturn(true)
@@ -197,6 +213,9 @@ class RecipeDaoTest {
         // Assert
         assertEquals(recipeList, results);
         verify(preparedStatement).setString(1, "%" + searchTerm + "%");
+        verify(preparedStatement).setInt(2, 1);
+        verify(preparedStatement).setInt(3, 2);
+        verify(preparedStatement, never()).setInt(anyInt(), eq(3));
     }
 
     @Test
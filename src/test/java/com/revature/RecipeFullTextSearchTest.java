@@ -0,0 +1,123 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.FullTextIndex;
+import com.revature.util.UnitOfWork;
+
+class RecipeFullTextSearchTest {
+
+    private RecipeDAO recipeDao;
+
+    @BeforeEach
+    void setUpTestsData() {
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        recipeDao = new RecipeDAO(new ChefDAO(connectionUtil), new IngredientDAO(connectionUtil), connectionUtil);
+    }
+
+    @Test
+    void tokenizeFoldsCaseAndAccents() {
+        assertEquals(List.of("creme", "brulee", "2", "eggs"), FullTextIndex.tokenize("Cr\u00e8me BR\u00dbL\u00c9E: 2 eggs!"));
+    }
+
+    @Test
+    void nameMatchesRankAboveInstructionMatches() {
+        FullTextIndex index = new FullTextIndex(2.0f, 1.0f);
+        index.put(1, "lemon soup", "Boil water.");
+        index.put(2, "rice soup", "Add lemon at the end.");
+        index.put(3, "stone soup", "Boil a stone.");
+
+        assertEquals(List.of(1, 2), index.search("LEMON", 10));
+        assertEquals(List.of(1), index.search("lemon", 1));
+        assertTrue(index.search("pepper", 10).isEmpty());
+    }
+
+    @Test
+    void updatedAndRemovedDocumentsLeaveNoTrace() {
+        FullTextIndex index = new FullTextIndex(1.0f);
+        index.put(1, "carrot");
+        index.put(1, "potato");
+        index.put(2, "carrot cake");
+        index.remove(2);
+
+        assertTrue(index.search("carrot", 10).isEmpty());
+        assertEquals(List.of(1), index.search("potato", 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void searchCoversNamesAndInstructions() {
+        List<Recipe> recipes = recipeDao.searchRecipesByText("lemon", 10);
+        assertEquals(List.of("lemon rice soup"), names(recipes));
+
+        recipes = recipeDao.searchRecipesByText("boil stone", 10);
+        assertEquals("stone soup", recipes.get(0).getName(), "The recipe matching both words should rank first");
+        assertEquals(5, recipes.size(), "Every recipe says Boil");
+        assertEquals("ChefTrevin", recipes.get(0).getAuthor().getUsername());
+    }
+
+    @Test
+    void indexFollowsCreateUpdateAndDelete() {
+        recipeDao.searchRecipesByText("anything", 1); // build the index from the seed data
+
+        Recipe recipe = new Recipe(0, "pumpkin pie", "Bake it.", new Chef(1, "JoeCool", "", "", false));
+        recipe.setId(recipeDao.createRecipe(recipe));
+        assertEquals(List.of("pumpkin pie"), names(recipeDao.searchRecipesByText("pumpkin", 10)));
+
+        recipe.setInstructions("Chill overnight.");
+        recipeDao.updateRecipe(recipe);
+        assertTrue(recipeDao.searchRecipesByText("bake", 10).isEmpty());
+        assertEquals(List.of("pumpkin pie"), names(recipeDao.searchRecipesByText("overnight", 10)));
+
+        recipeDao.deleteRecipe(recipe);
+        assertTrue(recipeDao.searchRecipesByText("pumpkin", 10).isEmpty());
+    }
+
+    @Test
+    void rolledBackWritesAreNotIndexed() {
+        recipeDao.searchRecipesByText("anything", 1);
+
+        UnitOfWork unitOfWork = UnitOfWork.begin(ConnectionUtil.getPool());
+        recipeDao.createRecipe(new Recipe(0, "ghost soup", "Boo.", new Chef(1, "JoeCool", "", "", false)));
+        unitOfWork.end(false);
+
+        assertTrue(recipeDao.searchRecipesByText("ghost", 10).isEmpty());
+    }
+
+    @Test
+    void searchTimeDependsOnMatchesNotCatalogSize() {
+        for (int size : new int[] { 10_000, 100_000, 500_000 }) {
+            FullTextIndex index = new FullTextIndex(2.0f, 1.0f);
+            for (int id = 1; id <= size; id++) {
+                index.put(id, "recipe " + (id % 1000), "Put ingredient " + (id % 1000) + " in water. Boil.");
+            }
+            index.put(size + 1, "saffron risotto", "Stir slowly.");
+
+            long start = System.nanoTime();
+            List<Integer> found = index.search("saffron", 10);
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("documents=%d time=%.3fms%n", size, elapsed / 1_000_000.0);
+            assertEquals(List.of(size + 1), found);
+        }
+    }
+
+    private static List<String> names(List<Recipe> recipes) {
+        return recipes.stream().map(Recipe::getName).collect(Collectors.toList());
+    }
+}
@@ -17,6 +17,7 @@ import com.revature.controller.IngredientController;
 import com.revature.controller.RecipeController;
 import com.revature.model.Chef;
 import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
 import com.revature.dao.ChefDAO;
 import com.revature.dao.IngredientDAO;
 import com.revature.dao.RecipeDAO;
@@ -151,6 +152,23 @@ class RecipeIntegrationTest {
 
 	}
 
+	@Test
+	void testPostRecipeWithUnknownIngredient() throws IOException {
+		Recipe newRecipe = new Recipe(0, "stone soup", "stone, water, pot", chefList.get(3));
+		newRecipe.setIngredients(Arrays.asList(new RecipeIngredient(999, "stone", 1, "cups")));
+		RequestBody recipeBody = RequestBody.create(new JavalinJackson().toJsonString(newRecipe, Recipe.class),
+				MediaType.get("application/json; charset=utf-8"));
+		Request recipeRequest = new Request.Builder().url(BASE_URL + "/recipes")
+				.addHeader("Authorization", "Bearer " + token)
+				.post(recipeBody).build();
+		Response postResponse = client.newCall(recipeRequest).execute();
+		assertEquals(400, postResponse.code());
+		Request getRequest = new Request.Builder().url(BASE_URL + "/recipes/6")
+				.addHeader("Authorization", "Bearer " + token).get()
+				.build();
+		assertEquals(404, client.newCall(getRequest).execute().code(), "Nothing should be saved");
+	}
+
 	@Test
 	void testPutRecipe() throws IOException {
 		Recipe updatedRecipe = recipeList.get(0);
@@ -0,0 +1,79 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.service.RecipeService;
+import com.revature.utils.TestApp;
+
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+
+class RecipeMultiGetTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Javalin app;
+
+    @BeforeEach
+    void setUp() {
+        app = new TestApp().app();
+    }
+
+    @Test
+    void recipesComeBackInTheOrderAskedFor() {
+        JavalinTest.test(app, (server, client) -> {
+            JsonNode recipes = MAPPER.readTree(client.get("/recipes?ids=5,1,99,3,1").body().string());
+            assertEquals(3, recipes.size());
+            assertEquals("stone soup", recipes.get(0).get("name").asText());
+            assertEquals("carrot soup", recipes.get(1).get("name").asText());
+            assertEquals("tomato soup", recipes.get(2).get("name").asText());
+            assertEquals("ChefTrevin", recipes.get(0).get("author").get("username").asText());
+
+            JsonNode withIngredients = MAPPER.readTree(
+                    client.post("/recipes/batch-get?include=ingredients", "[4, 2]").body().string());
+            assertEquals("lemon rice soup", withIngredients.get(0).get("name").asText());
+            assertEquals(2, withIngredients.get(0).get("ingredients").size());
+            assertEquals("potato", withIngredients.get(1).get("ingredients").get(0).get("name").asText());
+        });
+    }
+
+    @Test
+    void badIdListsAreRefused() {
+        JavalinTest.test(app, (server, client) -> {
+            assertEquals(400, client.get("/recipes?ids=1,two").code());
+            assertEquals(400, client.post("/recipes/batch-get", "{\"ids\": [1]}").code());
+            assertEquals("[]", client.post("/recipes/batch-get", "[]").body().string());
+        });
+    }
+
+    @Test
+    void onlyRecipesMissingFromTheCacheAreRead() {
+        RecipeDAO recipeDao = mock(RecipeDAO.class);
+        Chef chef = new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false);
+        when(recipeDao.getRecipeById(1)).thenReturn(new Recipe(1, "carrot soup", "Put carrot in water.", chef));
+        when(recipeDao.getRecipesByIds(List.of(2)))
+                .thenReturn(Map.of(2, new Recipe(2, "potato soup", "Put potato in water.", chef)));
+        RecipeService recipeService = new RecipeService(recipeDao);
+        recipeService.findRecipe(1);
+
+        List<Recipe> recipes = recipeService.findRecipes(List.of(2, 1));
+
+        verify(recipeDao).getRecipesByIds(List.of(2));
+        assertEquals("potato soup", recipes.get(0).getName());
+        assertEquals("carrot soup", recipes.get(1).getName());
+    }
+}
@@ -28,6 +28,8 @@ import static org.junit.Assert.assertTrue;
 
 import io.javalin.Javalin;
 
+import com.revature.util.DBUtil;
+
 public class RecipePageTest {
     private static WebDriver webDriver;
     private static WebDriverWait wait;
@@ -51,6 +53,7 @@ public class RecipePageTest {
             
             // Start the backend programmatically
             int port = 8081;
+            DBUtil.RUN_SQL(); // Start from the seed data
             app = Main.main(new String[] { String.valueOf(port) });
             
             // 1. Detect browser and driver
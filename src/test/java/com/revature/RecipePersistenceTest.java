@@ -25,6 +25,8 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 
 import io.javalin.Javalin;
 
+import com.revature.util.DBUtil;
+
 public class RecipePersistenceTest {
 
     private static WebDriver driver;
@@ -49,6 +51,7 @@ public class RecipePersistenceTest {
             
             // Start the backend programmatically
             int port = 8081;
+            DBUtil.RUN_SQL(); // Start from the seed data
             app = Main.main(new String[] { String.valueOf(port) });
             
             // Detect browser and driver
@@ -0,0 +1,113 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Recipe;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.Projection;
+import com.revature.utils.TestApp;
+
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+
+class RecipeProjectionTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private RecordingConnectionUtil connectionUtil;
+    private RecipeDAO recipeDao;
+    private Javalin app;
+
+    @BeforeEach
+    void setUp() {
+        connectionUtil = new RecordingConnectionUtil();
+        TestApp fixture = new TestApp(connectionUtil);
+        recipeDao = fixture.recipeDao;
+        app = fixture.app();
+    }
+
+    @Test
+    void onlyTheFieldsAskedForAreReturned() {
+        JavalinTest.test(app, (server, client) -> {
+            JsonNode recipes = MAPPER.readTree(client.get("/recipes?fields=name,id").body().string());
+            assertEquals(5, recipes.size());
+            assertEquals("{\"id\":1,\"name\":\"carrot soup\"}", recipes.get(0).toString());
+
+            JsonNode page = MAPPER.readTree(
+                    client.get("/recipes?fields=author&page=1&pageSize=2&sortBy=name").body().string());
+            assertEquals(3, page.get("totalPages").asInt());
+            assertEquals(1, page.get("items").get(0).size());
+            assertEquals("JoeCool", page.get("items").get(0).get("author").get("username").asText());
+            assertFalse(page.get("items").get(0).get("author").has("password"));
+
+            JsonNode streamed = MAPPER.readTree(client.get("/recipes?fields=name&stream=true&name=soup").body().string());
+            assertEquals("{\"name\":\"stone soup\"}", streamed.get(4).toString());
+
+            JsonNode withIngredients = MAPPER.readTree(client.get("/recipes/4?fields=id,ingredients").body().string());
+            assertEquals(2, withIngredients.get("ingredients").size());
+            assertFalse(withIngredients.has("name"));
+        });
+    }
+
+    @Test
+    void unknownFieldsAreRefused() {
+        JavalinTest.test(app, (server, client) -> {
+            assertEquals(400, client.get("/recipes?fields=id,password").code());
+            assertEquals(400, client.get("/recipes?fields=").code());
+            assertEquals(400, client.get("/recipes/1?fields=email").code());
+        });
+    }
+
+    @Test
+    void theAuthorIsOnlyJoinedWhenAskedFor() {
+        List<Recipe> recipes = recipeDao.searchRecipesByTerm("soup",
+                Projection.parse("id,name", Projection.RECIPE_FIELDS));
+
+        assertEquals(5, recipes.size());
+        assertNull(recipes.get(0).getAuthor());
+        assertNull(recipes.get(0).getInstructions());
+        String sql = connectionUtil.statements.get(connectionUtil.statements.size() - 1);
+        assertTrue(sql.startsWith("SELECT r.id, r.name FROM RECIPE r WHERE"), sql);
+
+        recipeDao.searchRecipesByTerm("soup", Projection.parse("author", Projection.RECIPE_FIELDS));
+        assertTrue(connectionUtil.statements.get(connectionUtil.statements.size() - 1).contains("JOIN CHEF"));
+    }
+
+    /**
+     * Records the SQL of every statement prepared on its connections.
+     */
+    private static class RecordingConnectionUtil extends ConnectionUtil {
+        final List<String> statements = new ArrayList<>();
+
+        @Override
+        public Connection getConnection() {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        if (method.getName().equals("prepareStatement")) {
+                            statements.add((String) args[0]);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
+
+/**
+ * Benchmarks how the number of queries and the latency of listing recipes grow with the number of recipes returned,
+ * and checks that loading and saving recipe ingredients takes a fixed number of round trips.
+ */
+class RecipeQueryScalingTest {
+
+    private CountingConnectionUtil connectionUtil;
+    private RecipeDAO recipeDao;
+
+    @BeforeEach
+    void setUpTestsData() {
+        DBUtil.RUN_SQL();
+        connectionUtil = new CountingConnectionUtil();
+        recipeDao = new RecipeDAO(new ChefDAO(connectionUtil), new IngredientDAO(connectionUtil), connectionUtil);
+    }
+
+    @Test
+    void listingRecipesUsesOneQueryRegardlessOfSize() throws SQLException {
+        int inserted = 0;
+        for (int size : new int[] { 10, 100, 1000 }) {
+            insertRecipes(inserted, size - inserted);
+            inserted = size;
+            // Rows inserted behind the DAO's back are only seen by a new DAO, whose name index is built on first use
+            recipeDao = new RecipeDAO(new ChefDAO(connectionUtil), new IngredientDAO(connectionUtil), connectionUtil);
+            recipeDao.searchRecipesByTerm("bench");
+
+            connectionUtil.reset();
+            long start = System.nanoTime();
+            List<Recipe> recipes = recipeDao.searchRecipesByTerm("bench");
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("recipes=%d connections=%d statements=%d time=%.2fms%n", recipes.size(),
+                    connectionUtil.connections, connectionUtil.statements, elapsed / 1_000_000.0);
+            assertEquals(size, recipes.size());
+            assertEquals(1, connectionUtil.connections, "Listing recipes should use a single connection");
+            assertEquals(1, connectionUtil.statements, "Listing recipes should run a single query");
+            assertTrue(recipes.stream().allMatch(recipe -> recipe.getAuthor() != null), "Authors should be joined in");
+        }
+    }
+
+    @Test
+    void cursorPagesAfterTheFirstAreNotCounted() throws SQLException {
+        insertRecipes(0, 30);
+        Page<Recipe> first = recipeDao.getAllRecipes(new PageOptions(10, "name", "asc", ""));
+        assertEquals(35, first.getTotalElements());
+
+        connectionUtil.reset();
+        Page<Recipe> second = recipeDao.getAllRecipes(new PageOptions(10, "name", "asc", first.getNextCursor()));
+        assertEquals(1, connectionUtil.statements, "A later cursor page should run only the page query");
+        assertEquals(35, second.getTotalElements(), "The total should be carried in the cursor");
+        assertEquals(4, second.getTotalPages());
+        assertEquals(2, second.getPageNumber());
+    }
+
+    @Test
+    void loadingIngredientsUsesOneQueryForAllRecipes() {
+        List<Recipe> recipes = recipeDao.getAllRecipes();
+
+        connectionUtil.reset();
+        recipeDao.loadIngredients(recipes);
+
+        assertEquals(1, connectionUtil.statements, "Ingredients for every recipe should be read in one query");
+        Recipe lemonRiceSoup = recipes.get(3);
+        assertEquals(2, lemonRiceSoup.getIngredients().size());
+        assertEquals("lemon", lemonRiceSoup.getIngredients().get(0).getName());
+        assertEquals("Tbs", lemonRiceSoup.getIngredients().get(0).getUnit());
+        assertEquals("rice", lemonRiceSoup.getIngredients().get(1).getName());
+        assertEquals(2.0, lemonRiceSoup.getIngredients().get(1).getVolume());
+        assertTrue(recipes.get(4).getIngredients().isEmpty(), "Recipes without ingredients get an empty list");
+    }
+
+    @Test
+    void savingIngredientsIsBatchedAndAtomic() {
+        Chef author = new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false);
+        Recipe stew = new Recipe(0, "root stew", "Stew the roots.", author);
+        stew.setIngredients(Arrays.asList(new RecipeIngredient(1, "carrot", 2, "cups"),
+                new RecipeIngredient(2, "potato", 3, "cups"), new RecipeIngredient(5, "rice", 1, "cups")));
+
+        connectionUtil.reset();
+        int id = recipeDao.createRecipe(stew);
+        assertEquals(1, connectionUtil.connections, "The recipe and its ingredients should share one connection");
+        assertEquals(2, connectionUtil.statements, "The ingredients should be inserted as a single batch");
+
+        Recipe saved = recipeDao.getRecipeById(id);
+        recipeDao.loadIngredients(List.of(saved));
+        assertEquals(3, saved.getIngredients().size());
+        assertEquals(3.0, saved.getIngredients().get(1).getVolume());
+
+        saved.setIngredients(List.of(new RecipeIngredient(3, "tomato", 1, "Tbs")));
+        recipeDao.updateRecipe(saved);
+        recipeDao.loadIngredients(List.of(saved));
+        assertEquals(1, saved.getIngredients().size(), "Updating should replace the ingredient list");
+
+        Recipe broken = new Recipe(0, "stone stew", "Stew a stone.", author);
+        broken.setIngredients(Arrays.asList(new RecipeIngredient(6, "stone", 1, "cups"),
+                new RecipeIngredient(999, "missing", 1, "cups")));
+        assertThrows(RuntimeException.class, () -> recipeDao.createRecipe(broken));
+        assertTrue(recipeDao.searchRecipesByTerm("stone stew").isEmpty(),
+                "A recipe should not be saved when one of its ingredients fails");
+    }
+
+    private void insertRecipes(int from, int count) throws SQLException {
+        try (Connection connection = new ConnectionUtil().getConnection();
+                PreparedStatement statement = connection
+                        .prepareStatement("INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, ?, ?)")) {
+            for (int i = from; i < from + count; i++) {
+                statement.setString(1, "bench recipe " + i);
+                statement.setString(2, "Put bench in water.  Boil.");
+                statement.setInt(3, i % 4 + 1);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Counts the connections handed out and the statements prepared on them.
+     */
+    private static class CountingConnectionUtil extends ConnectionUtil {
+        int connections;
+        int statements;
+
+        void reset() {
+            connections = 0;
+            statements = 0;
+        }
+
+        @Override
+        public Connection getConnection() {
+            Connection connection = super.getConnection();
+            connections++;
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        if (method.getName().equals("prepareStatement")
+                                || method.getName().equals("createStatement")) {
+                            statements++;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Ingredient;
+import com.revature.model.Recipe;
+import com.revature.service.IngredientService;
+import com.revature.service.RecipeService;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.Page;
+import com.revature.util.ResultCache;
+
+class SearchCacheTest {
+
+    private ChefDAO chefDao;
+    private RecipeService recipeService;
+    private IngredientService ingredientService;
+
+    @BeforeEach
+    void setUpTestsData() {
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        chefDao = new ChefDAO(connectionUtil);
+        IngredientDAO ingredientDao = new IngredientDAO(connectionUtil);
+        recipeService = new RecipeService(new RecipeDAO(chefDao, ingredientDao, connectionUtil));
+        ingredientService = new IngredientService(ingredientDao);
+    }
+
+    @Test
+    void equivalentSearchesShareAnEntry() {
+        Page<Recipe> first = recipeService.searchRecipes("soup", 1, 2, "name", "desc");
+        Page<Recipe> second = recipeService.searchRecipes("soup", 1, 2, "NAME", "DESC");
+        recipeService.searchRecipes("soup", 2, 2, "name", "desc");
+
+        assertEquals(first, second);
+        assertEquals(1, recipeService.getSearchCacheStats().getHits());
+        assertEquals(2, recipeService.getSearchCacheStats().getMisses());
+    }
+
+    @Test
+    void callersCannotChangeCachedResults() {
+        List<Recipe> recipes = recipeService.searchRecipes("soup");
+        recipes.get(0).setName("scribbled over");
+        recipes.get(0).getAuthor().setUsername("scribbled over");
+
+        Recipe cached = recipeService.searchRecipes("soup").get(0);
+        assertEquals("carrot soup", cached.getName());
+        assertEquals("JoeCool", cached.getAuthor().getUsername());
+    }
+
+    @Test
+    void anyWriteInvalidatesTheResults() {
+        assertEquals(5, recipeService.searchRecipes("soup", 1, 10, "id", "asc").getTotalElements());
+        assertEquals(List.of("tomato"), names(ingredientService.searchIngredients("mat")));
+
+        recipeService.saveRecipe(new Recipe(0, "pea soup", "Simmer.", chefDao.getChefById(1)));
+        assertEquals(6, recipeService.searchRecipes("soup", 1, 10, "id", "asc").getTotalElements());
+
+        // A recipe write also clears the ingredient results: the generation is shared by all tables
+        ingredientService.saveIngredient(new Ingredient("tomatillo"));
+        assertEquals(List.of("tomato", "tomatillo"), names(ingredientService.searchIngredients("mat")));
+        assertEquals(0, ingredientService.getSearchCacheStats().getHits());
+    }
+
+    @Test
+    void resultsExpireAndStayWithinTheirWeight() {
+        ResultCache<String, String> expiring = new ResultCache<>(1_000, 0, TimeUnit.SECONDS, String::length,
+                value -> value);
+        expiring.get("key", () -> "value");
+        expiring.get("key", () -> "value");
+        assertEquals(0, expiring.getStats().getHits());
+
+        ResultCache<String, String> small = new ResultCache<>(10, 1, TimeUnit.MINUTES, String::length,
+                value -> value);
+        small.get("a", () -> "aaaa");
+        small.get("b", () -> "bbbb");
+        small.get("a", () -> "aaaa");
+        small.get("c", () -> "cccc");
+        small.get("d", () -> "ddddddddddddddd");
+
+        assertEquals(8, small.getStats().getWeight());
+        assertEquals(1, small.getStats().getEvictions(), "The least recently used result should have gone");
+        assertEquals("aaaa", small.get("a", () -> "missed"));
+        assertEquals("missed", small.get("b", () -> "missed"));
+    }
+
+    private static List<String> names(List<Ingredient> ingredients) {
+        return ingredients.stream().map(Ingredient::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,127 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.revature.model.Recipe;
+import com.revature.service.RecipeService;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.Projection;
+import com.revature.util.UnitOfWork;
+import com.revature.utils.TestApp;
+
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+
+class StreamingResponseTest {
+
+    private Javalin app;
+
+    @BeforeEach
+    void setUp() {
+        app = new TestApp().app();
+    }
+
+    @Test
+    void streamedResponsesMatchBufferedOnes() {
+        JavalinTest.test(app, (server, client) -> {
+            for (String query : new String[] { "", "&name=soup", "&include=ingredients" }) {
+                assertEquals(client.get("/recipes?x=1" + query).body().string(),
+                        client.get("/recipes?stream=true" + query).body().string(), query);
+            }
+            assertEquals(client.get("/ingredients?term=to").body().string(),
+                    client.get("/ingredients?stream=true&term=to").body().string());
+        });
+    }
+
+    @Test
+    void streamingNothingGivesAnEmptyArray() {
+        JavalinTest.test(app, (server, client) -> {
+            assertEquals(404, client.get("/recipes?name=saffron").code());
+            assertEquals(200, client.get("/recipes?stream=true&name=saffron").code());
+            assertEquals("[]", client.get("/recipes?stream=true&name=saffron").body().string());
+        });
+    }
+
+    @Test
+    void ingredientsAreLoadedForEveryBatch() throws Exception {
+        try (Connection connection = new ConnectionUtil().getConnection();
+                PreparedStatement recipes = connection
+                        .prepareStatement("INSERT INTO RECIPE (name, instructions, chef_id) VALUES (?, ?, 1)");
+                PreparedStatement ingredients = connection.prepareStatement(
+                        "INSERT INTO RECIPE_INGREDIENT (recipe_id, ingredient_id, vol, unit)"
+                                + " SELECT id, 1, 1, 'cups' FROM RECIPE WHERE name LIKE 'batch %'")) {
+            for (int i = 0; i < 1_200; i++) {
+                recipes.setString(1, "batch " + i);
+                recipes.setString(2, "Stir.");
+                recipes.addBatch();
+            }
+            recipes.executeBatch();
+            ingredients.executeUpdate();
+        }
+
+        JavalinTest.test(app, (server, client) -> {
+            assertEquals(client.get("/recipes?include=ingredients").body().string(),
+                    client.get("/recipes?stream=true&include=ingredients").body().string());
+        });
+    }
+
+    @Test
+    void queriesAfterAStreamAreNotLazy() {
+        JavalinTest.test(app, (server, client) -> {
+            assertEquals(client.get("/recipes?include=ingredients").body().string(),
+                    client.get("/recipes?stream=true&include=ingredients").body().string());
+            assertEquals(client.get("/recipes/1").body().string(), client.get("/recipes/1").body().string(),
+                    "Queries after a stream should not be lazy");
+        });
+    }
+
+    @Test
+    void streamsDoNotHoldTheRequestTransaction() {
+        AtomicReference<UnitOfWork> during = new AtomicReference<>();
+        TestApp watched = new TestApp();
+        watched.recipeService = new RecipeService(watched.recipeDao) {
+            @Override
+            public void forEachRecipe(String term, Projection fields, Consumer<Recipe> action) {
+                during.set(UnitOfWork.current());
+                super.forEachRecipe(term, fields, action);
+            }
+        };
+
+        JavalinTest.test(watched.app(), (server, client) -> {
+            assertEquals(client.get("/recipes").body().string(), client.get("/recipes?stream=true").body().string());
+            assertNull(during.get(), "A stream should not run inside the request's unit of work");
+        });
+    }
+
+    @Test
+    void aFailedStreamIsNotValidJson() {
+        TestApp failing = new TestApp();
+        failing.recipeService = new RecipeService(failing.recipeDao) {
+            @Override
+            public void forEachRecipe(String term, Projection fields, Consumer<Recipe> action) {
+                action.accept(new Recipe(1, "carrot soup", "Boil.", null));
+                throw new RuntimeException("The database went away");
+            }
+        };
+
+        JavalinTest.test(failing.app(), (server, client) -> {
+            String body = client.get("/recipes?stream=true").body().string();
+            assertTrue(body.startsWith("["), body);
+            assertThrows(JsonProcessingException.class, () -> new ObjectMapper().readTree(body),
+                    "A truncated stream must not parse as a complete array");
+        });
+    }
+}
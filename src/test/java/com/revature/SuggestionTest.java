@@ -0,0 +1,106 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.dao.SuggestionDAO;
+import com.revature.model.Ingredient;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.model.Suggestion;
+import com.revature.service.SuggestionService;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.SuggestionTrie;
+
+class SuggestionTest {
+
+    private ConnectionUtil connectionUtil;
+    private SuggestionService suggestionService;
+
+    @BeforeEach
+    void setUpTestsData() {
+        DBUtil.RUN_SQL();
+        connectionUtil = new ConnectionUtil();
+        suggestionService = new SuggestionService(new SuggestionDAO(connectionUtil));
+    }
+
+    @Test
+    void trieCompletesNamesAndWordsByWeight() {
+        SuggestionTrie trie = new SuggestionTrie(List.of(new Suggestion("carrot soup", "recipe", 1),
+                new Suggestion("Carrot", "ingredient", 3), new Suggestion("Crème brûlée", "recipe", 2),
+                new Suggestion("cream", "ingredient", 1), new Suggestion("carrot  SOUP", "recipe", 1),
+                new Suggestion("lemon rice soup", "recipe", 1)), 10);
+
+        assertEquals(List.of("Carrot", "carrot soup", "Crème brûlée", "cream"), names(trie.complete("c", 10)));
+        assertEquals(2, trie.complete("car", 10).get(1).getWeight(), "Names folding to the same text are merged");
+        assertEquals(List.of("Crème brûlée", "cream"), names(trie.complete("CRE", 10)));
+        assertEquals(List.of("carrot soup", "lemon rice soup"), names(trie.complete("sou", 10)));
+        assertEquals(List.of("lemon rice soup"), names(trie.complete("lemon  r", 10)));
+        assertEquals(List.of("carrot soup"), names(trie.complete("carrot ", 10)));
+        assertEquals(List.of("Carrot"), names(trie.complete("c", 1)));
+        assertTrue(trie.complete("soup x", 10).isEmpty());
+        assertTrue(trie.complete("", 10).isEmpty());
+        assertEquals(5, trie.size());
+    }
+
+    @Test
+    void trieKeepsOnlyTheBestCompletionsOfLargeSets() {
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            suggestions.add(new Suggestion("stew " + i, "recipe", i % 100));
+        }
+        SuggestionTrie trie = new SuggestionTrie(suggestions, 5);
+
+        List<Suggestion> best = trie.complete("stew", 10);
+        assertEquals(5, best.size(), "No more than the trie's maximum is returned");
+        assertEquals(List.of("stew 99", "stew 199", "stew 299", "stew 399", "stew 499"), names(best));
+        assertEquals(List.of("stew 4299"), names(trie.complete("stew 4299", 5)));
+    }
+
+    @Test
+    void suggestionsAreWeightedByPopularity() {
+        List<Suggestion> ingredients = suggestionService.suggest("r", "ingredient", 10);
+        assertEquals(List.of("rice"), names(ingredients));
+        assertTrue(ingredients.get(0).getWeight() > 1, "Ingredients used by recipes weigh more");
+
+        assertEquals(List.of("carrot soup"), names(suggestionService.suggest("carr", "recipe", 10)));
+        assertEquals(List.of("carrot", "carrot soup"), names(suggestionService.suggest("CARR", null, 10)),
+                "Both kinds of names are suggested when no type is given");
+        assertEquals(5, suggestionService.suggest("soup", "recipe", 10).size());
+        assertThrows(IllegalArgumentException.class, () -> suggestionService.suggest("c", "chef", 10));
+    }
+
+    @Test
+    void writesAreSuggestedOnceRebuilt() {
+        ChefDAO chefDao = new ChefDAO(connectionUtil);
+        IngredientDAO ingredientDao = new IngredientDAO(connectionUtil);
+        RecipeDAO recipeDao = new RecipeDAO(chefDao, ingredientDao, connectionUtil);
+        assertTrue(suggestionService.suggest("gazp", null, 10).isEmpty());
+
+        Ingredient cucumber = new Ingredient("cucumber");
+        cucumber.setId(ingredientDao.createIngredient(cucumber));
+        Recipe gazpacho = new Recipe(0, "gazpacho", "Blend and chill.", chefDao.getChefById(1));
+        gazpacho.setIngredients(List.of(new RecipeIngredient(cucumber, 2, "cups")));
+        recipeDao.createRecipe(gazpacho);
+
+        suggestionService.refresh();
+        assertEquals(List.of("gazpacho"), names(suggestionService.suggest("gazp", null, 10)));
+        assertEquals(2, suggestionService.suggest("cuc", "ingredient", 10).get(0).getWeight());
+    }
+
+    private static List<String> names(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::getName).collect(Collectors.toList());
+    }
+}
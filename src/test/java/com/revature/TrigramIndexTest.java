@@ -0,0 +1,132 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.model.Ingredient;
+import com.revature.model.Recipe;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.PageOptions;
+import com.revature.util.TrigramIndex;
+
+class TrigramIndexTest {
+
+    private static final String[] TERMS = { "soup", "Soup", "SOUP", "rice", "ot", "o", "", "carrot soup", "arro",
+            "o%p", "s_up", "zzz", "Joe", "joe", "Cool", "tomato", "mato", "lemon rice" };
+
+    private ConnectionUtil connectionUtil;
+    private ChefDAO chefDao;
+    private IngredientDAO ingredientDao;
+    private RecipeDAO recipeDao;
+
+    @BeforeEach
+    void setUpTestsData() {
+        DBUtil.RUN_SQL();
+        connectionUtil = new ConnectionUtil();
+        chefDao = new ChefDAO(connectionUtil);
+        ingredientDao = new IngredientDAO(connectionUtil);
+        recipeDao = new RecipeDAO(chefDao, ingredientDao, connectionUtil);
+    }
+
+    @Test
+    void candidatesNarrowDownAndIgnoreCase() {
+        TrigramIndex index = new TrigramIndex("RECIPE", "name");
+
+        assertArrayEquals(new int[] { 1, 2, 3, 4, 5 }, index.candidates("SOUP", connectionUtil));
+        assertArrayEquals(new int[] { 1 }, index.candidates("carrot soup", connectionUtil));
+        assertArrayEquals(new int[] { 4 }, index.candidates("Rice", connectionUtil));
+        assertArrayEquals(new int[0], index.candidates("pebble", connectionUtil));
+        assertNull(index.candidates("so", connectionUtil), "Terms shorter than a trigram are left to the database");
+        assertNull(index.candidates("s%p", connectionUtil), "Terms with wildcards are left to the database");
+    }
+
+    @Test
+    void indexIsKeptUpToDateByWrites() {
+        TrigramIndex index = new TrigramIndex("RECIPE", "name");
+        index.put(99, "granite soup");
+        assertEquals(0, index.size(), "Nothing is indexed before the index is built");
+
+        assertArrayEquals(new int[0], index.candidates("granite", connectionUtil));
+        assertEquals(5, index.size());
+        index.put(99, "granite soup");
+        assertArrayEquals(new int[] { 99 }, index.candidates("granite", connectionUtil));
+        index.put(99, "pebble soup");
+        assertArrayEquals(new int[0], index.candidates("granite", connectionUtil));
+        index.remove(99);
+        assertArrayEquals(new int[0], index.candidates("pebble", connectionUtil));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void searchesMatchLike() throws SQLException {
+        assertSameAsLike();
+
+        Chef chef = chefDao.getChefById(1);
+        Recipe recipe = new Recipe(0, "Stone SOUP", "Boil a stone.", chef);
+        recipe.setId(recipeDao.createRecipe(recipe));
+        Ingredient ingredient = new Ingredient("soup bone");
+        ingredient.setId(ingredientDao.createIngredient(ingredient));
+        ingredient.setName("marrow bone");
+        ingredientDao.updateIngredient(ingredient);
+        chef.setUsername("SoupJoe");
+        chefDao.updateChef(chef);
+        Chef newChef = new Chef("ricemaster", "rice@example.com", "pass", false);
+        newChef.setId(chefDao.createChef(newChef));
+        assertSameAsLike();
+
+        recipeDao.deleteRecipe(recipe);
+        ingredientDao.deleteIngredient(ingredient);
+        chefDao.deleteChef(newChef);
+        assertSameAsLike();
+    }
+
+    private void assertSameAsLike() throws SQLException {
+        for (String term : TERMS) {
+            assertEquals(like("RECIPE", "name", term), ids(recipeDao.searchRecipesByTerm(term)), term);
+            assertEquals(like("RECIPE", "name", term),
+                    ids(recipeDao.searchRecipesByTerm(term, new PageOptions(1, 100)).getItems()), term);
+            assertEquals(like("INGREDIENT", "NAME", term), ingredientDao.searchIngredients(term).stream()
+                    .map(Ingredient::getId).collect(Collectors.toList()), term);
+            assertEquals(like("CHEF", "username", term), chefDao.searchChefsByTerm(term).stream()
+                    .map(Chef::getId).collect(Collectors.toList()), term);
+            assertEquals(like("CHEF", "username", term), chefDao.searchChefsByTerm(term, new PageOptions(1, 100))
+                    .getItems().stream().map(Chef::getId).collect(Collectors.toList()), term);
+        }
+    }
+
+    private List<Integer> like(String table, String column, String term) throws SQLException {
+        String sql = "SELECT id FROM " + table + " WHERE " + column + " LIKE ? ORDER BY id";
+        try (Connection connection = connectionUtil.getConnection();
+                PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, "%" + term + "%");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<Integer> ids = new ArrayList<>();
+                while (resultSet.next()) {
+                    ids.add(resultSet.getInt(1));
+                }
+                return ids;
+            }
+        }
+    }
+
+    private static List<Integer> ids(List<Recipe> recipes) {
+        return recipes.stream().map(Recipe::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,115 @@
+package com.revature;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Ingredient;
+import com.revature.model.Recipe;
+import com.revature.service.RecipeService;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.UnitOfWork;
+
+class UnitOfWorkTest {
+
+    private ChefDAO chefDao;
+    private IngredientDAO ingredientDao;
+    private RecipeDAO recipeDao;
+
+    @BeforeEach
+    void setUpTestsData() {
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        chefDao = new ChefDAO(connectionUtil);
+        ingredientDao = new IngredientDAO(connectionUtil);
+        recipeDao = new RecipeDAO(chefDao, ingredientDao, connectionUtil);
+    }
+
+    @AfterEach
+    void endUnitOfWork() {
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        if (unitOfWork != null) {
+            unitOfWork.close();
+        }
+    }
+
+    @Test
+    void updatingARecipeBorrowsOneConnection() {
+        RecipeService recipeService = new RecipeService(recipeDao);
+        long acquiredBefore = ConnectionUtil.getPool().getStats().getAcquired();
+
+        UnitOfWork unitOfWork = UnitOfWork.begin(ConnectionUtil.getPool());
+        Recipe existing = recipeService.findRecipe(1).get();
+        Recipe update = new Recipe(1, existing.getName(), "new instructions", existing.getAuthor());
+        recipeService.saveRecipe(update);
+        unitOfWork.end(true);
+
+        assertEquals(acquiredBefore + 1, ConnectionUtil.getPool().getStats().getAcquired(),
+                "The whole update should run on one connection");
+        assertEquals("new instructions", recipeDao.getRecipeById(1).getInstructions());
+    }
+
+    @Test
+    void entitiesAreLoadedOncePerUnitOfWork() {
+        UnitOfWork.begin(ConnectionUtil.getPool());
+        Recipe recipe = recipeDao.getRecipeById(1);
+
+        assertSame(recipe, recipeDao.getRecipeById(1));
+        assertEquals("JoeCool", recipe.getAuthor().getUsername());
+        assertNotNull(chefDao.getChefById(recipe.getAuthor().getId()).getPassword(),
+                "The password-less author joined into a recipe should not stand in for the chef found by id");
+        assertSame(ingredientDao.getIngredientById(1), ingredientDao.getIngredientById(1));
+    }
+
+    @Test
+    void workIsRolledBackUnlessCommitted() {
+        UnitOfWork unitOfWork = UnitOfWork.begin(ConnectionUtil.getPool());
+        int id = ingredientDao.createIngredient(new Ingredient("saffron"));
+        assertNotNull(ingredientDao.getIngredientById(id), "Work should be visible inside the unit of work");
+        unitOfWork.end(false);
+
+        assertNull(UnitOfWork.current());
+        assertNull(ingredientDao.getIngredientById(id));
+    }
+
+    @Test
+    void failedDaoTransactionOnlyRollsBackItsOwnWork() {
+        UnitOfWork unitOfWork = UnitOfWork.begin(ConnectionUtil.getPool());
+        Ingredient saffron = new Ingredient("saffron");
+        saffron.setId(ingredientDao.createIngredient(saffron));
+        Ingredient missing = new Ingredient(-1, "missing");
+        assertThrows(RuntimeException.class, () -> ingredientDao.deleteIngredient(missing));
+        unitOfWork.end(true);
+
+        assertEquals("saffron", ingredientDao.getIngredientById(saffron.getId()).getName());
+    }
+
+    @Test
+    void failingAfterCommitActionDoesNotSkipTheRest() {
+        UnitOfWork unitOfWork = UnitOfWork.begin(ConnectionUtil.getPool());
+        int id = ingredientDao.createIngredient(new Ingredient("saffron"));
+        AtomicBoolean ran = new AtomicBoolean();
+        UnitOfWork.afterCommit(() -> {
+            throw new IllegalStateException("index unavailable");
+        });
+        UnitOfWork.afterCommit(() -> ran.set(true));
+        unitOfWork.end(true);
+
+        assertTrue(ran.get(), "Actions after a failing one should still run");
+        assertNotNull(ingredientDao.getIngredientById(id), "The work should stay committed");
+    }
+}
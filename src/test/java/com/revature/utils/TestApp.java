@@ -0,0 +1,77 @@
+package com.revature.utils;
+
+import com.revature.controller.AuthenticationController;
+import com.revature.controller.IngredientController;
+import com.revature.controller.RecipeController;
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.model.Chef;
+import com.revature.service.AuthenticationService;
+import com.revature.service.ChefService;
+import com.revature.service.IngredientService;
+import com.revature.service.RecipeService;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.JavalinAppUtil;
+
+import io.javalin.Javalin;
+
+/**
+ * Resets the database to the seed data and wires the DAOs, services and controllers the way Main does, so tests
+ * exercise the app as it is served: through JavalinAppUtil, with its unit of work handlers and middleware.
+ *
+ * A test may replace a service before asking for the app, to make it fail or record what it is asked.
+ */
+public class TestApp {
+
+    public final ConnectionUtil connectionUtil;
+    public final ChefDAO chefDao;
+    public final IngredientDAO ingredientDao;
+    public final RecipeDAO recipeDao;
+    public final ChefService chefService;
+    public final AuthenticationService authService;
+    public IngredientService ingredientService;
+    public RecipeService recipeService;
+
+    private Javalin app;
+
+    public TestApp() {
+        this(new ConnectionUtil());
+    }
+
+    public TestApp(ConnectionUtil connectionUtil) {
+        DBUtil.RUN_SQL();
+        this.connectionUtil = connectionUtil;
+        chefDao = new ChefDAO(connectionUtil);
+        ingredientDao = new IngredientDAO(connectionUtil);
+        recipeDao = new RecipeDAO(chefDao, ingredientDao, connectionUtil);
+        chefService = new ChefService(chefDao);
+        authService = new AuthenticationService(chefService);
+        ingredientService = new IngredientService(ingredientDao);
+        recipeService = new RecipeService(recipeDao);
+    }
+
+    /**
+     * Returns the app, building it from the current services the first time. Building it clears the logged in
+     * users, so log in afterwards.
+     */
+    public Javalin app() {
+        if (app == null) {
+            app = new JavalinAppUtil(new RecipeController(recipeService, authService),
+                    new AuthenticationController(chefService, authService),
+                    new IngredientController(ingredientService)).getApp();
+        }
+        return app;
+    }
+
+    /**
+     * Logs a chef in and returns their session token, or null if the credentials are wrong.
+     */
+    public String login(String username, String password) {
+        Chef chef = new Chef();
+        chef.setUsername(username);
+        chef.setPassword(password);
+        return authService.login(chef);
+    }
+}